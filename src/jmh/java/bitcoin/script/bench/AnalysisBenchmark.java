@@ -0,0 +1,64 @@
+package bitcoin.script.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import bitcoin.script.core.CompiledScript;
+import bitcoin.script.core.ScriptValidator;
+import bitcoin.script.model.Script;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * P2PKH on the generic interpreter, with and without static analysis:
+ * {@code valid} is a correct spend, {@code underflow} a scriptSig missing
+ * its signature, which the interpreter only notices at {@code OP_CHECKSIG}
+ * after hashing the key.  {@code OP_EQUALVERIFY} could fail before that, so
+ * the analysis does not reject it on entry; both cases measure the cost of
+ * consulting the analysis.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalysisBenchmark {
+
+    @Param({"false", "true"})
+    boolean analysis;
+
+    private ScriptValidator validator;
+    private CompiledScript scriptPubKey;
+    private CompiledScript validSig;
+    private CompiledScript shortSig;
+
+    @Setup
+    public void load() {
+        validator    = ScriptValidator.builder().templateFastPaths(false).staticAnalysis(analysis).build();
+        scriptPubKey = validator.compile(Script.parse(ScriptTemplates.scriptPubKey(ScriptTemplates.P2PKH)));
+        validSig     = validator.compile(Script.parse(ScriptTemplates.scriptSig(ScriptTemplates.P2PKH)));
+        shortSig     = validator.compile(Script.parse("PUBKEY_ABC"));
+        if (!validator.validate(validSig, scriptPubKey) || validator.validate(shortSig, scriptPubKey)) {
+            throw new IllegalStateException("Unexpected P2PKH results");
+        }
+    }
+
+    @Benchmark
+    public boolean valid() {
+        return validator.validate(validSig, scriptPubKey);
+    }
+
+    @Benchmark
+    public boolean underflow() {
+        return validator.validate(shortSig, scriptPubKey);
+    }
+}
@@ -0,0 +1,60 @@
+package bitcoin.script.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import bitcoin.script.core.CompiledScript;
+import bitcoin.script.core.ScriptValidator;
+import bitcoin.script.model.Script;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Arithmetic on tagged stack numbers: {@code counter} increments a counter
+ * 100 times and compares it, {@code timelock} checks a data-pushed lock time
+ * against a window with {@code OP_WITHIN}.  Run with {@code -prof gc} to see
+ * that neither allocates per arithmetic opcode.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArithmeticBenchmark {
+
+    private ScriptValidator validator;
+    private CompiledScript empty;
+    private CompiledScript counter;
+    private CompiledScript lockTime;
+    private CompiledScript timelock;
+
+    @Setup
+    public void load() {
+        validator = new ScriptValidator(false);
+        empty     = validator.compile(Script.parse(""));
+        counter   = validator.compile(Script.parse("OP_0 " + "OP_1ADD ".repeat(100) + "100 OP_NUMEQUAL"));
+        lockTime  = validator.compile(Script.parse("650000"));
+        timelock  = validator.compile(Script.parse("600000 700000 OP_WITHIN"));
+        if (!validator.validate(empty, counter) || !validator.validate(lockTime, timelock)) {
+            throw new IllegalStateException("Arithmetic scripts do not validate");
+        }
+    }
+
+    @Benchmark
+    public boolean counter() {
+        return validator.validate(empty, counter);
+    }
+
+    @Benchmark
+    public boolean timelock() {
+        return validator.validate(lockTime, timelock);
+    }
+}
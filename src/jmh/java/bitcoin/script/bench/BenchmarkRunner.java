@@ -0,0 +1,36 @@
+package bitcoin.script.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the parse / interpret / validate baseline with the GC profiler attached,
+ * so every result reports allocation rate ({@code gc.alloc.rate.norm}) next to
+ * throughput, and writes the results to {@code target/jmh-baseline.json}.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar bitcoin.script.bench.BenchmarkRunner [regex]
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0
+                ? args[0]
+                : "(Parse|Interpret|Validate)Benchmark";
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-baseline.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,91 @@
+package bitcoin.script.bench;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+import bitcoin.script.core.CompiledScript;
+import bitcoin.script.core.ScriptValidator;
+import bitcoin.script.crypto.CryptoMock;
+import bitcoin.script.crypto.CryptoProvider;
+import bitcoin.script.crypto.Hash160Crypto;
+import bitcoin.script.crypto.MemoizingCryptoProvider;
+import bitcoin.script.model.Script;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * HASH160 cost per provider: the string-prefix mock, the real
+ * SHA-256 + RIPEMD-160 hash, and the real hash behind the memoizing wrapper
+ * (which only pays for the first occurrence of a public key).
+ *
+ * <p>{@code validateP2pkh} runs a compiled P2PKH spend whose key hash matches
+ * the selected provider, so the hash cost is seen in context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CryptoBenchmark {
+
+    private static final String PUBKEY_HEX =
+            "0279be667ef9dcbbac55a06295ce870b07029bfcdb2dce28d959f2815b16f81798";
+
+    @Param({"mock", "real", "memoized"})
+    String provider;
+
+    private CryptoProvider crypto;
+    private byte[] pubKey;
+    private ScriptValidator validator;
+    private CompiledScript scriptSig;
+    private CompiledScript scriptPubKey;
+
+    @Setup
+    public void setUp() {
+        switch (provider) {
+            case "mock":
+                crypto = new CryptoMock();
+                break;
+            case "real":
+                crypto = new Hash160Crypto();
+                break;
+            default:
+                crypto = new MemoizingCryptoProvider(new Hash160Crypto(), 1024);
+                break;
+        }
+        String keyToken = "mock".equals(provider) ? "PUBKEY_ABC" : "0x" + PUBKEY_HEX;
+        pubKey = "mock".equals(provider)
+                ? keyToken.getBytes(StandardCharsets.UTF_8)
+                : HexFormat.of().parseHex(PUBKEY_HEX);
+        byte[] keyHash = crypto.hash160(pubKey);
+        String hashToken = "mock".equals(provider)
+                ? new String(keyHash, StandardCharsets.UTF_8)
+                : "0x" + HexFormat.of().formatHex(keyHash);
+
+        validator    = new ScriptValidator(false, crypto);
+        scriptSig    = validator.compile(Script.parse("SIG_OK " + keyToken));
+        scriptPubKey = validator.compile(Script.parse(
+                "OP_DUP OP_HASH160 " + hashToken + " OP_EQUALVERIFY OP_CHECKSIG"));
+    }
+
+    @Benchmark
+    public byte[] hash160() {
+        return crypto.hash160(pubKey);
+    }
+
+    @Benchmark
+    public boolean validateP2pkh() {
+        return validator.validate(scriptSig, scriptPubKey);
+    }
+}
@@ -0,0 +1,74 @@
+package bitcoin.script.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import bitcoin.script.core.CompiledScript;
+import bitcoin.script.core.InterpreterContext;
+import bitcoin.script.core.RingBufferRecorder;
+import bitcoin.script.core.ScriptInterpreter;
+import bitcoin.script.core.Stack;
+import bitcoin.script.model.Script;
+import bitcoin.script.ops.OperationFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ScriptInterpreter#execute} alone: scripts are compiled once and the
+ * context is reset between runs, so neither parsing nor setup is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterpretBenchmark {
+
+    @Param({ScriptTemplates.P2PKH, ScriptTemplates.MULTISIG_2_3,
+            ScriptTemplates.MULTISIG_15, ScriptTemplates.NESTED_IF})
+    String template;
+
+    private CompiledScript scriptSig;
+    private CompiledScript scriptPubKey;
+    private InterpreterContext ctx;
+    private ScriptInterpreter interpreter;
+    private InterpreterContext recordedCtx;
+    private ScriptInterpreter recordedInterpreter;
+
+    @Setup
+    public void compile() {
+        OperationFactory factory = OperationFactory.standard();
+        scriptSig    = CompiledScript.compile(Script.parse(ScriptTemplates.scriptSig(template)), factory);
+        scriptPubKey = CompiledScript.compile(Script.parse(ScriptTemplates.scriptPubKey(template)), factory);
+        ctx          = new InterpreterContext(new Stack(), factory, false);
+        interpreter  = new ScriptInterpreter(ctx);
+        recordedCtx         = new InterpreterContext(new Stack(), factory, new RingBufferRecorder(1024));
+        recordedInterpreter = new ScriptInterpreter(recordedCtx);
+    }
+
+    @Benchmark
+    public boolean execute() {
+        ctx.reset();
+        interpreter.execute(scriptSig);
+        interpreter.execute(scriptPubKey);
+        return ctx.getStack().isTopTruthy();
+    }
+
+    /** Same run with an always-on {@link RingBufferRecorder} attached. */
+    @Benchmark
+    public boolean executeRecorded() {
+        recordedCtx.reset();
+        recordedInterpreter.execute(scriptSig);
+        recordedInterpreter.execute(scriptPubKey);
+        return recordedCtx.getStack().isTopTruthy();
+    }
+}
@@ -0,0 +1,160 @@
+package bitcoin.script.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import bitcoin.script.core.CompiledScript;
+import bitcoin.script.core.InterpreterContext;
+import bitcoin.script.core.ScriptException;
+import bitcoin.script.core.ScriptValidator;
+import bitcoin.script.core.Stack;
+import bitcoin.script.crypto.KeyedCryptoMock;
+import bitcoin.script.crypto.CryptoProvider;
+import bitcoin.script.model.Script;
+import bitcoin.script.ops.Operation;
+import bitcoin.script.ops.OperationFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 15-of-15 {@code OP_CHECKMULTISIG}: the ordered single-pass matcher against
+ * the original nested loop (kept below as {@code LegacyCheckMultiSig}).
+ *
+ * <p>Signature {@code SIG_i} is valid only for {@code PUBKEY_i}, and every
+ * check is counted; the {@code checks} and {@code calls} aux counters give the
+ * signature checks made per opcode execution.  Scenarios:
+ * <ul>
+ *   <li>{@code valid}     – all signatures valid, in key order</li>
+ *   <li>{@code firstBad}  – the first signature checked is invalid</li>
+ *   <li>{@code allBad}    – no signature is valid (225 legacy checks)</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultisigBenchmark {
+
+    private static final int KEYS = 15;
+
+    @Param({"valid", "firstBad", "allBad"})
+    String scenario;
+
+    private final KeyedCryptoMock crypto = new KeyedCryptoMock();
+    private ScriptValidator ordered;
+    private ScriptValidator legacy;
+    private Script scriptSig;
+    private Script scriptPubKey;
+    private CompiledScript orderedSig;
+    private CompiledScript orderedPubKey;
+    private CompiledScript legacySig;
+    private CompiledScript legacyPubKey;
+
+    /** Signature checks and opcode executions, reported per iteration. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Checks {
+        public long checks;
+        public long calls;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            checks = 0;
+            calls  = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void compile() {
+        StringBuilder sigs = new StringBuilder("OP_0");
+        StringBuilder keys = new StringBuilder("OP_15");
+        for (int i = 1; i <= KEYS; i++) {
+            boolean bad = "allBad".equals(scenario) || ("firstBad".equals(scenario) && i == KEYS);
+            sigs.append(bad ? " SIG_BAD" : " SIG_" + i);
+            keys.append(" PUBKEY_").append(i);
+        }
+        scriptSig    = Script.parse(sigs.toString());
+        scriptPubKey = Script.parse(keys + " OP_15 OP_CHECKMULTISIG");
+
+        ordered = new ScriptValidator(false, crypto);
+        legacy  = new ScriptValidator(false, OperationFactory.builder()
+                .registerStandard(crypto)
+                .register("OP_CHECKMULTISIG", new LegacyCheckMultiSig(crypto))
+                .build());
+        orderedSig    = ordered.compile(scriptSig);
+        orderedPubKey = ordered.compile(scriptPubKey);
+        legacySig     = legacy.compile(scriptSig);
+        legacyPubKey  = legacy.compile(scriptPubKey);
+    }
+
+    @Benchmark
+    public boolean orderedSinglePass(Checks counters) {
+        long before = crypto.getChecks();
+        boolean valid = ordered.validate(orderedSig, orderedPubKey);
+        counters.checks += crypto.getChecks() - before;
+        counters.calls++;
+        return valid;
+    }
+
+    @Benchmark
+    public boolean legacyNestedLoop(Checks counters) {
+        long before = crypto.getChecks();
+        boolean valid = legacy.validate(legacySig, legacyPubKey);
+        counters.checks += crypto.getChecks() - before;
+        counters.calls++;
+        return valid;
+    }
+
+    // Copy of the original O(M×N) implementation, kept only as a baseline.
+    private static final class LegacyCheckMultiSig implements Operation {
+        private final CryptoProvider crypto;
+
+        LegacyCheckMultiSig(CryptoProvider crypto) {
+            this.crypto = crypto;
+        }
+
+        @Override
+        public void apply(InterpreterContext ctx) {
+            Stack stack = ctx.getStack();
+            int n = Integer.parseInt(stack.pop());
+            List<byte[]> pubKeys = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                pubKeys.add(stack.popBytes());
+            }
+            int m = Integer.parseInt(stack.pop());
+            List<byte[]> sigs = new ArrayList<>(m);
+            for (int i = 0; i < m; i++) {
+                sigs.add(stack.popBytes());
+            }
+            if (stack.isEmpty()) {
+                throw new ScriptException("dummy");
+            }
+            stack.drop(1);
+
+            int validCount = 0;
+            for (byte[] sig : sigs) {
+                for (byte[] pubKey : pubKeys) {
+                    if (crypto.checkSig(sig, pubKey)) {
+                        validCount++;
+                        break;
+                    }
+                }
+            }
+            stack.pushBoolean(validCount >= m);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package bitcoin.script.bench;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+import bitcoin.script.core.CompiledScript;
+import bitcoin.script.core.InterpreterContext;
+import bitcoin.script.core.ScriptInterpreter;
+import bitcoin.script.core.Stack;
+import bitcoin.script.model.Script;
+import bitcoin.script.ops.OperationFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Condition-state tracking for deeply nested {@code OP_IF} scripts.
+ *
+ * <p>{@code legacyDeque*} reproduces the original {@code Deque<Boolean>}
+ * representation (linear {@code shouldExecute}, boxed pushes) so it can be
+ * compared side by side with the counter-based {@link InterpreterContext}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NestedIfBenchmark {
+
+    @Param({"100"})
+    int depth;
+
+    private CompiledScript program;
+    private OperationFactory factory;
+    private InterpreterContext conditions;
+    private DequeConditionState legacyConditions;
+
+    @Setup(Level.Trial)
+    public void compile() {
+        factory = OperationFactory.standard();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < depth; i++) text.append("OP_1 ");
+        for (int i = 0; i < depth; i++) text.append("OP_IF ");
+        text.append("OP_1 ");
+        for (int i = 0; i < depth; i++) text.append("OP_ENDIF ");
+        program = CompiledScript.compile(Script.parse(text.toString()), factory);
+
+        // Both condition-state workloads below are balanced, so one instance each suffices.
+        conditions       = new InterpreterContext(new Stack(), factory, false);
+        legacyConditions = new DequeConditionState();
+    }
+
+    /** Full interpreter run of the {@code depth}-level nested script. */
+    @Benchmark
+    public int interpretNestedIf() {
+        InterpreterContext ctx = new InterpreterContext(new Stack(), factory, false);
+        new ScriptInterpreter(ctx).execute(program);
+        return ctx.getStack().size();
+    }
+
+    /** Counter-based condition state: open, query on every step, close. */
+    @Benchmark
+    public void counterConditionState(Blackhole bh) {
+        InterpreterContext state = conditions;
+        for (int i = 0; i < depth; i++) {
+            state.pushExecution(true);
+            bh.consume(state.shouldExecute());
+        }
+        for (int i = 0; i < depth; i++) {
+            bh.consume(state.shouldExecute());
+            state.popExecution();
+        }
+    }
+
+    /** Same workload against the original {@code Deque<Boolean>} representation. */
+    @Benchmark
+    public void legacyDequeConditionState(Blackhole bh) {
+        DequeConditionState state = legacyConditions;
+        for (int i = 0; i < depth; i++) {
+            state.push(true);
+            bh.consume(state.shouldExecute());
+        }
+        for (int i = 0; i < depth; i++) {
+            bh.consume(state.shouldExecute());
+            state.pop();
+        }
+    }
+
+    // Copy of the pre-counter implementation, kept only as a baseline.
+    private static final class DequeConditionState {
+        private final Deque<Boolean> executionStack = new ArrayDeque<>();
+
+        boolean shouldExecute() {
+            for (boolean active : executionStack) {
+                if (!active) return false;
+            }
+            return true;
+        }
+
+        void push(boolean active) {
+            executionStack.push(active);
+        }
+
+        boolean pop() {
+            return executionStack.pop();
+        }
+    }
+}
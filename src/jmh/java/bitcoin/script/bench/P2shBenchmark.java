@@ -0,0 +1,71 @@
+package bitcoin.script.bench;
+
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+import bitcoin.script.core.CompiledScript;
+import bitcoin.script.core.RedeemScriptCache;
+import bitcoin.script.core.ScriptValidator;
+import bitcoin.script.crypto.CryptoMock;
+import bitcoin.script.model.BinaryScriptCodec;
+import bitcoin.script.model.Script;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * P2SH spends of a multisig redeem script: {@code cached} compiles the
+ * redeem script once, {@code recompiled} clears the redeem-script cache
+ * before every call, i.e. decodes and compiles it on every spend.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class P2shBenchmark {
+
+    @Param({ScriptTemplates.MULTISIG_2_3, ScriptTemplates.MULTISIG_15})
+    String template;
+
+    private RedeemScriptCache cache;
+    private ScriptValidator validator;
+    private CompiledScript scriptSig;
+    private CompiledScript scriptPubKey;
+
+    @Setup
+    public void load() {
+        cache     = new RedeemScriptCache(RedeemScriptCache.DEFAULT_CAPACITY);
+        validator = ScriptValidator.builder().redeemScriptCache(cache).build();
+
+        byte[] redeem = BinaryScriptCodec.encode(Script.parse(ScriptTemplates.scriptPubKey(template)));
+        byte[] hash   = new CryptoMock().hash160(redeem);
+        HexFormat hex = HexFormat.of();
+        scriptSig    = validator.compile(Script.parse(
+                ScriptTemplates.scriptSig(template) + " 0x" + hex.formatHex(redeem)));
+        scriptPubKey = validator.compile(Script.parse("OP_HASH160 0x" + hex.formatHex(hash) + " OP_EQUAL"));
+        if (!validator.validate(scriptSig, scriptPubKey)) {
+            throw new IllegalStateException("P2SH spend does not validate: " + template);
+        }
+    }
+
+    @Benchmark
+    public boolean cached() {
+        return validator.validate(scriptSig, scriptPubKey);
+    }
+
+    @Benchmark
+    public boolean recompiled() {
+        cache.clear();
+        return validator.validate(scriptSig, scriptPubKey);
+    }
+}
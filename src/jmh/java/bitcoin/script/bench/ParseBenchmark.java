@@ -0,0 +1,46 @@
+package bitcoin.script.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import bitcoin.script.model.Script;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** {@link Script#parse(String)} throughput for the standard templates. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({ScriptTemplates.P2PKH, ScriptTemplates.MULTISIG_2_3,
+            ScriptTemplates.MULTISIG_15, ScriptTemplates.NESTED_IF})
+    String template;
+
+    private String scriptSigText;
+    private String scriptPubKeyText;
+
+    @Setup
+    public void load() {
+        scriptSigText    = ScriptTemplates.scriptSig(template);
+        scriptPubKeyText = ScriptTemplates.scriptPubKey(template);
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) {
+        bh.consume(Script.parse(scriptSigText));
+        bh.consume(Script.parse(scriptPubKeyText));
+    }
+}
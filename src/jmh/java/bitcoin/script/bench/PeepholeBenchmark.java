@@ -0,0 +1,64 @@
+package bitcoin.script.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import bitcoin.script.core.CompiledScript;
+import bitcoin.script.core.ScriptValidator;
+import bitcoin.script.model.Script;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The generic interpreter with and without fused instruction pairs:
+ * {@code p2pkh} fuses {@code OP_DUP OP_HASH160} and
+ * {@code OP_EQUALVERIFY OP_CHECKSIG}; {@code noOps} runs a script padded
+ * with {@code OP_DUP OP_DROP} and {@code <push> OP_DROP} pairs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PeepholeBenchmark {
+
+    @Param({"false", "true"})
+    boolean peephole;
+
+    private ScriptValidator validator;
+    private CompiledScript scriptSig;
+    private CompiledScript scriptPubKey;
+    private CompiledScript empty;
+    private CompiledScript padded;
+
+    @Setup
+    public void load() {
+        validator    = ScriptValidator.builder().templateFastPaths(false).peephole(peephole).build();
+        scriptSig    = validator.compile(Script.parse(ScriptTemplates.scriptSig(ScriptTemplates.P2PKH)));
+        scriptPubKey = validator.compile(Script.parse(ScriptTemplates.scriptPubKey(ScriptTemplates.P2PKH)));
+        empty        = validator.compile(Script.parse(""));
+        padded       = validator.compile(Script.parse("OP_1 " + "OP_DUP OP_DROP DATA OP_DROP ".repeat(40)));
+        if (!validator.validate(scriptSig, scriptPubKey) || !validator.validate(empty, padded)) {
+            throw new IllegalStateException("Benchmark scripts do not validate");
+        }
+    }
+
+    @Benchmark
+    public boolean p2pkh() {
+        return validator.validate(scriptSig, scriptPubKey);
+    }
+
+    @Benchmark
+    public boolean noOps() {
+        return validator.validate(empty, padded);
+    }
+}
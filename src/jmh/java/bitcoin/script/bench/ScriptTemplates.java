@@ -0,0 +1,55 @@
+package bitcoin.script.bench;
+
+/**
+ * Script pairs shared by the benchmarks, selected by name through a JMH {@code @Param}.
+ *
+ * <p>All templates validate successfully against {@link bitcoin.script.crypto.CryptoMock}.
+ */
+final class ScriptTemplates {
+
+    /** Values accepted by the {@code template} parameter of every benchmark. */
+    static final String P2PKH        = "P2PKH";
+    static final String MULTISIG_2_3 = "MULTISIG_2_OF_3";
+    static final String MULTISIG_15  = "MULTISIG_15_OF_15";
+    static final String NESTED_IF    = "NESTED_IF_100";
+
+    private ScriptTemplates() {
+    }
+
+    /** Returns the scriptSig text of {@code template}. */
+    static String scriptSig(String template) {
+        switch (template) {
+            case P2PKH:
+                return "SIG_OK PUBKEY_ABC";
+            case MULTISIG_2_3:
+                return "OP_0 SIG_OK SIG_OK";
+            case MULTISIG_15:
+                return "OP_0" + " SIG_OK".repeat(15);
+            case NESTED_IF:
+                return "OP_1 ".repeat(100).trim();
+            default:
+                throw new IllegalArgumentException("Unknown template: " + template);
+        }
+    }
+
+    /** Returns the scriptPubKey text of {@code template}. */
+    static String scriptPubKey(String template) {
+        switch (template) {
+            case P2PKH:
+                return "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG";
+            case MULTISIG_2_3:
+                return "OP_2 PUBKEY_A PUBKEY_B PUBKEY_C OP_3 OP_CHECKMULTISIG";
+            case MULTISIG_15: {
+                StringBuilder text = new StringBuilder("OP_15");
+                for (int i = 1; i <= 15; i++) {
+                    text.append(" PUBKEY_").append(i);
+                }
+                return text.append(" OP_15 OP_CHECKMULTISIG").toString();
+            }
+            case NESTED_IF:
+                return "OP_IF ".repeat(100) + "OP_1" + " OP_ENDIF".repeat(100);
+            default:
+                throw new IllegalArgumentException("Unknown template: " + template);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package bitcoin.script.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import bitcoin.script.core.BatchMode;
+import bitcoin.script.core.CompiledScript;
+import bitcoin.script.core.ScriptPair;
+import bitcoin.script.core.ScriptValidator;
+import bitcoin.script.core.SignatureMode;
+import bitcoin.script.crypto.CryptoMock;
+import bitcoin.script.crypto.CryptoProvider;
+import bitcoin.script.model.Script;
+import bitcoin.script.ops.OperationFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Immediate versus deferred signature verification when checks are
+ * expensive.  Each mock check burns {@code checkCost} JMH CPU tokens
+ * ({@code 10_000} is in the range of a secp256k1 verification) before
+ * applying the {@link CryptoMock} rule.
+ *
+ * <p>{@code multisig15} is one 15-of-15 input (latency of a large multisig);
+ * {@code batch} validates 256 P2PKH inputs through
+ * {@link ScriptValidator#validateBatch}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignatureBatchBenchmark {
+
+    @Param({"IMMEDIATE", "DEFERRED"})
+    SignatureMode mode;
+
+    @Param({"10000"})
+    long checkCost;
+
+    private ScriptValidator validator;
+    private CompiledScript multisigSig;
+    private CompiledScript multisigPubKey;
+    private List<ScriptPair> inputs;
+
+    @Setup(Level.Trial)
+    public void compile() {
+        long cost = checkCost;
+        CryptoProvider slow = new CryptoProvider() {
+            private final CryptoMock mock = new CryptoMock();
+
+            @Override
+            public byte[] hash160(byte[] data) {
+                return mock.hash160(data);
+            }
+
+            @Override
+            public boolean checkSig(byte[] signature, byte[] pubKey) {
+                Blackhole.consumeCPU(cost);
+                return mock.checkSig(signature, pubKey);
+            }
+        };
+        validator = new ScriptValidator(false,
+                OperationFactory.builder().registerStandard(slow).build(), mode);
+
+        multisigSig    = validator.compile(Script.parse(ScriptTemplates.scriptSig(ScriptTemplates.MULTISIG_15)));
+        multisigPubKey = validator.compile(Script.parse(ScriptTemplates.scriptPubKey(ScriptTemplates.MULTISIG_15)));
+
+        CompiledScript p2pkhSig    = validator.compile(Script.parse(ScriptTemplates.scriptSig(ScriptTemplates.P2PKH)));
+        CompiledScript p2pkhPubKey = validator.compile(Script.parse(ScriptTemplates.scriptPubKey(ScriptTemplates.P2PKH)));
+        inputs = new ArrayList<>();
+        for (int i = 0; i < 256; i++) {
+            inputs.add(new ScriptPair(p2pkhSig, p2pkhPubKey));
+        }
+    }
+
+    @Benchmark
+    public boolean multisig15() {
+        return validator.validate(multisigSig, multisigPubKey);
+    }
+
+    @Benchmark
+    public boolean batch() {
+        return validator.validateBatch(inputs, BatchMode.COLLECT_ALL).allValid();
+    }
+}
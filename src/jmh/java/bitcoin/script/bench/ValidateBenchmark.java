@@ -0,0 +1,85 @@
+package bitcoin.script.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import bitcoin.script.core.CompiledScript;
+import bitcoin.script.core.ScriptValidator;
+import bitcoin.script.model.Script;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end {@link ScriptValidator#validate}: {@code parsed} includes
+ * compilation on every call, {@code compiled} reuses compiled templates.
+ * {@code compiledGeneric} is {@code compiled} with the standard-template fast
+ * paths disabled, i.e. always through the interpreter, and
+ * {@code rejectedGeneric} runs it on the scriptSig without its bottom element,
+ * which makes every template fail on stack underflow (cost of the failure path).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidateBenchmark {
+
+    @Param({ScriptTemplates.P2PKH, ScriptTemplates.MULTISIG_2_3,
+            ScriptTemplates.MULTISIG_15, ScriptTemplates.NESTED_IF})
+    String template;
+
+    private ScriptValidator validator;
+    private ScriptValidator generic;
+    private Script scriptSig;
+    private Script scriptPubKey;
+    private CompiledScript compiledSig;
+    private CompiledScript compiledPubKey;
+    private CompiledScript failingSig;
+
+    @Setup
+    public void load() {
+        validator      = new ScriptValidator(false);
+        generic        = ScriptValidator.builder().templateFastPaths(false).build();
+        scriptSig      = Script.parse(ScriptTemplates.scriptSig(template));
+        scriptPubKey   = Script.parse(ScriptTemplates.scriptPubKey(template));
+        compiledSig    = validator.compile(scriptSig);
+        compiledPubKey = validator.compile(scriptPubKey);
+        String sigText = ScriptTemplates.scriptSig(template);
+        failingSig     = validator.compile(Script.parse(sigText.substring(sigText.indexOf(' ') + 1)));
+        if (!validator.validate(scriptSig, scriptPubKey)) {
+            throw new IllegalStateException("Template does not validate: " + template);
+        }
+        if (generic.validate(failingSig, compiledPubKey)) {
+            throw new IllegalStateException("Failing scriptSig validates: " + template);
+        }
+    }
+
+    @Benchmark
+    public boolean parsed() {
+        return validator.validate(scriptSig, scriptPubKey);
+    }
+
+    @Benchmark
+    public boolean compiled() {
+        return validator.validate(compiledSig, compiledPubKey);
+    }
+
+    @Benchmark
+    public boolean compiledGeneric() {
+        return generic.validate(compiledSig, compiledPubKey);
+    }
+
+    @Benchmark
+    public boolean rejectedGeneric() {
+        return generic.validate(failingSig, compiledPubKey);
+    }
+}
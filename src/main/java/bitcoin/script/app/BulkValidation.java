@@ -0,0 +1,207 @@
+package bitcoin.script.app;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+import bitcoin.script.core.ScriptValidator;
+import bitcoin.script.model.BinaryScriptCodec;
+import bitcoin.script.model.Script;
+import bitcoin.script.model.ScriptTokenizer;
+
+/**
+ * Bulk replay of (scriptSig, scriptPubKey) records from a memory-mapped file.
+ *
+ * <p>Two input formats are supported:
+ * <ul>
+ *   <li><b>text</b> – one record per line, {@code scriptSig<TAB>scriptPubKey},
+ *       both in the space-delimited script format</li>
+ *   <li><b>binary</b> – repeated {@code [u32 LE length][serialized scriptSig]
+ *       [u32 LE length][serialized scriptPubKey]}</li>
+ * </ul>
+ *
+ * <p>The file is mapped with {@link FileChannel#map} in windows of at most
+ * {@link #DEFAULT_WINDOW} bytes, so inputs larger than 2 GiB work.  Inside a
+ * window, record boundaries are indexed in one sequential scan; the records
+ * are then parsed directly from the mapped buffer and validated in parallel,
+ * and results are streamed to the output file in input order as
+ * {@code <record index> VALID|INVALID} lines.  No record is copied out of the
+ * mapping first: opcodes are read in place and only pushed data is allocated.
+ */
+public final class BulkValidation {
+
+    /** Maximum number of bytes mapped at once. */
+    public static final long DEFAULT_WINDOW = 1L << 30;
+
+    /** Records indexed and validated per parallel batch. */
+    private static final int BATCH_RECORDS = 1 << 16;
+
+    private final ScriptValidator validator;
+    private final boolean binary;
+    private final long window;
+
+    /**
+     * Creates a bulk run.
+     *
+     * @param validator the validator shared by all worker threads
+     * @param binary    {@code true} for the length-prefixed binary format,
+     *                  {@code false} for tab-separated text
+     * @param window    maximum number of bytes mapped at once
+     */
+    public BulkValidation(ScriptValidator validator, boolean binary, long window) {
+        this.validator = validator;
+        this.binary    = binary;
+        this.window    = window;
+    }
+
+    /**
+     * Validates every record of {@code input} and writes one result line per
+     * record to {@code output}.
+     *
+     * @param input  the record file
+     * @param output the result file (created or truncated)
+     * @return counts of the records processed
+     * @throws IOException if reading or writing fails, the file ends inside a
+     *                     record, or a record is larger than the mapping window
+     */
+    public Summary run(Path input, Path output) throws IOException {
+        Summary summary = new Summary();
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ);
+             Writer out = new BufferedWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8),
+                                             1 << 20)) {
+            long fileSize = channel.size();
+            long position = 0;
+            while (position < fileSize) {
+                long length = Math.min(window, fileSize - position);
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                mapped.order(ByteOrder.LITTLE_ENDIAN);
+                boolean lastWindow = position + length == fileSize;
+
+                int consumed = processWindow(mapped, lastWindow, summary, out);
+                if (consumed == 0) {
+                    throw new IOException(lastWindow
+                            ? "Truncated record at offset " + position
+                            : "Record at offset " + position + " does not fit in a "
+                                    + window + "-byte mapping window");
+                }
+                position += consumed;
+            }
+        }
+        return summary;
+    }
+
+    // Validates all complete records in the window; returns the bytes consumed.
+    private int processWindow(MappedByteBuffer mapped, boolean lastWindow,
+                              Summary summary, Writer out) throws IOException {
+        int[] starts = new int[BATCH_RECORDS + 1];
+        int pos = 0;
+        int limit = mapped.limit();
+        while (true) {
+            int count = 0;
+            starts[0] = pos;
+            while (count < BATCH_RECORDS) {
+                int next = binary ? nextBinaryRecord(mapped, starts[count], limit)
+                                  : nextTextRecord(mapped, starts[count], limit, lastWindow);
+                if (next < 0) break;
+                starts[++count] = next;
+            }
+            if (count == 0) {
+                return pos;
+            }
+            validateRecords(mapped, starts, count, summary, out);
+            pos = starts[count];
+        }
+    }
+
+    private void validateRecords(MappedByteBuffer mapped, int[] starts, int count,
+                                 Summary summary, Writer out) throws IOException {
+        boolean[] results = new boolean[count];
+        IntStream.range(0, count).parallel().forEach(i ->
+                results[i] = validateRecord(mapped, starts[i], starts[i + 1]));
+
+        StringBuilder line = new StringBuilder(32);
+        for (int i = 0; i < count; i++) {
+            line.setLength(0);
+            line.append(summary.records++).append(results[i] ? " VALID\n" : " INVALID\n");
+            out.append(line);
+            if (results[i]) summary.valid++;
+        }
+    }
+
+    private boolean validateRecord(MappedByteBuffer mapped, int start, int end) {
+        Script scriptSig;
+        Script scriptPubKey;
+        if (binary) {
+            // nextBinaryRecord has checked that both lengths fit in the window.
+            int sigLen   = (int) lengthAt(mapped, start);
+            scriptSig    = BinaryScriptCodec.tryDecode(mapped.slice(start + 4, sigLen));
+            int pubStart = start + 4 + sigLen;
+            scriptPubKey = BinaryScriptCodec.tryDecode(
+                    mapped.slice(pubStart + 4, (int) lengthAt(mapped, pubStart)));
+            if (scriptSig == null || scriptPubKey == null) {
+                return false;   // undecodable record
+            }
+        } else {
+            int tab = start;
+            while (tab < end && mapped.get(tab) != '\t') tab++;
+            if (tab == end) {
+                return false;   // malformed line: no scriptPubKey column
+            }
+            scriptSig    = ScriptTokenizer.parse(mapped.slice(start, tab - start));
+            scriptPubKey = ScriptTokenizer.parse(mapped.slice(tab + 1, end - tab - 1));
+        }
+        return validator.validate(scriptSig, scriptPubKey);
+    }
+
+    // Returns the start of the record after the one at pos, or -1 if it is incomplete.
+    private static int nextBinaryRecord(MappedByteBuffer mapped, int pos, int limit) {
+        if (limit - pos < 4) return -1;
+        long pubPos = pos + 4L + lengthAt(mapped, pos);
+        if (pubPos + 4 > limit) return -1;
+        long end = pubPos + 4 + lengthAt(mapped, (int) pubPos);
+        return end > limit ? -1 : (int) end;
+    }
+
+    // The u32 length prefix at pos, read the same way wherever records are decoded.
+    private static long lengthAt(MappedByteBuffer mapped, int pos) {
+        return Integer.toUnsignedLong(mapped.getInt(pos));
+    }
+
+    // Lines end at '\n'; the last line of the file may omit it.
+    private static int nextTextRecord(MappedByteBuffer mapped, int pos, int limit, boolean lastWindow) {
+        if (pos >= limit) return -1;
+        for (int i = pos; i < limit; i++) {
+            if (mapped.get(i) == '\n') return i + 1;
+        }
+        return lastWindow ? limit : -1;
+    }
+
+    /** Record counts of a finished run. */
+    public static final class Summary {
+        private long records;
+        private long valid;
+
+        /** Returns the number of records processed. */
+        public long getRecords() {
+            return records;
+        }
+
+        /** Returns the number of records that validated successfully. */
+        public long getValid() {
+            return valid;
+        }
+
+        /** Returns the number of records that failed validation or could not be decoded. */
+        public long getInvalid() {
+            return records - valid;
+        }
+    }
+}
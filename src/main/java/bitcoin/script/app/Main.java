@@ -1,6 +1,20 @@
 package bitcoin.script.app;
 
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import bitcoin.script.core.InterpreterMetrics;
 import bitcoin.script.core.ScriptValidator;
+import bitcoin.script.ops.OperationFactory;
 import bitcoin.script.model.Script;
 
 /**
@@ -14,18 +28,70 @@ import bitcoin.script.model.Script;
  *   <li>OP_IF / OP_ELSE / OP_ENDIF conditional</li>
  *   <li>OP_CHECKMULTISIG 2-of-3 multisig</li>
  * </ol>
+ *
+ * <p>With {@code --bulk <input> <output> [--binary]} it instead validates every
+ * record of a (possibly very large) file through {@link BulkValidation};
+ * adding {@code --metrics} prints per-opcode counts and mean latencies afterwards.
+ *
+ * <p>With {@code --serve <port|socket path>} it runs a {@link ValidationServer}
+ * on the loopback interface (or a Unix-domain socket) until killed, tuned by
+ * {@code --batch <max batch size>}, {@code --linger-us <microseconds>} and
+ * {@code --binary}.  {@code --load <port|socket path> <connections> <requests>}
+ * drives such a server from the same machine and reports its throughput.
+ * An option given without all of its values exits with a usage error.
  */
 public class Main {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         boolean traceEnabled = false;
-        for (String arg : args) {
-            if ("--trace".equals(arg)) {
+        boolean binary       = false;
+        boolean metrics      = false;
+        String[] bulkPaths   = null;
+        String serveAddress  = null;
+        String[] load        = null;
+        int maxBatch         = 256;
+        long lingerMicros    = 200;
+        for (int i = 0; i < args.length; i++) {
+            if ("--trace".equals(args[i])) {
                 traceEnabled = true;
-                break;
+            } else if ("--binary".equals(args[i])) {
+                binary = true;
+            } else if ("--metrics".equals(args[i])) {
+                metrics = true;
+            } else if ("--bulk".equals(args[i])) {
+                requireArguments(args, i, 2, "<input> <output>");
+                bulkPaths = new String[] {args[i + 1], args[i + 2]};
+                i += 2;
+            } else if ("--serve".equals(args[i])) {
+                requireArguments(args, i, 1, "<port|socket path>");
+                serveAddress = args[++i];
+            } else if ("--batch".equals(args[i])) {
+                requireArguments(args, i, 1, "<max batch size>");
+                maxBatch = Integer.parseInt(args[++i]);
+            } else if ("--linger-us".equals(args[i])) {
+                requireArguments(args, i, 1, "<microseconds>");
+                lingerMicros = Long.parseLong(args[++i]);
+            } else if ("--load".equals(args[i])) {
+                requireArguments(args, i, 3, "<port|socket path> <connections> <requests>");
+                load = new String[] {args[i + 1], args[i + 2], args[i + 3]};
+                i += 3;
             }
         }
 
+        if (serveAddress != null) {
+            runServer(serveAddress, binary, maxBatch, lingerMicros);
+            return;
+        }
+        if (load != null) {
+            runLoad(load[0], Integer.parseInt(load[1]), Integer.parseInt(load[2]));
+            return;
+        }
+
+        if (bulkPaths != null) {
+            runBulk(bulkPaths[0], bulkPaths[1], binary, metrics);
+            return;
+        }
+
         ScriptValidator validator = new ScriptValidator(traceEnabled);
 
         // Demo 1 – P2PKH valid
@@ -53,6 +119,141 @@ public class Main {
                 "OP_2 PUBKEY_A PUBKEY_B PUBKEY_C OP_3 OP_CHECKMULTISIG");
     }
 
+    /**
+     * Validates every record of {@code input} and prints a summary.
+     *
+     * @param input  the record file (tab-separated text or length-prefixed binary)
+     * @param output the file receiving one result line per record
+     * @param binary {@code true} if {@code input} uses the binary format
+     * @param withMetrics {@code true} to collect and print execution metrics
+     */
+    private static void runBulk(String input, String output, boolean binary, boolean withMetrics)
+            throws IOException {
+        InterpreterMetrics metrics = withMetrics ? new InterpreterMetrics(OperationFactory.standard()) : null;
+        BulkValidation bulk = new BulkValidation(
+                ScriptValidator.builder().metrics(metrics).build(), binary, BulkValidation.DEFAULT_WINDOW);
+
+        long start = System.nanoTime();
+        BulkValidation.Summary summary = bulk.run(Path.of(input), Path.of(output));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Records: " + summary.getRecords()
+                + "  valid: " + summary.getValid()
+                + "  invalid: " + summary.getInvalid()
+                + "  time: " + millis + " ms");
+
+        if (metrics != null) {
+            InterpreterMetrics.Snapshot snapshot = metrics.snapshot();
+            System.out.printf("Validations/s: %.0f  max stack depth: %d%n",
+                    snapshot.getValidationsPerSecond(), snapshot.getMaxStackDepth());
+            snapshot.getOpcodes().forEach((name, stats) -> System.out.printf(
+                    "  %-20s %12d calls  %8.1f ns mean  p99 <= %d ns%n", name, stats.getCount(),
+                    (double) stats.getTotalNanos() / stats.getCount(), stats.percentileNanos(99)));
+            snapshot.getFailureReasons().forEach((reason, count) ->
+                    System.out.println("  failure " + reason + ": " + count));
+        }
+    }
+
+    /**
+     * Serves validation requests until the process is killed.
+     *
+     * @param address      a TCP port on the loopback interface, or a socket path
+     * @param binary       {@code true} for the length-prefixed binary protocol
+     * @param maxBatch     the largest batch validated at once
+     * @param lingerMicros how long a batch waits for more requests
+     */
+    private static void runServer(String address, boolean binary, int maxBatch, long lingerMicros)
+            throws IOException {
+        ValidationServer server = ValidationServer.builder()
+                .binary(binary)
+                .maxBatchSize(maxBatch)
+                .linger(lingerMicros, TimeUnit.MICROSECONDS)
+                .build();
+        SocketAddress bound = server.start(socketAddress(address));
+        System.out.println("Listening on " + bound + (binary ? " (binary)" : " (text)")
+                + "  batch: " + maxBatch + "  linger: " + lingerMicros + " us");
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            long requests = server.getRequests();
+            long batches  = server.getBatches();
+            System.out.printf("Requests: %d  batches: %d  mean batch: %.1f%n",
+                    requests, batches, batches == 0 ? 0.0 : (double) requests / batches);
+            try {
+                server.close();
+            } catch (IOException e) {
+                System.err.println("[SERVER] close failed: " + e.getMessage());
+            }
+        }));
+        try {
+            new CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sends {@code requests} text requests over each of {@code connections}
+     * parallel connections and prints the achieved throughput.
+     *
+     * @param address     the server's TCP port on the loopback interface, or socket path
+     * @param connections number of concurrent connections
+     * @param requests    requests sent per connection
+     */
+    private static void runLoad(String address, int connections, int requests) {
+        SocketAddress target = socketAddress(address);
+        List<String> records = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            // Three valid P2PKH spends for every invalid one.
+            records.add((i % 4 == 3 ? "BAD_SIG" : "SIG_OK") + " PUBKEY_" + i
+                    + "\tOP_DUP OP_HASH160 PUBKEYHASH_" + i + " OP_EQUALVERIFY OP_CHECKSIG");
+        }
+
+        AtomicLong valid = new AtomicLong();
+        List<Thread> threads = new ArrayList<>(connections);
+        long start = System.nanoTime();
+        for (int c = 0; c < connections; c++) {
+            Thread t = new Thread(() -> {
+                try (ValidationClient client = new ValidationClient(target)) {
+                    for (boolean result : client.validateAll(records)) {
+                        if (result) valid.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    System.err.println("[LOAD] " + e.getMessage());
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long total = (long) connections * requests;
+        System.out.printf("Requests: %d  valid: %d  time: %.0f ms  throughput: %.0f req/s%n",
+                total, valid.get(), seconds * 1000, total / seconds);
+    }
+
+    // Exits with a usage error unless args[option] is followed by `count` values.
+    private static void requireArguments(String[] args, int option, int count, String values) {
+        if (option + count >= args.length) {
+            System.err.println("Usage: " + args[option] + " " + values);
+            System.exit(2);
+        }
+    }
+
+    // A bare number is a TCP port on the loopback interface; anything else a socket path.
+    private static SocketAddress socketAddress(String address) {
+        if (address.chars().allMatch(Character::isDigit)) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+        }
+        return UnixDomainSocketAddress.of(address);
+    }
+
     /**
      * Runs a single demo and prints its label, scripts, and result.
      *
@@ -0,0 +1,182 @@
+package bitcoin.script.app;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import bitcoin.script.core.BatchMode;
+import bitcoin.script.core.BatchResult;
+import bitcoin.script.core.ScriptPair;
+import bitcoin.script.core.ScriptValidator;
+
+/**
+ * Coalesces validation requests from many threads into batches.
+ *
+ * <p>A single dispatcher thread takes the first queued request, then keeps
+ * collecting until the batch holds {@code maxBatchSize} requests or
+ * {@code lingerNanos} have passed since the first one arrived.  The batch is
+ * handed to a shared pool and validated with
+ * {@link ScriptValidator#validateBatch(List, BatchMode, java.util.concurrent.Executor)},
+ * so deferred signature checks and per-thread contexts are amortised over
+ * every request in it, while the dispatcher goes on collecting the next one.
+ *
+ * <p>A linger of zero never waits: a batch is whatever is queued at the
+ * moment the dispatcher looks.
+ */
+final class MicroBatcher implements AutoCloseable {
+
+    private final ScriptValidator validator;
+    private final ForkJoinPool    pool;
+    private final int             maxBatchSize;
+    private final long            lingerNanos;
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread          dispatcher;
+    private final LongAdder       requests = new LongAdder();
+    private final LongAdder       batches  = new LongAdder();
+    private final Object          lock = new Object();   // orders submit() against close()
+    private volatile boolean      closed;
+
+    /**
+     * Creates a batcher and starts its dispatcher thread.
+     *
+     * @param validator    the validator shared by all batches
+     * @param workers      number of validation threads
+     * @param maxBatchSize maximum number of requests per batch
+     * @param lingerNanos  how long a batch may wait for more requests
+     */
+    MicroBatcher(ScriptValidator validator, int workers, int maxBatchSize, long lingerNanos) {
+        this.validator    = validator;
+        this.pool         = new ForkJoinPool(workers);
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos  = lingerNanos;
+        this.dispatcher   = new Thread(this::dispatch, "validation-batcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Queues one input for validation.
+     *
+     * @param pair the input
+     * @return a future completed with the input's result, or failed with an
+     *         {@link IllegalStateException} once the batcher is closed
+     */
+    CompletableFuture<Boolean> submit(ScriptPair pair) {
+        Request request = new Request(pair);
+        synchronized (lock) {
+            if (!closed) {
+                queue.add(request);
+                return request.result;
+            }
+        }
+        request.result.completeExceptionally(new IllegalStateException("batcher is closed"));
+        return request.result;
+    }
+
+    /** Returns the number of requests validated so far. */
+    long getRequests() {
+        return requests.sum();
+    }
+
+    /** Returns the number of batches validated so far. */
+    long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * Validates the requests already queued, then stops the threads.  Every
+     * request submitted before this call is validated; later ones fail.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;   // after this, no request can enter the queue
+        }
+        dispatcher.interrupt();
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Only reached with requests left if the wait above was interrupted.
+        List<Request> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        fail(leftover, new IllegalStateException("batcher is closed"));
+        pool.shutdown();
+    }
+
+    private void dispatch() {
+        List<Request> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            try {
+                Request first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    // Once closed is seen, every accepted request is already queued.
+                    if (closed && queue.isEmpty()) break;
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() == maxBatchSize || wait <= 0) break;
+                    Request next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // close(): flush whatever is still queued below.
+                queue.drainTo(batch);
+            }
+            if (!batch.isEmpty()) {
+                List<Request> ready = batch;
+                batch = new ArrayList<>(maxBatchSize);
+                try {
+                    pool.execute(() -> validate(ready));
+                } catch (RejectedExecutionException e) {   // close() gave up waiting
+                    fail(ready, e);
+                }
+            }
+            if (closed && queue.isEmpty()) break;
+        }
+    }
+
+    private void validate(List<Request> batch) {
+        List<ScriptPair> pairs = new ArrayList<>(batch.size());
+        for (Request request : batch) {
+            pairs.add(request.pair);
+        }
+        try {
+            BatchResult result = validator.validateBatch(pairs, BatchMode.COLLECT_ALL, pool);
+            requests.add(batch.size());
+            batches.increment();
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(result.isValid(i));
+            }
+        } catch (RuntimeException e) {
+            fail(batch, e);
+        }
+    }
+
+    private static void fail(List<Request> batch, Throwable cause) {
+        for (Request request : batch) {
+            request.result.completeExceptionally(cause);
+        }
+    }
+
+    private static final class Request {
+        final ScriptPair pair;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        Request(ScriptPair pair) {
+            this.pair = pair;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package bitcoin.script.app;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Blocking client for the text protocol of {@link ValidationServer}.
+ *
+ * <p>Not thread-safe: use one client per thread.
+ */
+public final class ValidationClient implements Closeable {
+
+    /** Requests written before their responses are read by {@link #validateAll}. */
+    private static final int WINDOW = 1024;
+
+    private final SocketChannel  channel;
+    private final BufferedReader in;
+    private final Writer         out;
+
+    /**
+     * Connects to a server.
+     *
+     * @param address the server's TCP or Unix-domain socket address
+     * @throws IOException if the connection fails
+     */
+    public ValidationClient(SocketAddress address) throws IOException {
+        this.channel = address instanceof UnixDomainSocketAddress
+                ? SocketChannel.open(StandardProtocolFamily.UNIX)
+                : SocketChannel.open();
+        this.channel.connect(address);
+        this.in  = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel),
+                                                            StandardCharsets.UTF_8));
+        this.out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    /**
+     * Validates one input.
+     *
+     * @param scriptSig    the unlocking script text
+     * @param scriptPubKey the locking script text
+     * @return the server's result
+     * @throws IOException if the connection fails
+     */
+    public boolean validate(String scriptSig, String scriptPubKey) throws IOException {
+        out.write(scriptSig + '\t' + scriptPubKey + '\n');
+        out.flush();
+        return readResult();
+    }
+
+    /**
+     * Validates many inputs over the one connection, pipelining the requests.
+     *
+     * @param records {@code scriptSig<TAB>scriptPubKey} records
+     * @return the results, in record order
+     * @throws IOException if the connection fails
+     */
+    public boolean[] validateAll(List<String> records) throws IOException {
+        boolean[] results = new boolean[records.size()];
+        for (int from = 0; from < results.length; from += WINDOW) {
+            int to = Math.min(results.length, from + WINDOW);
+            for (int i = from; i < to; i++) {
+                out.write(records.get(i));
+                out.write('\n');
+            }
+            out.flush();
+            for (int i = from; i < to; i++) {
+                results[i] = readResult();
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean readResult() throws IOException {
+        String line = in.readLine();
+        if (line == null) {
+            throw new EOFException("server closed the connection");
+        }
+        return "VALID".equals(line);
+    }
+}
@@ -0,0 +1,353 @@
+package bitcoin.script.app;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import bitcoin.script.core.ScriptPair;
+import bitcoin.script.core.ScriptValidator;
+import bitcoin.script.model.BinaryScriptCodec;
+import bitcoin.script.model.Script;
+import bitcoin.script.model.ScriptTokenizer;
+
+/**
+ * Local validation service over TCP or a Unix-domain socket.
+ *
+ * <p>Requests use the two {@link BulkValidation} record formats:
+ * <ul>
+ *   <li><b>text</b> – one {@code scriptSig<TAB>scriptPubKey} line per
+ *       request, answered by a {@code VALID} or {@code INVALID} line</li>
+ *   <li><b>binary</b> – {@code [u32 LE length][serialized scriptSig]
+ *       [u32 LE length][serialized scriptPubKey]}, answered by one byte,
+ *       {@code 1} for valid and {@code 0} for invalid</li>
+ * </ul>
+ * Requests may be pipelined; responses come back in request order.  A
+ * request that cannot be parsed is answered as invalid, while a request
+ * larger than {@link #MAX_REQUEST_BYTES} closes the connection.
+ *
+ * <p>Each connection is served by its own thread – a virtual thread when
+ * the runtime supports them (Java 21+), a pooled platform thread otherwise.
+ * Connection threads only parse; every request is queued on one shared
+ * {@link MicroBatcher}, so concurrent requests from all connections are
+ * validated together in batches of up to {@code maxBatchSize}, each waiting
+ * at most {@code linger} for company.
+ *
+ * <pre>{@code
+ * try (ValidationServer server = ValidationServer.builder().maxBatchSize(128).build()) {
+ *     SocketAddress address = server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class ValidationServer implements Closeable {
+
+    /** Largest accepted request (one line, or both length-prefixed scripts with their prefixes). */
+    public static final int MAX_REQUEST_BYTES = 1 << 20;
+
+    private static final byte[] VALID   = "VALID\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INVALID = "INVALID\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final MicroBatcher    batcher;
+    private final boolean         binary;
+    private final int             maxBatchSize;
+    private final ExecutorService connections = connectionExecutor();
+    private final Set<SocketChannel> open     = ConcurrentHashMap.newKeySet();
+
+    private ServerSocketChannel server;
+    private SocketAddress       localAddress;
+    private volatile boolean    closed;
+
+    private ValidationServer(Builder b) {
+        this.batcher      = new MicroBatcher(b.validator, b.workers, b.maxBatchSize, b.lingerNanos);
+        this.binary       = b.binary;
+        this.maxBatchSize = b.maxBatchSize;
+    }
+
+    /** Returns a builder with the default settings. */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Binds to {@code address} and starts accepting connections.
+     *
+     * @param address an {@link java.net.InetSocketAddress} (port {@code 0}
+     *                picks a free port) or a {@link UnixDomainSocketAddress}
+     * @return the bound address
+     * @throws IOException if the socket cannot be bound
+     * @throws IllegalStateException if the server was already started or closed
+     */
+    public synchronized SocketAddress start(SocketAddress address) throws IOException {
+        if (server != null || closed) {
+            throw new IllegalStateException(closed ? "server is closed" : "server already started");
+        }
+        server = address instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+        server.bind(address);
+        localAddress = server.getLocalAddress();
+
+        Thread acceptor = new Thread(this::acceptLoop, "validation-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return localAddress;
+    }
+
+    /** Returns the number of requests validated so far. */
+    public long getRequests() {
+        return batcher.getRequests();
+    }
+
+    /** Returns the number of batches the requests were validated in. */
+    public long getBatches() {
+        return batcher.getBatches();
+    }
+
+    /** Closes the listening socket and every connection, then stops the workers. */
+    @Override
+    public void close() throws IOException {
+        ServerSocketChannel listening;
+        SocketAddress       bound;
+        synchronized (this) {   // pairs with start(): no socket is bound after this
+            closed    = true;
+            listening = server;
+            bound     = localAddress;
+        }
+        try {
+            if (listening != null) {
+                listening.close();
+                if (bound instanceof UnixDomainSocketAddress) {
+                    Files.deleteIfExists(((UnixDomainSocketAddress) bound).getPath());
+                }
+            }
+        } finally {
+            for (SocketChannel channel : open) {
+                channel.close();
+            }
+            connections.shutdownNow();
+            batcher.close();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                SocketChannel channel = server.accept();
+                open.add(channel);
+                connections.execute(() -> serve(channel));
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("[SERVER] accept failed: " + e.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        try (channel;
+             InputStream in = new BufferedInputStream(Channels.newInputStream(channel), 1 << 16);
+             OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16)) {
+            List<CompletableFuture<Boolean>> pending = new ArrayList<>();
+            while (true) {
+                // Submit every request that has already arrived, then answer them in order.
+                do {
+                    CompletableFuture<Boolean> result = binary ? readBinary(in) : readText(in);
+                    if (result == null) {
+                        flush(pending, out);
+                        return;
+                    }
+                    pending.add(result);
+                } while (in.available() > 0 && pending.size() < maxBatchSize);
+                flush(pending, out);
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                System.err.println("[SERVER] connection closed: " + e.getMessage());
+            }
+        } finally {
+            open.remove(channel);
+        }
+    }
+
+    private void flush(List<CompletableFuture<Boolean>> pending, OutputStream out) throws IOException {
+        for (CompletableFuture<Boolean> result : pending) {
+            boolean valid = result.exceptionally(e -> false).join();
+            if (binary) {
+                out.write(valid ? 1 : 0);
+            } else {
+                out.write(valid ? VALID : INVALID);
+            }
+        }
+        out.flush();
+        pending.clear();
+    }
+
+    // Returns null at a clean end of stream.
+    private CompletableFuture<Boolean> readText(InputStream in) throws IOException {
+        byte[] line = new byte[256];
+        int len = 0;
+        int tab = -1;
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                if (len == 0) return null;
+                break;      // the last line may omit its newline
+            }
+            if (len == line.length) {
+                if (len == MAX_REQUEST_BYTES) {
+                    throw new IOException("request line longer than " + MAX_REQUEST_BYTES + " bytes");
+                }
+                line = Arrays.copyOf(line, Math.min(len * 2, MAX_REQUEST_BYTES));
+            }
+            if (b == '\t' && tab < 0) tab = len;
+            line[len++] = (byte) b;
+        }
+        if (len > 0 && line[len - 1] == '\r') len--;
+        if (tab < 0) {
+            return CompletableFuture.completedFuture(false);   // no scriptPubKey column
+        }
+        return submit(ScriptTokenizer.parse(line, 0, tab),
+                      ScriptTokenizer.parse(line, tab + 1, len - tab - 1));
+    }
+
+    // Returns null at a clean end of stream.
+    private CompletableFuture<Boolean> readBinary(InputStream in) throws IOException {
+        byte[] sig = readPrefixed(in, true, MAX_REQUEST_BYTES - 8);
+        if (sig == null) {
+            return null;
+        }
+        byte[] pub = readPrefixed(in, false, MAX_REQUEST_BYTES - 8 - sig.length);
+        Script scriptSig    = BinaryScriptCodec.tryDecode(sig, 0, sig.length);
+        Script scriptPubKey = BinaryScriptCodec.tryDecode(pub, 0, pub.length);
+        if (scriptSig == null || scriptPubKey == null) {
+            return CompletableFuture.completedFuture(false);   // malformed push
+        }
+        return submit(scriptSig, scriptPubKey);
+    }
+
+    // maxLength is what is left of the request budget for this script.
+    private static byte[] readPrefixed(InputStream in, boolean eofAllowed, int maxLength) throws IOException {
+        byte[] prefix = in.readNBytes(4);
+        if (prefix.length == 0 && eofAllowed) {
+            return null;
+        }
+        if (prefix.length < 4) {
+            throw new EOFException("truncated request");
+        }
+        long len = (prefix[0] & 0xFFL) | (prefix[1] & 0xFFL) << 8
+                 | (prefix[2] & 0xFFL) << 16 | (prefix[3] & 0xFFL) << 24;
+        if (len > maxLength) {
+            throw new IOException("request longer than " + MAX_REQUEST_BYTES + " bytes");
+        }
+        byte[] data = in.readNBytes((int) len);
+        if (data.length < len) {
+            throw new EOFException("truncated request");
+        }
+        return data;
+    }
+
+    private CompletableFuture<Boolean> submit(Script scriptSig, Script scriptPubKey) {
+        return batcher.submit(new ScriptPair(scriptSig, scriptPubKey));
+    }
+
+    // One virtual thread per connection when the runtime has them (Java 21+).
+    private static ExecutorService connectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "validation-connection");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // ── Builder ──────────────────────────────────────────────────────────────
+
+    /** Builder for {@link ValidationServer}. */
+    public static final class Builder {
+        private ScriptValidator validator = new ScriptValidator(false);
+        private int     workers      = Runtime.getRuntime().availableProcessors();
+        private int     maxBatchSize = 256;
+        private long    lingerNanos  = TimeUnit.MICROSECONDS.toNanos(200);
+        private boolean binary;
+
+        private Builder() {
+        }
+
+        /** Sets the validator shared by all connections (default: standard, no trace). */
+        public Builder validator(ScriptValidator validator) {
+            this.validator = validator;
+            return this;
+        }
+
+        /** Sets the number of validation threads (default: available processors). */
+        public Builder workers(int workers) {
+            if (workers <= 0) {
+                throw new IllegalArgumentException("workers must be positive: " + workers);
+            }
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * Sets the largest number of requests validated as one batch
+         * (default 256).  Larger batches raise throughput under load.
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize <= 0) {
+                throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets how long a batch waits for more requests after the first one
+         * arrives (default 200 µs).  Zero never waits, giving the lowest
+         * latency; longer lingers fill batches when requests are sparse.
+         */
+        public Builder linger(long linger, TimeUnit unit) {
+            if (linger < 0) {
+                throw new IllegalArgumentException("linger must not be negative: " + linger);
+            }
+            this.lingerNanos = unit.toNanos(linger);
+            return this;
+        }
+
+        /** Selects the length-prefixed binary protocol instead of text lines. */
+        public Builder binary(boolean binary) {
+            this.binary = binary;
+            return this;
+        }
+
+        /** Builds the server; call {@link ValidationServer#start} to bind it. */
+        public ValidationServer build() {
+            return new ValidationServer(this);
+        }
+    }
+}
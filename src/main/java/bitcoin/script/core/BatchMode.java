@@ -0,0 +1,16 @@
+package bitcoin.script.core;
+
+/**
+ * How a batch validation reacts to an invalid input.
+ */
+public enum BatchMode {
+
+    /**
+     * Stop starting new validations as soon as any input is found invalid.
+     * Inputs that were never reached are reported as not evaluated.
+     */
+    FAIL_FAST,
+
+    /** Validate every input and report each individual result. */
+    COLLECT_ALL
+}
@@ -0,0 +1,68 @@
+package bitcoin.script.core;
+
+/**
+ * Per-input outcome of {@link ScriptValidator#validateBatch}, in input order.
+ */
+public final class BatchResult {
+
+    static final byte NOT_EVALUATED = 0;
+    static final byte VALID         = 1;
+    static final byte INVALID       = 2;
+
+    private final byte[] outcomes;
+
+    BatchResult(byte[] outcomes) {
+        this.outcomes = outcomes;
+    }
+
+    /** Returns the number of inputs in the batch. */
+    public int size() {
+        return outcomes.length;
+    }
+
+    /**
+     * Returns {@code true} if input {@code index} was validated and is valid.
+     *
+     * @param index position of the input in the submitted batch
+     */
+    public boolean isValid(int index) {
+        return outcomes[index] == VALID;
+    }
+
+    /**
+     * Returns {@code false} if input {@code index} was skipped because a
+     * {@link BatchMode#FAIL_FAST} batch had already failed.
+     *
+     * @param index position of the input in the submitted batch
+     */
+    public boolean isEvaluated(int index) {
+        return outcomes[index] != NOT_EVALUATED;
+    }
+
+    /** Returns {@code true} if every input in the batch is valid. */
+    public boolean allValid() {
+        for (byte outcome : outcomes) {
+            if (outcome != VALID) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the lowest index of an input found invalid, or {@code -1} if none was.
+     */
+    public int firstInvalidIndex() {
+        for (int i = 0; i < outcomes.length; i++) {
+            if (outcomes[i] == INVALID) return i;
+        }
+        return -1;
+    }
+
+    /** Returns the number of inputs found valid. */
+    public int validCount() {
+        int count = 0;
+        for (byte outcome : outcomes) {
+            if (outcome == VALID) count++;
+        }
+        return count;
+    }
+}
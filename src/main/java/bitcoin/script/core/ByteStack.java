@@ -0,0 +1,367 @@
+package bitcoin.script.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import bitcoin.script.model.DataElement;
+
+/**
+ * Byte-oriented script stack backed by one contiguous, growable arena.
+ *
+ * <p>Element {@code i} (0 = bottom) occupies {@code arena[offsets[i] .. offsets[i] + lengths[i])}.
+ * Elements are laid out in push order, so popping simply moves the arena
+ * watermark back to the popped element's offset; nothing is freed or copied.
+ * Buffers only ever grow, and {@link #reset()} makes the whole capacity
+ * available again, so a stack reused across executions reaches a steady
+ * state in which pushes, pops, duplicates and comparisons allocate nothing.
+ *
+ * <p>Numbers pushed with {@link #pushNumber(long)} are stored as tagged
+ * {@code long}s instead, occupying no arena bytes.  Their byte form is the
+ * decimal encoding used throughout this interpreter ({@code "16"},
+ * {@code "-3"}) and is produced only when a reader asks for bytes or a
+ * string, so arithmetic on values that were computed by arithmetic never
+ * formats or parses anything.  Readers see no difference between a tagged
+ * number and the same digits pushed as data.
+ *
+ * <p>Methods that read or remove elements do not check the stack depth:
+ * callers check {@link #size()} first, as every operation does before it
+ * touches the stack, so underflow never costs an exception here.
+ * {@link Stack} is the checked facade.
+ *
+ * <p>Not thread-safe: each execution context owns its own instance.
+ */
+public final class ByteStack {
+
+    private static final int INITIAL_ELEMENTS = 16;
+    private static final int INITIAL_ARENA    = 256;
+
+    private static final byte FALSE_BYTE = '0';
+
+    /** {@code lengths[i]} of a tagged number; its value is in {@code numbers[i]}. */
+    private static final int NUMERIC = -1;
+
+    /**
+     * Returned by {@link #numberAt(int)} for an element that is not a script
+     * number.  Never a valid operand, since it lies outside {@link #MAX_NUMBER}.
+     */
+    public static final long NOT_A_NUMBER = Long.MIN_VALUE;
+
+    /** Largest magnitude of an arithmetic operand (Bitcoin's four-byte script numbers). */
+    public static final long MAX_NUMBER = Integer.MAX_VALUE;
+
+    private byte[] arena   = new byte[INITIAL_ARENA];
+    private int[]  offsets = new int[INITIAL_ELEMENTS];
+    private int[]  lengths = new int[INITIAL_ELEMENTS];
+    private long[] numbers = new long[INITIAL_ELEMENTS];
+    private int    size;
+    private int    used;   // arena watermark: end of the top element
+
+    private final byte[] digits = new byte[20];   // scratch decimal encoding of a number
+
+    /**
+     * Pushes a copy of {@code src} onto the stack.
+     *
+     * @param src the bytes to push
+     */
+    public void push(byte[] src) {
+        push(src, 0, src.length);
+    }
+
+    /**
+     * Pushes a copy of {@code src[off .. off + len)} onto the stack.
+     *
+     * @param src the source array
+     * @param off start offset in {@code src}
+     * @param len number of bytes to push
+     */
+    public void push(byte[] src, int off, int len) {
+        int start = reserve(len);
+        System.arraycopy(src, off, arena, start, len);
+    }
+
+    /**
+     * Pushes the boolean encoding used by comparison opcodes ({@code "1"} for
+     * true, {@code "0"} for false) as a tagged number.
+     *
+     * @param value the boolean to push
+     */
+    public void pushBoolean(boolean value) {
+        pushNumber(value ? 1 : 0);
+    }
+
+    /**
+     * Pushes {@code value} as a tagged number; it reads as its decimal digits.
+     *
+     * @param value the number to push
+     */
+    public void pushNumber(long value) {
+        reserve(0);
+        lengths[size - 1] = NUMERIC;
+        numbers[size - 1] = value;
+    }
+
+    /**
+     * Duplicates the top element without any intermediate copy.
+     *
+     * <p>The stack must not be empty.
+     */
+    public void dup() {
+        if (lengths[size - 1] == NUMERIC) {
+            pushNumber(numbers[size - 1]);
+            return;
+        }
+        int srcOff = offsets[size - 1];
+        int len    = lengths[size - 1];
+        int start  = reserve(len);
+        System.arraycopy(arena, srcOff, arena, start, len);
+    }
+
+    /**
+     * Removes and returns a copy of the top element.
+     *
+     * @return the top element's bytes; the stack must not be empty
+     */
+    public byte[] pop() {
+        byte[] value = bytesAt(size - 1);
+        used = offsets[--size];
+        return value;
+    }
+
+    /**
+     * Removes the top element and returns it decoded as a UTF-8 string.
+     *
+     * @return the top element as a string; the stack must not be empty
+     */
+    public String popString() {
+        String value = stringAt(size - 1);
+        used = offsets[--size];
+        return value;
+    }
+
+    /**
+     * Returns (without removing) the top element decoded as a UTF-8 string.
+     *
+     * @return the top element as a string; the stack must not be empty
+     */
+    public String peekString() {
+        return stringAt(size - 1);
+    }
+
+    /**
+     * Removes the top {@code count} elements without copying them.
+     *
+     * @param count number of elements to discard; at most {@link #size()}
+     */
+    public void drop(int count) {
+        size -= count;
+        used = size == 0 ? 0 : offsets[size];
+    }
+
+    /**
+     * Compares the two top elements byte by byte, leaving them on the stack.
+     *
+     * @return {@code true} if the two top elements are equal; the stack must
+     *         hold at least two
+     */
+    public boolean topEquals() {
+        int a = size - 2;
+        int b = size - 1;
+        if (lengths[a] == NUMERIC && lengths[b] == NUMERIC) {
+            return numbers[a] == numbers[b];
+        }
+        if (lengths[a] == NUMERIC || lengths[b] == NUMERIC) {
+            int number = lengths[a] == NUMERIC ? a : b;
+            int data   = number == a ? b : a;
+            int len    = formatDigits(numbers[number]);
+            return Arrays.equals(digits, digits.length - len, digits.length,
+                                 arena, offsets[data], offsets[data] + lengths[data]);
+        }
+        return Arrays.equals(arena, offsets[a], offsets[a] + lengths[a],
+                             arena, offsets[b], offsets[b] + lengths[b]);
+    }
+
+    /**
+     * Returns {@code true} if the top element is truthy in Bitcoin Script terms.
+     *
+     * @return {@code true} if truthy; the stack must not be empty
+     * @see Stack#isTruthy(String)
+     */
+    public boolean isTopTruthy() {
+        return isTruthy(size - 1);
+    }
+
+    /**
+     * Removes the top element and returns whether it was truthy.
+     *
+     * @return {@code true} if the removed element was truthy; the stack must
+     *         not be empty
+     */
+    public boolean popTruthy() {
+        boolean truthy = isTruthy(size - 1);
+        drop(1);
+        return truthy;
+    }
+
+    /**
+     * Decodes element {@code index} (0 = bottom) as a UTF-8 string.
+     *
+     * @param index the element position counted from the bottom
+     * @return the element as a string
+     */
+    public String stringAt(int index) {
+        if (lengths[index] == NUMERIC) {
+            return Long.toString(numbers[index]);
+        }
+        return new String(arena, offsets[index], lengths[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns a copy of element {@code index} (0 = bottom).
+     *
+     * @param index the element position counted from the bottom
+     * @return the element's bytes
+     */
+    public byte[] bytesAt(int index) {
+        if (lengths[index] == NUMERIC) {
+            int len = formatDigits(numbers[index]);
+            return Arrays.copyOfRange(digits, digits.length - len, digits.length);
+        }
+        return Arrays.copyOfRange(arena, offsets[index], offsets[index] + lengths[index]);
+    }
+
+    /**
+     * Parses element {@code index} (0 = bottom) as a non-negative decimal
+     * number of at most nine digits, without allocating.
+     *
+     * @param index the element position counted from the bottom
+     * @return the value, or {@code -1} if the element is not such a number
+     */
+    public int decimalAt(int index) {
+        int len = lengths[index];
+        if (len == NUMERIC) {
+            long value = numbers[index];
+            return value >= 0 && value <= 999_999_999 ? (int) value : -1;
+        }
+        if (len == 0 || len > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = offsets[index], end = i + len; i < end; i++) {
+            int digit = arena[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Reads element {@code index} (0 = bottom) as an arithmetic operand,
+     * without allocating: a tagged number as is, data as an optionally
+     * signed decimal ({@code ""} is zero).
+     *
+     * @param index the element position counted from the bottom
+     * @return the value, or {@link #NOT_A_NUMBER} if the element is not a
+     *         number or its magnitude exceeds {@link #MAX_NUMBER}
+     */
+    public long numberAt(int index) {
+        int len = lengths[index];
+        long value;
+        if (len == NUMERIC) {
+            value = numbers[index];
+        } else {
+            int i   = offsets[index];
+            int end = i + len;
+            boolean negative = len > 1 && arena[i] == '-';
+            if (negative) i++;
+            if (end - i > 10) {
+                return NOT_A_NUMBER;
+            }
+            value = 0;
+            for (; i < end; i++) {
+                int digit = arena[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    return NOT_A_NUMBER;
+                }
+                value = value * 10 + digit;
+            }
+            if (negative) value = -value;
+        }
+        return value >= -MAX_NUMBER && value <= MAX_NUMBER ? value : NOT_A_NUMBER;
+    }
+
+    /**
+     * Renders element {@code index} (0 = bottom) as a script token for trace
+     * output, using the same rules as {@link DataElement#render}.
+     *
+     * @param index the element position counted from the bottom
+     * @return the element as a token
+     */
+    public String tokenAt(int index) {
+        if (lengths[index] == NUMERIC) {
+            return Long.toString(numbers[index]);
+        }
+        return DataElement.render(arena, offsets[index], lengths[index]);
+    }
+
+    /** Returns the number of elements currently on the stack. */
+    public int size() {
+        return size;
+    }
+
+    /** Returns {@code true} if the stack contains no elements. */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Discards all elements while keeping the allocated buffers for reuse.
+     */
+    public void reset() {
+        size = 0;
+        used = 0;
+    }
+
+    // Mirrors Stack.isTruthy: false only for the empty element and for "0".
+    private boolean isTruthy(int index) {
+        int len = lengths[index];
+        if (len == NUMERIC) {
+            return numbers[index] != 0;
+        }
+        return len > 1 || (len == 1 && arena[offsets[index]] != FALSE_BYTE);
+    }
+
+    // Writes the decimal form of value right-aligned into digits; returns its length.
+    private int formatDigits(long value) {
+        int pos = digits.length;
+        long rest = value;
+        do {
+            digits[--pos] = (byte) ('0' + Math.abs(rest % 10));
+            rest /= 10;
+        } while (rest != 0);
+        if (value < 0) {
+            digits[--pos] = '-';
+        }
+        return digits.length - pos;
+    }
+
+    // Appends a new top element of length len and returns its arena offset.
+    private int reserve(int len) {
+        if (size == offsets.length) {
+            int capacity = size * 2;
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            numbers = Arrays.copyOf(numbers, capacity);
+        }
+        if (used + len > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, used + len));
+        }
+        int start = used;
+        offsets[size] = start;
+        lengths[size] = len;
+        size++;
+        used = start + len;
+        return start;
+    }
+}
@@ -0,0 +1,434 @@
+package bitcoin.script.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+import bitcoin.script.model.DataElement;
+import bitcoin.script.model.OpElement;
+import bitcoin.script.model.Opcodes;
+import bitcoin.script.model.Script;
+import bitcoin.script.model.ScriptElement;
+import bitcoin.script.ops.OpPushNumber;
+import bitcoin.script.ops.Operation;
+import bitcoin.script.ops.OperationFactory;
+
+/**
+ * Immutable, pre-resolved form of a {@link Script}.
+ *
+ * <p>Compilation resolves every opcode name against an {@link OperationFactory}
+ * exactly once, so the interpreter can dispatch through a plain
+ * {@code Operation[]} without hashing opcode strings on every run.  Data pushes
+ * are stored in a constant pool indexed by instruction position, already
+ * encoded as the bytes that land on the stack.
+ *
+ * <p>Compilation also matches every {@code OP_IF}/{@code OP_NOTIF} with its
+ * {@code OP_ELSE} and {@code OP_ENDIF} and records the result in a jump table,
+ * so the interpreter can step over an inactive branch in constant time.
+ * Unbalanced conditionals are rejected here, before anything is executed:
+ * {@link #compile} throws, while the validator's own compilation yields a
+ * shared, {@linkplain #isRejected() rejected} script instead, so an invalid
+ * input costs no exception.
+ *
+ * <p>The static facts that {@link ScriptLimits} are checked against – the
+ * serialized size, the largest push and a running count of non-push
+ * opcodes – are computed here too, so enforcing them costs one comparison.
+ *
+ * <p>Finally, compilation recognises the standard P2PKH and bare-multisig
+ * locking scripts (see {@link #getTemplateType()}) and records the stack a
+ * push-only script produces, which lets {@link ScriptValidator} evaluate the
+ * common cases without running the interpreter at all.  A pay-to-script-hash
+ * locking script is recognised too (see {@link #isPayToScriptHash()}).
+ *
+ * <p>A compiled script holds no execution state and may be shared between
+ * threads and reused across any number of {@link ScriptValidator#validate} calls.
+ */
+public final class CompiledScript {
+
+    /** Instruction kind: push the constant at the same index. */
+    static final byte KIND_PUSH = 0;
+    /** Instruction kind: apply the resolved operation. */
+    static final byte KIND_OP   = 1;
+    /** Instruction kind: flow-control operation, may redirect through the jump table. */
+    static final byte KIND_FLOW = 2;
+
+    final byte[]      kinds;
+    final Operation[] operations;   // null for KIND_PUSH
+    final byte[][]    constants;    // null for KIND_OP / KIND_FLOW
+    final String[]    tokens;       // original tokens, used in trace output
+    final int[]       opcodeIds;    // factory opcode ids; -1 for pushes and unknown opcodes
+
+    /**
+     * Jump table for flow control.  For an {@code OP_IF}/{@code OP_NOTIF} or
+     * {@code OP_ELSE} it holds the index of the next {@code OP_ELSE} or the
+     * {@code OP_ENDIF} at the same nesting level; {@code -1} everywhere else.
+     */
+    final int[]       jumps;
+
+    /** Opcodes above {@code OP_16} in instructions {@code 0 .. i}, inclusive. */
+    final int[]       opCounts;
+
+    /** Serialized size in bytes (see {@link bitcoin.script.model.BinaryScriptCodec#encodedLength}). */
+    final int         scriptSize;
+
+    /** Length of the largest data push, and its position ({@code -1} if none). */
+    final int         maxPushSize;
+    final int         maxPushIndex;
+
+    /** Stack left by this script if it is push-only, bottom first; otherwise {@code null}. */
+    final byte[][]    pushValues;
+
+    /** Specialised evaluator if this is a standard locking script; otherwise {@code null}. */
+    final StandardTemplate template;
+
+    /** The hash a P2SH locking script commits to; otherwise {@code null}. */
+    final byte[]      scriptHash;
+
+    /** Static analysis, computed on first request by {@link #analysis()}. */
+    private volatile ScriptAnalysis analysis;
+
+    /** Fused instruction table, computed on first request by {@link #fused()}. */
+    private volatile PeepholeOptimizer.Fused[] fused;
+
+    /** Why the script could not be compiled; {@link ScriptError#OK} if it was. */
+    final ScriptError rejection;
+    /** Human-readable detail of {@link #rejection}; {@code null} if compiled. */
+    final String      rejectionMessage;
+
+    // The shared results of scripts that cannot be compiled or decoded.
+    static final CompiledScript UNMATCHED_ELSE  = new CompiledScript(ScriptError.UNBALANCED_CONDITIONAL,
+            "OP_ELSE without matching OP_IF");
+    static final CompiledScript UNMATCHED_ENDIF = new CompiledScript(ScriptError.UNBALANCED_CONDITIONAL,
+            "OP_ENDIF without matching OP_IF");
+    static final CompiledScript UNCLOSED_IF     = new CompiledScript(ScriptError.UNBALANCED_CONDITIONAL,
+            "OP_IF/OP_NOTIF without matching OP_ENDIF");
+    static final CompiledScript MALFORMED       = new CompiledScript(ScriptError.BAD_OPCODE,
+            "Malformed script: push runs past the end of the script");
+
+    /** The operation unknown opcodes compile to. */
+    static final Operation UNKNOWN_OPCODE = ctx -> ctx.fail(ScriptError.BAD_OPCODE);
+
+    private CompiledScript(byte[] kinds, Operation[] operations, byte[][] constants,
+                           String[] tokens, int[] opcodeIds, int[] jumps) {
+        this.kinds      = kinds;
+        this.operations = operations;
+        this.constants  = constants;
+        this.tokens     = tokens;
+        this.opcodeIds  = opcodeIds;
+        this.jumps      = jumps;
+        this.opCounts   = new int[kinds.length];
+        this.rejection        = ScriptError.OK;
+        this.rejectionMessage = null;
+
+        int size = 0;
+        int ops  = 0;
+        int maxPush = 0;
+        int maxPushAt = -1;
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] == KIND_PUSH) {
+                int len = constants[i].length;
+                size += len + (len > 0 && len <= 0x4b ? 1 : len <= 0xFF ? 2 : len <= 0xFFFF ? 3 : 5);
+                if (len > maxPush) {
+                    maxPush   = len;
+                    maxPushAt = i;
+                }
+            } else {
+                size += 1;
+                if (countsTowardOpLimit(tokens[i])) {
+                    ops++;
+                }
+            }
+            opCounts[i] = ops;
+        }
+        this.scriptSize   = size;
+        this.maxPushSize  = maxPush;
+        this.maxPushIndex = maxPushAt;
+        this.pushValues = pushValues(kinds, operations, constants);
+        this.template   = StandardTemplate.match(kinds, operations, constants);
+        this.scriptHash = isP2sh(kinds, tokens) ? constants[1] : null;
+    }
+
+    // A rejected script: no instructions, and neither push-only nor a template.
+    private CompiledScript(ScriptError rejection, String message) {
+        this.kinds        = new byte[0];
+        this.operations   = new Operation[0];
+        this.constants    = new byte[0][];
+        this.tokens       = new String[0];
+        this.opcodeIds    = new int[0];
+        this.jumps        = new int[0];
+        this.opCounts     = new int[0];
+        this.scriptSize   = 0;
+        this.maxPushSize  = 0;
+        this.maxPushIndex = -1;
+        this.pushValues   = null;
+        this.template     = null;
+        this.scriptHash   = null;
+        this.rejection        = rejection;
+        this.rejectionMessage = message;
+    }
+
+    /**
+     * Compiles {@code script}, resolving every opcode against {@code factory}.
+     *
+     * <p>Opcodes that are not registered in the factory are compiled into an
+     * operation that fails with {@link ScriptError#BAD_OPCODE} when executed, so an unknown opcode inside a
+     * skipped branch behaves exactly as it does in the uncompiled script.
+     *
+     * @param script  the script to compile
+     * @param factory the operation factory used to resolve opcode names
+     * @return the compiled script
+     * @throws ScriptException if the script's conditionals are unbalanced
+     */
+    public static CompiledScript compile(Script script, OperationFactory factory) {
+        CompiledScript compiled = compileOrReject(script, factory);
+        if (compiled.isRejected()) {
+            throw new ScriptException(compiled.rejection, compiled.rejectionMessage);
+        }
+        return compiled;
+    }
+
+    /**
+     * Compiles {@code script} like {@link #compile}, but returns a shared
+     * rejected script instead of throwing if its conditionals are unbalanced.
+     *
+     * @param script  the script to compile
+     * @param factory the operation factory used to resolve opcode names
+     * @return the compiled script, or a {@linkplain #isRejected() rejected} one
+     */
+    static CompiledScript compileOrReject(Script script, OperationFactory factory) {
+        List<ScriptElement> elements = script.getElements();
+        int n = elements.size();
+
+        byte[]      kinds      = new byte[n];
+        Operation[] operations = new Operation[n];
+        byte[][]    constants  = new byte[n][];
+        String[]    tokens     = new String[n];
+        int[]       opcodeIds  = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            ScriptElement element = elements.get(i);
+            String token = element.getToken();
+            tokens[i] = token;
+            opcodeIds[i] = -1;
+
+            if (element instanceof DataElement) {
+                kinds[i]     = KIND_PUSH;
+                constants[i] = ((DataElement) element).toByteArray();
+            } else if (element instanceof OpElement) {
+                kinds[i]      = isFlowOpcode(token) ? KIND_FLOW : KIND_OP;
+                operations[i] = resolve(token, factory);
+                opcodeIds[i]  = factory.opcodeId(token);
+            } else {
+                // Custom element types keep their own execute() behaviour.
+                kinds[i]      = isFlowOpcode(token) ? KIND_FLOW : KIND_OP;
+                operations[i] = element::execute;
+            }
+        }
+        int[] jumps = new int[n];
+        CompiledScript unbalanced = buildJumpTable(tokens, kinds, jumps);
+        if (unbalanced != null) {
+            return unbalanced;
+        }
+        return new CompiledScript(kinds, operations, constants, tokens, opcodeIds, jumps);
+    }
+
+    /**
+     * Returns {@code true} if the script could not be compiled or decoded.
+     * A rejected script has no instructions and fails with
+     * {@link #getRejection()} whenever it is evaluated.  Only
+     * {@link RedeemScriptCache#compile} hands such scripts out.
+     */
+    public boolean isRejected() {
+        return rejection != ScriptError.OK;
+    }
+
+    /**
+     * Returns why the script could not be compiled or decoded.
+     *
+     * @return the failure code, {@link ScriptError#OK} if the script compiled
+     */
+    public ScriptError getRejection() {
+        return rejection;
+    }
+
+    /** Returns the number of instructions in this script. */
+    public int size() {
+        return kinds.length;
+    }
+
+    /**
+     * Returns the original token of the instruction at {@code index}.
+     *
+     * @param index the instruction position
+     * @return the opcode name or data value
+     */
+    public String tokenAt(int index) {
+        return tokens[index];
+    }
+
+    /**
+     * Returns the factory opcode id of the instruction at {@code index}.
+     *
+     * @param index the instruction position
+     * @return the id (see {@link OperationFactory#opcodeId(String)}), or
+     *         {@code -1} for a data push or an unknown opcode
+     */
+    public int opcodeIdAt(int index) {
+        return opcodeIds[index];
+    }
+
+    /**
+     * Returns the standard shape this script was recognised as.
+     *
+     * @return the template type, {@link TemplateType#NONSTANDARD} if none matched
+     */
+    public TemplateType getTemplateType() {
+        return template == null ? TemplateType.NONSTANDARD : template.type();
+    }
+
+    /**
+     * Returns {@code true} if the script consists only of data pushes and
+     * stock {@code OP_0}..{@code OP_16} opcodes.
+     */
+    public boolean isPushOnly() {
+        return pushValues != null;
+    }
+
+    /**
+     * Returns {@code true} if this is a pay-to-script-hash locking script,
+     * {@code OP_HASH160 <hash> OP_EQUAL}.
+     */
+    public boolean isPayToScriptHash() {
+        return scriptHash != null;
+    }
+
+    /**
+     * Returns the static analysis of this script, computing it on the first
+     * call.  Concurrent first calls may each compute it; the results are equal.
+     *
+     * @return the analysis
+     */
+    public ScriptAnalysis analysis() {
+        ScriptAnalysis result = analysis;
+        if (result == null) {
+            result = ScriptAnalysis.analyze(this);
+            analysis = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the fused instructions of this script (see
+     * {@link PeepholeOptimizer}), matching them on the first call.
+     *
+     * @return the table indexed by instruction position, or {@code null} if
+     *         nothing could be fused
+     */
+    PeepholeOptimizer.Fused[] fused() {
+        PeepholeOptimizer.Fused[] result = fused;
+        if (result == null) {
+            result = PeepholeOptimizer.optimize(this);
+            fused = result;
+        }
+        return result == PeepholeOptimizer.NONE ? null : result;
+    }
+
+    // Resolves an opcode once; unknown opcodes fail only when actually executed.
+    private static Operation resolve(String opcodeName, OperationFactory factory) {
+        Operation op = factory.get(opcodeName);
+        if (op != null) {
+            return op;
+        }
+        return UNKNOWN_OPCODE;
+    }
+
+    // The values a push-only script leaves on the stack, or null.
+    private static byte[][] pushValues(byte[] kinds, Operation[] operations, byte[][] constants) {
+        byte[][] values = new byte[kinds.length][];
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] == KIND_PUSH) {
+                values[i] = constants[i];
+            } else if (operations[i].getClass() == OpPushNumber.class) {
+                values[i] = ((OpPushNumber) operations[i]).value();
+            } else {
+                return null;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Matches every conditional opcode with the next branch point at the same
+     * nesting level, in a single pass, filling {@code jumps}.
+     *
+     * @return {@code null} if the conditionals are balanced, otherwise the
+     *         rejected script for an OP_ELSE/OP_ENDIF without an open OP_IF
+     *         or an OP_IF/OP_NOTIF that is never closed
+     */
+    private static CompiledScript buildJumpTable(String[] tokens, byte[] kinds, int[] jumps) {
+        int n = tokens.length;
+        Arrays.fill(jumps, -1);
+
+        // openBranch[d] = index of the IF or latest ELSE of the scope at depth d
+        int[] openBranch = new int[n];
+        int depth = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (kinds[i] != KIND_FLOW) {
+                continue;
+            }
+            switch (tokens[i]) {
+                case "OP_IF":
+                case "OP_NOTIF":
+                    openBranch[depth++] = i;
+                    break;
+                case "OP_ELSE":
+                    if (depth == 0) {
+                        return UNMATCHED_ELSE;
+                    }
+                    jumps[openBranch[depth - 1]] = i;
+                    openBranch[depth - 1] = i;
+                    break;
+                case "OP_ENDIF":
+                    if (depth == 0) {
+                        return UNMATCHED_ENDIF;
+                    }
+                    jumps[openBranch[--depth]] = i;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return depth == 0 ? null : UNCLOSED_IF;
+    }
+
+    // Matches on the tokens, as Bitcoin matches on the serialized bytes; any hash
+    // length is accepted because CryptoMock hashes are not 20 bytes long.
+    private static boolean isP2sh(byte[] kinds, String[] tokens) {
+        return kinds.length == 3
+                && kinds[0] != KIND_PUSH && tokens[0].equals("OP_HASH160")
+                && kinds[1] == KIND_PUSH
+                && kinds[2] != KIND_PUSH && tokens[2].equals("OP_EQUAL");
+    }
+
+    // Bitcoin counts every opcode above OP_16; names without a code count too.
+    private static boolean countsTowardOpLimit(String token) {
+        int code = Opcodes.code(token);
+        return code < 0 || code > Opcodes.OP_16;
+    }
+
+    /**
+     * Returns {@code true} for the opcodes that control the execution flow
+     * (IF/NOTIF/ELSE/ENDIF).
+     */
+    static boolean isFlowOpcode(String token) {
+        switch (token) {
+            case "OP_IF":
+            case "OP_NOTIF":
+            case "OP_ELSE":
+            case "OP_ENDIF":
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package bitcoin.script.core;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Callback interface for observing script execution.
+ *
+ * <p>The interpreter holds at most one listener per {@link InterpreterContext}
+ * in a final field and guards every callback with a {@code null} check, so
+ * with no listener attached the hooks cost nothing once the JIT has seen that
+ * the branch is never taken.
+ *
+ * <p>A listener is called only from the thread executing its context; the
+ * validator creates one listener per thread (see
+ * {@link ScriptValidator.Builder#listener}).  All methods have empty default
+ * implementations.
+ */
+public interface ExecutionListener {
+
+    /**
+     * Called before the instruction at {@code pc} is executed.
+     *
+     * @param ctx     the executing context
+     * @param program the program being executed
+     * @param pc      the instruction position
+     */
+    default void beforeOp(InterpreterContext ctx, CompiledScript program, int pc) {
+    }
+
+    /**
+     * Called after the instruction at {@code pc} has executed successfully.
+     *
+     * @param ctx     the executing context
+     * @param program the program being executed
+     * @param pc      the instruction position
+     */
+    default void afterOp(InterpreterContext ctx, CompiledScript program, int pc) {
+    }
+
+    /**
+     * Called when execution jumps over an inactive branch.
+     *
+     * @param ctx     the executing context
+     * @param program the program being executed
+     * @param from    position of the flow-control opcode that deactivated the branch
+     * @param to      position of the matching {@code OP_ELSE}/{@code OP_ENDIF}
+     */
+    default void branchSkipped(InterpreterContext ctx, CompiledScript program, int from, int to) {
+    }
+
+    /**
+     * Called when the instruction at {@code pc} fails, before the interpreter
+     * returns the failure.
+     *
+     * @param ctx     the executing context
+     * @param program the program being executed
+     * @param pc      the failing instruction position
+     * @param error   the failure code
+     */
+    default void failure(InterpreterContext ctx, CompiledScript program, int pc, ScriptError error) {
+    }
+
+    /**
+     * Combines listeners into one that notifies each in order.
+     *
+     * @param listeners the listeners; {@code null} entries are ignored
+     * @return {@code null} if no listener is given, the listener itself if
+     *         there is exactly one, a composite otherwise
+     */
+    static ExecutionListener combine(ExecutionListener... listeners) {
+        ExecutionListener[] present = Arrays.stream(listeners)
+                .filter(Objects::nonNull)
+                .toArray(ExecutionListener[]::new);
+        if (present.length <= 1) {
+            return present.length == 0 ? null : present[0];
+        }
+        return new ExecutionListener() {
+            @Override
+            public void beforeOp(InterpreterContext ctx, CompiledScript program, int pc) {
+                for (ExecutionListener l : present) l.beforeOp(ctx, program, pc);
+            }
+
+            @Override
+            public void afterOp(InterpreterContext ctx, CompiledScript program, int pc) {
+                for (ExecutionListener l : present) l.afterOp(ctx, program, pc);
+            }
+
+            @Override
+            public void branchSkipped(InterpreterContext ctx, CompiledScript program, int from, int to) {
+                for (ExecutionListener l : present) l.branchSkipped(ctx, program, from, to);
+            }
+
+            @Override
+            public void failure(InterpreterContext ctx, CompiledScript program, int pc, ScriptError error) {
+                for (ExecutionListener l : present) l.failure(ctx, program, pc, error);
+            }
+        };
+    }
+}
@@ -2,26 +2,57 @@ package bitcoin.script.core;
 
 import bitcoin.script.ops.OperationFactory;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-
 /**
  * Holds all shared state for a single script execution:
- * the main data stack, the operation factory, the trace flag,
- * and the execution stack used to handle OP_IF / OP_ELSE / OP_ENDIF branching.
+ * the main data stack, the operation factory, the execution listener,
+ * the condition state used to handle OP_IF / OP_ELSE / OP_ENDIF branching,
+ * the signature batch used in {@link SignatureMode#DEFERRED} mode, the
+ * {@link ScriptLimits} with the counters they are checked against, and the
+ * failure state of the current execution.
+ *
+ * <p>Operations report a failure with {@link #fail(ScriptError)} and return;
+ * the interpreter stops at the end of the failing instruction.  No exception
+ * is created, so rejecting an invalid script is as cheap as accepting one.
  */
 public class InterpreterContext {
 
     private final Stack stack;
     private final OperationFactory factory;
-    private final boolean traceEnabled;
+    private final ExecutionListener listener;   // null: no observation
+    private final ScriptLimits limits;
+
+    /** Sentinel for {@link #firstFalse}: every open IF block is active. */
+    private static final int NO_FALSE = -1;
 
     /**
      * Tracks conditional-branch state for nested OP_IF blocks.
-     * Each entry represents one open IF block: {@code true} = currently executing,
-     * {@code false} = currently skipping.
+     *
+     * <p>Only two integers are needed: the number of open IF blocks and the
+     * depth of the outermost inactive one.  Blocks nested inside an inactive
+     * block can never execute, so their own true/false value is irrelevant
+     * (the same representation Bitcoin Core uses for its condition stack).
      */
-    private final Deque<Boolean> executionStack = new ArrayDeque<>();
+    private int conditionDepth = 0;
+    private int firstFalse     = NO_FALSE;
+
+    /** Collector for deferred signature checks; {@code null} verifies inline. */
+    private SignatureBatch signatureBatch;
+
+    /** Whether the interpreter consults {@link CompiledScript#analysis()}. */
+    private boolean staticAnalysis;
+
+    /** Whether the interpreter runs fused instructions (see {@link PeepholeOptimizer}). */
+    private boolean peephole;
+
+    /** First failure of the current execution, and where it happened. */
+    private ScriptError error = ScriptError.OK;
+    int errorPosition = -1;   // set by the interpreter
+
+    /** Resource counters, maintained by the interpreter. */
+    long steps;      // instructions executed since reset()
+    long deadline;   // System.nanoTime() value at which the time budget runs out
+    int  opCount;    // counted opcodes of the current script, including multisig keys
+    int  extraOps;   // multisig keys added to opCount in the current script
 
     /**
      * Creates a new context with the given stack, factory, and trace setting.
@@ -29,11 +60,109 @@ public class InterpreterContext {
      * @param stack        the shared data stack
      * @param factory      the operation factory for opcode lookup
      * @param traceEnabled whether to print trace output after each instruction
+     *                     (installs a {@link PrintingTraceListener})
      */
     public InterpreterContext(Stack stack, OperationFactory factory, boolean traceEnabled) {
-        this.stack        = stack;
-        this.factory      = factory;
-        this.traceEnabled = traceEnabled;
+        this(stack, factory, traceEnabled ? new PrintingTraceListener() : null);
+    }
+
+    /**
+     * Creates a new context observed by {@code listener}.
+     *
+     * @param stack    the shared data stack
+     * @param factory  the operation factory for opcode lookup
+     * @param listener the execution listener, or {@code null} for none
+     */
+    public InterpreterContext(Stack stack, OperationFactory factory, ExecutionListener listener) {
+        this(stack, factory, listener, ScriptLimits.standard());
+    }
+
+    /**
+     * Creates a new context observed by {@code listener} and bounded by {@code limits}.
+     *
+     * @param stack    the shared data stack
+     * @param factory  the operation factory for opcode lookup
+     * @param listener the execution listener, or {@code null} for none
+     * @param limits   the resource limits to enforce
+     */
+    public InterpreterContext(Stack stack, OperationFactory factory, ExecutionListener listener,
+                              ScriptLimits limits) {
+        this.stack    = stack;
+        this.factory  = factory;
+        this.listener = listener;
+        this.limits   = limits;
+        startBudget();
+    }
+
+    /**
+     * Clears the stack and all conditional-branch state so the context can be
+     * reused for another execution without reallocating its buffers.
+     */
+    public void reset() {
+        stack.reset();
+        conditionDepth = 0;
+        firstFalse     = NO_FALSE;
+        error          = ScriptError.OK;
+        errorPosition  = -1;
+        startBudget();
+    }
+
+    // Steps and time are budgeted per execution, i.e. from one reset() to the next.
+    private void startBudget() {
+        steps    = 0;
+        deadline = limits.hasTimeBudget() ? System.nanoTime() + limits.getTimeBudgetNanos() : 0;
+    }
+
+    /** Returns the resource limits enforced on this context. */
+    public ScriptLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Adds {@code n} to the current script's opcode count, failing with
+     * {@link ScriptError#OP_COUNT} if that exceeds the limit.  Used by
+     * {@code OP_CHECKMULTISIG}, which counts each public key as an opcode.
+     *
+     * @param n the number of opcodes to add
+     */
+    public void addOpCount(int n) {
+        extraOps += n;
+        opCount  += n;
+        if (opCount > limits.getMaxOps()) {
+            fail(ScriptError.OP_COUNT);
+        }
+    }
+
+    /**
+     * Marks the current execution as failed.  Only the first failure is kept;
+     * the caller should return without touching the stack any further.
+     *
+     * @param error the failure code (not {@link ScriptError#OK})
+     */
+    public void fail(ScriptError error) {
+        if (this.error == ScriptError.OK) {
+            this.error = error;
+        }
+    }
+
+    /** Returns {@code true} if an operation has failed since the last {@link #reset()}. */
+    public boolean hasFailed() {
+        return error != ScriptError.OK;
+    }
+
+    /** Returns the first failure since the last {@link #reset()}, or {@link ScriptError#OK}. */
+    public ScriptError getError() {
+        return error;
+    }
+
+    /**
+     * Returns the position, in the program that was executing, of the
+     * instruction that failed.
+     *
+     * @return the instruction index, or {@code -1} if nothing has failed
+     */
+    public int getErrorPosition() {
+        return errorPosition;
     }
 
     /** Returns the shared script stack. */
@@ -46,23 +175,80 @@ public class InterpreterContext {
         return factory;
     }
 
-    /** Returns {@code true} if trace output is enabled. */
+    /**
+     * Returns the batch that signature opcodes should record their checks in.
+     *
+     * @return the batch, or {@code null} if signatures are verified immediately
+     */
+    public SignatureBatch getSignatureBatch() {
+        return signatureBatch;
+    }
+
+    /**
+     * Installs (or, with {@code null}, removes) the deferred signature batch.
+     * Unlike the stack, the batch survives {@link #reset()}, so one batch can
+     * collect the checks of several executions.
+     *
+     * @param batch the batch to record checks in, or {@code null}
+     */
+    public void setSignatureBatch(SignatureBatch batch) {
+        this.signatureBatch = batch;
+    }
+
+    /** Returns {@code true} if programs are checked by their {@link ScriptAnalysis} before running. */
+    public boolean isStaticAnalysis() {
+        return staticAnalysis;
+    }
+
+    /**
+     * Makes the interpreter check every program against its
+     * {@link ScriptAnalysis} on entry (default {@code false}): programs that
+     * cannot succeed are rejected without executing, and programs proven to
+     * fit the stack-size limit skip its per-instruction check.  Like the
+     * signature batch, the setting survives {@link #reset()}.
+     *
+     * @param enabled {@code true} to consult the analysis
+     */
+    public void setStaticAnalysis(boolean enabled) {
+        this.staticAnalysis = enabled;
+    }
+
+    /** Returns {@code true} if the interpreter may run fused instruction pairs. */
+    public boolean isPeephole() {
+        return peephole;
+    }
+
+    /**
+     * Lets the interpreter run common instruction pairs such as
+     * {@code OP_DUP OP_HASH160} as one fused instruction (default
+     * {@code false}).  Results, failure codes and positions are unchanged,
+     * and nothing is fused while a listener is attached, so traces show
+     * every original instruction.  The setting survives {@link #reset()}.
+     *
+     * @param enabled {@code true} to run fused instructions
+     */
+    public void setPeephole(boolean enabled) {
+        this.peephole = enabled;
+    }
+
+    /** Returns the execution listener, or {@code null} if none is attached. */
+    public ExecutionListener getListener() {
+        return listener;
+    }
+
+    /** Returns {@code true} if a listener (such as the printing trace) is attached. */
     public boolean isTraceEnabled() {
-        return traceEnabled;
+        return listener != null;
     }
 
     /**
      * Returns {@code true} if the interpreter should currently execute instructions.
-     * This is the case when every open IF block is in its active (true) branch,
-     * i.e. the execution stack is empty or all entries are {@code true}.
+     * This is the case when every open IF block is in its active (true) branch.
      *
      * @return {@code true} if execution is active
      */
     public boolean shouldExecute() {
-        for (boolean active : executionStack) {
-            if (!active) return false;
-        }
-        return true;
+        return firstFalse == NO_FALSE;
     }
 
     /**
@@ -71,32 +257,52 @@ public class InterpreterContext {
      * @param active {@code true} if the new scope should execute, {@code false} to skip it
      */
     public void pushExecution(boolean active) {
-        executionStack.push(active);
+        if (!active && firstFalse == NO_FALSE) {
+            firstFalse = conditionDepth;
+        }
+        conditionDepth++;
     }
 
     /**
      * Closes the innermost conditional scope (called by OP_ENDIF).
      *
-     * @return the value that was popped
-     * @throws ScriptException if there is no open conditional scope to close
+     * <p>Fails with {@link ScriptError#UNBALANCED_CONDITIONAL} if there is no
+     * open conditional scope to close.
+     *
+     * @return {@code true} if execution was active inside the closed scope,
+     *         i.e. that scope and every scope enclosing it were in their
+     *         active branch; an active branch inside a skipped outer scope
+     *         returns {@code false}
      */
     public boolean popExecution() {
-        if (executionStack.isEmpty()) {
-            throw new ScriptException("OP_ENDIF without matching OP_IF");
+        if (conditionDepth == 0) {
+            fail(ScriptError.UNBALANCED_CONDITIONAL);
+            return false;
         }
-        return executionStack.pop();
+        boolean wasActive = firstFalse == NO_FALSE;
+        conditionDepth--;
+        if (firstFalse == conditionDepth) {
+            firstFalse = NO_FALSE;
+        }
+        return wasActive;
     }
 
     /**
      * Toggles the innermost conditional scope between executing and skipping (called by OP_ELSE).
      *
-     * @throws ScriptException if there is no open conditional scope to toggle
+     * <p>Fails with {@link ScriptError#UNBALANCED_CONDITIONAL} if there is no
+     * open conditional scope to toggle.
      */
     public void toggleExecution() {
-        if (executionStack.isEmpty()) {
-            throw new ScriptException("OP_ELSE without matching OP_IF");
+        if (conditionDepth == 0) {
+            fail(ScriptError.UNBALANCED_CONDITIONAL);
+            return;
+        }
+        if (firstFalse == NO_FALSE) {
+            firstFalse = conditionDepth - 1;
+        } else if (firstFalse == conditionDepth - 1) {
+            firstFalse = NO_FALSE;
         }
-        boolean current = executionStack.pop();
-        executionStack.push(!current);
+        // otherwise an outer scope is inactive and the toggle has no visible effect
     }
 }
@@ -0,0 +1,440 @@
+package bitcoin.script.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import bitcoin.script.ops.OperationFactory;
+
+/**
+ * Opt-in execution metrics: per-opcode invocation counts and latency
+ * histograms, validation throughput, failure reasons and the stack-depth
+ * high-water mark.
+ *
+ * <p>Install with {@link ScriptValidator.Builder#metrics(InterpreterMetrics)}.
+ * Each validating thread then gets its own {@link ExecutionListener} from
+ * {@link #newListener()}, which times every instruction between
+ * {@code beforeOp} and {@code afterOp} and adds the result to shared
+ * {@link LongAdder} counters, so parallel validation does not contend on them.
+ *
+ * <p>Latency histograms use power-of-two buckets: bucket {@code b} counts
+ * durations in {@code [2^(b-1), 2^b)} nanoseconds (bucket 0 counts zero).
+ * Data pushes are reported under the name {@value #PUSH}.
+ *
+ * <p>In {@link SignatureMode#DEFERRED} mode, an input is counted once: the
+ * validator holds back what its optimistic run recorded until the run is
+ * confirmed, and drops it if the input is re-executed exactly.
+ *
+ * <p>Read the data with {@link #snapshot()}, or expose it over JMX with
+ * {@link #registerMBean(String)}.
+ */
+public final class InterpreterMetrics implements InterpreterMetricsMXBean {
+
+    /** Name under which data pushes are reported. */
+    public static final String PUSH = "<push>";
+
+    /** Number of latency buckets per opcode. */
+    public static final int BUCKETS = 64;
+
+    private final OperationFactory factory;
+    private final int pushSlot;
+
+    private final LongAdder[]   counts;
+    private final LongAdder[]   totalNanos;
+    private final LongAdder[][] histograms;
+    private final LongAdder     validations = new LongAdder();
+    private final LongAdder     invalid     = new LongAdder();
+    private final Map<String, LongAdder> failureReasons = new ConcurrentHashMap<>();
+    private final LongAccumulator maxStackDepth = new LongAccumulator(Math::max, 0);
+    private volatile long startNanos = System.nanoTime();
+    private volatile int  generation;   // bumped by reset(), so recorders drop their high-water marks
+
+    /**
+     * Creates empty metrics for the opcodes of {@code factory}.
+     *
+     * @param factory the factory whose opcode ids the validator uses
+     */
+    public InterpreterMetrics(OperationFactory factory) {
+        this.factory  = factory;
+        this.pushSlot = factory.opcodeCount();
+        int slots = pushSlot + 1;
+        counts     = new LongAdder[slots];
+        totalNanos = new LongAdder[slots];
+        histograms = new LongAdder[slots][BUCKETS];
+        for (int i = 0; i < slots; i++) {
+            counts[i]     = new LongAdder();
+            totalNanos[i] = new LongAdder();
+            for (int b = 0; b < BUCKETS; b++) {
+                histograms[i][b] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * Returns a new listener feeding these metrics.  Listeners are not
+     * thread-safe; create one per validating thread.
+     *
+     * @return the listener
+     */
+    public ExecutionListener newListener() {
+        return new Recorder();
+    }
+
+    // The validator's own listener, which it can ask to hold back recordings.
+    Recorder newRecorder() {
+        return new Recorder();
+    }
+
+    /** Returns the factory whose opcode ids these metrics are indexed by. */
+    OperationFactory factory() {
+        return factory;
+    }
+
+    /**
+     * Records the outcome of one validation.
+     *
+     * @param valid whether the validation succeeded
+     */
+    public void recordValidation(boolean valid) {
+        validations.increment();
+        if (!valid) {
+            invalid.increment();
+        }
+    }
+
+    /**
+     * Records a failure that did not come from a running instruction, such as
+     * a script rejected before execution.
+     *
+     * @param reason the failure reason
+     */
+    public void recordFailure(String reason) {
+        failureReasons.computeIfAbsent(reason, r -> new LongAdder()).increment();
+    }
+
+    // ── MXBean view ──────────────────────────────────────────────────────────
+
+    @Override
+    public long getValidations() {
+        return validations.sum();
+    }
+
+    @Override
+    public long getInvalidValidations() {
+        return invalid.sum();
+    }
+
+    @Override
+    public double getValidationsPerSecond() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds <= 0 ? 0 : validations.sum() / seconds;
+    }
+
+    @Override
+    public long getMaxStackDepth() {
+        return maxStackDepth.get();
+    }
+
+    @Override
+    public Map<String, Long> getOpcodeCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            long n = counts[i].sum();
+            if (n > 0) result.put(slotName(i), n);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Double> getOpcodeMeanNanos() {
+        Map<String, Double> result = new TreeMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            long n = counts[i].sum();
+            if (n > 0) result.put(slotName(i), (double) totalNanos[i].sum() / n);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getFailureReasons() {
+        Map<String, Long> result = new TreeMap<>();
+        failureReasons.forEach((reason, n) -> result.put(reason, n.sum()));
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i].reset();
+            totalNanos[i].reset();
+            for (LongAdder bucket : histograms[i]) bucket.reset();
+        }
+        validations.reset();
+        invalid.reset();
+        failureReasons.clear();
+        maxStackDepth.reset();
+        generation++;
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server under
+     * {@code bitcoin.script:type=InterpreterMetrics,name=<name>}.
+     *
+     * @param name the {@code name} key of the object name
+     * @return the registered object name
+     * @throws IllegalStateException if registration fails
+     */
+    public ObjectName registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName(
+                    "bitcoin.script:type=InterpreterMetrics,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register metrics MBean " + name, e);
+        }
+    }
+
+    // ── Snapshot API ─────────────────────────────────────────────────────────
+
+    /**
+     * Returns a point-in-time copy of all metrics.  Counters are read one
+     * after another, so a snapshot taken during validation is only
+     * approximately consistent.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        Map<String, OpcodeStats> opcodes = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            long n = counts[i].sum();
+            if (n == 0) continue;
+            long[] buckets = new long[BUCKETS];
+            for (int b = 0; b < BUCKETS; b++) {
+                buckets[b] = histograms[i][b].sum();
+            }
+            opcodes.put(slotName(i), new OpcodeStats(n, totalNanos[i].sum(), buckets));
+        }
+        return new Snapshot(getValidations(), getInvalidValidations(), getValidationsPerSecond(),
+                            getMaxStackDepth(), opcodes, getFailureReasons());
+    }
+
+    private String slotName(int slot) {
+        return slot == pushSlot ? PUSH : factory.opcodeName(slot);
+    }
+
+    // Bucket b holds [2^(b-1), 2^b) ns; negative readings count as zero.
+    static int bucketOf(long nanos) {
+        return nanos <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    // Per-thread listener: times each instruction and feeds the shared adders.
+    // While holding, recordings are kept back until commit() or discard().
+    final class Recorder implements ExecutionListener {
+        private long started;
+        private int  localMaxDepth;
+        private int  seenGeneration = generation;
+
+        private boolean holding;
+        private int     held;
+        private int[]   heldSlots  = new int[64];    // failures as -1 - error ordinal
+        private long[]  heldNanos  = new long[64];
+        private int[]   heldDepths = new int[64];
+
+        @Override
+        public void beforeOp(InterpreterContext ctx, CompiledScript program, int pc) {
+            started = System.nanoTime();
+        }
+
+        @Override
+        public void afterOp(InterpreterContext ctx, CompiledScript program, int pc) {
+            long nanos = System.nanoTime() - started;
+            int id   = program.opcodeIdAt(pc);
+            int slot = id < 0 ? pushSlot : id;
+            int depth = ctx.getStack().size();
+            if (holding) {
+                hold(slot, nanos, depth);
+            } else {
+                record(slot, nanos, depth);
+            }
+        }
+
+        @Override
+        public void failure(InterpreterContext ctx, CompiledScript program, int pc, ScriptError error) {
+            if (holding) {
+                hold(-1 - error.ordinal(), 0, 0);
+            } else {
+                recordFailure(error.getDescription());
+            }
+        }
+
+        /** Starts holding back recordings; {@link #held()} restarts at zero. */
+        void hold() {
+            holding = true;
+            held    = 0;
+        }
+
+        /** Returns the number of recordings held back so far. */
+        int held() {
+            return held;
+        }
+
+        /** Feeds the held recordings {@code [from, to)} to the metrics. */
+        void commit(int from, int to) {
+            for (int i = from; i < to; i++) {
+                int slot = heldSlots[i];
+                if (slot < 0) {
+                    recordFailure(ScriptError.values()[-1 - slot].getDescription());
+                } else {
+                    record(slot, heldNanos[i], heldDepths[i]);
+                }
+            }
+        }
+
+        /** Stops holding; recordings not committed are dropped. */
+        void release() {
+            holding = false;
+            held    = 0;
+        }
+
+        private void hold(int slot, long nanos, int depth) {
+            if (held == heldSlots.length) {
+                heldSlots  = Arrays.copyOf(heldSlots, held * 2);
+                heldNanos  = Arrays.copyOf(heldNanos, held * 2);
+                heldDepths = Arrays.copyOf(heldDepths, held * 2);
+            }
+            heldSlots[held]  = slot;
+            heldNanos[held]  = nanos;
+            heldDepths[held] = depth;
+            held++;
+        }
+
+        private void record(int slot, long nanos, int depth) {
+            counts[slot].increment();
+            totalNanos[slot].add(nanos);
+            histograms[slot][bucketOf(nanos)].increment();
+            if (seenGeneration != generation) {
+                seenGeneration = generation;
+                localMaxDepth  = 0;
+            }
+            if (depth > localMaxDepth) {
+                localMaxDepth = depth;
+                maxStackDepth.accumulate(depth);
+            }
+        }
+    }
+
+    /** Immutable copy of the metrics at one point in time. */
+    public static final class Snapshot {
+        private final long   validations;
+        private final long   invalid;
+        private final double validationsPerSecond;
+        private final long   maxStackDepth;
+        private final Map<String, OpcodeStats> opcodes;
+        private final Map<String, Long>        failureReasons;
+
+        Snapshot(long validations, long invalid, double validationsPerSecond, long maxStackDepth,
+                 Map<String, OpcodeStats> opcodes, Map<String, Long> failureReasons) {
+            this.validations          = validations;
+            this.invalid              = invalid;
+            this.validationsPerSecond = validationsPerSecond;
+            this.maxStackDepth        = maxStackDepth;
+            this.opcodes              = Collections.unmodifiableMap(opcodes);
+            this.failureReasons       = Collections.unmodifiableMap(failureReasons);
+        }
+
+        /** Returns the number of validations finished. */
+        public long getValidations() {
+            return validations;
+        }
+
+        /** Returns the number of validations that ended invalid. */
+        public long getInvalidValidations() {
+            return invalid;
+        }
+
+        /** Returns validations per second since the metrics were created or reset. */
+        public double getValidationsPerSecond() {
+            return validationsPerSecond;
+        }
+
+        /** Returns the deepest stack observed after any instruction. */
+        public long getMaxStackDepth() {
+            return maxStackDepth;
+        }
+
+        /** Returns the statistics of every opcode that ran, keyed by opcode name. */
+        public Map<String, OpcodeStats> getOpcodes() {
+            return opcodes;
+        }
+
+        /** Returns failure counts keyed by failure reason. */
+        public Map<String, Long> getFailureReasons() {
+            return failureReasons;
+        }
+    }
+
+    /** Invocation count and latency histogram of one opcode. */
+    public static final class OpcodeStats {
+        private final long   count;
+        private final long   totalNanos;
+        private final long[] buckets;
+
+        OpcodeStats(long count, long totalNanos, long[] buckets) {
+            this.count      = count;
+            this.totalNanos = totalNanos;
+            this.buckets    = buckets;
+        }
+
+        /** Returns the number of invocations. */
+        public long getCount() {
+            return count;
+        }
+
+        /** Returns the summed latency in nanoseconds. */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * Returns the number of invocations in latency bucket {@code b}.
+         *
+         * @param b the bucket index, see {@link InterpreterMetrics}
+         * @return the bucket count
+         */
+        public long getBucket(int b) {
+            return buckets[b];
+        }
+
+        /**
+         * Returns an upper bound for the {@code p}-th latency percentile: the
+         * upper edge of the bucket that contains it.
+         *
+         * @param p the percentile, in {@code [0, 100]}
+         * @return the latency bound in nanoseconds
+         */
+        public long percentileNanos(double p) {
+            long rank = (long) Math.ceil(p / 100.0 * count);
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += buckets[b];
+                if (seen >= Math.max(rank, 1)) {
+                    return b == 0 ? 0 : b == BUCKETS - 1 ? Long.MAX_VALUE : (1L << b) - 1;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+}
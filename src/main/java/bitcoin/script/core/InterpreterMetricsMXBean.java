@@ -0,0 +1,34 @@
+package bitcoin.script.core;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link InterpreterMetrics}, registered with
+ * {@link InterpreterMetrics#registerMBean(String)}.
+ */
+public interface InterpreterMetricsMXBean {
+
+    /** Returns the number of validations finished. */
+    long getValidations();
+
+    /** Returns the number of validations that ended invalid. */
+    long getInvalidValidations();
+
+    /** Returns validations per second since the metrics were created or reset. */
+    double getValidationsPerSecond();
+
+    /** Returns the deepest stack observed after any instruction. */
+    long getMaxStackDepth();
+
+    /** Returns the invocation count of every opcode that ran at least once. */
+    Map<String, Long> getOpcodeCounts();
+
+    /** Returns the mean latency in nanoseconds of every opcode that ran at least once. */
+    Map<String, Double> getOpcodeMeanNanos();
+
+    /** Returns failure counts keyed by failure reason. */
+    Map<String, Long> getFailureReasons();
+
+    /** Clears all counters. */
+    void reset();
+}
@@ -0,0 +1,176 @@
+package bitcoin.script.core;
+
+import bitcoin.script.crypto.CryptoProvider;
+import bitcoin.script.ops.OpCheckSig;
+import bitcoin.script.ops.OpDrop;
+import bitcoin.script.ops.OpDup;
+import bitcoin.script.ops.OpEqualVerify;
+import bitcoin.script.ops.OpHash160;
+import bitcoin.script.ops.Operation;
+
+/**
+ * Rewrites common instruction pairs of a {@link CompiledScript} into fused
+ * instructions.
+ *
+ * <p>The result is a side table indexed by instruction position: the entry
+ * at the first instruction of a matched pair stands in for the whole pair.
+ * The script's own instructions are left untouched, so trace output,
+ * listeners and error positions keep referring to the original tokens.  The
+ * interpreter only takes a fused instruction when no listener is attached
+ * and when the instruction's preconditions show that the pair cannot fail
+ * anywhere but in its first instruction: the stack holds
+ * {@link Fused#depth} elements, and neither the limits nor a time check fall
+ * inside the pair.  Otherwise it runs the original instructions one by one.
+ *
+ * <p>The fused pairs, matched left to right without overlap:
+ * <ul>
+ *   <li>{@code OP_DUP OP_HASH160} – hashes the top element in place of a copy</li>
+ *   <li>{@code OP_EQUALVERIFY OP_CHECKSIG} – one dispatch for P2PKH's tail</li>
+ *   <li>{@code OP_DROP OP_DROP} – one two-element drop</li>
+ *   <li>{@code OP_DUP OP_DROP} and {@code <push> OP_DROP} – no-ops, eliminated</li>
+ * </ul>
+ * Only the standard operation classes are matched, so a factory that
+ * registers its own implementation under one of these names is never fused.
+ */
+final class PeepholeOptimizer {
+
+    /** Table of a script in which nothing was fused. */
+    static final Fused[] NONE = new Fused[0];
+
+    private PeepholeOptimizer() {
+    }
+
+    /**
+     * Matches the fusible pairs of {@code program}.
+     *
+     * @param program the compiled script
+     * @return the fused instruction at the first position of every matched
+     *         pair, {@code null} elsewhere; {@link #NONE} if nothing matched
+     */
+    static Fused[] optimize(CompiledScript program) {
+        int n = program.size();
+        Fused[] table = null;
+        int i = 0;
+        while (i + 1 < n) {
+            Fused fused = match(program, i);
+            if (fused == null) {
+                i++;
+                continue;
+            }
+            if (table == null) {
+                table = new Fused[n];
+            }
+            table[i] = fused;
+            i += fused.width;
+        }
+        return table == null ? NONE : table;
+    }
+
+    private static Fused match(CompiledScript program, int i) {
+        if (program.kinds[i] == CompiledScript.KIND_PUSH) {
+            return is(program, i + 1, OpDrop.class) ? NO_OP_PUSH : null;
+        }
+        if (is(program, i, OpDup.class)) {
+            if (is(program, i + 1, OpHash160.class)) {
+                return new DupHash160(((OpHash160) program.operations[i + 1]).getCrypto());
+            }
+            return is(program, i + 1, OpDrop.class) ? NO_OP_DUP : null;
+        }
+        if (is(program, i, OpDrop.class)) {
+            return is(program, i + 1, OpDrop.class) ? DROP_2 : null;
+        }
+        if (is(program, i, OpEqualVerify.class) && is(program, i + 1, OpCheckSig.class)) {
+            return new EqualVerifyCheckSig(program.operations[i + 1]);
+        }
+        return null;
+    }
+
+    private static boolean is(CompiledScript program, int i, Class<? extends Operation> type) {
+        return program.kinds[i] == CompiledScript.KIND_OP && program.operations[i].getClass() == type;
+    }
+
+    // ── Fused instructions ─────────────────────────────────────────────────
+
+    /**
+     * An instruction that replaces {@link #width} consecutive instructions.
+     * It may only fail where the first of them would, with the same code.
+     */
+    abstract static class Fused {
+        /** Number of original instructions replaced. */
+        final int width;
+        /** Stack elements needed for no instruction of the sequence to underflow. */
+        final int depth;
+        /** Largest number of elements the original sequence has above its entry depth. */
+        final int growth;
+
+        Fused(int width, int depth, int growth) {
+            this.width  = width;
+            this.depth  = depth;
+            this.growth = growth;
+        }
+
+        /**
+         * Applies the whole sequence; called only with at least {@link #depth}
+         * elements on the stack.
+         *
+         * @param ctx the interpreter context
+         */
+        abstract void apply(InterpreterContext ctx);
+    }
+
+    /** A pair with no net effect: only its preconditions matter. */
+    private static final class NoOp extends Fused {
+        NoOp(int depth) {
+            super(2, depth, 1);
+        }
+
+        @Override
+        void apply(InterpreterContext ctx) {
+        }
+    }
+
+    private static final Fused NO_OP_DUP  = new NoOp(1);
+    private static final Fused NO_OP_PUSH = new NoOp(0);
+
+    private static final Fused DROP_2 = new Fused(2, 2, 0) {
+        @Override
+        void apply(InterpreterContext ctx) {
+            ctx.getStack().bytes().drop(2);
+        }
+    };
+
+    private static final class DupHash160 extends Fused {
+        private final CryptoProvider crypto;
+
+        DupHash160(CryptoProvider crypto) {
+            super(2, 1, 1);
+            this.crypto = crypto;
+        }
+
+        @Override
+        void apply(InterpreterContext ctx) {
+            ByteStack stack = ctx.getStack().bytes();
+            stack.push(crypto.hash160(stack.bytesAt(stack.size() - 1)));
+        }
+    }
+
+    private static final class EqualVerifyCheckSig extends Fused {
+        private final Operation checkSig;
+
+        EqualVerifyCheckSig(Operation checkSig) {
+            super(2, 4, 0);
+            this.checkSig = checkSig;
+        }
+
+        @Override
+        void apply(InterpreterContext ctx) {
+            ByteStack stack = ctx.getStack().bytes();
+            if (!stack.topEquals()) {
+                ctx.fail(ScriptError.EQUALVERIFY);
+                return;
+            }
+            stack.drop(2);
+            checkSig.apply(ctx);   // keeps deferred-signature recording in one place
+        }
+    }
+}
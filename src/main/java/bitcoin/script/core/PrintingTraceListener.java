@@ -0,0 +1,41 @@
+package bitcoin.script.core;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * {@link ExecutionListener} that prints the classic {@code --trace} output:
+ * after every executed instruction, its token and a bottom-to-top snapshot of
+ * the stack.
+ *
+ * <pre>
+ * [TRACE] token=OP_DUP  stack=[SIG_OK, PUBKEY_ABC, PUBKEY_ABC]
+ * </pre>
+ *
+ * <p>Each line copies the whole stack, so this listener is meant for
+ * debugging; use {@link RingBufferRecorder} for always-on tracing.
+ */
+public final class PrintingTraceListener implements ExecutionListener {
+
+    private final PrintStream out;
+
+    /** Creates a listener that prints to {@code System.out}. */
+    public PrintingTraceListener() {
+        this(System.out);
+    }
+
+    /**
+     * Creates a listener that prints to {@code out}.
+     *
+     * @param out the destination stream
+     */
+    public PrintingTraceListener(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void afterOp(InterpreterContext ctx, CompiledScript program, int pc) {
+        List<String> snapshot = ctx.getStack().snapshot(); // bottom-first
+        out.println("[TRACE] token=" + program.tokenAt(pc) + "  stack=" + snapshot);
+    }
+}
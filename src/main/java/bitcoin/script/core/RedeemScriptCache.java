@@ -0,0 +1,177 @@
+package bitcoin.script.core;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import bitcoin.script.model.BinaryScriptCodec;
+import bitcoin.script.model.Script;
+import bitcoin.script.ops.OperationFactory;
+
+/**
+ * Bounded, thread-safe cache of compiled P2SH redeem scripts.
+ *
+ * <p>The same redeem script (an exchange's multisig wallet, say) is spent by
+ * thousands of inputs.  Entries are keyed by the script hash the locking
+ * script commits to and by the operation factory, so once a redeem script
+ * has been decoded and compiled every later spend of it skips both steps.
+ * Each entry keeps the serialized script it was compiled from, and a hit is
+ * only taken if the script looked up is byte-for-byte the same: two scripts
+ * with one hash (a weak or mocked hash function, say) never share an entry.
+ * Callers must only look up a hash after checking that the redeem script
+ * hashes to it, which {@link ScriptValidator} does by executing the locking
+ * script first.
+ *
+ * <p>Scripts that fail to decode or compile are not cached; they come back as
+ * a shared {@linkplain CompiledScript#isRejected() rejected} script, so a
+ * malformed redeem script costs no exception.  Like
+ * {@link ValidationCache}, the cache evicts a random entry once full, and
+ * salts its key hashes so colliding hashes cannot be prepared in advance.
+ */
+public final class RedeemScriptCache {
+
+    /** Capacity of the cache a validator creates when none is supplied. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final int salt = new SecureRandom().nextInt();
+    private final Map<Key, Entry> scripts = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Key> slots;
+    private final AtomicLong inserted = new AtomicLong();
+    private final LongAdder hits   = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache holding at most {@code capacity} compiled scripts.
+     *
+     * @param capacity maximum number of cached scripts (&gt; 0)
+     */
+    public RedeemScriptCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Returns the compiled redeem script for {@code scriptHash}, decoding and
+     * compiling {@code redeemScript} on a miss.
+     *
+     * @param scriptHash   the hash of {@code redeemScript}, already verified
+     * @param redeemScript the serialized redeem script
+     * @param factory      the operation factory to compile against
+     * @return the compiled script, or a {@linkplain CompiledScript#isRejected()
+     *         rejected} one if it cannot be decoded or compiled
+     */
+    public CompiledScript compile(byte[] scriptHash, byte[] redeemScript, OperationFactory factory) {
+        Key key = new Key(factory.serial(), scriptHash, salt);
+        Entry cached = scripts.get(key);
+        if (cached != null && Arrays.equals(cached.redeemScript, redeemScript)) {
+            hits.increment();
+            return cached.script;
+        }
+        misses.increment();
+        Script decoded = BinaryScriptCodec.tryDecode(redeemScript, 0, redeemScript.length);
+        if (decoded == null) {
+            return CompiledScript.MALFORMED;
+        }
+        CompiledScript script = CompiledScript.compileOrReject(decoded, factory);
+        if (script.isRejected()) {
+            return script;
+        }
+        Entry entry = new Entry(redeemScript.clone(), script);
+        if (cached != null) {
+            scripts.replace(key, cached, entry);   // same hash, other script: the newer one stays
+            return script;
+        }
+        key = new Key(key.factory, scriptHash.clone(), salt);   // lookups need no copy, entries do
+        if (scripts.putIfAbsent(key, entry) == null) {
+            long n = inserted.getAndIncrement();
+            int slot = n < slots.length()
+                    ? (int) n
+                    : ThreadLocalRandom.current().nextInt(slots.length());
+            Key evicted = slots.getAndSet(slot, key);
+            if (evicted != null) {
+                scripts.remove(evicted);
+            }
+        }
+        return script;
+    }
+
+    /** Removes every cached script; statistics are kept. */
+    public void clear() {
+        scripts.clear();
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+        inserted.set(0);
+    }
+
+    /** Returns the number of lookups answered from the cache. */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** Returns the number of lookups that had to compile. */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Returns hits / lookups, or {@code 0} before the first lookup. */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /** Returns the current number of cached scripts. */
+    public int size() {
+        return scripts.size();
+    }
+
+    /** Returns the maximum number of cached scripts. */
+    public int capacity() {
+        return slots.length();
+    }
+
+    private static final class Entry {
+        private final byte[]         redeemScript;
+        private final CompiledScript script;
+
+        Entry(byte[] redeemScript, CompiledScript script) {
+            this.redeemScript = redeemScript;
+            this.script       = script;
+        }
+    }
+
+    private static final class Key {
+        private final long   factory;
+        private final byte[] hash;
+        private final int    hashCode;
+
+        Key(long factory, byte[] hash, int salt) {
+            this.factory = factory;
+            this.hash    = hash;
+            int h = salt ^ Long.hashCode(factory);
+            for (byte b : hash) {
+                h = (h ^ b) * 0x01000193;
+            }
+            this.hashCode = h ^ (h >>> 16);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && factory == ((Key) o).factory
+                    && Arrays.equals(hash, ((Key) o).hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package bitcoin.script.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ExecutionListener} that keeps the most recent execution events in a
+ * fixed-size ring buffer.
+ *
+ * <p>An event stores only four integers – the opcode id (see
+ * {@link CompiledScript#opcodeIdAt}), the instruction position, the stack depth
+ * and, for branch skips, the jump target – in preallocated parallel arrays.
+ * Nothing is allocated and the stack is never copied, so the recorder can stay
+ * attached in production and be read when something goes wrong.
+ *
+ * <p>Like every listener it is used by a single thread; read it from that
+ * thread, or once its validations have finished.
+ */
+public final class RingBufferRecorder implements ExecutionListener {
+
+    /** What an {@link Event} records. */
+    public enum Kind {
+        /** An instruction executed successfully. */
+        OP,
+        /** An inactive branch was skipped. */
+        BRANCH_SKIP,
+        /** An instruction failed. */
+        FAILURE
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+
+    private final int    mask;
+    private final byte[] kinds;
+    private final int[]  opcodeIds;
+    private final int[]  positions;
+    private final int[]  depths;
+    private final int[]  targets;
+    private long recorded;
+
+    /**
+     * Creates a recorder.
+     *
+     * @param capacity number of events kept; rounded up to a power of two
+     */
+    public RingBufferRecorder(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        mask      = size - 1;
+        kinds     = new byte[size];
+        opcodeIds = new int[size];
+        positions = new int[size];
+        depths    = new int[size];
+        targets   = new int[size];
+    }
+
+    @Override
+    public void afterOp(InterpreterContext ctx, CompiledScript program, int pc) {
+        record(Kind.OP, program.opcodeIdAt(pc), pc, ctx.getStack().size(), -1);
+    }
+
+    @Override
+    public void branchSkipped(InterpreterContext ctx, CompiledScript program, int from, int to) {
+        record(Kind.BRANCH_SKIP, program.opcodeIdAt(from), from, ctx.getStack().size(), to);
+    }
+
+    @Override
+    public void failure(InterpreterContext ctx, CompiledScript program, int pc, ScriptError error) {
+        record(Kind.FAILURE, program.opcodeIdAt(pc), pc, ctx.getStack().size(), -1);
+    }
+
+    private void record(Kind kind, int opcodeId, int pc, int depth, int target) {
+        int slot = (int) recorded++ & mask;
+        kinds[slot]     = (byte) kind.ordinal();
+        opcodeIds[slot] = opcodeId;
+        positions[slot] = pc;
+        depths[slot]    = depth;
+        targets[slot]   = target;
+    }
+
+    /** Returns the total number of events recorded, including overwritten ones. */
+    public long getRecorded() {
+        return recorded;
+    }
+
+    /** Returns the number of events currently held (at most the capacity). */
+    public int size() {
+        return (int) Math.min(recorded, mask + 1L);
+    }
+
+    /** Discards all events. */
+    public void clear() {
+        recorded = 0;
+    }
+
+    /**
+     * Returns the held events, oldest first.
+     *
+     * @return a new list of events
+     */
+    public List<Event> events() {
+        int n = size();
+        List<Event> events = new ArrayList<>(n);
+        for (long i = recorded - n; i < recorded; i++) {
+            int slot = (int) i & mask;
+            events.add(new Event(KINDS[kinds[slot]], opcodeIds[slot],
+                                 positions[slot], depths[slot], targets[slot]));
+        }
+        return events;
+    }
+
+    /** One recorded execution event. */
+    public static final class Event {
+        private final Kind kind;
+        private final int  opcodeId;
+        private final int  position;
+        private final int  stackDepth;
+        private final int  target;
+
+        Event(Kind kind, int opcodeId, int position, int stackDepth, int target) {
+            this.kind       = kind;
+            this.opcodeId   = opcodeId;
+            this.position   = position;
+            this.stackDepth = stackDepth;
+            this.target     = target;
+        }
+
+        /** Returns what happened. */
+        public Kind getKind() {
+            return kind;
+        }
+
+        /** Returns the opcode id, or {@code -1} for a data push or unknown opcode. */
+        public int getOpcodeId() {
+            return opcodeId;
+        }
+
+        /** Returns the instruction position in its program. */
+        public int getPosition() {
+            return position;
+        }
+
+        /** Returns the stack depth after the instruction (or at the failure). */
+        public int getStackDepth() {
+            return stackDepth;
+        }
+
+        /** Returns the jump target of a {@link Kind#BRANCH_SKIP}; {@code -1} otherwise. */
+        public int getTarget() {
+            return target;
+        }
+
+        @Override
+        public String toString() {
+            return kind + "{op=" + opcodeId + ", pc=" + position + ", depth=" + stackDepth
+                    + (kind == Kind.BRANCH_SKIP ? ", target=" + target : "") + "}";
+        }
+    }
+}
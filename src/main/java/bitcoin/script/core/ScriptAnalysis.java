@@ -0,0 +1,539 @@
+package bitcoin.script.core;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import bitcoin.script.model.Opcodes;
+import bitcoin.script.ops.OpBinaryArithmetic;
+import bitcoin.script.ops.OpCheckMultiSig;
+import bitcoin.script.ops.OpCheckSig;
+import bitcoin.script.ops.OpDrop;
+import bitcoin.script.ops.OpDup;
+import bitcoin.script.ops.OpElse;
+import bitcoin.script.ops.OpEndIf;
+import bitcoin.script.ops.OpEqual;
+import bitcoin.script.ops.OpEqualVerify;
+import bitcoin.script.ops.OpHash160;
+import bitcoin.script.ops.OpIf;
+import bitcoin.script.ops.OpNotIf;
+import bitcoin.script.ops.OpNumEqualVerify;
+import bitcoin.script.ops.OpPushNumber;
+import bitcoin.script.ops.OpUnaryArithmetic;
+import bitcoin.script.ops.OpWithin;
+import bitcoin.script.ops.Operation;
+
+/**
+ * Facts about a {@link CompiledScript} established without executing it.
+ *
+ * <p>The analysis follows every path through the script's conditionals and
+ * infers, for each instruction, how deep the stack must be on entry to the
+ * script for the instruction not to underflow.  From that it derives the
+ * entry depth that makes every path safe ({@link #getRequiredDepth()}), the
+ * entry depth below which every path fails ({@link #getMinimumDepth()}), and
+ * how far the stack can grow ({@link #getMaxGrowth()}).  Depths are only
+ * inferred when the stack effect of every instruction is known, i.e. the
+ * script uses the standard operations; see {@link #isExact()}.
+ *
+ * <p>It also finds failures that do not depend on the stack at all:
+ * disabled opcodes such as {@code OP_CAT}, which Bitcoin rejects even in a
+ * branch that is not taken, and scripts whose every path runs into an
+ * unknown opcode.  Unbalanced conditionals never get this far; compilation
+ * rejects them.  Finally, it counts signature operations the way Bitcoin
+ * does for block limits ({@link #getSigOps()}).
+ *
+ * <p>The interpreter consults the analysis when the context asks for it (see
+ * {@link InterpreterContext#setStaticAnalysis(boolean)}): a script with a
+ * disabled opcode is rejected on entry, as is a script whose failure point
+ * is already certain ({@link #certainUnderflow(int)}), and a script proven
+ * to stay within the stack-size limit runs without the per-instruction
+ * stack-size check.  Obtain an analysis with {@link CompiledScript#analysis()},
+ * which computes it once per compiled script.
+ */
+public final class ScriptAnalysis {
+
+    /** Entry depth reported when safety cannot be proven. */
+    public static final int UNKNOWN = Integer.MAX_VALUE;
+
+    /** Conditionals nested deeper than this are not analysed. */
+    static final int MAX_NESTING = 1000;
+
+    /** Opcodes Bitcoin disabled; a script containing one fails wherever it is. */
+    private static final Set<String> DISABLED = Set.of(
+            "OP_CAT", "OP_SUBSTR", "OP_LEFT", "OP_RIGHT", "OP_INVERT", "OP_AND", "OP_OR", "OP_XOR",
+            "OP_2MUL", "OP_2DIV", "OP_MUL", "OP_DIV", "OP_MOD", "OP_LSHIFT", "OP_RSHIFT");
+
+    /** Conditionals that are invalid even when not executed. */
+    private static final Set<String> ALWAYS_INVALID = Set.of("OP_VERIF", "OP_VERNOTIF");
+
+    /** {pops, pushes} of every operation whose effect does not depend on the stack contents. */
+    private static final Map<Class<?>, int[]> EFFECTS = Map.ofEntries(
+            Map.entry(OpPushNumber.class,       new int[] {0, 1}),
+            Map.entry(OpDup.class,              new int[] {1, 2}),
+            Map.entry(OpDrop.class,             new int[] {1, 0}),
+            Map.entry(OpEqual.class,            new int[] {2, 1}),
+            Map.entry(OpEqualVerify.class,      new int[] {2, 0}),
+            Map.entry(OpUnaryArithmetic.class,  new int[] {1, 1}),
+            Map.entry(OpBinaryArithmetic.class, new int[] {2, 1}),
+            Map.entry(OpNumEqualVerify.class,   new int[] {2, 0}),
+            Map.entry(OpWithin.class,           new int[] {3, 1}),
+            Map.entry(OpHash160.class,          new int[] {1, 1}),
+            Map.entry(OpCheckSig.class,         new int[] {2, 1}),
+            Map.entry(OpIf.class,               new int[] {1, 0}),
+            Map.entry(OpNotIf.class,            new int[] {1, 0}),
+            Map.entry(OpElse.class,             new int[] {0, 0}),
+            Map.entry(OpEndIf.class,            new int[] {0, 0}));
+
+    /** Operations that can only fail by underflowing the stack. */
+    private static final Set<Class<?>> UNDERFLOW_ONLY = Set.of(
+            OpPushNumber.class, OpDup.class, OpDrop.class, OpEqual.class, OpHash160.class, OpCheckSig.class);
+
+    /** Sigops Bitcoin charges for a multisig whose key count is not a literal. */
+    private static final int MULTISIG_SIGOPS = OpCheckMultiSig.MAX_PUBKEYS;
+
+    private final boolean   exact;
+    private final int[]     needs;   // per instruction: entry depth needed on its worst path; null if inexact
+    private final int       prefix;  // leading instructions whose only possible failure is certain from depth
+    private final int       requiredDepth;
+    private final int       minimumDepth;
+    private final int       maxGrowth;
+    private final int       sigOps;
+    private final ScriptError error;
+    private final int       errorPosition;
+
+    private ScriptAnalysis(boolean exact, int[] needs, int prefix, int requiredDepth, int minimumDepth,
+                           int maxGrowth, int sigOps, ScriptError error, int errorPosition) {
+        this.exact         = exact;
+        this.needs         = needs;
+        this.prefix        = prefix;
+        this.requiredDepth = requiredDepth;
+        this.minimumDepth  = minimumDepth;
+        this.maxGrowth     = maxGrowth;
+        this.sigOps        = sigOps;
+        this.error         = error;
+        this.errorPosition = errorPosition;
+    }
+
+    /**
+     * Returns {@code true} if the stack effect of every instruction is known,
+     * so the depth figures are exact rather than conservative defaults.
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Returns the smallest entry depth with which no instruction on any path
+     * can underflow.
+     *
+     * @return the depth, or {@link #UNKNOWN} if the analysis is not exact
+     */
+    public int getRequiredDepth() {
+        return requiredDepth;
+    }
+
+    /**
+     * Returns the entry depth below which every path through the script
+     * underflows, so the script cannot succeed.
+     *
+     * @return the depth, {@code 0} if the analysis is not exact
+     */
+    public int getMinimumDepth() {
+        return minimumDepth;
+    }
+
+    /**
+     * Returns the largest number of elements the script can add to its entry
+     * stack at any point.
+     *
+     * @return the growth, or {@link #UNKNOWN} if the analysis is not exact
+     */
+    public int getMaxGrowth() {
+        return maxGrowth;
+    }
+
+    /**
+     * Returns the number of signature operations, counted over every
+     * instruction whether executed or not: one per {@code OP_CHECKSIG}, and
+     * per {@code OP_CHECKMULTISIG} the key count if it is pushed by the
+     * preceding {@code OP_1}..{@code OP_16}, otherwise
+     * {@value OpCheckMultiSig#MAX_PUBKEYS}.
+     */
+    public int getSigOps() {
+        return sigOps;
+    }
+
+    /**
+     * Returns the failure the script is certain to hit regardless of its
+     * entry stack: {@link ScriptError#DISABLED_OPCODE}, or
+     * {@link ScriptError#BAD_OPCODE} for {@code OP_VERIF}/{@code OP_VERNOTIF}
+     * or if every path runs into an opcode the factory does not know.
+     * Opcodes the factory registers are never reported as disabled.
+     *
+     * @return the failure, or {@link ScriptError#OK}
+     */
+    public ScriptError getError() {
+        return error;
+    }
+
+    /**
+     * Returns the instruction {@link #getError()} refers to.
+     *
+     * @return the instruction index, or {@code -1} if there is no error
+     */
+    public int getErrorPosition() {
+        return errorPosition;
+    }
+
+    /**
+     * Returns {@code true} if the script can run from an entry stack of
+     * {@code depth} elements without underflowing and without exceeding
+     * {@code maxStackSize} elements, on every path.
+     *
+     * @param depth        the stack depth on entry
+     * @param maxStackSize the stack-size limit
+     */
+    public boolean isSafe(int depth, int maxStackSize) {
+        return exact && depth >= requiredDepth && (long) depth + maxGrowth <= maxStackSize;
+    }
+
+    /**
+     * Returns the first instruction that underflows on some path when the
+     * script is entered with {@code depth} elements.
+     *
+     * @param depth the stack depth on entry
+     * @return the instruction index, or {@code -1} if none can underflow
+     */
+    public int firstUnderflow(int depth) {
+        if (!exact || depth >= requiredDepth) {
+            return -1;
+        }
+        for (int i = 0; i < needs.length; i++) {
+            if (needs[i] > depth) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the instruction at which the script is certain to fail when
+     * entered with {@code depth} elements: the first instruction that
+     * underflows, provided every instruction before it runs on every path
+     * and can fail in no other way.  Executing the script then stops at
+     * exactly this instruction with a stack error, unless a limit is hit
+     * first.
+     *
+     * @param depth the stack depth on entry
+     * @return the instruction index, or {@code -1} if the failure point
+     *         depends on the stack contents or no instruction underflows
+     */
+    public int certainUnderflow(int depth) {
+        for (int i = 0; i < prefix; i++) {
+            if (needs[i] > depth) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "ScriptAnalysis{exact=" + exact
+                + (exact ? ", requiredDepth=" + requiredDepth + ", minimumDepth=" + minimumDepth
+                        + ", maxGrowth=" + maxGrowth : "")
+                + ", sigOps=" + sigOps
+                + (error != ScriptError.OK ? ", error=" + error + " at " + errorPosition : "") + "}";
+    }
+
+    // ── Analysis ────────────────────────────────────────────────────────────
+
+    /**
+     * Analyses {@code program}; see {@link CompiledScript#analysis()}.
+     *
+     * @param program the compiled script
+     * @return the analysis
+     */
+    static ScriptAnalysis analyze(CompiledScript program) {
+        int n = program.size();
+        int sigOps = countSigOps(program);
+
+        for (int i = 0; i < n; i++) {
+            if (program.kinds[i] != CompiledScript.KIND_PUSH && program.opcodeIds[i] < 0) {
+                if (DISABLED.contains(program.tokens[i])) {
+                    return inexact(sigOps, ScriptError.DISABLED_OPCODE, i);
+                }
+                if (ALWAYS_INVALID.contains(program.tokens[i])) {
+                    return inexact(sigOps, ScriptError.BAD_OPCODE, i);
+                }
+            }
+        }
+
+        Walker walker = new Walker(program);
+        Paths end = walker.run(0, n, Paths.entry(), 0);
+        if (walker.inexact) {
+            return inexact(sigOps, ScriptError.OK, -1);
+        }
+        if (end.size == 0) {   // every path stops at an unknown opcode
+            return inexact(sigOps, ScriptError.BAD_OPCODE, walker.firstBadOpcode);
+        }
+        int required = 0;
+        for (int need : walker.needs) {
+            required = Math.max(required, need);
+        }
+        int minimum = Integer.MAX_VALUE;
+        for (int p = 0; p < end.size; p++) {
+            minimum = Math.min(minimum, end.minNeed[p]);
+        }
+        return new ScriptAnalysis(true, walker.needs, underflowOnlyPrefix(program), required,
+                                  Math.max(0, minimum), walker.maxGrowth, sigOps, ScriptError.OK, -1);
+    }
+
+    private static ScriptAnalysis inexact(int sigOps, ScriptError error, int position) {
+        return new ScriptAnalysis(false, null, 0, UNKNOWN, 0, UNKNOWN, sigOps, error, position);
+    }
+
+    // Length of the run of leading instructions that can only fail by underflowing,
+    // plus the one ending it: every operation in EFFECTS checks for underflow first.
+    private static int underflowOnlyPrefix(CompiledScript program) {
+        int n = program.size();
+        for (int i = 0; i < n; i++) {
+            if (program.kinds[i] == CompiledScript.KIND_PUSH) {
+                continue;
+            }
+            Class<?> type = program.operations[i].getClass();
+            if (!UNDERFLOW_ONLY.contains(type)) {
+                return EFFECTS.containsKey(type) ? i + 1 : i;
+            }
+        }
+        return n;
+    }
+
+    private static int countSigOps(CompiledScript program) {
+        int count = 0;
+        for (int i = 0; i < program.size(); i++) {
+            if (program.kinds[i] == CompiledScript.KIND_PUSH) {
+                continue;
+            }
+            switch (program.tokens[i]) {
+                case "OP_CHECKSIG":
+                case "OP_CHECKSIGVERIFY":
+                    count++;
+                    break;
+                case "OP_CHECKMULTISIG":
+                case "OP_CHECKMULTISIGVERIFY":
+                    int keys = i > 0 ? smallInteger(program, i - 1) : -1;
+                    count += keys >= 1 ? keys : MULTISIG_SIGOPS;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return count;
+    }
+
+    // The value of an OP_1..OP_16 instruction, or -1.
+    private static int smallInteger(CompiledScript program, int i) {
+        if (program.kinds[i] == CompiledScript.KIND_PUSH
+                || program.operations[i].getClass() != OpPushNumber.class) {
+            return -1;
+        }
+        int code = Opcodes.code(program.tokens[i]);
+        return code > 0x50 && code <= Opcodes.OP_16 ? code - 0x50 : -1;
+    }
+
+    /**
+     * Walks the script once, following both outcomes of every conditional.
+     * Each instruction is visited exactly once, with the set of paths that
+     * reach it.
+     */
+    private static final class Walker {
+        final CompiledScript program;
+        final int[] needs;
+        int maxGrowth;
+        int firstBadOpcode = -1;
+        boolean inexact;   // set when an instruction's stack effect is unknown; ends the walk
+
+        Walker(CompiledScript program) {
+            this.program = program;
+            this.needs   = new int[program.size()];
+            Arrays.fill(needs, Integer.MIN_VALUE);
+        }
+
+        // Runs instructions [from, to) on paths, returning the paths that reach the end.
+        Paths run(int from, int to, Paths paths, int nesting) {
+            int pc = from;
+            while (pc < to) {
+                if (paths.size == 0 || inexact) {
+                    return paths;   // the rest of this segment is unreachable, or the walk gave up
+                }
+                if (program.kinds[pc] == CompiledScript.KIND_PUSH) {
+                    apply(pc, 0, 1, paths);
+                    pc++;
+                    continue;
+                }
+                Operation op = program.operations[pc];
+                if (op == CompiledScript.UNKNOWN_OPCODE) {
+                    if (firstBadOpcode < 0 || pc < firstBadOpcode) {
+                        firstBadOpcode = pc;
+                    }
+                    paths.size = 0;
+                    return paths;
+                }
+                int[] effect = EFFECTS.get(op.getClass());
+                if (program.kinds[pc] == CompiledScript.KIND_FLOW) {
+                    String token = program.tokens[pc];
+                    if (effect == null || !(token.equals("OP_IF") || token.equals("OP_NOTIF"))
+                            || nesting >= MAX_NESTING) {
+                        inexact = true;   // custom flow control, or nested too deep
+                        return paths;
+                    }
+                    apply(pc, 1, 0, paths);
+                    pc = branch(pc, paths, nesting);
+                    continue;
+                }
+                if (op.getClass() == OpCheckMultiSig.class) {
+                    effect = multisigEffect(pc);
+                }
+                if (effect == null) {
+                    inexact = true;
+                    return paths;
+                }
+                apply(pc, effect[0], effect[1], paths);
+                pc++;
+            }
+            return paths;
+        }
+
+        // Runs the branches of the conditional at pc; returns the index after its OP_ENDIF.
+        private int branch(int pc, Paths paths, int nesting) {
+            Paths taken   = paths.copy();
+            Paths skipped = paths;
+            // OP_ELSE toggles: the "true" path runs segments 0, 2, 4 ..., the other 1, 3, 5 ...
+            int start = pc;
+            boolean even = true;
+            while (true) {
+                int end = program.jumps[start];
+                if (even) {
+                    taken = run(start + 1, end, taken, nesting + 1);
+                } else {
+                    skipped = run(start + 1, end, skipped, nesting + 1);
+                }
+                if (!program.tokens[end].equals("OP_ELSE")) {
+                    taken.addAll(skipped);
+                    paths.replaceWith(taken);
+                    return end + 1;
+                }
+                start = end;
+                even = !even;
+            }
+        }
+
+        // {pops, pushes} of OP_CHECKMULTISIG if both counts are pushed literally right before it.
+        private int[] multisigEffect(int pc) {
+            int keys = literal(pc - 1);
+            if (keys < 0 || keys > OpCheckMultiSig.MAX_PUBKEYS) {
+                return null;
+            }
+            for (int i = pc - 1 - keys; i < pc - 1; i++) {
+                if (i < 0 || !isPush(i)) {
+                    return null;
+                }
+            }
+            int sigs = literal(pc - 2 - keys);
+            if (sigs < 0 || sigs > keys) {
+                return null;
+            }
+            return new int[] {keys + sigs + 3, 1};
+        }
+
+        // The value pushed by a numeric push instruction, or -1.
+        private int literal(int i) {
+            if (i < 0 || !isPush(i)) {
+                return -1;
+            }
+            byte[] value = program.kinds[i] == CompiledScript.KIND_PUSH
+                    ? program.constants[i]
+                    : ((OpPushNumber) program.operations[i]).value();
+            if (value.length == 0 || value.length > 2 || (value.length == 2 && value[0] == '0')) {
+                return -1;
+            }
+            int v = 0;
+            for (byte b : value) {
+                if (b < '0' || b > '9') {
+                    return -1;
+                }
+                v = v * 10 + (b - '0');
+            }
+            return v;
+        }
+
+        private boolean isPush(int i) {
+            return program.kinds[i] == CompiledScript.KIND_PUSH
+                    || program.operations[i].getClass() == OpPushNumber.class;
+        }
+
+        private void apply(int pc, int pops, int pushes, Paths paths) {
+            int need = Integer.MIN_VALUE;
+            for (int p = 0; p < paths.size; p++) {
+                int n = pops - paths.depth[p];
+                need = Math.max(need, n);
+                paths.minNeed[p] = Math.max(paths.minNeed[p], n);
+                paths.depth[p] += pushes - pops;
+                maxGrowth = Math.max(maxGrowth, paths.depth[p]);
+            }
+            needs[pc] = Math.max(needs[pc], need);
+        }
+    }
+
+    /**
+     * The paths that reach one point of the script, merged by their stack
+     * depth relative to the entry depth.  For each depth only the smallest
+     * entry depth any of its paths has needed so far is kept, which is all
+     * {@link #getMinimumDepth()} requires.
+     */
+    private static final class Paths {
+        int[] depth   = new int[4];
+        int[] minNeed = new int[4];
+        int   size;
+
+        static Paths entry() {
+            Paths paths = new Paths();
+            paths.size = 1;
+            return paths;
+        }
+
+        Paths copy() {
+            Paths copy = new Paths();
+            copy.depth   = depth.clone();
+            copy.minNeed = minNeed.clone();
+            copy.size    = size;
+            return copy;
+        }
+
+        void addAll(Paths other) {
+            outer:
+            for (int q = 0; q < other.size; q++) {
+                for (int p = 0; p < size; p++) {
+                    if (depth[p] == other.depth[q]) {
+                        minNeed[p] = Math.min(minNeed[p], other.minNeed[q]);
+                        continue outer;
+                    }
+                }
+                if (size == depth.length) {
+                    depth   = Arrays.copyOf(depth, size * 2);
+                    minNeed = Arrays.copyOf(minNeed, size * 2);
+                }
+                depth[size]   = other.depth[q];
+                minNeed[size] = other.minNeed[q];
+                size++;
+            }
+        }
+
+        void replaceWith(Paths other) {
+            depth   = other.depth;
+            minNeed = other.minNeed;
+            size    = other.size;
+        }
+    }
+}
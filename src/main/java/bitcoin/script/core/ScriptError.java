@@ -0,0 +1,84 @@
+package bitcoin.script.core;
+
+/**
+ * Why a script failed, modelled on Bitcoin Core's {@code ScriptError}.
+ *
+ * <p>Operations report a failure with {@link InterpreterContext#fail} instead
+ * of throwing, and {@link ScriptInterpreter#evaluate} returns the code, so an
+ * invalid script costs no more to reject than a valid one costs to accept.
+ * {@link ScriptException#getError()} carries the same code where the
+ * exception-based API is used.
+ */
+public enum ScriptError {
+
+    /** No failure. */
+    OK("No error"),
+
+    /** A failure without a more specific code, e.g. from a custom operation. */
+    UNKNOWN_ERROR("Unknown error"),
+
+    /** Execution finished with an empty stack or a false top element. */
+    EVAL_FALSE("Script evaluated without error but finished with a false/empty top stack element"),
+
+    /** An operation needed more stack elements than were present. */
+    INVALID_STACK_OPERATION("Stack underflow"),
+
+    /** {@code OP_EQUALVERIFY} found two different elements. */
+    EQUALVERIFY("OP_EQUALVERIFY failed"),
+
+    /** {@code OP_IF}/{@code OP_NOTIF} without a condition, or an unmatched {@code OP_ELSE}/{@code OP_ENDIF}. */
+    UNBALANCED_CONDITIONAL("Unbalanced conditional"),
+
+    /**
+     * An opcode that is not registered in the operation factory was executed,
+     * or a serialized script has a push that runs past its end.
+     */
+    BAD_OPCODE("Unknown opcode"),
+
+    /** A disabled opcode such as {@code OP_CAT} appears anywhere in the script. */
+    DISABLED_OPCODE("Attempted to use a disabled opcode"),
+
+    /** {@code OP_CHECKMULTISIG} public-key count is malformed or out of range. */
+    PUBKEY_COUNT("Invalid pubkey count"),
+
+    /** {@code OP_CHECKMULTISIG} signature count is malformed or out of range. */
+    SIG_COUNT("Invalid signature count"),
+
+    /** An arithmetic operand is not a decimal number of at most four bytes' magnitude. */
+    INVALID_NUMBER("Operand is not a script number"),
+
+    /** {@code OP_NUMEQUALVERIFY} found two different numbers. */
+    NUMEQUALVERIFY("OP_NUMEQUALVERIFY failed"),
+
+    /** A P2SH spend's scriptSig contains an operation other than a push. */
+    SIG_PUSHONLY("Only push operators allowed in P2SH scriptSig"),
+
+    /** A script is larger than {@link ScriptLimits#getMaxScriptSize()}. */
+    SCRIPT_SIZE("Script is too big"),
+
+    /** A push is larger than {@link ScriptLimits#getMaxElementSize()}. */
+    PUSH_SIZE("Push value size limit exceeded"),
+
+    /** A script has more opcodes than {@link ScriptLimits#getMaxOps()}. */
+    OP_COUNT("Operation limit exceeded"),
+
+    /** The stack holds more than {@link ScriptLimits#getMaxStackSize()} elements. */
+    STACK_SIZE("Stack size limit exceeded"),
+
+    /** More than {@link ScriptLimits#getMaxSteps()} instructions were executed. */
+    STEP_LIMIT("Step budget exceeded"),
+
+    /** The time budget ran out; unlike every other code, this one is not deterministic. */
+    TIME_LIMIT("Time budget exceeded");
+
+    private final String description;
+
+    ScriptError(String description) {
+        this.description = description;
+    }
+
+    /** Returns a short human-readable description. */
+    public String getDescription() {
+        return description;
+    }
+}
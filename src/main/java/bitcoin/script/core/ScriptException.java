@@ -1,14 +1,26 @@
 package bitcoin.script.core;
 
+/**
+ * Exception form of a script failure.
+ *
+ * <p>The interpreter and the built-in operations no longer throw on invalid
+ * scripts (see {@link ScriptError}); this exception remains the failure
+ * signal of the throwing wrappers such as {@link ScriptInterpreter#execute},
+ * of compilation and of the model classes.
+ */
 public class ScriptException extends RuntimeException {
 
+    private static final long serialVersionUID = 1L;
+
+    private final ScriptError error;
+
     /**
      * Constructs a new {@code ScriptException} with the given detail message.
      *
      * @param message human-readable description of the failure
      */
     public ScriptException(String message) {
-        super(message);
+        this(ScriptError.UNKNOWN_ERROR, message);
     }
 
     /**
@@ -19,5 +31,22 @@ public class ScriptException extends RuntimeException {
      */
     public ScriptException(String message, Throwable cause) {
         super(message, cause);
+        this.error = ScriptError.UNKNOWN_ERROR;
+    }
+
+    /**
+     * Constructs a new {@code ScriptException} for a coded failure.
+     *
+     * @param error   the failure code
+     * @param message human-readable description of the failure
+     */
+    public ScriptException(ScriptError error, String message) {
+        super(message);
+        this.error = error;
+    }
+
+    /** Returns the failure code; {@link ScriptError#UNKNOWN_ERROR} if none was given. */
+    public ScriptError getError() {
+        return error;
     }
 }
@@ -1,23 +1,11 @@
 package bitcoin.script.core;
 
-import java.util.List;
-import java.util.Set;
-
 import bitcoin.script.model.Script;
-import bitcoin.script.model.ScriptElement;
 
 public class ScriptInterpreter {
 
     private final InterpreterContext ctx;
 
-    /**
-     * Opcodes that control the execution flow (IF/ELSE/ENDIF).
-     * These are always executed regardless of the current branch state,
-     * so that nested scopes are tracked correctly.
-     */
-    private static final Set<String> FLOW_OPS =
-            Set.of("OP_IF", "OP_NOTIF", "OP_ELSE", "OP_ENDIF");
-
     /**
      * Creates an interpreter that uses the given context for all executions.
      *
@@ -27,29 +15,235 @@ public class ScriptInterpreter {
         this.ctx = ctx;
     }
 
+    /** Returns the context this interpreter executes on. */
+    InterpreterContext context() {
+        return ctx;
+    }
+
     /**
      * Executes all elements of {@code script} in order against the shared context.
-     * Instructions inside a false branch are skipped, except for flow-control
-     * opcodes which are always processed to maintain correct nesting depth.
+     *
+     * <p>The script is compiled against the context's factory first; callers that
+     * run the same script repeatedly should compile it once and use
+     * {@link #execute(CompiledScript)} instead.
      *
      * @param script the script to execute
      * @throws ScriptException if any operation fails during execution
      */
     public void execute(Script script) {
-        for (ScriptElement element : script.getElements()) {
-            boolean skip = !ctx.shouldExecute() && !FLOW_OPS.contains(element.getToken());
-            if (!skip) {
-                element.execute(ctx);
+        execute(CompiledScript.compile(script, ctx.getFactory()));
+    }
+
+    /**
+     * Executes all instructions of {@code program}, throwing on failure.
+     *
+     * <p>This is the exception-based wrapper around {@link #evaluate}; the
+     * exception carries the failure code and position.
+     *
+     * @param program the compiled script to execute
+     * @throws ScriptException if any operation fails during execution
+     */
+    public void execute(CompiledScript program) {
+        ScriptError error = evaluate(program);
+        if (error != ScriptError.OK) {
+            int pc = ctx.getErrorPosition();
+            throw new ScriptException(error, error.getDescription() + " at instruction " + pc
+                    + (pc >= 0 ? " (" + program.tokenAt(pc) + ")" : ""));
+        }
+    }
+
+    /**
+     * Executes all instructions of {@code program} in order against the shared
+     * context and reports failure as a code instead of an exception.
+     *
+     * <p>Only instructions of active branches are visited: whenever a flow-control
+     * opcode leaves the current scope inactive, execution jumps straight to the
+     * matching {@code OP_ELSE} or {@code OP_ENDIF} using the program's jump table,
+     * so a skipped branch costs the same regardless of its length.
+     *
+     * <p>Execution stops at the first instruction that calls
+     * {@link InterpreterContext#fail}; its position is available from
+     * {@link InterpreterContext#getErrorPosition()}.  A {@link ScriptException}
+     * thrown by a custom operation is converted into its code the same way.
+     * If the context has already failed, nothing is executed; a
+     * {@linkplain CompiledScript#isRejected() rejected} program fails at once
+     * with its rejection code and position {@code -1}.
+     *
+     * <p>The context's {@link ScriptLimits} are enforced inline: the script
+     * and element sizes once on entry, the step and time budgets, op count and
+     * stack size with a constant-time check per instruction.
+     *
+     * <p>If the context {@linkplain InterpreterContext#isStaticAnalysis() asks
+     * for it}, the program's {@link ScriptAnalysis} is checked on entry: a
+     * program with a disabled opcode fails at once, and so does a program
+     * whose failure is already certain ({@link ScriptAnalysis#certainUnderflow}),
+     * with the code and position executing it would report.  A program proven
+     * to stay within the stack-size limit runs without the per-instruction
+     * stack-size check.
+     *
+     * <p>If the context {@linkplain InterpreterContext#isPeephole() allows it}
+     * and no listener is attached, common instruction pairs run as one fused
+     * instruction (see {@link PeepholeOptimizer}) whenever the pair provably
+     * cannot fail past its first instruction or hit a limit; the result, code
+     * and position are those of the original instructions.
+     *
+     * <p>If the context has an {@link ExecutionListener}, it is notified around
+     * every instruction, on every skipped branch and on failure.
+     *
+     * @param program the compiled script to execute
+     * @return {@link ScriptError#OK}, or the failure
+     */
+    public ScriptError evaluate(CompiledScript program) {
+        if (ctx.hasFailed()) {
+            return ctx.getError();
+        }
+        if (program.isRejected()) {
+            ctx.fail(program.rejection);   // nothing to notify listeners about
+            ctx.errorPosition = -1;
+            return program.rejection;
+        }
+        if (!ctx.shouldExecute()) {
+            return ScriptError.OK; // a balanced script inside an inactive scope is skipped entirely
+        }
+        byte[] kinds    = program.kinds;
+        int[]  jumps    = program.jumps;
+        int[]  opCounts = program.opCounts;
+        Stack  stack    = ctx.getStack();
+        ExecutionListener listener = ctx.getListener();
+        ScriptLimits limits = ctx.getLimits();
+        int  maxOps      = limits.getMaxOps();
+        int  maxStack    = limits.getMaxStackSize();
+        long maxSteps    = limits.getMaxSteps();
+        boolean timed    = limits.hasTimeBudget();
+
+        if (program.scriptSize > limits.getMaxScriptSize()) {
+            return limitExceeded(ScriptError.SCRIPT_SIZE, program, 0, listener);
+        }
+        if (program.maxPushSize > limits.getMaxElementSize()) {
+            return limitExceeded(ScriptError.PUSH_SIZE, program, program.maxPushIndex, listener);
+        }
+        boolean checkStack = true;
+        if (ctx.isStaticAnalysis()) {
+            ScriptAnalysis analysis = program.analysis();
+            int depth = stack.size();
+            if (analysis.getError() != ScriptError.OK) {
+                return limitExceeded(analysis.getError(), program, analysis.getErrorPosition(), listener);
             }
-            if (ctx.isTraceEnabled()) {
-                printTrace(element.getToken());
+            int at = depth < analysis.getMinimumDepth() && listener == null
+                    ? analysis.certainUnderflow(depth) : -1;
+            if (at >= 0 && reachesUnhindered(at, (long) depth + analysis.getMaxGrowth(), opCounts,
+                                             maxOps, maxStack, maxSteps, timed)) {
+                // Only OP_IF/OP_NOTIF pop among the flow opcodes, and they report a missing condition so.
+                return limitExceeded(kinds[at] == CompiledScript.KIND_FLOW
+                        ? ScriptError.UNBALANCED_CONDITIONAL : ScriptError.INVALID_STACK_OPERATION,
+                        program, at, listener);
             }
+            checkStack = !analysis.isSafe(depth, maxStack);
         }
+        ctx.opCount  = 0;
+        ctx.extraOps = 0;
+        PeepholeOptimizer.Fused[] fused = ctx.isPeephole() && listener == null ? program.fused() : null;
+
+        int pc = 0;
+        try {
+            while (pc < kinds.length) {
+                PeepholeOptimizer.Fused f = fused == null ? null : fused[pc];
+                if (f != null && canFuse(f, pc, opCounts, stack, maxOps, maxStack, maxSteps, timed)) {
+                    ctx.steps  += f.width;
+                    ctx.opCount = opCounts[pc] + ctx.extraOps;
+                    f.apply(ctx);
+                    if (ctx.hasFailed()) {
+                        return failed(program, pc, listener);
+                    }
+                    ctx.opCount = opCounts[pc + f.width - 1] + ctx.extraOps;
+                    pc += f.width;
+                    continue;
+                }
+                long steps = ++ctx.steps;
+                if (steps > maxSteps) {
+                    return limitExceeded(ScriptError.STEP_LIMIT, program, pc, listener);
+                }
+                if (timed && (steps & (ScriptLimits.TIME_CHECK_INTERVAL - 1)) == 0
+                        && System.nanoTime() - ctx.deadline > 0) {
+                    return limitExceeded(ScriptError.TIME_LIMIT, program, pc, listener);
+                }
+                if (listener != null) {
+                    listener.beforeOp(ctx, program, pc);
+                }
+                byte kind = kinds[pc];
+                if (kind == CompiledScript.KIND_PUSH) {
+                    stack.push(program.constants[pc]);
+                } else {
+                    // Skipped branches count too: opCounts is a running total over the script.
+                    int ops = opCounts[pc] + ctx.extraOps;
+                    ctx.opCount = ops;
+                    if (ops > maxOps) {
+                        return limitExceeded(ScriptError.OP_COUNT, program, pc, listener);
+                    }
+                    program.operations[pc].apply(ctx);
+                    if (ctx.hasFailed()) {
+                        return failed(program, pc, listener);
+                    }
+                }
+                if (checkStack && stack.size() > maxStack) {
+                    return limitExceeded(ScriptError.STACK_SIZE, program, pc, listener);
+                }
+                if (listener != null) {
+                    listener.afterOp(ctx, program, pc);
+                }
+                if (kind == CompiledScript.KIND_FLOW && !ctx.shouldExecute()) {
+                    int target = jumps[pc];   // the matching OP_ELSE / OP_ENDIF
+                    if (listener != null) {
+                        listener.branchSkipped(ctx, program, pc, target);
+                    }
+                    pc = target;
+                } else {
+                    pc++;
+                }
+            }
+        } catch (ScriptException e) {
+            ctx.fail(e.getError() == ScriptError.OK ? ScriptError.UNKNOWN_ERROR : e.getError());
+            return failed(program, pc, listener);
+        }
+        return ScriptError.OK;
+    }
+
+    // True if running f's instructions one by one could not fail past the first, nor hit a limit.
+    private boolean canFuse(PeepholeOptimizer.Fused f, int pc, int[] opCounts, Stack stack,
+                            int maxOps, int maxStack, long maxSteps, boolean timed) {
+        long last = ctx.steps + f.width;
+        int depth = stack.size();
+        return depth >= f.depth
+                && depth + f.growth <= maxStack
+                && last <= maxSteps
+                && opCounts[pc + f.width - 1] + ctx.extraOps <= maxOps
+                && (!timed || last / ScriptLimits.TIME_CHECK_INTERVAL
+                              == ctx.steps / ScriptLimits.TIME_CHECK_INTERVAL);
     }
 
-    // Prints the current trace line: token name + stack snapshot (bottom → top).
-    private void printTrace(String token) {
-        List<String> snapshot = ctx.getStack().snapshot(); // bottom-first
-        System.out.println("[TRACE] token=" + token + "  stack=" + snapshot);
+    // True if running instructions [0, at] from the start could not hit a limit before at fails.
+    private boolean reachesUnhindered(int at, long peakStack, int[] opCounts,
+                                      int maxOps, int maxStack, long maxSteps, boolean timed) {
+        long last = ctx.steps + at + 1;
+        return peakStack <= maxStack
+                && last <= maxSteps
+                && opCounts[at] <= maxOps
+                && (!timed || last / ScriptLimits.TIME_CHECK_INTERVAL
+                              == ctx.steps / ScriptLimits.TIME_CHECK_INTERVAL);
+    }
+
+    private ScriptError limitExceeded(ScriptError error, CompiledScript program, int pc,
+                                     ExecutionListener listener) {
+        ctx.fail(error);
+        return failed(program, pc, listener);
+    }
+
+    private ScriptError failed(CompiledScript program, int pc, ExecutionListener listener) {
+        ctx.errorPosition = pc;
+        ScriptError error = ctx.getError();
+        if (listener != null) {
+            listener.failure(ctx, program, pc, error);
+        }
+        return error;
     }
 }
@@ -0,0 +1,268 @@
+package bitcoin.script.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resource limits enforced while a script executes.
+ *
+ * <p>The first four mirror Bitcoin's consensus limits and are checked with a
+ * constant-time test per instruction, so a hostile script is rejected as soon
+ * as it crosses one:
+ * <ul>
+ *   <li>script size – serialized bytes per script ({@value #MAX_SCRIPT_SIZE})</li>
+ *   <li>op count – opcodes above {@code OP_16} per script, counting skipped
+ *       branches and each {@code OP_CHECKMULTISIG} key ({@value #MAX_OPS_PER_SCRIPT})</li>
+ *   <li>stack size – elements on the stack ({@value #MAX_STACK_SIZE})</li>
+ *   <li>element size – bytes per pushed element ({@value #MAX_ELEMENT_SIZE})</li>
+ * </ul>
+ *
+ * <p>Two budgets have no consensus counterpart and are off by default: a step
+ * budget (instructions executed per validation, deterministic) and a time
+ * budget (wall-clock time per validation, checked every
+ * {@value #TIME_CHECK_INTERVAL} steps).  A result cut short by the time budget
+ * depends on the machine, so it is never cached.
+ *
+ * <p>Instances are immutable.
+ */
+public final class ScriptLimits {
+
+    /** Consensus maximum serialized script size in bytes. */
+    public static final int MAX_SCRIPT_SIZE    = 10_000;
+    /** Consensus maximum number of non-push opcodes per script. */
+    public static final int MAX_OPS_PER_SCRIPT = 201;
+    /** Consensus maximum number of stack elements. */
+    public static final int MAX_STACK_SIZE     = 1_000;
+    /** Consensus maximum size of one stack element in bytes. */
+    public static final int MAX_ELEMENT_SIZE   = 520;
+
+    /** Executed instructions between two clock reads under a time budget. */
+    static final int TIME_CHECK_INTERVAL = 256;
+
+    private static final ScriptLimits STANDARD  = builder().build();
+    private static final ScriptLimits UNLIMITED = builder()
+            .maxScriptSize(Integer.MAX_VALUE)
+            .maxOps(Integer.MAX_VALUE)
+            .maxStackSize(Integer.MAX_VALUE)
+            .maxElementSize(Integer.MAX_VALUE)
+            .build();
+    private static final long STANDARD_HASH = STANDARD.hash();
+
+    private final int  maxScriptSize;
+    private final int  maxOps;
+    private final int  maxStackSize;
+    private final int  maxElementSize;
+    private final long maxSteps;
+    private final long timeBudgetNanos;   // 0: none
+
+    private ScriptLimits(Builder b) {
+        this.maxScriptSize   = b.maxScriptSize;
+        this.maxOps          = b.maxOps;
+        this.maxStackSize    = b.maxStackSize;
+        this.maxElementSize  = b.maxElementSize;
+        this.maxSteps        = b.maxSteps;
+        this.timeBudgetNanos = b.timeBudgetNanos;
+    }
+
+    /** Returns the consensus limits with no step or time budget. */
+    public static ScriptLimits standard() {
+        return STANDARD;
+    }
+
+    /** Returns limits that never trigger. */
+    public static ScriptLimits unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Returns a builder initialised with the {@link #standard()} limits.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Returns the maximum serialized size of one script in bytes. */
+    public int getMaxScriptSize() {
+        return maxScriptSize;
+    }
+
+    /** Returns the maximum number of counted opcodes per script. */
+    public int getMaxOps() {
+        return maxOps;
+    }
+
+    /** Returns the maximum number of stack elements. */
+    public int getMaxStackSize() {
+        return maxStackSize;
+    }
+
+    /** Returns the maximum size of a pushed element in bytes. */
+    public int getMaxElementSize() {
+        return maxElementSize;
+    }
+
+    /** Returns the maximum number of instructions executed per validation. */
+    public long getMaxSteps() {
+        return maxSteps;
+    }
+
+    /** Returns the time budget per validation in nanoseconds, {@code 0} if none. */
+    public long getTimeBudgetNanos() {
+        return timeBudgetNanos;
+    }
+
+    /** Returns {@code true} if a time budget is set. */
+    public boolean hasTimeBudget() {
+        return timeBudgetNanos > 0;
+    }
+
+    /**
+     * Returns a value that differs between limits that can change a
+     * deterministic result (the time budget is excluded); {@code 0} for the
+     * standard limits.
+     */
+    long fingerprint() {
+        return hash() ^ STANDARD_HASH;
+    }
+
+    // Every field goes through a full 64-bit finalizer, so limits that differ
+    // in several fields cannot cancel each other out as with a linear hash.
+    private long hash() {
+        long h = mix(maxScriptSize);
+        h = mix(h ^ maxOps);
+        h = mix(h ^ maxStackSize);
+        h = mix(h ^ maxElementSize);
+        return mix(h ^ maxSteps);
+    }
+
+    // MurmurHash3's fmix64; the constant keeps mix(0) away from 0.
+    private static long mix(long x) {
+        x += 0x9E3779B97F4A7C15L;
+        x = (x ^ (x >>> 33)) * 0xFF51AFD7ED558CCDL;
+        x = (x ^ (x >>> 33)) * 0xC4CEB93FE1A85B53L;
+        return x ^ (x >>> 33);
+    }
+
+    /**
+     * Returns {@code true} if a standard template may evaluate the pair
+     * without checks: neither script can cross any limit.
+     */
+    boolean admitsTemplate(CompiledScript scriptSig, CompiledScript scriptPubKey) {
+        return scriptSig.scriptSize <= maxScriptSize
+                && scriptPubKey.scriptSize <= maxScriptSize
+                && scriptSig.maxPushSize <= maxElementSize
+                && scriptPubKey.maxPushSize <= maxElementSize
+                // every instruction adds at most one element; multisig keys are pushes
+                && scriptSig.size() + scriptPubKey.size() <= maxStackSize
+                && scriptSig.size() + scriptPubKey.size() <= maxSteps
+                && 2 * scriptPubKey.size() <= maxOps;   // ops + multisig keys
+    }
+
+    /**
+     * Mutable, single-use assembler for {@link ScriptLimits}.
+     */
+    public static final class Builder {
+
+        private int  maxScriptSize  = MAX_SCRIPT_SIZE;
+        private int  maxOps         = MAX_OPS_PER_SCRIPT;
+        private int  maxStackSize   = MAX_STACK_SIZE;
+        private int  maxElementSize = MAX_ELEMENT_SIZE;
+        private long maxSteps       = Long.MAX_VALUE;
+        private long timeBudgetNanos;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum serialized script size (default {@value #MAX_SCRIPT_SIZE}).
+         *
+         * @param bytes the limit in bytes
+         * @return this builder
+         */
+        public Builder maxScriptSize(int bytes) {
+            this.maxScriptSize = positive(bytes);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of counted opcodes per script (default {@value #MAX_OPS_PER_SCRIPT}).
+         *
+         * @param ops the limit
+         * @return this builder
+         */
+        public Builder maxOps(int ops) {
+            this.maxOps = positive(ops);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of stack elements (default {@value #MAX_STACK_SIZE}).
+         *
+         * @param elements the limit
+         * @return this builder
+         */
+        public Builder maxStackSize(int elements) {
+            this.maxStackSize = positive(elements);
+            return this;
+        }
+
+        /**
+         * Sets the maximum pushed element size (default {@value #MAX_ELEMENT_SIZE}).
+         *
+         * @param bytes the limit in bytes
+         * @return this builder
+         */
+        public Builder maxElementSize(int bytes) {
+            this.maxElementSize = positive(bytes);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of instructions executed per validation
+         * (default: unlimited).
+         *
+         * @param steps the budget
+         * @return this builder
+         */
+        public Builder maxSteps(long steps) {
+            this.maxSteps = positive(steps);
+            return this;
+        }
+
+        /**
+         * Sets the wall-clock budget per validation (default: none).
+         *
+         * @param amount the budget
+         * @param unit   the unit of {@code amount}
+         * @return this builder
+         */
+        public Builder timeBudget(long amount, TimeUnit unit) {
+            this.timeBudgetNanos = positive(unit.toNanos(amount));
+            return this;
+        }
+
+        /**
+         * Creates the limits.
+         *
+         * @return the new limits
+         */
+        public ScriptLimits build() {
+            return new ScriptLimits(this);
+        }
+
+        private static int positive(int value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException("limit must be positive: " + value);
+            }
+            return value;
+        }
+
+        private static long positive(long value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException("limit must be positive: " + value);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package bitcoin.script.core;
+
+import bitcoin.script.model.Script;
+
+/**
+ * One input to validate: an unlocking {@code scriptSig} and the locking
+ * {@code scriptPubKey} it claims to satisfy.
+ *
+ * <p>A pair holds either parsed scripts, compiled by the validator on demand,
+ * or scripts already compiled with {@link ScriptValidator#compile(Script)},
+ * which lets batches reuse compiled scriptPubKey templates.
+ */
+public final class ScriptPair {
+
+    private final Script scriptSig;
+    private final Script scriptPubKey;
+    private final CompiledScript compiledSig;
+    private final CompiledScript compiledPubKey;
+
+    /**
+     * Creates a pair of parsed scripts.
+     *
+     * @param scriptSig    the unlocking script
+     * @param scriptPubKey the locking script
+     */
+    public ScriptPair(Script scriptSig, Script scriptPubKey) {
+        this.scriptSig      = scriptSig;
+        this.scriptPubKey   = scriptPubKey;
+        this.compiledSig    = null;
+        this.compiledPubKey = null;
+    }
+
+    /**
+     * Creates a pair of pre-compiled scripts.
+     *
+     * @param scriptSig    the compiled unlocking script
+     * @param scriptPubKey the compiled locking script
+     */
+    public ScriptPair(CompiledScript scriptSig, CompiledScript scriptPubKey) {
+        this.scriptSig      = null;
+        this.scriptPubKey   = null;
+        this.compiledSig    = scriptSig;
+        this.compiledPubKey = scriptPubKey;
+    }
+
+    /** Returns {@code true} if this pair holds compiled scripts. */
+    public boolean isCompiled() {
+        return compiledSig != null;
+    }
+
+    /** Returns the parsed unlocking script, or {@code null} for a compiled pair. */
+    public Script getScriptSig() {
+        return scriptSig;
+    }
+
+    /** Returns the parsed locking script, or {@code null} for a compiled pair. */
+    public Script getScriptPubKey() {
+        return scriptPubKey;
+    }
+
+    /** Returns the compiled unlocking script, or {@code null} for a parsed pair. */
+    public CompiledScript getCompiledSig() {
+        return compiledSig;
+    }
+
+    /** Returns the compiled locking script, or {@code null} for a parsed pair. */
+    public CompiledScript getCompiledPubKey() {
+        return compiledPubKey;
+    }
+}
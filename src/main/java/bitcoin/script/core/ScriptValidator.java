@@ -1,19 +1,162 @@
 package bitcoin.script.core;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import bitcoin.script.crypto.CryptoProvider;
 import bitcoin.script.model.Script;
 import bitcoin.script.ops.OperationFactory;
 
 public class ScriptValidator {
 
     private final boolean traceEnabled;
+    private final OperationFactory factory;
+    private final SignatureMode signatureMode;
+    private final InterpreterMetrics metrics;   // null unless enabled
+    private final boolean templateFastPaths;     // false whenever anything observes execution
+    private final ScriptLimits limits;
+    private final ValidationCache cache;         // null unless enabled
+    private final long cacheFlags;               // rule set identifier for cache keys
+    private final RedeemScriptCache redeemScripts;   // null if P2SH is disabled
+
+    /** Shared failure results that carry no position. */
+    private static final ValidationResult EVAL_FALSE      = ValidationResult.of(ScriptError.EVAL_FALSE);
+    private static final ValidationResult TEMPLATE_FAILED = ValidationResult.of(ScriptError.UNKNOWN_ERROR);
+    private static final ValidationResult SIG_PUSHONLY    = ValidationResult.of(ScriptError.SIG_PUSHONLY);
+
+    /** Distinguishes cache entries validated without P2SH. */
+    private static final long NO_P2SH_FLAG = 0xC2B2AE3D27D4EB4FL;
+
+    /** Distinguishes cache entries validated with static analysis (disabled opcodes fail). */
+    private static final long STATIC_ANALYSIS_FLAG = 0x165667B19E3779F9L;
+
+    /** Inputs per deferred signature batch inside {@link #validateBatch}. */
+    private static final int DEFERRED_WINDOW = 256;
 
     /**
-     * Creates a validator.
+     * One reusable interpreter and context per thread: its stack buffers
+     * survive between validations, so steady-state validation allocates
+     * almost nothing.
+     */
+    private final ThreadLocal<ScriptInterpreter> interpreters;
+
+    /** One reusable deferred-signature collector per thread. */
+    private final ThreadLocal<SignatureBatch> batches = ThreadLocal.withInitial(SignatureBatch::new);
+
+    /** Each thread's metrics listener, also wired into its interpreter; null unless metrics are enabled. */
+    private final ThreadLocal<InterpreterMetrics.Recorder> recorders;
+
+    /**
+     * Creates a validator for the standard opcode set.
      *
      * @param traceEnabled {@code true} to print the stack after each instruction
      */
     public ScriptValidator(boolean traceEnabled) {
-        this.traceEnabled = traceEnabled;
+        this(traceEnabled, OperationFactory.standard());
+    }
+
+    /**
+     * Creates a validator for the standard opcode set whose hash and signature
+     * opcodes use {@code crypto}.
+     *
+     * @param traceEnabled {@code true} to print the stack after each instruction
+     * @param crypto       the crypto provider
+     */
+    public ScriptValidator(boolean traceEnabled, CryptoProvider crypto) {
+        this(traceEnabled, OperationFactory.builder().registerStandard(crypto).build());
+    }
+
+    /**
+     * Creates a validator that resolves opcodes with {@code factory}.
+     *
+     * @param traceEnabled {@code true} to print the stack after each instruction
+     * @param factory      the (shared, immutable) operation factory
+     */
+    public ScriptValidator(boolean traceEnabled, OperationFactory factory) {
+        this(traceEnabled, factory, SignatureMode.IMMEDIATE);
+    }
+
+    /**
+     * Creates a validator that resolves opcodes with {@code factory} and
+     * verifies signatures according to {@code signatureMode}.
+     *
+     * @param traceEnabled  {@code true} to print the stack after each instruction
+     * @param factory       the (shared, immutable) operation factory
+     * @param signatureMode when signatures are verified
+     * @throws IllegalArgumentException if deferred mode is requested and the
+     *                                  factory has no crypto provider
+     */
+    public ScriptValidator(boolean traceEnabled, OperationFactory factory, SignatureMode signatureMode) {
+        this(builder().trace(traceEnabled).factory(factory).signatureMode(signatureMode));
+    }
+
+    private ScriptValidator(Builder b) {
+        if (b.signatureMode == SignatureMode.DEFERRED && b.factory.crypto() == null) {
+            throw new IllegalArgumentException("Deferred signatures need a factory with a crypto provider");
+        }
+        if (b.metrics != null && b.metrics.factory() != b.factory) {
+            throw new IllegalArgumentException("Metrics were created for a different operation factory");
+        }
+        this.traceEnabled      = b.traceEnabled;
+        this.factory           = b.factory;
+        this.signatureMode     = b.signatureMode;
+        this.metrics           = b.metrics;
+        this.templateFastPaths = b.templateFastPaths
+                && !b.traceEnabled && b.listeners == null && b.metrics == null;
+        this.limits            = b.limits;
+        this.cache             = b.cache;
+        this.cacheFlags        = b.factory.serial() + b.limits.fingerprint() * 0x9E3779B97F4A7C15L
+                + (b.p2sh ? 0 : NO_P2SH_FLAG) + (b.staticAnalysis ? STATIC_ANALYSIS_FLAG : 0);
+        this.redeemScripts     = !b.p2sh ? null
+                : b.redeemScripts != null ? b.redeemScripts
+                : new RedeemScriptCache(RedeemScriptCache.DEFAULT_CAPACITY);
+
+        boolean trace = b.traceEnabled;
+        boolean analyse = b.staticAnalysis;
+        boolean peephole = b.peephole;
+        Supplier<? extends ExecutionListener> listeners = b.listeners;
+        this.recorders    = metrics == null ? null : ThreadLocal.withInitial(metrics::newRecorder);
+        this.interpreters = ThreadLocal.withInitial(() -> {
+            InterpreterContext ctx = new InterpreterContext(new Stack(), factory,
+                    ExecutionListener.combine(trace ? new PrintingTraceListener() : null,
+                                              listeners == null ? null : listeners.get(),
+                                              recorders == null ? null : recorders.get()),
+                    limits);
+            ctx.setStaticAnalysis(analyse);
+            ctx.setPeephole(peephole);
+            return new ScriptInterpreter(ctx);
+        });
+    }
+
+    /**
+     * Returns a builder for validators with non-default options.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Compiles {@code script} against this validator's operation factory.
+     *
+     * <p>The result can be cached by the caller and passed to
+     * {@link #validate(CompiledScript, CompiledScript)} any number of times,
+     * which avoids resolving opcode names on every validation.
+     *
+     * @param script the script to compile
+     * @return the compiled script
+     * @throws ScriptException if the script's conditionals are unbalanced
+     */
+    public CompiledScript compile(Script script) {
+        return CompiledScript.compile(script, factory);
     }
 
     /**
@@ -25,25 +168,663 @@ public class ScriptValidator {
      * @return {@code true} if execution succeeds and the final stack top is truthy
      */
     public boolean validate(Script scriptSig, Script scriptPubKey) {
-        Stack stack              = new Stack();
-        OperationFactory factory = new OperationFactory();
-        InterpreterContext ctx   = new InterpreterContext(stack, factory, traceEnabled);
-        ScriptInterpreter interpreter = new ScriptInterpreter(ctx);
+        CompiledScript sig    = CompiledScript.compileOrReject(scriptSig, factory);
+        CompiledScript pubKey = CompiledScript.compileOrReject(scriptPubKey, factory);
+        CompiledScript rejected = rejected(sig, pubKey);
+        if (rejected != null) {
+            recordRejection(rejected);
+            return false;
+        }
+        return validate(sig, pubKey);
+    }
+
+    /**
+     * Validates a pair of pre-compiled scripts.
+     *
+     * <p>In {@link SignatureMode#DEFERRED} mode the scripts first run with every
+     * signature check assumed valid; the recorded checks are then verified as
+     * one batch.  If the run failed after assuming some check, or any check
+     * turns out invalid, the input is executed again with inline verification,
+     * so the result never differs from {@link SignatureMode#IMMEDIATE} mode.
+     *
+     * <p>A push-only scriptSig spending a standard P2PKH or bare-multisig
+     * scriptPubKey is evaluated by a specialised routine instead of the
+     * interpreter, with the same result, unless the validator traces, has a
+     * listener or collects metrics, or was built with
+     * {@link Builder#templateFastPaths(boolean) templateFastPaths(false)}.
+     *
+     * <p>With a {@link Builder#cache(ValidationCache) validation cache}, an
+     * input validated before is answered from the cache without executing
+     * it, so listeners observe nothing for it.
+     *
+     * <p>When {@code scriptPubKey} is a pay-to-script-hash script
+     * ({@code OP_HASH160 <hash> OP_EQUAL}) and succeeds, the scriptSig must
+     * be push-only, and its last push is decoded as the redeem script and
+     * executed on the stack the scriptSig left below it, unless the
+     * validator was built with {@link Builder#p2sh(boolean) p2sh(false)}.
+     *
+     * <p>Invalid scripts are rejected without creating exceptions or result
+     * objects; use {@link #verify(CompiledScript, CompiledScript)} to learn why.
+     *
+     * @param scriptSig    the compiled unlocking script
+     * @param scriptPubKey the compiled locking script
+     * @return {@code true} if execution succeeds and the final stack top is truthy
+     * @see #compile(Script)
+     */
+    public boolean validate(CompiledScript scriptSig, CompiledScript scriptPubKey) {
+        if (traceEnabled) {
+            return verify(scriptSig, scriptPubKey).isValid();   // reports the failure
+        }
+        Boolean cached = cache == null ? null : cache.get(scriptSig, scriptPubKey, cacheFlags);
+        boolean valid;
+        if (cached != null) {
+            valid = cached;
+        } else {
+            ValidationResult result = run(scriptSig, scriptPubKey, false);
+            valid = result.isValid();
+            if (cache != null && result.getError() != ScriptError.TIME_LIMIT) {
+                cache.put(scriptSig, scriptPubKey, cacheFlags, valid);
+            }
+        }
+        if (metrics != null) {
+            metrics.recordValidation(valid);
+        }
+        return valid;
+    }
 
+    /**
+     * Validates two scripts and reports why they failed, if they did.
+     *
+     * <p>A script that cannot be compiled is reported with the compiler's
+     * code (e.g. {@link ScriptError#UNBALANCED_CONDITIONAL}) and
+     * {@link ValidationResult.Stage#NONE}.
+     *
+     * @param scriptSig    the unlocking script
+     * @param scriptPubKey the locking script
+     * @return the result
+     */
+    public ValidationResult verify(Script scriptSig, Script scriptPubKey) {
+        CompiledScript sig    = CompiledScript.compileOrReject(scriptSig, factory);
+        CompiledScript pubKey = CompiledScript.compileOrReject(scriptPubKey, factory);
+        CompiledScript rejected = rejected(sig, pubKey);
+        if (rejected != null) {
+            recordRejection(rejected);
+            return ValidationResult.of(rejected.rejection);
+        }
+        return verify(sig, pubKey);
+    }
+
+    /**
+     * Validates a pair of pre-compiled scripts like
+     * {@link #validate(CompiledScript, CompiledScript)}, and reports the
+     * failure code and the failing instruction if they are invalid.
+     *
+     * <p>A cached or fast-path failure is re-executed on the interpreter to
+     * find its cause; a success is never re-executed.
+     *
+     * @param scriptSig    the compiled unlocking script
+     * @param scriptPubKey the compiled locking script
+     * @return the result
+     */
+    public ValidationResult verify(CompiledScript scriptSig, CompiledScript scriptPubKey) {
+        Boolean cached = cache == null ? null : cache.get(scriptSig, scriptPubKey, cacheFlags);
+        ValidationResult result = Boolean.TRUE.equals(cached)
+                ? ValidationResult.VALID
+                : run(scriptSig, scriptPubKey, true);
+        if (cache != null && cached == null && result.getError() != ScriptError.TIME_LIMIT) {
+            cache.put(scriptSig, scriptPubKey, cacheFlags, result.isValid());
+        }
+        if (metrics != null) {
+            metrics.recordValidation(result.isValid());
+        }
+        if (traceEnabled && !result.isValid()) {
+            System.err.println("[INVALID] " + result);
+        }
+        return result;
+    }
+
+    // The first of two freshly compiled scripts that was rejected, or null.
+    private static CompiledScript rejected(CompiledScript scriptSig, CompiledScript scriptPubKey) {
+        return scriptSig.isRejected() ? scriptSig : scriptPubKey.isRejected() ? scriptPubKey : null;
+    }
+
+    // Reports a script that was rejected before it could execute.
+    private void recordRejection(CompiledScript rejected) {
+        if (traceEnabled) {
+            System.err.println("[INVALID] Script rejected: " + rejected.rejectionMessage);
+        }
+        if (metrics != null) {
+            metrics.recordFailure(rejected.rejection.getDescription());
+            metrics.recordValidation(false);
+        }
+    }
+
+    // detailed: a fast-path failure is re-run on the interpreter to find its cause.
+    private ValidationResult run(CompiledScript scriptSig, CompiledScript scriptPubKey, boolean detailed) {
+        if (templateFastPaths && scriptPubKey.template != null && scriptSig.pushValues != null
+                && limits.admitsTemplate(scriptSig, scriptPubKey)) {
+            if (scriptPubKey.template.evaluate(scriptSig.pushValues)) {
+                return ValidationResult.VALID;
+            }
+            if (!detailed) {
+                return TEMPLATE_FAILED;
+            }
+        }
+        ScriptInterpreter interpreter = interpreters.get();
+        InterpreterContext ctx = interpreter.context();
+        if (signatureMode == SignatureMode.IMMEDIATE) {
+            return execute(interpreter, scriptSig, scriptPubKey, detailed);
+        }
+
+        SignatureBatch batch = batches.get();
+        InterpreterMetrics.Recorder recorder = recorders == null ? null : recorders.get();
+        batch.clear();
+        ctx.setSignatureBatch(batch);
+        if (recorder != null) {
+            recorder.hold();
+        }
+        ValidationResult optimistic;
+        boolean confirmed = false;
         try {
-            interpreter.execute(scriptSig);
-            interpreter.execute(scriptPubKey);
-        } catch (ScriptException e) {
-            System.err.println("[INVALID] Script execution failed: " + e.getMessage());
-            return false;
+            optimistic = execute(interpreter, scriptSig, scriptPubKey, detailed);
+            confirmed = optimistic.isValid()
+                    ? batch.verify(factory.crypto())     // every assumed signature check holds
+                    : batch.isEmpty();                   // failed without assuming anything
+            if (confirmed && recorder != null) {
+                recorder.commit(0, recorder.held());
+            }
+        } finally {
+            ctx.setSignatureBatch(null);
+            if (recorder != null) {
+                recorder.release();
+            }
         }
+        if (confirmed) {
+            return optimistic;
+        }
+        return execute(interpreter, scriptSig, scriptPubKey, detailed);   // exact re-execution
+    }
 
-        if (stack.isEmpty()) {
-            System.err.println("[INVALID] Stack is empty after execution");
-            return false;
+    // Runs both scripts without throwing.  Only a detailed failure, which
+    // carries its position, allocates; otherwise the shared result per code is used.
+    private ValidationResult execute(ScriptInterpreter interpreter, CompiledScript scriptSig,
+                                     CompiledScript scriptPubKey, boolean detailed) {
+        InterpreterContext ctx = interpreter.context();
+        ctx.reset();
+
+        ScriptError error = interpreter.evaluate(scriptSig);
+        if (error != ScriptError.OK) {
+            return failure(error, ValidationResult.Stage.SCRIPT_SIG, ctx, detailed);
+        }
+        error = interpreter.evaluate(scriptPubKey);
+        if (error != ScriptError.OK) {
+            return failure(error, ValidationResult.Stage.SCRIPT_PUBKEY, ctx, detailed);
+        }
+
+        ByteStack stack = ctx.getStack().bytes();
+        if (stack.isEmpty() || !stack.isTopTruthy()) {
+            return EVAL_FALSE;
+        }
+        if (redeemScripts == null || scriptPubKey.scriptHash == null) {
+            return ValidationResult.VALID;
+        }
+        return executeRedeemScript(ctx, interpreter, scriptSig, scriptPubKey.scriptHash, detailed);
+    }
+
+    private static ValidationResult failure(ScriptError error, ValidationResult.Stage stage,
+                                            InterpreterContext ctx, boolean detailed) {
+        return detailed
+                ? new ValidationResult(error, stage, ctx.getErrorPosition())
+                : ValidationResult.of(error);
+    }
+
+    // BIP 16: run the redeem script on the scriptSig's stack minus the script itself.
+    private ValidationResult executeRedeemScript(InterpreterContext ctx, ScriptInterpreter interpreter,
+                                                 CompiledScript scriptSig, byte[] scriptHash,
+                                                 boolean detailed) {
+        byte[][] values = scriptSig.pushValues;
+        if (values == null) {
+            return SIG_PUSHONLY;
+        }
+        // The locking script hashed the top element, so there is at least one.
+        CompiledScript redeemScript = redeemScripts.compile(scriptHash, values[values.length - 1], factory);
+        if (redeemScript.isRejected()) {
+            return detailed
+                    ? new ValidationResult(redeemScript.rejection, ValidationResult.Stage.REDEEM_SCRIPT, -1)
+                    : ValidationResult.of(redeemScript.rejection);
+        }
+
+        ByteStack stack = ctx.getStack().bytes();
+        stack.reset();
+        for (int i = 0; i < values.length - 1; i++) {
+            stack.push(values[i]);
+        }
+        ScriptError error = interpreter.evaluate(redeemScript);
+        if (error != ScriptError.OK) {
+            return failure(error, ValidationResult.Stage.REDEEM_SCRIPT, ctx, detailed);
+        }
+        return !stack.isEmpty() && stack.isTopTruthy() ? ValidationResult.VALID : EVAL_FALSE;
+    }
+
+    // ── Batch validation ────────────────────────────────────────────────────
+
+    /**
+     * Validates a stream of inputs in parallel on the common fork/join pool.
+     *
+     * @param pairs the inputs to validate; the stream is fully consumed first
+     * @param mode  whether to stop at the first invalid input
+     * @return the per-input results, in encounter order
+     */
+    public BatchResult validateBatch(Stream<ScriptPair> pairs, BatchMode mode) {
+        return validateBatch(pairs.collect(Collectors.toList()), mode);
+    }
+
+    /**
+     * Validates a list of inputs in parallel on the common fork/join pool.
+     *
+     * @param pairs the inputs to validate
+     * @param mode  whether to stop at the first invalid input
+     * @return the per-input results, in input order
+     */
+    public BatchResult validateBatch(List<ScriptPair> pairs, BatchMode mode) {
+        return validateBatch(pairs, mode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Validates a list of inputs in parallel on {@code executor}.
+     *
+     * <p>The inputs are split into contiguous chunks, a few per available worker,
+     * and each chunk is validated sequentially on one thread using that thread's
+     * own reusable context.  In {@link BatchMode#FAIL_FAST} mode every chunk stops
+     * as soon as any chunk reports an invalid input.
+     *
+     * <p>In {@link SignatureMode#DEFERRED} mode a chunk collects the signature
+     * checks of up to {@value #DEFERRED_WINDOW} consecutive inputs into one
+     * batch and verifies them together; only the inputs of a failing batch are
+     * narrowed down and re-executed.
+     *
+     * @param pairs    the inputs to validate
+     * @param mode     whether to stop at the first invalid input
+     * @param executor the executor that runs the chunks
+     * @return the per-input results, in input order
+     */
+    public BatchResult validateBatch(List<ScriptPair> pairs, BatchMode mode, Executor executor) {
+        int n = pairs.size();
+        byte[] outcomes = new byte[n];
+        if (n == 0) {
+            return new BatchResult(outcomes);
+        }
+
+        int workers    = executor instanceof ForkJoinPool
+                ? ((ForkJoinPool) executor).getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        int chunks     = Math.min(n, Math.max(1, workers) * 4);
+        int chunkSize  = (n + chunks - 1) / chunks;
+        boolean failFast = mode == BatchMode.FAIL_FAST;
+        // Set by whichever chunk finds the first invalid input.
+        FailureFlag failed = new FailureFlag();
+
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[(n + chunkSize - 1) / chunkSize];
+        for (int c = 0; c < tasks.length; c++) {
+            int from = c * chunkSize;
+            int to   = Math.min(n, from + chunkSize);
+            tasks[c] = CompletableFuture.runAsync(() -> {
+                if (signatureMode == SignatureMode.DEFERRED) {
+                    validateDeferred(pairs, from, to, outcomes, failFast, failed);
+                    return;
+                }
+                for (int i = from; i < to; i++) {
+                    if (failFast && failed.set) {
+                        return;
+                    }
+                    boolean valid = validate(pairs.get(i));
+                    outcomes[i] = valid ? BatchResult.VALID : BatchResult.INVALID;
+                    if (!valid) {
+                        failed.set = true;
+                    }
+                }
+            }, executor);
         }
 
-        String top = stack.peek();
-        return Stack.isTruthy(top);
+        try {
+            CompletableFuture.allOf(tasks).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return new BatchResult(outcomes);
+    }
+
+    // Deferred-signature form of one chunk of validateBatch.
+    private void validateDeferred(List<ScriptPair> pairs, int from, int to, byte[] outcomes,
+                                  boolean failFast, FailureFlag failed) {
+        ScriptInterpreter interpreter = interpreters.get();
+        InterpreterContext ctx = interpreter.context();
+        SignatureBatch batch   = batches.get();
+        InterpreterMetrics.Recorder recorder = recorders == null ? null : recorders.get();
+        CompiledScript[] sigs    = new CompiledScript[DEFERRED_WINDOW];
+        CompiledScript[] pubKeys = new CompiledScript[DEFERRED_WINDOW];
+        int[]     marks    = new int[DEFERRED_WINDOW + 1];   // first check of each input
+        boolean[] rerun    = new boolean[DEFERRED_WINDOW];
+        boolean[] timedOut = new boolean[DEFERRED_WINDOW];   // result must not be cached
+        int[]     recorded = new int[DEFERRED_WINDOW + 1];   // first held metrics recording of each input
+
+        for (int start = from; start < to; start += DEFERRED_WINDOW) {
+            int count = Math.min(DEFERRED_WINDOW, to - start);
+            batch.clear();
+            Arrays.fill(rerun, false);
+            Arrays.fill(timedOut, false);
+
+            // Phase 1: optimistic runs; passing inputs are provisionally valid.
+            // Their metrics are held back until phase 2 confirms them.
+            ctx.setSignatureBatch(batch);
+            if (recorder != null) {
+                recorder.hold();
+            }
+            try {
+                for (int k = 0; k < count; k++) {
+                    marks[k] = batch.size();
+                    recorded[k] = recorder == null ? 0 : recorder.held();
+                    if (failFast && failed.set) {
+                        count = k;
+                        break;
+                    }
+                    ScriptPair pair = pairs.get(start + k);
+                    if (pair.isCompiled()) {
+                        sigs[k]    = pair.getCompiledSig();
+                        pubKeys[k] = pair.getCompiledPubKey();
+                    } else {
+                        sigs[k]    = CompiledScript.compileOrReject(pair.getScriptSig(), factory);
+                        pubKeys[k] = CompiledScript.compileOrReject(pair.getScriptPubKey(), factory);
+                        CompiledScript rejected = rejected(sigs[k], pubKeys[k]);
+                        if (rejected != null) {
+                            sigs[k]    = null;
+                            pubKeys[k] = null;
+                            outcomes[start + k] = BatchResult.INVALID;
+                            failed.set = true;
+                            recordRejection(rejected);
+                            continue;
+                        }
+                    }
+                    Boolean cached = cache == null ? null : cache.get(sigs[k], pubKeys[k], cacheFlags);
+                    if (cached != null) {
+                        outcomes[start + k] = cached ? BatchResult.VALID : BatchResult.INVALID;
+                        if (!cached) {
+                            failed.set = true;
+                        }
+                        continue;
+                    }
+                    ValidationResult result = execute(interpreter, sigs[k], pubKeys[k], false);
+                    if (result.isValid()) {
+                        outcomes[start + k] = BatchResult.VALID;
+                    } else if (batch.size() == marks[k]) {
+                        outcomes[start + k] = BatchResult.INVALID;   // no assumption involved
+                        timedOut[k] = result.getError() == ScriptError.TIME_LIMIT;
+                        failed.set = true;
+                    } else {
+                        batch.truncate(marks[k]);
+                        rerun[k] = true;
+                    }
+                }
+                marks[count] = batch.size();
+                recorded[count] = recorder == null ? 0 : recorder.held();
+            } finally {
+                ctx.setSignatureBatch(null);
+            }
+
+            // Phase 2: one batch verification; on failure, find the inputs at fault.
+            if (!batch.verify(factory.crypto())) {
+                for (int k = 0; k < count; k++) {
+                    if (outcomes[start + k] == BatchResult.VALID
+                            && !batch.verify(factory.crypto(), marks[k], marks[k + 1])) {
+                        rerun[k] = true;
+                    }
+                }
+            }
+            if (recorder != null) {
+                for (int k = 0; k < count; k++) {
+                    if (!rerun[k]) {
+                        recorder.commit(recorded[k], recorded[k + 1]);
+                    }
+                }
+                recorder.release();
+            }
+
+            // Phase 3: exact re-execution of every input whose assumptions failed.
+            for (int k = 0; k < count; k++) {
+                if (rerun[k]) {
+                    ValidationResult result = execute(interpreter, sigs[k], pubKeys[k], false);
+                    boolean valid = result.isValid();
+                    timedOut[k] = result.getError() == ScriptError.TIME_LIMIT;
+                    outcomes[start + k] = valid ? BatchResult.VALID : BatchResult.INVALID;
+                    if (!valid) {
+                        failed.set = true;
+                    }
+                }
+                if (sigs[k] != null && pubKeys[k] != null) {
+                    boolean valid = outcomes[start + k] == BatchResult.VALID;
+                    if (cache != null && !timedOut[k]) {
+                        cache.put(sigs[k], pubKeys[k], cacheFlags, valid);
+                    }
+                    if (metrics != null) {
+                        metrics.recordValidation(valid);
+                    }
+                }
+            }
+        }
+    }
+
+    // Validates one batch entry, compiling it first if needed.
+    private boolean validate(ScriptPair pair) {
+        return pair.isCompiled()
+                ? validate(pair.getCompiledSig(), pair.getCompiledPubKey())
+                : validate(pair.getScriptSig(), pair.getScriptPubKey());
+    }
+
+    private static final class FailureFlag {
+        volatile boolean set;
+    }
+
+    /**
+     * Mutable, single-use assembler for a {@link ScriptValidator}.
+     */
+    public static final class Builder {
+
+        private boolean traceEnabled;
+        private OperationFactory factory = OperationFactory.standard();
+        private SignatureMode signatureMode = SignatureMode.IMMEDIATE;
+        private Supplier<? extends ExecutionListener> listeners;
+        private InterpreterMetrics metrics;
+        private boolean templateFastPaths = true;
+        private ValidationCache cache;
+        private ScriptLimits limits = ScriptLimits.standard();
+        private boolean p2sh = true;
+        private RedeemScriptCache redeemScripts;
+        private boolean staticAnalysis;
+        private boolean peephole = true;
+
+        private Builder() {
+        }
+
+        /**
+         * Prints the stack after each instruction (default {@code false}).
+         *
+         * @param enabled {@code true} to attach a {@link PrintingTraceListener}
+         * @return this builder
+         */
+        public Builder trace(boolean enabled) {
+            this.traceEnabled = enabled;
+            return this;
+        }
+
+        /**
+         * Sets the operation factory (default {@link OperationFactory#standard()}).
+         *
+         * @param factory the (shared, immutable) operation factory
+         * @return this builder
+         */
+        public Builder factory(OperationFactory factory) {
+            this.factory = factory;
+            return this;
+        }
+
+        /**
+         * Uses the standard opcode set wired to {@code crypto}.
+         *
+         * @param crypto the crypto provider
+         * @return this builder
+         */
+        public Builder crypto(CryptoProvider crypto) {
+            return factory(OperationFactory.builder().registerStandard(crypto).build());
+        }
+
+        /**
+         * Sets when signatures are verified (default {@link SignatureMode#IMMEDIATE}).
+         *
+         * @param mode the signature mode
+         * @return this builder
+         */
+        public Builder signatureMode(SignatureMode mode) {
+            this.signatureMode = mode;
+            return this;
+        }
+
+        /**
+         * Attaches an execution listener to every validation.
+         *
+         * <p>Listeners are not shared between threads: {@code listeners} is
+         * called once for each thread that validates with this validator, and
+         * the listener it returns observes all of that thread's executions.
+         *
+         * @param listeners supplies one listener per validating thread
+         * @return this builder
+         */
+        public Builder listener(Supplier<? extends ExecutionListener> listeners) {
+            this.listeners = listeners;
+            return this;
+        }
+
+        /**
+         * Collects execution metrics into {@code metrics} (default: none).
+         *
+         * @param metrics the metrics to update; must have been created for
+         *                this validator's factory
+         * @return this builder
+         */
+        public Builder metrics(InterpreterMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Enables the specialised P2PKH and bare-multisig evaluators (default
+         * {@code true}).  They are bypassed anyway while execution is traced,
+         * listened to or measured.
+         *
+         * @param enabled {@code false} to always run the generic interpreter
+         * @return this builder
+         */
+        public Builder templateFastPaths(boolean enabled) {
+            this.templateFastPaths = enabled;
+            return this;
+        }
+
+        /**
+         * Answers repeated inputs from {@code cache} (default: none).  The
+         * cache may be shared between validators; results are keyed by the
+         * operation factory and the limits, so validators with different
+         * rules never see each other's entries.  Results cut short by a time
+         * budget are not cached.
+         *
+         * @param cache the cache to consult and fill
+         * @return this builder
+         */
+        public Builder cache(ValidationCache cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        /**
+         * Sets the resource limits (default {@link ScriptLimits#standard()}).
+         *
+         * @param limits the limits enforced on every execution
+         * @return this builder
+         */
+        public Builder limits(ScriptLimits limits) {
+            this.limits = limits;
+            return this;
+        }
+
+        /**
+         * Enables pay-to-script-hash evaluation (default {@code true}).
+         *
+         * @param enabled {@code false} to treat P2SH locking scripts as plain
+         *                hash comparisons
+         * @return this builder
+         */
+        public Builder p2sh(boolean enabled) {
+            this.p2sh = enabled;
+            return this;
+        }
+
+        /**
+         * Compiles redeem scripts through {@code cache} (default: a private
+         * cache of {@value RedeemScriptCache#DEFAULT_CAPACITY} scripts).  The
+         * cache may be shared between validators.
+         *
+         * @param cache the redeem-script cache
+         * @return this builder
+         */
+        public Builder redeemScriptCache(RedeemScriptCache cache) {
+            this.redeemScripts = cache;
+            return this;
+        }
+
+        /**
+         * Checks every script against its {@link ScriptAnalysis} before
+         * running it (default {@code false}).  Scripts that cannot succeed
+         * from the stack they are given, and scripts containing a disabled
+         * opcode even in a branch not taken, are rejected without executing;
+         * an input that is invalid for several reasons may then report the
+         * statically found one.  The analysis is computed once per compiled
+         * script, so it pays off when compiled scripts are reused.
+         *
+         * @param enabled {@code true} to analyse scripts before running them
+         * @return this builder
+         */
+        public Builder staticAnalysis(boolean enabled) {
+            this.staticAnalysis = enabled;
+            return this;
+        }
+
+        /**
+         * Runs common instruction pairs such as {@code OP_DUP OP_HASH160} as
+         * one fused instruction (default {@code true}); see
+         * {@link InterpreterContext#setPeephole(boolean)}.  Results are the
+         * same either way, and traced or listened-to executions always run
+         * the original instructions.
+         *
+         * @param enabled {@code false} to dispatch every instruction separately
+         * @return this builder
+         */
+        public Builder peephole(boolean enabled) {
+            this.peephole = enabled;
+            return this;
+        }
+
+        /**
+         * Creates the validator.
+         *
+         * @return the new validator
+         * @throws IllegalArgumentException if deferred signatures are requested
+         *                                  and the factory has no crypto provider,
+         *                                  or if the metrics were created for
+         *                                  another factory
+         */
+        public ScriptValidator build() {
+            return new ScriptValidator(this);
+        }
     }
 }
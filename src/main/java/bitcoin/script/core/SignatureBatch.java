@@ -0,0 +1,98 @@
+package bitcoin.script.core;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import bitcoin.script.crypto.CryptoProvider;
+
+/**
+ * Signature checks recorded during a {@link SignatureMode#DEFERRED} execution.
+ *
+ * <p>While a batch is installed in the {@link InterpreterContext}, the
+ * signature opcodes append their (signature, pubKey) pairs here instead of
+ * verifying them, and push {@code "1"}.  {@link #verify} then checks the whole
+ * batch through {@link CryptoProvider#checkSigBatch}: small batches in one
+ * call, larger ones split into groups verified in parallel on the common
+ * fork/join pool.
+ *
+ * <p>Not thread-safe: each validator thread owns its own instance.
+ */
+public final class SignatureBatch {
+
+    /** Batches with at least this many checks are verified in parallel. */
+    static final int PARALLEL_THRESHOLD = 8;
+    /** Checks per parallel group. */
+    static final int GROUP_SIZE = 4;
+
+    private byte[][] signatures = new byte[16][];
+    private byte[][] pubKeys    = new byte[16][];
+    private int      size;
+
+    /**
+     * Records one signature check.  The arrays are kept, not copied.
+     *
+     * @param signature the signature
+     * @param pubKey    the public key
+     */
+    public void add(byte[] signature, byte[] pubKey) {
+        if (size == signatures.length) {
+            signatures = Arrays.copyOf(signatures, size * 2);
+            pubKeys    = Arrays.copyOf(pubKeys, size * 2);
+        }
+        signatures[size] = signature;
+        pubKeys[size]    = pubKey;
+        size++;
+    }
+
+    /** Returns the number of recorded checks. */
+    public int size() {
+        return size;
+    }
+
+    /** Returns {@code true} if no check has been recorded. */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Discards all recorded checks, keeping the buffers for reuse. */
+    public void clear() {
+        truncate(0);
+    }
+
+    /**
+     * Verifies every recorded check.
+     *
+     * @param crypto the provider that verifies the signatures
+     * @return {@code true} if all checks are valid
+     */
+    public boolean verify(CryptoProvider crypto) {
+        return verify(crypto, 0, size);
+    }
+
+    /**
+     * Verifies the recorded checks with indices in {@code [from, to)}.
+     *
+     * @param crypto the provider that verifies the signatures
+     * @param from   first check (inclusive)
+     * @param to     last check (exclusive)
+     * @return {@code true} if all checks in the range are valid
+     */
+    public boolean verify(CryptoProvider crypto, int from, int to) {
+        int count = to - from;
+        if (count < PARALLEL_THRESHOLD) {
+            return count == 0 || crypto.checkSigBatch(signatures, pubKeys, from, count);
+        }
+        int groups = (count + GROUP_SIZE - 1) / GROUP_SIZE;
+        return IntStream.range(0, groups).parallel().allMatch(g -> {
+            int off = from + g * GROUP_SIZE;
+            return crypto.checkSigBatch(signatures, pubKeys, off, Math.min(GROUP_SIZE, to - off));
+        });
+    }
+
+    // Drops the checks recorded after the first newSize ones.
+    void truncate(int newSize) {
+        Arrays.fill(signatures, newSize, size, null);
+        Arrays.fill(pubKeys, newSize, size, null);
+        size = newSize;
+    }
+}
@@ -0,0 +1,18 @@
+package bitcoin.script.core;
+
+/**
+ * When the signature opcodes verify their signatures.
+ */
+public enum SignatureMode {
+
+    /** Every {@code OP_CHECKSIG}/{@code OP_CHECKMULTISIG} verifies inline. */
+    IMMEDIATE,
+
+    /**
+     * Signature opcodes record their checks in a {@link SignatureBatch} and
+     * assume success; the batch is verified once execution has finished.  If
+     * any check fails, the input is executed again in {@link #IMMEDIATE} mode,
+     * so the final result is always exactly the immediate-mode result.
+     */
+    DEFERRED
+}
@@ -1,14 +1,26 @@
 package bitcoin.script.core;
 
-import java.util.ArrayDeque;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Deque;
 import java.util.List;
 
+/**
+ * The script data stack.
+ *
+ * <p>Values are stored as raw bytes in a {@link ByteStack} arena; this class
+ * keeps the original string-based API as a facade over it (strings are
+ * encoded and decoded as UTF-8) and exposes the allocation-free byte-level
+ * operations used by the built-in opcodes.
+ *
+ * <p>Unlike {@link ByteStack}, this facade checks the depth: reading or
+ * removing more elements than present throws a {@link ScriptException}
+ * with {@link ScriptError#INVALID_STACK_OPERATION}, which the interpreter
+ * turns into a failure of the custom operation that caused it.  The
+ * built-in operations check the depth themselves and use {@link #bytes()}.
+ */
 public class Stack {
 
-    private final Deque<String> deque = new ArrayDeque<>();
+    private final ByteStack bytes = new ByteStack();
 
     /**
      * Pushes {@code value} onto the top of the stack.
@@ -16,7 +28,35 @@ public class Stack {
      * @param value the string value to push (must not be null)
      */
     public void push(String value) {
-        deque.push(value);   // pushes to head (= top)
+        bytes.push(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Pushes a copy of {@code value} onto the top of the stack.
+     *
+     * @param value the raw bytes to push
+     */
+    public void push(byte[] value) {
+        bytes.push(value);
+    }
+
+    /**
+     * Pushes {@code "1"} or {@code "0"} without allocating.
+     *
+     * @param value the boolean to push
+     */
+    public void pushBoolean(boolean value) {
+        bytes.pushBoolean(value);
+    }
+
+    /**
+     * Pushes {@code value} as a tagged number, which reads as its decimal
+     * digits but is not formatted unless something reads it as bytes.
+     *
+     * @param value the number to push
+     */
+    public void pushNumber(long value) {
+        bytes.pushNumber(value);
     }
 
     /**
@@ -26,10 +66,19 @@ public class Stack {
      * @throws ScriptException if the stack is empty (stack underflow)
      */
     public String pop() {
-        if (deque.isEmpty()) {
-            throw new ScriptException("Stack underflow: attempted to pop from an empty stack");
-        }
-        return deque.pop();
+        require(1);
+        return bytes.popString();
+    }
+
+    /**
+     * Removes and returns a copy of the top value's raw bytes.
+     *
+     * @return the top stack value
+     * @throws ScriptException if the stack is empty (stack underflow)
+     */
+    public byte[] popBytes() {
+        require(1);
+        return bytes.pop();
     }
 
     /**
@@ -39,20 +88,79 @@ public class Stack {
      * @throws ScriptException if the stack is empty
      */
     public String peek() {
-        if (deque.isEmpty()) {
-            throw new ScriptException("Stack underflow: attempted to peek at an empty stack");
-        }
-        return deque.peek();
+        require(1);
+        return bytes.peekString();
+    }
+
+    /**
+     * Duplicates the top value in place.
+     *
+     * @throws ScriptException if the stack is empty
+     */
+    public void dup() {
+        require(1);
+        bytes.dup();
+    }
+
+    /**
+     * Discards the top {@code count} values.
+     *
+     * @param count number of values to discard
+     * @throws ScriptException if fewer than {@code count} values are present
+     */
+    public void drop(int count) {
+        require(count);
+        bytes.drop(count);
+    }
+
+    /**
+     * Returns {@code true} if the two top values are equal, leaving them in place.
+     *
+     * @throws ScriptException if fewer than two values are present
+     */
+    public boolean topEquals() {
+        require(2);
+        return bytes.topEquals();
+    }
+
+    /**
+     * Returns {@code true} if the top value is truthy, leaving it in place.
+     *
+     * @throws ScriptException if the stack is empty
+     */
+    public boolean isTopTruthy() {
+        require(1);
+        return bytes.isTopTruthy();
+    }
+
+    /**
+     * Removes the top value and returns whether it was truthy.
+     *
+     * @throws ScriptException if the stack is empty (stack underflow)
+     */
+    public boolean popTruthy() {
+        require(1);
+        return bytes.popTruthy();
     }
 
     /** Returns the number of elements currently on the stack. */
     public int size() {
-        return deque.size();
+        return bytes.size();
     }
 
     /** Returns {@code true} if the stack contains no elements. */
     public boolean isEmpty() {
-        return deque.isEmpty();
+        return bytes.isEmpty();
+    }
+
+    /** Removes all elements, keeping the underlying buffers for reuse. */
+    public void reset() {
+        bytes.reset();
+    }
+
+    /** Returns the byte-level stack backing this facade. */
+    public ByteStack bytes() {
+        return bytes;
     }
 
     /**
@@ -61,8 +169,10 @@ public class Stack {
      * @return a new list containing all stack elements, bottom-first
      */
     public List<String> snapshot() {
-        List<String> copy = new ArrayList<>(deque);  // head (top) first
-        Collections.reverse(copy);                    // reverse → bottom first
+        List<String> copy = new ArrayList<>(bytes.size());
+        for (int i = 0; i < bytes.size(); i++) {
+            copy.add(bytes.tokenAt(i));
+        }
         return copy;
     }
 
@@ -75,4 +185,11 @@ public class Stack {
     public static boolean isTruthy(String value) {
         return value != null && !value.equals("0") && !value.isEmpty();
     }
+
+    private void require(int count) {
+        if (bytes.size() < count) {
+            throw new ScriptException(ScriptError.INVALID_STACK_OPERATION,
+                    "Stack underflow: " + count + " element(s) needed, " + bytes.size() + " present");
+        }
+    }
 }
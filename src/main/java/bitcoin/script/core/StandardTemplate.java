@@ -0,0 +1,159 @@
+package bitcoin.script.core;
+
+import java.util.Arrays;
+
+import bitcoin.script.crypto.CryptoProvider;
+import bitcoin.script.ops.OpCheckMultiSig;
+import bitcoin.script.ops.OpCheckSig;
+import bitcoin.script.ops.OpDup;
+import bitcoin.script.ops.OpEqualVerify;
+import bitcoin.script.ops.OpHash160;
+import bitcoin.script.ops.OpPushNumber;
+import bitcoin.script.ops.Operation;
+
+/**
+ * Hand-specialised evaluation of a standard scriptPubKey.
+ *
+ * <p>A template is matched once, when the scriptPubKey is compiled, and only
+ * if every opcode in it resolved to the stock implementation, so its result
+ * is by construction the one the generic interpreter would produce.  It is
+ * evaluated directly on the values a push-only scriptSig leaves on the stack,
+ * without an interpreter, a context or any stack copies.
+ */
+abstract class StandardTemplate {
+
+    /** Returns the shape this template implements. */
+    abstract TemplateType type();
+
+    /**
+     * Evaluates the scriptPubKey on top of the given initial stack.
+     *
+     * @param stack the scriptSig's pushes, bottom first (not modified)
+     * @return exactly what {@link ScriptValidator#validate} returns for the pair
+     */
+    abstract boolean evaluate(byte[][] stack);
+
+    /**
+     * Matches a compiled scriptPubKey against the standard shapes.
+     *
+     * @return the template, or {@code null} if the script is non-standard
+     */
+    static StandardTemplate match(byte[] kinds, Operation[] ops, byte[][] constants) {
+        int n = kinds.length;
+        if (n == 5
+                && is(ops[0], OpDup.class)
+                && is(ops[1], OpHash160.class)
+                && kinds[2] == CompiledScript.KIND_PUSH
+                && is(ops[3], OpEqualVerify.class)
+                && is(ops[4], OpCheckSig.class)) {
+            return new P2pkh(constants[2],
+                             ((OpHash160) ops[1]).getCrypto(),
+                             ((OpCheckSig) ops[4]).getCrypto());
+        }
+        if (n >= 4 && is(ops[n - 1], OpCheckMultiSig.class)) {
+            int m    = smallNumber(ops[0]);
+            int keys = smallNumber(ops[n - 2]);
+            if (m < 1 || keys < m || keys != n - 3) {
+                return null;
+            }
+            byte[][] pubKeys = new byte[keys][];
+            for (int i = 0; i < keys; i++) {
+                if (kinds[1 + i] != CompiledScript.KIND_PUSH) {
+                    return null;
+                }
+                pubKeys[i] = constants[1 + i];
+            }
+            return new BareMultisig(m, pubKeys, ((OpCheckMultiSig) ops[n - 1]).getCrypto());
+        }
+        return null;
+    }
+
+    // Exact class check: a subclass may change the behaviour.
+    private static boolean is(Operation op, Class<? extends Operation> type) {
+        return op != null && op.getClass() == type;
+    }
+
+    // Value 1..16 pushed by a stock OP_n, or -1.
+    private static int smallNumber(Operation op) {
+        if (!is(op, OpPushNumber.class)) {
+            return -1;
+        }
+        byte[] value = ((OpPushNumber) op).value();
+        int number = 0;
+        for (byte b : value) {
+            if (b < '0' || b > '9' || value.length > 2) return -1;
+            number = number * 10 + (b - '0');
+        }
+        return number >= 1 && number <= 16 ? number : -1;
+    }
+
+    // ── P2PKH ────────────────────────────────────────────────────────────────
+
+    private static final class P2pkh extends StandardTemplate {
+        private final byte[] hash;
+        private final CryptoProvider hashCrypto;
+        private final CryptoProvider sigCrypto;
+
+        P2pkh(byte[] hash, CryptoProvider hashCrypto, CryptoProvider sigCrypto) {
+            this.hash       = hash;
+            this.hashCrypto = hashCrypto;
+            this.sigCrypto  = sigCrypto;
+        }
+
+        @Override
+        TemplateType type() {
+            return TemplateType.P2PKH;
+        }
+
+        @Override
+        boolean evaluate(byte[][] stack) {
+            int k = stack.length;
+            if (k < 2) {
+                return false;   // OP_DUP or OP_CHECKSIG would underflow
+            }
+            byte[] pubKey = stack[k - 1];
+            return Arrays.equals(hashCrypto.hash160(pubKey), hash)
+                    && sigCrypto.checkSig(stack[k - 2], pubKey);
+        }
+    }
+
+    // ── Bare multisig ────────────────────────────────────────────────────────
+
+    private static final class BareMultisig extends StandardTemplate {
+        private final int m;
+        private final byte[][] pubKeys;   // script order: pubKeys[n - 1] is checked first
+        private final CryptoProvider crypto;
+
+        BareMultisig(int m, byte[][] pubKeys, CryptoProvider crypto) {
+            this.m       = m;
+            this.pubKeys = pubKeys;
+            this.crypto  = crypto;
+        }
+
+        @Override
+        TemplateType type() {
+            return TemplateType.MULTISIG;
+        }
+
+        // Same ordered single pass as OpCheckMultiSig.
+        @Override
+        boolean evaluate(byte[][] stack) {
+            if (stack.length < m + 1) {
+                return false;   // signatures or dummy missing
+            }
+            int sigsLeft = m;
+            int keysLeft = pubKeys.length;
+            int sig = stack.length - 1;
+            int key = pubKeys.length - 1;
+            while (sigsLeft > 0 && sigsLeft <= keysLeft) {
+                if (crypto.checkSig(stack[sig], pubKeys[key])) {
+                    sig--;
+                    sigsLeft--;
+                }
+                key--;
+                keysLeft--;
+            }
+            return sigsLeft == 0;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package bitcoin.script.core;
+
+/**
+ * Standard scriptPubKey shapes recognised when a script is compiled.
+ *
+ * @see CompiledScript#getTemplateType()
+ */
+public enum TemplateType {
+
+    /** Any script that matches no standard shape. */
+    NONSTANDARD,
+
+    /** {@code OP_DUP OP_HASH160 <hash> OP_EQUALVERIFY OP_CHECKSIG}. */
+    P2PKH,
+
+    /** {@code OP_m <pubkey_1> … <pubkey_n> OP_n OP_CHECKMULTISIG}, 1 ≤ m ≤ n ≤ 16. */
+    MULTISIG
+}
@@ -0,0 +1,233 @@
+package bitcoin.script.core;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of validation results.
+ *
+ * <p>Re-checking inputs that were already validated (mempool re-acceptance,
+ * reorgs, reprocessing) can skip execution entirely.  An entry is keyed by a
+ * 128-bit hash of both compiled scripts and a {@code flags} value that
+ * identifies the rules they were validated under; {@link ScriptValidator}
+ * derives it from its operation factory and {@link ScriptLimits}.  The hash
+ * is salted with a random value chosen when the cache is created, so
+ * colliding inputs cannot be prepared in advance.
+ *
+ * <p>Both outcomes are stored, but only for results that depend on nothing
+ * but the scripts and the flags: a result cut short by a time budget
+ * ({@link ScriptError#TIME_LIMIT}) is never stored.  Like
+ * {@link bitcoin.script.crypto.SignatureCache}, the cache evicts a random
+ * entry once full.
+ */
+public final class ValidationCache {
+
+    private static final long M1 = 0x9E3779B97F4A7C15L;
+    private static final long M2 = 0xC2B2AE3D27D4EB4FL;
+
+    private final long salt0;
+    private final long salt1;
+    private final Map<Key, Boolean> results = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Key> slots;
+    private final AtomicLong inserted = new AtomicLong();
+    private final LongAdder hits   = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache holding at most {@code capacity} results.
+     *
+     * @param capacity maximum number of cached results (&gt; 0)
+     */
+    public ValidationCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        SecureRandom random = new SecureRandom();
+        this.salt0 = random.nextLong();
+        this.salt1 = random.nextLong();
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Looks up a cached result and counts a hit or miss.
+     *
+     * @param scriptSig    the compiled unlocking script
+     * @param scriptPubKey the compiled locking script
+     * @param flags        the rule set the result applies to
+     * @return the cached result, or {@code null} if none is cached
+     */
+    public Boolean get(CompiledScript scriptSig, CompiledScript scriptPubKey, long flags) {
+        Boolean valid = results.get(key(scriptSig, scriptPubKey, flags));
+        if (valid != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return valid;
+    }
+
+    /**
+     * Caches a deterministic validation result.
+     *
+     * @param scriptSig    the compiled unlocking script
+     * @param scriptPubKey the compiled locking script
+     * @param flags        the rule set the result applies to
+     * @param valid        the result
+     */
+    public void put(CompiledScript scriptSig, CompiledScript scriptPubKey, long flags, boolean valid) {
+        Key key = key(scriptSig, scriptPubKey, flags);
+        if (results.putIfAbsent(key, valid) != null) {
+            return;
+        }
+        long n = inserted.getAndIncrement();
+        int slot = n < slots.length()
+                ? (int) n
+                : ThreadLocalRandom.current().nextInt(slots.length());
+        Key evicted = slots.getAndSet(slot, key);
+        if (evicted != null) {
+            results.remove(evicted);
+        }
+    }
+
+    /**
+     * Removes the cached result for one input, if any.
+     *
+     * @param scriptSig    the compiled unlocking script
+     * @param scriptPubKey the compiled locking script
+     * @param flags        the rule set the result applies to
+     * @return {@code true} if a result was removed
+     */
+    public boolean invalidate(CompiledScript scriptSig, CompiledScript scriptPubKey, long flags) {
+        // The key stays in its eviction slot; evicting it later is a no-op.
+        return results.remove(key(scriptSig, scriptPubKey, flags)) != null;
+    }
+
+    /** Removes every cached result; statistics are kept. */
+    public void clear() {
+        results.clear();
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+        inserted.set(0);
+    }
+
+    /** Returns the number of lookups answered from the cache. */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** Returns the number of lookups that found nothing. */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Returns hits / lookups, or {@code 0} before the first lookup. */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /** Returns the current number of cached results. */
+    public int size() {
+        return results.size();
+    }
+
+    /** Returns the maximum number of cached results. */
+    public int capacity() {
+        return slots.length();
+    }
+
+    // ── Hashing ──────────────────────────────────────────────────────────────
+
+    private Key key(CompiledScript scriptSig, CompiledScript scriptPubKey, long flags) {
+        Hasher h = new Hasher(salt0, salt1 ^ flags);
+        h.mix(flags);
+        h.mixScript(scriptSig);
+        h.mixScript(scriptPubKey);
+        return h.finish();
+    }
+
+    // Two independent multiply-xorshift lanes, finalised with MurmurHash3's fmix64.
+    private static final class Hasher {
+        private long h0;
+        private long h1;
+
+        Hasher(long seed0, long seed1) {
+            this.h0 = seed0;
+            this.h1 = seed1;
+        }
+
+        void mix(long v) {
+            h0 = Long.rotateLeft((h0 ^ v) * M1, 29);
+            h1 = Long.rotateLeft((h1 ^ v) * M2, 31);
+        }
+
+        // Length-prefixed instructions, so distinct scripts never share an encoding.
+        void mixScript(CompiledScript script) {
+            mix(script.size());
+            for (int i = 0; i < script.size(); i++) {
+                byte[] bytes = script.kinds[i] == CompiledScript.KIND_PUSH
+                        ? script.constants[i]
+                        : script.tokens[i].getBytes(StandardCharsets.UTF_8);
+                mix(((long) script.kinds[i] << 32) | bytes.length);
+                int j = 0;
+                for (; j + 8 <= bytes.length; j += 8) {
+                    long word = 0;
+                    for (int b = 0; b < 8; b++) {
+                        word = (word << 8) | (bytes[j + b] & 0xFF);
+                    }
+                    mix(word);
+                }
+                if (j < bytes.length) {
+                    long word = 0;
+                    for (; j < bytes.length; j++) {
+                        word = (word << 8) | (bytes[j] & 0xFF);
+                    }
+                    mix(word);
+                }
+            }
+        }
+
+        Key finish() {
+            long a = fmix(h0 ^ h1 * M1);
+            long b = fmix(h1 ^ h0 * M2);
+            return new Key(a, b);
+        }
+
+        private static long fmix(long k) {
+            k ^= k >>> 33;
+            k *= 0xFF51AFD7ED558CCDL;
+            k ^= k >>> 33;
+            k *= 0xC4CEB9FE1A85EC53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+
+    private static final class Key {
+        private final long hi;
+        private final long lo;
+
+        Key(long hi, long lo) {
+            this.hi = hi;
+            this.lo = lo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && hi == ((Key) o).hi && lo == ((Key) o).lo;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) lo;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package bitcoin.script.core;
+
+/**
+ * Outcome of {@link ScriptValidator#verify}: valid, or the failure code and
+ * the instruction at which it occurred.
+ *
+ * <p>Results are immutable.  The valid result and the position-less
+ * failures are shared instances, so a successful verification allocates
+ * nothing; only a failure that names its instruction is a new result.
+ */
+public final class ValidationResult {
+
+    /** The script in which a failure occurred. */
+    public enum Stage {
+        /** Not attributable to one instruction (valid, rejected before execution, or a false result). */
+        NONE,
+        /** The unlocking script. */
+        SCRIPT_SIG,
+        /** The locking script. */
+        SCRIPT_PUBKEY,
+        /** The redeem script of a pay-to-script-hash spend. */
+        REDEEM_SCRIPT
+    }
+
+    static final ValidationResult VALID = new ValidationResult(ScriptError.OK, Stage.NONE, -1);
+
+    private static final ValidationResult[] BY_ERROR = new ValidationResult[ScriptError.values().length];
+
+    static {
+        for (ScriptError error : ScriptError.values()) {
+            BY_ERROR[error.ordinal()] = error == ScriptError.OK
+                    ? VALID
+                    : new ValidationResult(error, Stage.NONE, -1);
+        }
+    }
+
+    private final ScriptError error;
+    private final Stage stage;
+    private final int position;
+
+    ValidationResult(ScriptError error, Stage stage, int position) {
+        this.error    = error;
+        this.stage    = stage;
+        this.position = position;
+    }
+
+    // A failure with no instruction to blame; one shared instance per code.
+    static ValidationResult of(ScriptError error) {
+        return BY_ERROR[error.ordinal()];
+    }
+
+    /** Returns {@code true} if the scripts validated. */
+    public boolean isValid() {
+        return error == ScriptError.OK;
+    }
+
+    /** Returns the failure code, {@link ScriptError#OK} if valid. */
+    public ScriptError getError() {
+        return error;
+    }
+
+    /** Returns the script that failed. */
+    public Stage getStage() {
+        return stage;
+    }
+
+    /**
+     * Returns the position of the failing instruction within the script
+     * reported by {@link #getStage()}.
+     *
+     * @return the instruction index, or {@code -1} for {@link Stage#NONE} and
+     *         for a redeem script that could not be decoded or compiled
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Converts a failure into the equivalent exception, for callers that
+     * prefer the exception-based API.
+     *
+     * @return the exception (not thrown)
+     * @throws IllegalStateException if this result is valid
+     */
+    public ScriptException toException() {
+        if (isValid()) {
+            throw new IllegalStateException("Validation succeeded");
+        }
+        return new ScriptException(error, toString());
+    }
+
+    @Override
+    public String toString() {
+        if (isValid()) {
+            return "VALID";
+        }
+        if (stage == Stage.NONE) {
+            return error.getDescription();
+        }
+        return position < 0
+                ? error.getDescription() + " in " + stage
+                : error.getDescription() + " at " + stage + "[" + position + "]";
+    }
+}
@@ -0,0 +1,53 @@
+package bitcoin.script.crypto;
+
+/**
+ * {@link CryptoProvider} decorator that consults a {@link SignatureCache}
+ * before delegating signature checks, and records every successful check in it.
+ *
+ * <p>Install it when building the operation factory so that
+ * {@code OP_CHECKSIG} and {@code OP_CHECKMULTISIG} share the cache:
+ * <pre>
+ * SignatureCache cache = new SignatureCache(100_000, SignatureCache.EvictionPolicy.RANDOM);
+ * OperationFactory factory = OperationFactory.builder()
+ *         .registerStandard(new CachingCryptoProvider(new CryptoMock(), cache))
+ *         .build();
+ * </pre>
+ */
+public final class CachingCryptoProvider implements CryptoProvider {
+
+    private final CryptoProvider delegate;
+    private final SignatureCache cache;
+
+    /**
+     * Creates the decorator.
+     *
+     * @param delegate the provider that performs the actual verification
+     * @param cache    the (possibly shared) signature cache
+     */
+    public CachingCryptoProvider(CryptoProvider delegate, SignatureCache cache) {
+        this.delegate = delegate;
+        this.cache    = cache;
+    }
+
+    @Override
+    public byte[] hash160(byte[] data) {
+        return delegate.hash160(data);
+    }
+
+    @Override
+    public boolean checkSig(byte[] signature, byte[] pubKey) {
+        if (cache.contains(signature, pubKey)) {
+            return true;
+        }
+        boolean valid = delegate.checkSig(signature, pubKey);
+        if (valid) {
+            cache.add(signature, pubKey);
+        }
+        return valid;
+    }
+
+    /** Returns the cache consulted by this provider. */
+    public SignatureCache getCache() {
+        return cache;
+    }
+}
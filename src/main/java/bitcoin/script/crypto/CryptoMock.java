@@ -1,10 +1,24 @@
 package bitcoin.script.crypto;
 
-public class CryptoMock {
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Deterministic, non-cryptographic {@link CryptoProvider} used by the tests
+ * and the example scripts.
+ *
+ * <p>The byte-level methods follow exactly the same rules as the string
+ * methods, applied to the UTF-8 bytes of the stack elements.
+ */
+public class CryptoMock implements CryptoProvider {
 
     private static final String PUBKEY_PREFIX     = "PUBKEY_";
     private static final String PUBKEYHASH_PREFIX = "PUBKEYHASH_";
 
+    private static final byte[] PUBKEY_BYTES     = PUBKEY_PREFIX.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PUBKEYHASH_BYTES = PUBKEYHASH_PREFIX.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SIG_OK_BYTES     = "SIG_OK".getBytes(StandardCharsets.US_ASCII);
+
     /**
      * Mock HASH160 operation.
      *
@@ -33,4 +47,35 @@ public class CryptoMock {
     public boolean checkSig(String signature, String pubKey) {
         return "SIG_OK".equals(signature);
     }
+
+    /**
+     * Byte-level form of {@link #hash160(String)}.
+     *
+     * @param data the input bytes
+     * @return {@code "PUBKEYHASH_"} followed by {@code data} without its {@code "PUBKEY_"} prefix
+     */
+    @Override
+    public byte[] hash160(byte[] data) {
+        int skip = startsWith(data, PUBKEY_BYTES) ? PUBKEY_BYTES.length : 0;
+        byte[] hash = Arrays.copyOf(PUBKEYHASH_BYTES, PUBKEYHASH_BYTES.length + data.length - skip);
+        System.arraycopy(data, skip, hash, PUBKEYHASH_BYTES.length, data.length - skip);
+        return hash;
+    }
+
+    /**
+     * Byte-level form of {@link #checkSig(String, String)}.
+     *
+     * @param signature the signature bytes
+     * @param pubKey    the public key bytes (not verified)
+     * @return {@code true} iff {@code signature} is the ASCII string {@code "SIG_OK"}
+     */
+    @Override
+    public boolean checkSig(byte[] signature, byte[] pubKey) {
+        return Arrays.equals(SIG_OK_BYTES, signature);
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        return data.length >= prefix.length
+                && Arrays.equals(data, 0, prefix.length, prefix, 0, prefix.length);
+    }
 }
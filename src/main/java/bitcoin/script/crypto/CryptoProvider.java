@@ -0,0 +1,61 @@
+package bitcoin.script.crypto;
+
+/**
+ * Cryptographic primitives used by the hash and signature opcodes.
+ *
+ * <p>Implementations work on the raw bytes taken from the stack and must be
+ * safe to call from several threads at once, because one
+ * {@link bitcoin.script.ops.OperationFactory} is shared by every validator
+ * thread.
+ *
+ * <p>Available implementations:
+ * <ul>
+ *   <li>{@link CryptoMock} – deterministic string-prefix mock used by the tests</li>
+ *   <li>{@link Hash160Crypto} – real SHA-256 + RIPEMD-160 HASH160</li>
+ *   <li>{@link MemoizingCryptoProvider} – caches HASH160 results of a delegate</li>
+ *   <li>{@link CachingCryptoProvider} – caches successful signature checks of a delegate</li>
+ * </ul>
+ */
+public interface CryptoProvider {
+
+    /**
+     * Computes the HASH160 of {@code data}.
+     *
+     * @param data the bytes popped from the stack (not modified)
+     * @return the hash, as the bytes to push back onto the stack
+     */
+    byte[] hash160(byte[] data);
+
+    /**
+     * Verifies {@code signature} against {@code pubKey}.
+     *
+     * @param signature the signature bytes popped from the stack
+     * @param pubKey    the public key bytes popped from the stack
+     * @return {@code true} if the signature is valid
+     */
+    boolean checkSig(byte[] signature, byte[] pubKey);
+
+    /**
+     * Verifies the signature checks {@code signatures[off + i]} against
+     * {@code pubKeys[off + i]} for {@code i < len}, reporting only whether all
+     * of them are valid.
+     *
+     * <p>The default verifies one check after another and stops at the first
+     * invalid one.  Providers backed by a scheme with native batch
+     * verification can override it to check the whole group at once.
+     *
+     * @param signatures the signatures
+     * @param pubKeys    the public keys, index-aligned with {@code signatures}
+     * @param off        index of the first check
+     * @param len        number of checks
+     * @return {@code true} if every check in the range is valid
+     */
+    default boolean checkSigBatch(byte[][] signatures, byte[][] pubKeys, int off, int len) {
+        for (int i = off, end = off + len; i < end; i++) {
+            if (!checkSig(signatures[i], pubKeys[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
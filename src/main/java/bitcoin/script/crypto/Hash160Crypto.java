@@ -0,0 +1,63 @@
+package bitcoin.script.crypto;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * {@link CryptoProvider} with a real Bitcoin HASH160:
+ * {@code RIPEMD-160(SHA-256(data))}.
+ *
+ * <p>SHA-256 comes from the JDK's {@link MessageDigest}; RIPEMD-160 is not
+ * offered by the standard providers and is computed by {@link Ripemd160}.
+ * Both engines are kept per thread, so a hash costs neither a provider lookup
+ * nor an engine allocation.
+ *
+ * <p>The JDK has no secp256k1 ECDSA either, so signature checks are delegated
+ * to another provider (by default {@link CryptoMock}).  Scripts validated with
+ * this provider must carry real hashes, e.g. {@code 0x}-prefixed hex pushes.
+ */
+public final class Hash160Crypto implements CryptoProvider {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private static final ThreadLocal<Ripemd160> RIPEMD160 = ThreadLocal.withInitial(Ripemd160::new);
+
+    private final CryptoProvider signatures;
+
+    /** Creates the provider with {@link CryptoMock} signature checks. */
+    public Hash160Crypto() {
+        this(new CryptoMock());
+    }
+
+    /**
+     * Creates the provider.
+     *
+     * @param signatures the provider that verifies signatures
+     */
+    public Hash160Crypto(CryptoProvider signatures) {
+        this.signatures = signatures;
+    }
+
+    /**
+     * Returns {@code RIPEMD-160(SHA-256(data))}.
+     *
+     * @param data the bytes to hash
+     * @return the 20-byte hash
+     */
+    @Override
+    public byte[] hash160(byte[] data) {
+        byte[] sha = SHA256.get().digest(data);
+        return RIPEMD160.get().digest(sha, 0, sha.length);
+    }
+
+    @Override
+    public boolean checkSig(byte[] signature, byte[] pubKey) {
+        return signatures.checkSig(signature, pubKey);
+    }
+}
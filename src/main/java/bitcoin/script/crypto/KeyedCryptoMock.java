@@ -0,0 +1,68 @@
+package bitcoin.script.crypto;
+
+/**
+ * {@link CryptoMock} variant in which every signature belongs to one key:
+ * {@code SIG_x} is valid exactly for {@code PUBKEY_x}.  Used by the tests and
+ * benchmarks that need signatures to fail for the wrong key, e.g. to follow
+ * how {@code OP_CHECKMULTISIG} pairs signatures with keys.
+ *
+ * <p>Hashing is that of {@link CryptoMock}.  Every signature check is
+ * counted; the counter is a plain field, so read it from the thread that
+ * validated.
+ */
+public class KeyedCryptoMock implements CryptoProvider {
+
+    private static final int SIG_PREFIX    = 4;   // "SIG_"
+    private static final int PUBKEY_PREFIX = 7;   // "PUBKEY_"
+
+    private final CryptoMock mock = new CryptoMock();
+    private long checks;
+
+    @Override
+    public byte[] hash160(byte[] data) {
+        return mock.hash160(data);
+    }
+
+    /**
+     * Returns {@code true} iff {@code signature} is {@code "SIG_"} and
+     * {@code pubKey} is {@code "PUBKEY_"}, both followed by the same
+     * non-empty suffix.
+     *
+     * @param signature the signature bytes
+     * @param pubKey    the public key bytes
+     */
+    @Override
+    public boolean checkSig(byte[] signature, byte[] pubKey) {
+        checks++;
+        int len = signature.length - SIG_PREFIX;
+        if (len <= 0 || len != pubKey.length - PUBKEY_PREFIX
+                || !startsWith(signature, "SIG_") || !startsWith(pubKey, "PUBKEY_")) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (signature[SIG_PREFIX + i] != pubKey[PUBKEY_PREFIX + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns the number of signature checks since creation or the last {@link #resetChecks()}. */
+    public long getChecks() {
+        return checks;
+    }
+
+    /** Sets the signature check counter back to zero. */
+    public void resetChecks() {
+        checks = 0;
+    }
+
+    private static boolean startsWith(byte[] data, String prefix) {
+        for (int i = 0; i < prefix.length(); i++) {
+            if (data[i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
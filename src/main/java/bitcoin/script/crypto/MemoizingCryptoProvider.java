@@ -0,0 +1,114 @@
+package bitcoin.script.crypto;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link CryptoProvider} decorator that remembers the HASH160 of recently
+ * hashed inputs.
+ *
+ * <p>Pay-to-pubkey-hash spends of the same key hash the same public key over
+ * and over; with this wrapper only the first occurrence reaches the delegate.
+ * The memo is bounded and, like {@link SignatureCache}, evicts a random entry
+ * once full.  Signature checks are passed straight through.
+ *
+ * <p>Returned hashes are shared between callers and must not be modified; the
+ * built-in opcodes only copy them onto the stack.
+ */
+public final class MemoizingCryptoProvider implements CryptoProvider {
+
+    private final CryptoProvider delegate;
+    private final Map<Key, byte[]> hashes = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Key> slots;
+    private final AtomicLong inserted = new AtomicLong();
+    private final LongAdder hits   = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates the decorator.
+     *
+     * @param delegate the provider that computes hashes and verifies signatures
+     * @param capacity maximum number of memoized hashes (&gt; 0)
+     */
+    public MemoizingCryptoProvider(CryptoProvider delegate, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.delegate = delegate;
+        this.slots    = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public byte[] hash160(byte[] data) {
+        byte[] hash = hashes.get(new Key(data));
+        if (hash != null) {
+            hits.increment();
+            return hash;
+        }
+        misses.increment();
+        hash = delegate.hash160(data);
+        remember(new Key(data.clone()), hash);
+        return hash;
+    }
+
+    @Override
+    public boolean checkSig(byte[] signature, byte[] pubKey) {
+        return delegate.checkSig(signature, pubKey);
+    }
+
+    /** Returns the number of hashes served from the memo. */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** Returns the number of hashes computed by the delegate. */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Returns the current number of memoized hashes. */
+    public int size() {
+        return hashes.size();
+    }
+
+    private void remember(Key key, byte[] hash) {
+        if (hashes.putIfAbsent(key, hash) != null) {
+            return;
+        }
+        long n = inserted.getAndIncrement();
+        int slot = n < slots.length()
+                ? (int) n
+                : ThreadLocalRandom.current().nextInt(slots.length());
+        Key evicted = slots.getAndSet(slot, key);
+        if (evicted != null) {
+            hashes.remove(evicted);
+        }
+    }
+
+    private static final class Key {
+        private final byte[] data;
+        private final int hash;
+
+        Key(byte[] data) {
+            this.data = data;
+            this.hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key
+                    && hash == ((Key) o).hash
+                    && Arrays.equals(data, ((Key) o).data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
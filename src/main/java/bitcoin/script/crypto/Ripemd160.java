@@ -0,0 +1,128 @@
+package bitcoin.script.crypto;
+
+/**
+ * Pure-Java RIPEMD-160, the second half of Bitcoin's HASH160.
+ *
+ * <p>The standard JDK providers ship SHA-256 but no RIPEMD-160, so it is
+ * implemented here.  An instance keeps its block and padding buffers between
+ * calls, so it is not thread-safe; {@link Hash160Crypto} keeps one per thread.
+ */
+final class Ripemd160 {
+
+    /** Digest length in bytes. */
+    static final int DIGEST_LENGTH = 20;
+
+    private static final int[] R = {
+        0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15,
+        7, 4, 13, 1, 10, 6, 15, 3, 12, 0, 9, 5, 2, 14, 11, 8,
+        3, 10, 14, 4, 9, 15, 8, 1, 2, 7, 0, 6, 13, 11, 5, 12,
+        1, 9, 11, 10, 0, 8, 12, 4, 13, 3, 7, 15, 14, 5, 6, 2,
+        4, 0, 5, 9, 7, 12, 2, 10, 14, 1, 3, 8, 11, 6, 15, 13
+    };
+    private static final int[] RR = {
+        5, 14, 7, 0, 9, 2, 11, 4, 13, 6, 15, 8, 1, 10, 3, 12,
+        6, 11, 3, 7, 0, 13, 5, 10, 14, 15, 8, 12, 4, 9, 1, 2,
+        15, 5, 1, 3, 7, 14, 6, 9, 11, 8, 12, 2, 10, 0, 4, 13,
+        8, 6, 4, 1, 3, 11, 15, 0, 5, 12, 2, 13, 9, 7, 10, 14,
+        12, 15, 10, 4, 1, 5, 8, 7, 6, 2, 13, 14, 0, 3, 9, 11
+    };
+    private static final int[] S = {
+        11, 14, 15, 12, 5, 8, 7, 9, 11, 13, 14, 15, 6, 7, 9, 8,
+        7, 6, 8, 13, 11, 9, 7, 15, 7, 12, 15, 9, 11, 7, 13, 12,
+        11, 13, 6, 7, 14, 9, 13, 15, 14, 8, 13, 6, 5, 12, 7, 5,
+        11, 12, 14, 15, 14, 15, 9, 8, 9, 14, 5, 6, 8, 6, 5, 12,
+        9, 15, 5, 11, 6, 8, 13, 12, 5, 12, 13, 14, 11, 8, 5, 6
+    };
+    private static final int[] SS = {
+        8, 9, 9, 11, 13, 15, 15, 5, 7, 7, 8, 11, 14, 14, 12, 6,
+        9, 13, 15, 7, 12, 8, 9, 11, 7, 7, 12, 7, 6, 15, 13, 11,
+        9, 7, 15, 11, 8, 6, 6, 14, 12, 13, 5, 14, 13, 13, 7, 5,
+        15, 5, 8, 11, 14, 14, 6, 14, 6, 9, 12, 9, 12, 5, 15, 8,
+        8, 5, 12, 9, 12, 5, 14, 6, 8, 13, 6, 5, 15, 13, 11, 11
+    };
+    private static final int[] K  = {0x00000000, 0x5A827999, 0x6ED9EBA1, 0x8F1BBCDC, 0xA953FD4E};
+    private static final int[] KK = {0x50A28BE6, 0x5C4DD124, 0x6D703EF3, 0x7A6D76E9, 0x00000000};
+
+    private final int[] x     = new int[16];
+    private final byte[] tail = new byte[128];
+
+    /**
+     * Hashes {@code in[off, off + len)} and returns the 20-byte digest.
+     *
+     * @param in  the input array
+     * @param off start offset
+     * @param len number of bytes to hash
+     * @return a new 20-byte array holding the digest
+     */
+    byte[] digest(byte[] in, int off, int len) {
+        int[] h = {0x67452301, 0xEFCDAB89, 0x98BADCFE, 0x10325476, 0xC3D2E1F0};
+
+        int full = len & ~63;
+        for (int i = 0; i < full; i += 64) {
+            compress(h, in, off + i);
+        }
+
+        // Padding: 0x80, zeros, then the bit length as a 64-bit little-endian value.
+        int rem = len - full;
+        System.arraycopy(in, off + full, tail, 0, rem);
+        tail[rem] = (byte) 0x80;
+        int tailLen = rem < 56 ? 64 : 128;
+        for (int i = rem + 1; i < tailLen - 8; i++) {
+            tail[i] = 0;
+        }
+        long bits = (long) len << 3;
+        for (int i = 0; i < 8; i++) {
+            tail[tailLen - 8 + i] = (byte) (bits >>> (8 * i));
+        }
+        compress(h, tail, 0);
+        if (tailLen == 128) {
+            compress(h, tail, 64);
+        }
+
+        byte[] out = new byte[DIGEST_LENGTH];
+        for (int i = 0; i < 5; i++) {
+            out[4 * i]     = (byte) h[i];
+            out[4 * i + 1] = (byte) (h[i] >>> 8);
+            out[4 * i + 2] = (byte) (h[i] >>> 16);
+            out[4 * i + 3] = (byte) (h[i] >>> 24);
+        }
+        return out;
+    }
+
+    private void compress(int[] h, byte[] block, int off) {
+        for (int i = 0; i < 16; i++) {
+            int p = off + 4 * i;
+            x[i] = (block[p] & 0xFF) | (block[p + 1] & 0xFF) << 8
+                 | (block[p + 2] & 0xFF) << 16 | (block[p + 3] & 0xFF) << 24;
+        }
+
+        int a = h[0], b = h[1], c = h[2], d = h[3], e = h[4];
+        int aa = a, bb = b, cc = c, dd = d, ee = e;
+        for (int j = 0; j < 80; j++) {
+            int round = j >>> 4;
+
+            int t = Integer.rotateLeft(a + f(round, b, c, d) + x[R[j]] + K[round], S[j]) + e;
+            a = e; e = d; d = Integer.rotateLeft(c, 10); c = b; b = t;
+
+            t = Integer.rotateLeft(aa + f(4 - round, bb, cc, dd) + x[RR[j]] + KK[round], SS[j]) + ee;
+            aa = ee; ee = dd; dd = Integer.rotateLeft(cc, 10); cc = bb; bb = t;
+        }
+
+        int t = h[1] + c + dd;
+        h[1] = h[2] + d + ee;
+        h[2] = h[3] + e + aa;
+        h[3] = h[4] + a + bb;
+        h[4] = h[0] + b + cc;
+        h[0] = t;
+    }
+
+    private static int f(int round, int x, int y, int z) {
+        switch (round) {
+            case 0:  return x ^ y ^ z;
+            case 1:  return (x & y) | (~x & z);
+            case 2:  return (x | ~y) ^ z;
+            case 3:  return (x & z) | (y & ~z);
+            default: return x ^ (y | ~z);
+        }
+    }
+}
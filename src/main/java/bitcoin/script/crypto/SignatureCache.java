@@ -0,0 +1,241 @@
+package bitcoin.script.crypto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe set of signature checks already known to be valid.
+ *
+ * <p>Like Bitcoin Core's sigcache, only successful verifications are stored:
+ * a cached entry lets a later check of the same (signature, pubKey) pair skip
+ * verification entirely, while invalid signatures are always re-verified.
+ *
+ * <p>Two eviction policies are available:
+ * <ul>
+ *   <li>{@link EvictionPolicy#RANDOM} – once full, each insertion overwrites a
+ *       random slot.  Lock-free and immune to access patterns crafted to flush
+ *       the cache (the policy Bitcoin Core uses).</li>
+ *   <li>{@link EvictionPolicy#LRU} – evicts the least recently used entry,
+ *       tracked per lock stripe.</li>
+ * </ul>
+ */
+public final class SignatureCache {
+
+    /** How entries are chosen for eviction once the cache is full. */
+    public enum EvictionPolicy {
+        /** Evict a uniformly random entry. */
+        RANDOM,
+        /** Evict the least recently used entry (per stripe). */
+        LRU
+    }
+
+    private static final int LRU_STRIPES = 16;
+
+    private final Store store;
+    private final LongAdder hits   = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache holding at most {@code capacity} entries.
+     *
+     * @param capacity maximum number of cached signature checks (&gt; 0)
+     * @param policy   the eviction policy
+     */
+    public SignatureCache(int capacity, EvictionPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.store = policy == EvictionPolicy.LRU ? new LruStore(capacity) : new RandomStore(capacity);
+    }
+
+    /**
+     * Returns {@code true} if the pair is cached as valid, and counts a hit or miss.
+     *
+     * @param signature the signature
+     * @param pubKey    the public key
+     * @return {@code true} if this exact check succeeded before
+     */
+    public boolean contains(byte[] signature, byte[] pubKey) {
+        boolean found = store.contains(new Entry(signature, pubKey));
+        (found ? hits : misses).increment();
+        return found;
+    }
+
+    /**
+     * Records a successful signature check.  Both arrays are copied.
+     *
+     * @param signature the signature
+     * @param pubKey    the public key
+     */
+    public void add(byte[] signature, byte[] pubKey) {
+        store.add(new Entry(signature.clone(), pubKey.clone()));
+    }
+
+    /** Returns the number of lookups that found a cached entry. */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** Returns the number of lookups that found nothing. */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Returns the current number of cached entries. */
+    public int size() {
+        return store.size();
+    }
+
+    /** Removes all entries; the hit and miss counters are kept. */
+    public void clear() {
+        store.clear();
+    }
+
+    // ── storage ──────────────────────────────────────────────────────────────
+
+    private interface Store {
+        boolean contains(Entry entry);
+        void add(Entry entry);
+        int size();
+        void clear();
+    }
+
+    // Fixed slot array: the set answers lookups, slots decide who gets evicted.
+    private static final class RandomStore implements Store {
+        private final Map<Entry, Boolean> present = new ConcurrentHashMap<>();
+        private final AtomicReferenceArray<Entry> slots;
+        private final AtomicLong inserted = new AtomicLong();
+
+        RandomStore(int capacity) {
+            slots = new AtomicReferenceArray<>(capacity);
+        }
+
+        @Override
+        public boolean contains(Entry entry) {
+            return present.containsKey(entry);
+        }
+
+        @Override
+        public void add(Entry entry) {
+            if (present.putIfAbsent(entry, Boolean.TRUE) != null) {
+                return;
+            }
+            long n = inserted.getAndIncrement();
+            int slot = n < slots.length()
+                    ? (int) n
+                    : ThreadLocalRandom.current().nextInt(slots.length());
+            Entry evicted = slots.getAndSet(slot, entry);
+            if (evicted != null) {
+                present.remove(evicted);
+            }
+        }
+
+        @Override
+        public int size() {
+            return present.size();
+        }
+
+        @Override
+        public void clear() {
+            present.clear();
+            for (int i = 0; i < slots.length(); i++) {
+                slots.set(i, null);
+            }
+            inserted.set(0);
+        }
+    }
+
+    // Access-ordered LinkedHashMaps, one lock per stripe.
+    private static final class LruStore implements Store {
+        private final List<Map<Entry, Boolean>> stripes;
+
+        LruStore(int capacity) {
+            int perStripe = Math.max(1, (capacity + LRU_STRIPES - 1) / LRU_STRIPES);
+            List<Map<Entry, Boolean>> maps = new ArrayList<>(LRU_STRIPES);
+            for (int i = 0; i < LRU_STRIPES; i++) {
+                maps.add(new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Entry, Boolean> eldest) {
+                        return size() > perStripe;
+                    }
+                });
+            }
+            stripes = List.copyOf(maps);
+        }
+
+        private Map<Entry, Boolean> stripe(Entry entry) {
+            return stripes.get(entry.hashCode() & (LRU_STRIPES - 1));
+        }
+
+        @Override
+        public boolean contains(Entry entry) {
+            Map<Entry, Boolean> stripe = stripe(entry);
+            synchronized (stripe) {
+                return stripe.get(entry) != null;
+            }
+        }
+
+        @Override
+        public void add(Entry entry) {
+            Map<Entry, Boolean> stripe = stripe(entry);
+            synchronized (stripe) {
+                stripe.put(entry, Boolean.TRUE);
+            }
+        }
+
+        @Override
+        public int size() {
+            int total = 0;
+            for (Map<Entry, Boolean> stripe : stripes) {
+                synchronized (stripe) {
+                    total += stripe.size();
+                }
+            }
+            return total;
+        }
+
+        @Override
+        public void clear() {
+            for (Map<Entry, Boolean> stripe : stripes) {
+                synchronized (stripe) {
+                    stripe.clear();
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] signature;
+        private final byte[] pubKey;
+        private final int hash;
+
+        Entry(byte[] signature, byte[] pubKey) {
+            this.signature = signature;
+            this.pubKey    = pubKey;
+            int h = Arrays.hashCode(signature) * 31 + Arrays.hashCode(pubKey);
+            this.hash = h ^ (h >>> 16);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) return false;
+            Entry other = (Entry) o;
+            return hash == other.hash
+                    && Arrays.equals(signature, other.signature)
+                    && Arrays.equals(pubKey, other.pubKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package bitcoin.script.model;
+
+import bitcoin.script.core.ScriptError;
+import bitcoin.script.core.ScriptException;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * Decoder and encoder for serialized (Bitcoin wire-format) scripts.
+ *
+ * <p>A serialized script is a sequence of opcode bytes in which data pushes are
+ * either a direct length byte ({@code 0x01}–{@code 0x4b}) or
+ * {@code OP_PUSHDATA1/2/4} followed by a 1-, 2- or 4-byte little-endian length.
+ * Decoding builds a {@link Script} directly, without a text round-trip.  Data
+ * pushes from array-backed input share the source array instead of copying
+ * it; direct buffers are read in place and only their pushes are copied, one
+ * array per push.
+ *
+ * <p>A push that runs past the end of the script makes it malformed.  The
+ * {@code decode} methods throw for it; the {@code tryDecode} methods, meant
+ * for untrusted input, return {@code null} and so cost no exception.
+ */
+public final class BinaryScriptCodec {
+
+    /** {@link #pushSize} result for a truncated or out-of-range length prefix. */
+    private static final int MALFORMED = -2;
+
+    private BinaryScriptCodec() {
+    }
+
+    /**
+     * Decodes a serialized script.  Data pushes share {@code script}; the caller
+     * must not modify it while the returned {@link Script} is in use.
+     *
+     * @param script the serialized script
+     * @return the decoded script
+     * @throws ScriptException if a push runs past the end of the script
+     */
+    public static Script decode(byte[] script) {
+        return decode(script, 0, script.length);
+    }
+
+    /**
+     * Decodes the serialized script held in {@code src[off, off + len)}, sharing
+     * {@code src} for data pushes.
+     *
+     * @param src the source array
+     * @param off start offset of the script
+     * @param len length of the script in bytes
+     * @return the decoded script
+     * @throws ScriptException if a push runs past the end of the script
+     */
+    public static Script decode(byte[] src, int off, int len) {
+        Script script = tryDecode(src, off, len);
+        if (script == null) {
+            throw new ScriptException(ScriptError.BAD_OPCODE, malformation(src, off, len));
+        }
+        return script;
+    }
+
+    /**
+     * Decodes the serialized script held in {@code src[off, off + len)} like
+     * {@link #decode(byte[], int, int)}, but reports a malformed script by
+     * returning {@code null} instead of throwing.
+     *
+     * @param src the source array
+     * @param off start offset of the script
+     * @param len length of the script in bytes
+     * @return the decoded script, or {@code null} if a push runs past its end
+     */
+    public static Script tryDecode(byte[] src, int off, int len) {
+        ArrayList<ScriptElement> elements = new ArrayList<>();
+        int end = off + len;
+        int pc  = off;
+        while (pc < end) {
+            int opcode = src[pc++] & 0xFF;
+            int size = pushSize(opcode, src, pc, end);
+            if (size == MALFORMED) {
+                return null;
+            }
+            if (size < 0) {
+                elements.add(OpElement.of(Opcodes.name(opcode)));
+                continue;
+            }
+            pc += lengthPrefixSize(opcode);
+            if (size > end - pc) {
+                return null;
+            }
+            elements.add(new DataElement(src, pc, size));
+            pc += size;
+        }
+        return Script.adopt(elements);
+    }
+
+    /**
+     * Decodes the remaining bytes of {@code script} and advances its position to
+     * the limit.  Heap buffers are decoded zero-copy over their backing array;
+     * direct buffers (such as file mappings) are read in place, and only the
+     * bytes of each data push are copied.
+     *
+     * @param script the buffer holding the serialized script
+     * @return the decoded script
+     * @throws ScriptException if a push runs past the end of the script
+     */
+    public static Script decode(ByteBuffer script) {
+        if (script.hasArray()) {
+            Script decoded = decode(script.array(), script.arrayOffset() + script.position(),
+                                    script.remaining());
+            script.position(script.limit());
+            return decoded;
+        }
+        Script decoded = tryDecodeDirect(script);
+        if (decoded == null) {
+            byte[] copy = new byte[script.remaining()];
+            script.get(script.position(), copy);
+            script.position(script.limit());
+            throw new ScriptException(ScriptError.BAD_OPCODE, malformation(copy, 0, copy.length));
+        }
+        script.position(script.limit());
+        return decoded;
+    }
+
+    /**
+     * Decodes the remaining bytes of {@code script} like
+     * {@link #decode(ByteBuffer)}, but reports a malformed script by returning
+     * {@code null} instead of throwing.  The position advances to the limit
+     * either way.
+     *
+     * @param script the buffer holding the serialized script
+     * @return the decoded script, or {@code null} if a push runs past its end
+     */
+    public static Script tryDecode(ByteBuffer script) {
+        if (script.hasArray()) {
+            Script decoded = tryDecode(script.array(), script.arrayOffset() + script.position(),
+                                       script.remaining());
+            script.position(script.limit());
+            return decoded;
+        }
+        Script decoded = tryDecodeDirect(script);
+        script.position(script.limit());
+        return decoded;
+    }
+
+    /**
+     * Serializes {@code script}, using the shortest push encoding for every
+     * data element.
+     *
+     * @param script the script to encode
+     * @return the serialized bytes
+     * @throws ScriptException if the script contains an opcode name that is
+     *                         not a Bitcoin opcode
+     */
+    public static byte[] encode(Script script) {
+        ByteBuffer out = ByteBuffer.allocate(encodedLength(script));
+        encode(script, out);
+        return out.array();
+    }
+
+    /**
+     * Serializes {@code script} into {@code out} at its current position.
+     *
+     * @param script the script to encode
+     * @param out    the destination; must have {@link #encodedLength} bytes remaining
+     * @throws ScriptException if the script contains an opcode name that is
+     *                         not a Bitcoin opcode
+     */
+    public static void encode(Script script, ByteBuffer out) {
+        for (ScriptElement element : script.getElements()) {
+            if (element instanceof DataElement) {
+                DataElement data = (DataElement) element;
+                int size = data.length();
+                if (size > 0 && size <= 0x4b) {
+                    out.put((byte) size);
+                } else if (size <= 0xFF) {
+                    // an empty push must not become OP_0, which pushes "0" here
+                    out.put((byte) Opcodes.OP_PUSHDATA1).put((byte) size);
+                } else if (size <= 0xFFFF) {
+                    out.put((byte) Opcodes.OP_PUSHDATA2).put((byte) size).put((byte) (size >>> 8));
+                } else {
+                    out.put((byte) Opcodes.OP_PUSHDATA4)
+                       .put((byte) size).put((byte) (size >>> 8))
+                       .put((byte) (size >>> 16)).put((byte) (size >>> 24));
+                }
+                out.put(data.toByteArray());
+            } else {
+                out.put((byte) opcodeOf(element));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes {@link #encode(Script)} produces for {@code script}.
+     *
+     * @param script the script to measure
+     * @return the serialized length in bytes
+     * @throws ScriptException if the script contains an opcode name that is
+     *                         not a Bitcoin opcode
+     */
+    public static int encodedLength(Script script) {
+        int total = 0;
+        for (ScriptElement element : script.getElements()) {
+            if (element instanceof DataElement) {
+                int size = ((DataElement) element).length();
+                total += size + (size > 0 && size <= 0x4b ? 1 : size <= 0xFF ? 2 : size <= 0xFFFF ? 3 : 5);
+            } else {
+                opcodeOf(element);
+                total += 1;
+            }
+        }
+        return total;
+    }
+
+    // ── helpers ──────────────────────────────────────────────────────────────
+
+    private static int opcodeOf(ScriptElement element) {
+        int code = Opcodes.code(element.getToken());
+        if (code < 0) {
+            throw new ScriptException("Cannot serialize opcode: " + element.getToken());
+        }
+        return code;
+    }
+
+    // tryDecode over a buffer without a backing array, by absolute reads from
+    // position to limit; the position is left unchanged.
+    private static Script tryDecodeDirect(ByteBuffer src) {
+        ArrayList<ScriptElement> elements = new ArrayList<>();
+        int end = src.limit();
+        int pc  = src.position();
+        while (pc < end) {
+            int opcode = src.get(pc++) & 0xFF;
+            int size = pushSize(opcode, src, pc, end);
+            if (size == MALFORMED) {
+                return null;
+            }
+            if (size < 0) {
+                elements.add(OpElement.of(Opcodes.name(opcode)));
+                continue;
+            }
+            pc += lengthPrefixSize(opcode);
+            if (size > end - pc) {
+                return null;
+            }
+            byte[] data = new byte[size];
+            src.get(pc, data);
+            elements.add(new DataElement(data, 0, size));
+            pc += size;
+        }
+        return Script.adopt(elements);
+    }
+
+    // Returns the pushed length for a push opcode, -1 for any other opcode, or
+    // MALFORMED if the length prefix is cut off or does not fit an int.
+    private static int pushSize(int opcode, byte[] src, int pc, int end) {
+        if (opcode >= 0x01 && opcode <= 0x4b) {
+            return opcode;
+        }
+        int prefix = lengthPrefixSize(opcode);
+        if (prefix == 0) {
+            return -1;
+        }
+        if (prefix > end - pc) {
+            return MALFORMED;
+        }
+        long size = 0;
+        for (int i = prefix - 1; i >= 0; i--) {
+            size = (size << 8) | (src[pc + i] & 0xFF);
+        }
+        return size > Integer.MAX_VALUE ? MALFORMED : (int) size;
+    }
+
+    // pushSize for a buffer read by absolute index.
+    private static int pushSize(int opcode, ByteBuffer src, int pc, int end) {
+        if (opcode >= 0x01 && opcode <= 0x4b) {
+            return opcode;
+        }
+        int prefix = lengthPrefixSize(opcode);
+        if (prefix == 0) {
+            return -1;
+        }
+        if (prefix > end - pc) {
+            return MALFORMED;
+        }
+        long size = 0;
+        for (int i = prefix - 1; i >= 0; i--) {
+            size = (size << 8) | (src.get(pc + i) & 0xFF);
+        }
+        return size > Integer.MAX_VALUE ? MALFORMED : (int) size;
+    }
+
+    // Describes why tryDecode rejected src[off, off + len); only runs on the throwing path.
+    private static String malformation(byte[] src, int off, int len) {
+        int end = off + len;
+        int pc  = off;
+        while (pc < end) {
+            int opcode = src[pc++] & 0xFF;
+            int size = pushSize(opcode, src, pc, end);
+            if (size == MALFORMED) {
+                return "Malformed script: truncated or oversized push length at offset " + (pc - 1 - off);
+            }
+            if (size < 0) {
+                continue;
+            }
+            pc += lengthPrefixSize(opcode);
+            if (size > end - pc) {
+                return "Malformed script: push of " + size
+                        + " bytes at offset " + (pc - off) + " exceeds script end";
+            }
+            pc += size;
+        }
+        return "Malformed script";
+    }
+
+    private static int lengthPrefixSize(int opcode) {
+        switch (opcode) {
+            case Opcodes.OP_PUSHDATA1: return 1;
+            case Opcodes.OP_PUSHDATA2: return 2;
+            case Opcodes.OP_PUSHDATA4: return 4;
+            default:                   return 0;
+        }
+    }
+}
@@ -2,32 +2,134 @@ package bitcoin.script.model;
 
 import bitcoin.script.core.InterpreterContext;
 
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A data push: the raw bytes placed on the stack when the element executes.
+ *
+ * <p>Text tokens are stored as their UTF-8 bytes, except tokens written as a
+ * {@code 0x}-prefixed even-length hex literal, which stand for the decoded
+ * bytes.  Elements decoded from serialized scripts may share the source array
+ * ({@code data[offset, offset + length)}) instead of copying it.
+ */
 public class DataElement implements ScriptElement {
 
-    private final String data;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final byte[] data;
+    private final int offset;
+    private final int length;
+    private String token;   // computed on first use for byte-built elements
 
     /**
-     * Creates a data-push element for the given string value.
+     * Creates a data-push element for the given text token.
      *
-     * @param data the value to push onto the stack when this element is executed
+     * @param data the token; a {@code 0x} hex literal pushes the decoded bytes,
+     *             anything else pushes the token's UTF-8 bytes
      */
     public DataElement(String data) {
-        this.data = data;
+        byte[] bytes = decodeHexLiteral(data);
+        this.data   = bytes != null ? bytes : data.getBytes(StandardCharsets.UTF_8);
+        this.offset = 0;
+        this.length = this.data.length;
+        this.token  = data;
+    }
+
+    /**
+     * Creates a data-push element that shares {@code src[offset, offset + length)}.
+     * The caller must not modify that range afterwards.
+     *
+     * @param src    the array holding the pushed bytes
+     * @param offset start of the pushed bytes in {@code src}
+     * @param length number of pushed bytes
+     */
+    public DataElement(byte[] src, int offset, int length) {
+        this.data   = src;
+        this.offset = offset;
+        this.length = length;
     }
 
     /**
-     * Pushes {@link #data} onto the stack.
+     * Pushes the element's bytes onto the stack.
      *
      * @param ctx the current interpreter context
      */
     @Override
     public void execute(InterpreterContext ctx) {
-        ctx.getStack().push(data);
+        ctx.getStack().bytes().push(data, offset, length);
     }
 
-    /** Returns the data value (used in trace output). */
+    /**
+     * Returns the token for trace output: the original text token, or for
+     * byte-built elements the bytes as text when they are printable ASCII and
+     * as a {@code 0x} hex literal otherwise.
+     */
     @Override
     public String getToken() {
-        return data;
+        String t = token;
+        if (t == null) {
+            t = render(data, offset, length);
+            token = t;
+        }
+        return t;
+    }
+
+    /** Returns the number of bytes this element pushes. */
+    public int length() {
+        return length;
+    }
+
+    /** Returns a copy of the bytes this element pushes. */
+    public byte[] toByteArray() {
+        byte[] copy = new byte[length];
+        System.arraycopy(data, offset, copy, 0, length);
+        return copy;
+    }
+
+    /**
+     * Renders {@code bytes[off, off + len)} the way a data token would be
+     * written: as-is when it is non-empty printable ASCII without spaces, as a
+     * {@code 0x} hex literal otherwise.
+     *
+     * @param bytes the source array
+     * @param off   start offset
+     * @param len   number of bytes
+     * @return the token text
+     */
+    public static String render(byte[] bytes, int off, int len) {
+        boolean printable = len > 0 && !(len >= 2 && bytes[off] == '0' && bytes[off + 1] == 'x');
+        for (int i = off; printable && i < off + len; i++) {
+            printable = bytes[i] > ' ' && bytes[i] < 0x7f;
+        }
+        if (printable) {
+            return new String(bytes, off, len, StandardCharsets.US_ASCII);
+        }
+        char[] out = new char[2 + 2 * len];
+        out[0] = '0';
+        out[1] = 'x';
+        for (int i = 0; i < len; i++) {
+            int b = bytes[off + i] & 0xFF;
+            out[2 + 2 * i]     = HEX[b >>> 4];
+            out[2 + 2 * i + 1] = HEX[b & 0x0F];
+        }
+        return new String(out);
+    }
+
+    // Returns the bytes of a "0x..." literal, or null if token is not one.
+    private static byte[] decodeHexLiteral(String token) {
+        int n = token.length();
+        if (n < 2 || token.charAt(0) != '0' || token.charAt(1) != 'x' || (n & 1) != 0) {
+            return null;
+        }
+        byte[] bytes = new byte[(n - 2) / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int hi = Character.digit(token.charAt(2 + 2 * i), 16);
+            int lo = Character.digit(token.charAt(3 + 2 * i), 16);
+            if (hi < 0 || lo < 0) {
+                return null;
+            }
+            bytes[i] = (byte) ((hi << 4) | lo);
+        }
+        return bytes;
     }
 }
@@ -32,6 +32,17 @@ public class OpElement implements ScriptElement {
         op.apply(ctx);
     }
 
+    /**
+     * Returns the shared element for a Bitcoin opcode, or a new element for
+     * any other name.  Elements are immutable, so sharing them is safe.
+     *
+     * @param opcodeName the opcode string (e.g. {@code "OP_DUP"})
+     * @return an element for {@code opcodeName}
+     */
+    public static OpElement of(String opcodeName) {
+        return OpcodeInterner.intern(opcodeName);
+    }
+
     /** Returns the opcode name (used in trace output). */
     @Override
     public String getToken() {
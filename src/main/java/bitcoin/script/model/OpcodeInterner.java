@@ -0,0 +1,104 @@
+package bitcoin.script.model;
+
+/**
+ * Shared {@link OpElement} instances for every Bitcoin opcode name in {@link Opcodes},
+ * looked up directly from a character or byte range so the tokenizer never
+ * has to materialize a {@code String} for a known opcode.
+ *
+ * <p>The table is an open-addressing hash keyed with {@link String#hashCode()}'s
+ * polynomial, so a lookup hashes the input range in place.  It is built once
+ * and only read afterwards, which makes it safe to share between threads.
+ */
+final class OpcodeInterner {
+
+    private static final OpElement[] TABLE;
+    private static final int MASK;
+
+    static {
+        int capacity = 64;
+        int names = Opcodes.names().size();
+        while (capacity < names * 4) {
+            capacity <<= 1;
+        }
+        TABLE = new OpElement[capacity];
+        MASK  = capacity - 1;
+        for (String name : Opcodes.names()) {
+            int slot = name.hashCode() & MASK;
+            while (TABLE[slot] != null) {
+                slot = (slot + 1) & MASK;
+            }
+            TABLE[slot] = new OpElement(name);
+        }
+    }
+
+    private OpcodeInterner() {
+    }
+
+    /**
+     * Returns the shared element for {@code name}, or a new one if the opcode is
+     * not a Bitcoin opcode.
+     */
+    static OpElement intern(String name) {
+        OpElement shared = lookup(name, 0, name.length());
+        return shared != null ? shared : new OpElement(name);
+    }
+
+    /** Returns the shared element whose name equals {@code text[start, end)}, or {@code null}. */
+    static OpElement lookup(CharSequence text, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + text.charAt(i);
+        }
+        for (int slot = h & MASK; TABLE[slot] != null; slot = (slot + 1) & MASK) {
+            String name = TABLE[slot].getToken();
+            if (name.length() == end - start && regionMatches(name, text, start)) {
+                return TABLE[slot];
+            }
+        }
+        return null;
+    }
+
+    /** Returns the shared element whose name equals {@code chars[start, end)}, or {@code null}. */
+    static OpElement lookup(char[] chars, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + chars[i];
+        }
+        for (int slot = h & MASK; TABLE[slot] != null; slot = (slot + 1) & MASK) {
+            String name = TABLE[slot].getToken();
+            if (name.length() == end - start) {
+                int i = 0;
+                while (i < name.length() && name.charAt(i) == chars[start + i]) i++;
+                if (i == name.length()) return TABLE[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the shared element whose name equals the ASCII bytes
+     * {@code bytes[start, end)}, or {@code null}.
+     */
+    static OpElement lookup(byte[] bytes, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + (bytes[i] & 0xFF);
+        }
+        for (int slot = h & MASK; TABLE[slot] != null; slot = (slot + 1) & MASK) {
+            String name = TABLE[slot].getToken();
+            if (name.length() == end - start) {
+                int i = 0;
+                while (i < name.length() && name.charAt(i) == (bytes[start + i] & 0xFF)) i++;
+                if (i == name.length()) return TABLE[slot];
+            }
+        }
+        return null;
+    }
+
+    private static boolean regionMatches(String name, CharSequence text, int start) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != text.charAt(start + i)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,121 @@
+package bitcoin.script.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bitcoin wire-format byte values for opcode names, used by {@link BinaryScriptCodec}.
+ *
+ * <p>The table covers the whole Bitcoin opcode space, not only the opcodes this
+ * interpreter implements, so any serialized script can be decoded and
+ * re-encoded losslessly.  Byte values without a name decode to
+ * {@code OP_UNKNOWN_xx} (two lowercase hex digits), which encodes back to the
+ * same byte.
+ */
+public final class Opcodes {
+
+    public static final int OP_0         = 0x00;
+    public static final int OP_PUSHDATA1 = 0x4c;
+    public static final int OP_PUSHDATA2 = 0x4d;
+    public static final int OP_PUSHDATA4 = 0x4e;
+    public static final int OP_16        = 0x60;
+
+    private static final String UNKNOWN_PREFIX = "OP_UNKNOWN_";
+
+    private static final String[] NAMES = new String[256];
+    private static final Map<String, Integer> CODES = new HashMap<>();
+
+    static {
+        define(0x00, "OP_0");
+        define(0x4c, "OP_PUSHDATA1");
+        define(0x4d, "OP_PUSHDATA2");
+        define(0x4e, "OP_PUSHDATA4");
+        define(0x4f, "OP_1NEGATE");
+        define(0x50, "OP_RESERVED");
+        for (int i = 1; i <= 16; i++) {
+            define(0x50 + i, "OP_" + i);
+        }
+        String[] rest = {
+            "OP_NOP", "OP_VER", "OP_IF", "OP_NOTIF", "OP_VERIF", "OP_VERNOTIF",            // 0x61
+            "OP_ELSE", "OP_ENDIF", "OP_VERIFY", "OP_RETURN",                               // 0x67
+            "OP_TOALTSTACK", "OP_FROMALTSTACK", "OP_2DROP", "OP_2DUP", "OP_3DUP",          // 0x6b
+            "OP_2OVER", "OP_2ROT", "OP_2SWAP", "OP_IFDUP", "OP_DEPTH", "OP_DROP",          // 0x70
+            "OP_DUP", "OP_NIP", "OP_OVER", "OP_PICK", "OP_ROLL", "OP_ROT", "OP_SWAP",      // 0x76
+            "OP_TUCK", "OP_CAT", "OP_SUBSTR", "OP_LEFT", "OP_RIGHT", "OP_SIZE",            // 0x7d
+            "OP_INVERT", "OP_AND", "OP_OR", "OP_XOR", "OP_EQUAL", "OP_EQUALVERIFY",        // 0x83
+            "OP_RESERVED1", "OP_RESERVED2", "OP_1ADD", "OP_1SUB", "OP_2MUL", "OP_2DIV",    // 0x89
+            "OP_NEGATE", "OP_ABS", "OP_NOT", "OP_0NOTEQUAL", "OP_ADD", "OP_SUB",           // 0x8f
+            "OP_MUL", "OP_DIV", "OP_MOD", "OP_LSHIFT", "OP_RSHIFT", "OP_BOOLAND",          // 0x95
+            "OP_BOOLOR", "OP_NUMEQUAL", "OP_NUMEQUALVERIFY", "OP_NUMNOTEQUAL",             // 0x9b
+            "OP_LESSTHAN", "OP_GREATERTHAN", "OP_LESSTHANOREQUAL",                         // 0x9f
+            "OP_GREATERTHANOREQUAL", "OP_MIN", "OP_MAX", "OP_WITHIN",                      // 0xa2
+            "OP_RIPEMD160", "OP_SHA1", "OP_SHA256", "OP_HASH160", "OP_HASH256",            // 0xa6
+            "OP_CODESEPARATOR", "OP_CHECKSIG", "OP_CHECKSIGVERIFY",                        // 0xab
+            "OP_CHECKMULTISIG", "OP_CHECKMULTISIGVERIFY", "OP_NOP1",                       // 0xae
+            "OP_CHECKLOCKTIMEVERIFY", "OP_CHECKSEQUENCEVERIFY", "OP_NOP4", "OP_NOP5",      // 0xb1
+            "OP_NOP6", "OP_NOP7", "OP_NOP8", "OP_NOP9", "OP_NOP10", "OP_CHECKSIGADD"       // 0xb5
+        };
+        for (int i = 0; i < rest.length; i++) {
+            define(0x61 + i, rest[i]);
+        }
+        define(0xff, "OP_INVALIDOPCODE");
+
+        // Aliases: encode to the same byte, never produced by decoding.
+        CODES.put("OP_FALSE", 0x00);
+        CODES.put("OP_TRUE",  0x51);
+        CODES.put("OP_NOP2",  0xb1);
+        CODES.put("OP_NOP3",  0xb2);
+    }
+
+    private Opcodes() {
+    }
+
+    /**
+     * Returns the name of opcode byte {@code code}.  Direct pushes
+     * ({@code 0x01}–{@code 0x4b}) are data, not opcodes, and have no name.
+     *
+     * @param code the opcode byte (0–255)
+     * @return the opcode name, or {@code null} for a direct-push length byte
+     */
+    public static String name(int code) {
+        if (code >= 0x01 && code <= 0x4b) {
+            return null;
+        }
+        String name = NAMES[code];
+        return name != null ? name : UNKNOWN_PREFIX + String.format("%02x", code);
+    }
+
+    /**
+     * Returns the byte value of the opcode called {@code name}.
+     *
+     * @param name the opcode name (e.g. {@code "OP_DUP"})
+     * @return the opcode byte, or {@code -1} if the name is not a Bitcoin opcode
+     */
+    public static int code(String name) {
+        Integer code = CODES.get(name);
+        if (code != null) {
+            return code;
+        }
+        if (name.startsWith(UNKNOWN_PREFIX) && name.length() == UNKNOWN_PREFIX.length() + 2) {
+            try {
+                int value = Integer.parseInt(name.substring(UNKNOWN_PREFIX.length()), 16);
+                return value >= 0x01 && value <= 0x4b ? -1 : value;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns every opcode name with a byte value, aliases included. */
+    static Set<String> names() {
+        return Collections.unmodifiableSet(CODES.keySet());
+    }
+
+    private static void define(int code, String name) {
+        NAMES[code] = name;
+        CODES.put(name, code);
+    }
+}
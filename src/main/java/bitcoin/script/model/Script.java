@@ -17,6 +17,19 @@ public class Script {
         this.elements = Collections.unmodifiableList(new ArrayList<>(elements));
     }
 
+    // Only reachable through adopt(): wraps the list without copying it.
+    private Script(ArrayList<ScriptElement> owned) {
+        this.elements = Collections.unmodifiableList(owned);
+    }
+
+    /**
+     * Creates a script that takes ownership of {@code elements}; the caller
+     * must not modify the list afterwards.
+     */
+    static Script adopt(ArrayList<ScriptElement> elements) {
+        return new Script(elements);
+    }
+
     // Returns the ordered, immutable list of script elements.
     public List<ScriptElement> getElements() {
         return elements;
@@ -24,22 +37,17 @@ public class Script {
 
     /**
      * Parses a space-delimited script string into a {@link Script}.
-     * 
+     *
+     * <p>Delegates to {@link ScriptTokenizer}, which also accepts byte arrays,
+     * {@code ByteBuffer}s and {@code Reader}s.
+     *
      * @param scriptText the raw script string (e.g. {@code "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG"})
      * @return the parsed {@link Script}
      */
     public static Script parse(String scriptText) {
-        List<ScriptElement> elements = new ArrayList<>();
-        if (scriptText == null || scriptText.isBlank()) {
-            return new Script(elements);
+        if (scriptText == null) {
+            return adopt(new ArrayList<>());
         }
-        for (String token : scriptText.trim().split("\\s+")) {
-            if (token.startsWith("OP_")) {
-                elements.add(new OpElement(token));
-            } else {
-                elements.add(new DataElement(token));
-            }
-        }
-        return new Script(elements);
+        return ScriptTokenizer.parse(scriptText);
     }
 }
@@ -0,0 +1,190 @@
+package bitcoin.script.model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Single-pass tokenizer for the space-delimited script text format.
+ *
+ * <p>Unlike {@code String.split("\\s+")}, it scans the input once, never
+ * builds an intermediate token array and never creates a {@code String} for a
+ * standard opcode: opcode tokens resolve to shared {@link OpElement} instances
+ * directly from the input range.  Only data tokens allocate (one string each).
+ *
+ * <p>Whitespace is the same set matched by the regex {@code \s}: space, tab,
+ * line feed, vertical tab, form feed and carriage return.  Byte input is
+ * expected to be UTF-8 (opcodes are plain ASCII).
+ */
+public final class ScriptTokenizer {
+
+    private static final int READ_CHUNK = 4096;
+
+    private ScriptTokenizer() {
+    }
+
+    /**
+     * Tokenizes a character sequence.
+     *
+     * @param text the script text
+     * @return the parsed script
+     */
+    public static Script parse(CharSequence text) {
+        ArrayList<ScriptElement> elements = new ArrayList<>();
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            while (i < n && isSpace(text.charAt(i))) i++;
+            int start = i;
+            while (i < n && !isSpace(text.charAt(i))) i++;
+            if (i > start) {
+                elements.add(isOpcode(text, start, i)
+                        ? opElement(OpcodeInterner.lookup(text, start, i), text, start, i)
+                        : new DataElement(text.subSequence(start, i).toString()));
+            }
+        }
+        return Script.adopt(elements);
+    }
+
+    /**
+     * Tokenizes UTF-8 encoded script text.
+     *
+     * @param text the encoded script text
+     * @return the parsed script
+     */
+    public static Script parse(byte[] text) {
+        return parse(text, 0, text.length);
+    }
+
+    /**
+     * Tokenizes UTF-8 encoded script text held in {@code text[off, off + len)}.
+     *
+     * @param text the source array
+     * @param off  start offset of the script text
+     * @param len  length of the script text in bytes
+     * @return the parsed script
+     */
+    public static Script parse(byte[] text, int off, int len) {
+        ArrayList<ScriptElement> elements = new ArrayList<>();
+        int end = off + len;
+        int i = off;
+        while (i < end) {
+            while (i < end && isSpace(text[i])) i++;
+            int start = i;
+            while (i < end && !isSpace(text[i])) i++;
+            if (i > start) {
+                elements.add(isOpcode(text, start, i)
+                        ? opElement(OpcodeInterner.lookup(text, start, i), text, start, i)
+                        : new DataElement(new String(text, start, i - start, StandardCharsets.UTF_8)));
+            }
+        }
+        return Script.adopt(elements);
+    }
+
+    /**
+     * Tokenizes the remaining UTF-8 encoded bytes of {@code text} without
+     * copying them into an intermediate string.  The buffer's position is
+     * advanced to its limit.
+     *
+     * @param text the buffer holding the script text
+     * @return the parsed script
+     */
+    public static Script parse(ByteBuffer text) {
+        if (text.hasArray()) {
+            Script script = parse(text.array(), text.arrayOffset() + text.position(), text.remaining());
+            text.position(text.limit());
+            return script;
+        }
+        ArrayList<ScriptElement> elements = new ArrayList<>();
+        byte[] token = new byte[32];
+        while (text.hasRemaining()) {
+            int len = 0;
+            while (text.hasRemaining()) {
+                byte b = text.get();
+                if (isSpace(b)) {
+                    if (len > 0) break;
+                    continue;
+                }
+                if (len == token.length) token = Arrays.copyOf(token, len * 2);
+                token[len++] = b;
+            }
+            if (len > 0) {
+                elements.add(isOpcode(token, 0, len)
+                        ? opElement(OpcodeInterner.lookup(token, 0, len), token, 0, len)
+                        : new DataElement(new String(token, 0, len, StandardCharsets.UTF_8)));
+            }
+        }
+        return Script.adopt(elements);
+    }
+
+    /**
+     * Tokenizes script text streamed from {@code reader}, reading it in
+     * fixed-size chunks rather than building the whole string first.
+     * The reader is consumed to its end but not closed.
+     *
+     * @param reader the source of script text
+     * @return the parsed script
+     * @throws IOException if reading fails
+     */
+    public static Script parse(Reader reader) throws IOException {
+        ArrayList<ScriptElement> elements = new ArrayList<>();
+        char[] chunk = new char[READ_CHUNK];
+        char[] token = new char[32];
+        int len = 0;
+        int read;
+        while ((read = reader.read(chunk)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char c = chunk[i];
+                if (!isSpace(c)) {
+                    if (len == token.length) token = Arrays.copyOf(token, len * 2);
+                    token[len++] = c;
+                } else if (len > 0) {
+                    elements.add(element(token, len));
+                    len = 0;
+                }
+            }
+        }
+        if (len > 0) {
+            elements.add(element(token, len));
+        }
+        return Script.adopt(elements);
+    }
+
+    // ── helpers ──────────────────────────────────────────────────────────────
+
+    private static ScriptElement element(char[] token, int len) {
+        if (len >= 3 && token[0] == 'O' && token[1] == 'P' && token[2] == '_') {
+            OpElement shared = OpcodeInterner.lookup(token, 0, len);
+            return shared != null ? shared : new OpElement(new String(token, 0, len));
+        }
+        return new DataElement(new String(token, 0, len));
+    }
+
+    private static OpElement opElement(OpElement shared, CharSequence text, int start, int end) {
+        return shared != null ? shared : new OpElement(text.subSequence(start, end).toString());
+    }
+
+    private static OpElement opElement(OpElement shared, byte[] text, int start, int end) {
+        return shared != null
+                ? shared
+                : new OpElement(new String(text, start, end - start, StandardCharsets.UTF_8));
+    }
+
+    private static boolean isOpcode(CharSequence text, int start, int end) {
+        return end - start >= 3
+                && text.charAt(start) == 'O' && text.charAt(start + 1) == 'P' && text.charAt(start + 2) == '_';
+    }
+
+    private static boolean isOpcode(byte[] text, int start, int end) {
+        return end - start >= 3
+                && text[start] == 'O' && text[start + 1] == 'P' && text[start + 2] == '_';
+    }
+
+    // Same characters as the regex class \s.
+    private static boolean isSpace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,54 @@
+package bitcoin.script.ops;
+
+import java.util.function.LongBinaryOperator;
+
+import bitcoin.script.core.ByteStack;
+import bitcoin.script.core.InterpreterContext;
+import bitcoin.script.core.ScriptError;
+
+/**
+ * Two-operand arithmetic: pops {@code b} (top) and {@code a} and pushes
+ * {@code f(a, b)}.
+ *
+ * <p>Registered as {@code OP_ADD}, {@code OP_SUB}, {@code OP_BOOLAND},
+ * {@code OP_BOOLOR}, {@code OP_NUMEQUAL}, {@code OP_NUMNOTEQUAL},
+ * {@code OP_LESSTHAN}, {@code OP_GREATERTHAN}, {@code OP_LESSTHANOREQUAL},
+ * {@code OP_GREATERTHANOREQUAL}, {@code OP_MIN} and {@code OP_MAX};
+ * comparisons yield {@code 1} or {@code 0}.  Operands are read with
+ * {@link ByteStack#numberAt(int)} and the result pushed as a tagged number.
+ *
+ * <p>Fails with {@link ScriptError#INVALID_STACK_OPERATION} on stack
+ * underflow and {@link ScriptError#INVALID_NUMBER} if an operand is not a
+ * number.
+ */
+public class OpBinaryArithmetic implements Operation {
+
+    private final LongBinaryOperator function;
+
+    /**
+     * Creates the operation.
+     *
+     * @param function maps the operands {@code (a, b)} to the result
+     */
+    public OpBinaryArithmetic(LongBinaryOperator function) {
+        this.function = function;
+    }
+
+    @Override
+    public void apply(InterpreterContext ctx) {
+        ByteStack stack = ctx.getStack().bytes();
+        int top = stack.size() - 1;
+        if (top < 1) {
+            ctx.fail(ScriptError.INVALID_STACK_OPERATION);
+            return;
+        }
+        long a = stack.numberAt(top - 1);
+        long b = stack.numberAt(top);
+        if (a == ByteStack.NOT_A_NUMBER || b == ByteStack.NOT_A_NUMBER) {
+            ctx.fail(ScriptError.INVALID_NUMBER);
+            return;
+        }
+        stack.drop(2);
+        stack.pushNumber(function.applyAsLong(a, b));
+    }
+}
@@ -1,17 +1,14 @@
 package bitcoin.script.ops;
 
+import bitcoin.script.core.ByteStack;
 import bitcoin.script.core.InterpreterContext;
-import bitcoin.script.core.ScriptException;
-import bitcoin.script.core.Stack;
-import bitcoin.script.crypto.CryptoMock;
-
-import java.util.ArrayList;
-import java.util.List;
+import bitcoin.script.core.ScriptError;
+import bitcoin.script.core.SignatureBatch;
+import bitcoin.script.crypto.CryptoProvider;
 
 /**
- * {@code OP_CHECKMULTISIG} – verifies that at least M of N provided signatures
- * are valid against the provided public keys, using a simulated 2-of-3
- * multisignature scheme.
+ * {@code OP_CHECKMULTISIG} – verifies that M signatures match M of the N
+ * provided public keys.
  *
  * <p>Expected stack layout (top to bottom) when this opcode executes:
  * <ol>
@@ -22,93 +19,129 @@ import java.util.List;
  *   <li>dummy – one extra element (Bitcoin protocol quirk; discarded)</li>
  * </ol>
  *
- * <p>Pushes {@code "1"} if at least M signatures are valid, {@code "0"} otherwise.
- * A signature is considered valid if {@link CryptoMock#checkSig(String, String)}
- * returns {@code true} for it against any of the provided public keys.
+ * <p>Matching follows Bitcoin Core: signatures must appear in the same order
+ * as their public keys.  A single pass walks both lists, trying the current
+ * signature against the current key with
+ * {@link CryptoProvider#checkSig(byte[], byte[])}; a key is consumed by every
+ * check, a signature only when it matches.  The pass stops as soon as the
+ * outcome is certain – all signatures matched, or fewer keys remain than
+ * unmatched signatures – so at most N checks are made.
+ *
+ * <p>In deferred mode (the context carries a {@link SignatureBatch}) the
+ * outcome is assumed to be success: signature i is recorded against key i, the
+ * pairing a fully valid ordered match produces when M equals N.  If the real
+ * match skips keys, one of the recorded checks fails and the validator
+ * re-executes the input in immediate mode.
+ *
+ * <p>The operands are read in place by index and only the elements actually
+ * checked are copied; everything is dropped at the end and {@code "1"} or
+ * {@code "0"} is pushed.
  *
- * <p>Throws {@link ScriptException} on stack underflow or malformed numeric tokens.
+ * <p>Fails with {@link ScriptError#INVALID_STACK_OPERATION} on stack underflow,
+ * {@link ScriptError#PUBKEY_COUNT} if N is malformed or above
+ * {@value #MAX_PUBKEYS}, and {@link ScriptError#SIG_COUNT} if M is malformed
+ * or above N.  Each of the N keys counts towards the per-script opcode
+ * limit, as in Bitcoin.
  */
 public class OpCheckMultiSig implements Operation {
 
-    private final CryptoMock crypto;
+    /** Maximum number of public keys, as in Bitcoin. */
+    public static final int MAX_PUBKEYS = 20;
+
+    private final CryptoProvider crypto;
 
     /**
-     * Creates the operation with the given crypto mock.
+     * Creates the operation with the given crypto provider.
      *
-     * @param crypto the mock crypto provider
+     * @param crypto the crypto provider
      */
-    public OpCheckMultiSig(CryptoMock crypto) {
+    public OpCheckMultiSig(CryptoProvider crypto) {
         this.crypto = crypto;
     }
 
+    /** Returns the crypto provider this operation delegates to. */
+    public CryptoProvider getCrypto() {
+        return crypto;
+    }
+
     /**
      * Executes the multisig check against the current interpreter context.
      *
      * @param ctx the shared interpreter context
-     * @throws ScriptException if the stack has insufficient elements or contains
-     *                         non-numeric values where a count is expected
      */
     @Override
     public void apply(InterpreterContext ctx) {
-        Stack stack = ctx.getStack();
+        ByteStack stack = ctx.getStack().bytes();
+        int top = stack.size() - 1;
 
-        // Step 1: pop N (number of public keys)
-        int n = popInt(stack, "OP_CHECKMULTISIG: expected pubkey count (N) on stack");
-
-        // Step 2: pop N public keys
-        List<String> pubKeys = new ArrayList<>(n);
-        for (int i = 0; i < n; i++) {
-            pubKeys.add(popValue(stack, "OP_CHECKMULTISIG: expected pubkey #" + (i + 1)));
+        // Step 1: N and the position of the first (topmost) public key
+        if (top < 0) {
+            ctx.fail(ScriptError.INVALID_STACK_OPERATION);
+            return;
         }
+        int n = stack.decimalAt(top);
+        if (n < 0 || n > MAX_PUBKEYS) {
+            ctx.fail(ScriptError.PUBKEY_COUNT);
+            return;
+        }
+        ctx.addOpCount(n);   // each key counts towards the opcode limit
+        if (ctx.hasFailed()) {
+            return;
+        }
+        int firstKey = top - 1;
 
-        // Step 3: pop M (number of required signatures)
-        int m = popInt(stack, "OP_CHECKMULTISIG: expected signature count (M) on stack");
-
-        // Step 4: pop M signatures
-        List<String> sigs = new ArrayList<>(m);
-        for (int i = 0; i < m; i++) {
-            sigs.add(popValue(stack, "OP_CHECKMULTISIG: expected signature #" + (i + 1)));
+        // Step 2: M and the position of the first (topmost) signature
+        int mIndex = firstKey - n;
+        if (mIndex < 0) {   // fewer than N keys, or no M
+            ctx.fail(ScriptError.INVALID_STACK_OPERATION);
+            return;
+        }
+        int m = stack.decimalAt(mIndex);
+        if (m < 0 || m > n) {
+            ctx.fail(ScriptError.SIG_COUNT);
+            return;
         }
+        int firstSig = mIndex - 1;
 
-        // Step 5: pop and discard the dummy element (Bitcoin protocol quirk)
-        popValue(stack, "OP_CHECKMULTISIG: expected dummy element on stack");
+        // Step 3: the M signatures and the dummy element must be present below M
+        if (mIndex <= m) {   // mIndex = number of elements below M
+            ctx.fail(ScriptError.INVALID_STACK_OPERATION);
+            return;
+        }
+        int dummy = firstSig - m;
 
-        // Step 6: count valid signatures
-        int validCount = 0;
-        for (String sig : sigs) {
-            for (String pubKey : pubKeys) {
-                if (crypto.checkSig(sig, pubKey)) {
-                    validCount++;
-                    break; // one pubkey match is enough for this signature
-                }
+        // Step 4a: deferred mode records the optimistic pairing
+        SignatureBatch batch = ctx.getSignatureBatch();
+        if (batch != null) {
+            for (int i = 0; i < m; i++) {
+                batch.add(stack.bytesAt(firstSig - i), stack.bytesAt(firstKey - i));
             }
+            stack.drop(top - dummy + 1);
+            stack.pushBoolean(true);
+            return;
         }
 
-        // Step 7: push result
-        stack.push(validCount >= m ? "1" : "0");
-    }
-
-    /**
-     * Pops a string value from the stack, throwing a descriptive
-     * {@link ScriptException} on underflow.
-     */
-    private String popValue(Stack stack, String errorMsg) {
-        if (stack.isEmpty()) {
-            throw new ScriptException(errorMsg);
+        // Step 4b: ordered single pass with early exit
+        int sigsLeft = m;
+        int keysLeft = n;
+        int sig = firstSig;
+        int key = firstKey;
+        byte[] sigBytes = null;
+        while (sigsLeft > 0 && sigsLeft <= keysLeft) {
+            if (sigBytes == null) {
+                sigBytes = stack.bytesAt(sig);
+            }
+            if (crypto.checkSig(sigBytes, stack.bytesAt(key))) {
+                sig--;
+                sigsLeft--;
+                sigBytes = null;
+            }
+            key--;
+            keysLeft--;
         }
-        return stack.pop();
-    }
 
-    /**
-     * Pops a string value from the stack and parses it as an integer,
-     * throwing a descriptive {@link ScriptException} on underflow or parse error.
-     */
-    private int popInt(Stack stack, String errorMsg) {
-        String raw = popValue(stack, errorMsg);
-        try {
-            return Integer.parseInt(raw);
-        } catch (NumberFormatException e) {
-            throw new ScriptException(errorMsg + " (got '" + raw + "')");
-        }
+        // Step 5: consume all operands (including the dummy) and push the result
+        stack.drop(top - dummy + 1);
+        stack.pushBoolean(sigsLeft == 0);
     }
 }
@@ -1,34 +1,57 @@
 package bitcoin.script.ops;
 
+import bitcoin.script.core.ByteStack;
 import bitcoin.script.core.InterpreterContext;
-import bitcoin.script.crypto.CryptoMock;
+import bitcoin.script.core.ScriptError;
+import bitcoin.script.core.SignatureBatch;
+import bitcoin.script.crypto.CryptoProvider;
 
 /**
  * {@code OP_CHECKSIG} – pops the public key (top) and the signature (second),
- * verifies them with the mock {@link CryptoMock#checkSig(String, String)}, and
+ * verifies them with {@link CryptoProvider#checkSig(byte[], byte[])}, and
  * pushes {@code "1"} (valid) or {@code "0"} (invalid) onto the stack.
  *
  * <p>In real Bitcoin this validates a DER-encoded ECDSA signature against the
- * serialized transaction hash.  Here {@link CryptoMock} is used instead.
+ * serialized transaction hash.  The built-in providers use the
+ * {@link bitcoin.script.crypto.CryptoMock} rule instead.
+ *
+ * <p>When the context carries a {@link SignatureBatch} (deferred mode), the
+ * check is recorded there and {@code "1"} is pushed without verifying.
  */
 public class OpCheckSig implements Operation {
 
-    private final CryptoMock crypto;
+    private final CryptoProvider crypto;
 
     /**
-     * Creates the operation with the given crypto mock.
+     * Creates the operation with the given crypto provider.
      *
-     * @param crypto the mock crypto provider
+     * @param crypto the crypto provider
      */
-    public OpCheckSig(CryptoMock crypto) {
+    public OpCheckSig(CryptoProvider crypto) {
         this.crypto = crypto;
     }
 
+    /** Returns the crypto provider this operation delegates to. */
+    public CryptoProvider getCrypto() {
+        return crypto;
+    }
+
     @Override
     public void apply(InterpreterContext ctx) {
-        String pubKey    = ctx.getStack().pop();   // top element
-        String signature = ctx.getStack().pop();   // second element
+        ByteStack stack = ctx.getStack().bytes();
+        if (stack.size() < 2) {
+            ctx.fail(ScriptError.INVALID_STACK_OPERATION);
+            return;
+        }
+        byte[] pubKey    = stack.pop();   // top element
+        byte[] signature = stack.pop();   // second element
+        SignatureBatch batch = ctx.getSignatureBatch();
+        if (batch != null) {
+            batch.add(signature, pubKey);
+            stack.pushBoolean(true);
+            return;
+        }
         boolean valid    = crypto.checkSig(signature, pubKey);
-        ctx.getStack().push(valid ? "1" : "0");
+        stack.pushBoolean(valid);
     }
 }
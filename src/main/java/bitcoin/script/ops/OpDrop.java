@@ -1,16 +1,21 @@
 package bitcoin.script.ops;
 
 import bitcoin.script.core.InterpreterContext;
+import bitcoin.script.core.ScriptError;
 
 /**
  * {@code OP_DROP} – removes the top stack element and discards it.
  *
- * <p>Throws {@link bitcoin.script.core.ScriptException} if the stack is empty.
+ * <p>Fails with {@link ScriptError#INVALID_STACK_OPERATION} if the stack is empty.
  */
 public class OpDrop implements Operation {
 
     @Override
     public void apply(InterpreterContext ctx) {
-        ctx.getStack().pop();
+        if (ctx.getStack().isEmpty()) {
+            ctx.fail(ScriptError.INVALID_STACK_OPERATION);
+            return;
+        }
+        ctx.getStack().bytes().drop(1);
     }
 }
@@ -1,18 +1,22 @@
 package bitcoin.script.ops;
 
 import bitcoin.script.core.InterpreterContext;
+import bitcoin.script.core.ScriptError;
 
 /**
  * {@code OP_DUP} – duplicates the top stack element.
  *
- * <p>Pops nothing; peeks at the top value and pushes a copy of it.
- * Throws {@link bitcoin.script.core.ScriptException} if the stack is empty.
+ * <p>Pops nothing; copies the top value's bytes in place.
+ * Fails with {@link ScriptError#INVALID_STACK_OPERATION} if the stack is empty.
  */
 public class OpDup implements Operation {
 
     @Override
     public void apply(InterpreterContext ctx) {
-        String top = ctx.getStack().peek();
-        ctx.getStack().push(top);
+        if (ctx.getStack().isEmpty()) {
+            ctx.fail(ScriptError.INVALID_STACK_OPERATION);
+            return;
+        }
+        ctx.getStack().bytes().dup();
     }
 }
@@ -1,6 +1,8 @@
 package bitcoin.script.ops;
 
+import bitcoin.script.core.ByteStack;
 import bitcoin.script.core.InterpreterContext;
+import bitcoin.script.core.ScriptError;
 
 /**
  * {@code OP_EQUAL} – pops two elements and pushes {@code "1"} if they are
@@ -13,8 +15,13 @@ public class OpEqual implements Operation {
 
     @Override
     public void apply(InterpreterContext ctx) {
-        String b = ctx.getStack().pop();
-        String a = ctx.getStack().pop();
-        ctx.getStack().push(a.equals(b) ? "1" : "0");
+        ByteStack stack = ctx.getStack().bytes();
+        if (stack.size() < 2) {
+            ctx.fail(ScriptError.INVALID_STACK_OPERATION);
+            return;
+        }
+        boolean equal = stack.topEquals();
+        stack.drop(2);
+        stack.pushBoolean(equal);
     }
 }
@@ -1,11 +1,12 @@
 package bitcoin.script.ops;
 
+import bitcoin.script.core.ByteStack;
 import bitcoin.script.core.InterpreterContext;
-import bitcoin.script.core.ScriptException;
+import bitcoin.script.core.ScriptError;
 
 /**
- * {@code OP_EQUALVERIFY} – pops two elements and throws {@link ScriptException}
- * if they differ.  Pushes nothing on success.
+ * {@code OP_EQUALVERIFY} – pops two elements and fails with
+ * {@link ScriptError#EQUALVERIFY} if they differ.  Pushes nothing on success.
  *
  * <p>Equivalent to {@code OP_EQUAL OP_VERIFY}: commonly used in P2PKH scripts
  * to assert that the computed public-key hash matches the expected hash.
@@ -14,11 +15,15 @@ public class OpEqualVerify implements Operation {
 
     @Override
     public void apply(InterpreterContext ctx) {
-        String b = ctx.getStack().pop();
-        String a = ctx.getStack().pop();
-        if (!a.equals(b)) {
-            throw new ScriptException(
-                    "OP_EQUALVERIFY failed: expected '" + a + "' but got '" + b + "'");
+        ByteStack stack = ctx.getStack().bytes();
+        if (stack.size() < 2) {
+            ctx.fail(ScriptError.INVALID_STACK_OPERATION);
+            return;
         }
+        if (!stack.topEquals()) {
+            ctx.fail(ScriptError.EQUALVERIFY);
+            return;
+        }
+        stack.drop(2);
     }
 }
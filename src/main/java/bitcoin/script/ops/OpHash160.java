@@ -1,32 +1,46 @@
 package bitcoin.script.ops;
 
+import bitcoin.script.core.ByteStack;
 import bitcoin.script.core.InterpreterContext;
-import bitcoin.script.crypto.CryptoMock;
+import bitcoin.script.core.ScriptError;
+import bitcoin.script.crypto.CryptoProvider;
 
 /**
- * {@code OP_HASH160} – pops the top element, passes it through the mock
- * {@link CryptoMock#hash160(String)} function, and pushes the result.
+ * {@code OP_HASH160} – pops the top element, hashes it with
+ * {@link CryptoProvider#hash160(byte[])}, and pushes the result.
  *
- * <p>In real Bitcoin this performs SHA-256 followed by RIPEMD-160.  Here
- * {@link CryptoMock} provides a deterministic, non-cryptographic substitute.
+ * <p>In real Bitcoin this performs SHA-256 followed by RIPEMD-160, which is
+ * what {@link bitcoin.script.crypto.Hash160Crypto} implements; the default
+ * {@link bitcoin.script.crypto.CryptoMock} provides a deterministic,
+ * non-cryptographic substitute.
  */
 public class OpHash160 implements Operation {
 
-    private final CryptoMock crypto;
+    private final CryptoProvider crypto;
 
     /**
-     * Creates the operation with the given crypto mock.
+     * Creates the operation with the given crypto provider.
      *
-     * @param crypto the mock crypto provider
+     * @param crypto the crypto provider
      */
-    public OpHash160(CryptoMock crypto) {
+    public OpHash160(CryptoProvider crypto) {
         this.crypto = crypto;
     }
 
+    /** Returns the crypto provider this operation delegates to. */
+    public CryptoProvider getCrypto() {
+        return crypto;
+    }
+
     @Override
     public void apply(InterpreterContext ctx) {
-        String data = ctx.getStack().pop();
-        String hash = crypto.hash160(data);
-        ctx.getStack().push(hash);
+        if (ctx.getStack().isEmpty()) {
+            ctx.fail(ScriptError.INVALID_STACK_OPERATION);
+            return;
+        }
+        ByteStack stack = ctx.getStack().bytes();
+        byte[] data = stack.pop();
+        byte[] hash = crypto.hash160(data);
+        stack.push(hash);
     }
 }
@@ -1,8 +1,7 @@
 package bitcoin.script.ops;
 
 import bitcoin.script.core.InterpreterContext;
-import bitcoin.script.core.ScriptException;
-import bitcoin.script.core.Stack;
+import bitcoin.script.core.ScriptError;
 
 public class OpIf implements Operation {
     
@@ -15,11 +14,11 @@ public class OpIf implements Operation {
     public void apply(InterpreterContext ctx) {
         if (ctx.shouldExecute()) {
             if (ctx.getStack().isEmpty()) {
-                throw new ScriptException("OP_IF requires a value on the stack");
+                ctx.fail(ScriptError.UNBALANCED_CONDITIONAL);   // no condition, as in Bitcoin Core
+                return;
             }
 
-            String value = ctx.getStack().pop();
-            boolean condition = Stack.isTruthy(value);
+            boolean condition = ctx.getStack().bytes().popTruthy();
             ctx.pushExecution(condition);
         } else {
             // Nested inside a skipped block
@@ -0,0 +1,37 @@
+package bitcoin.script.ops;
+
+import bitcoin.script.core.ByteStack;
+import bitcoin.script.core.InterpreterContext;
+import bitcoin.script.core.ScriptError;
+
+/**
+ * {@code OP_NUMEQUALVERIFY} – pops two numbers and fails with
+ * {@link ScriptError#NUMEQUALVERIFY} if they differ.  Pushes nothing on
+ * success.
+ *
+ * <p>Unlike {@link OpEqualVerify} the operands are compared as numbers, so
+ * {@code "007"} equals {@code 7}.
+ */
+public class OpNumEqualVerify implements Operation {
+
+    @Override
+    public void apply(InterpreterContext ctx) {
+        ByteStack stack = ctx.getStack().bytes();
+        int top = stack.size() - 1;
+        if (top < 1) {
+            ctx.fail(ScriptError.INVALID_STACK_OPERATION);
+            return;
+        }
+        long a = stack.numberAt(top - 1);
+        long b = stack.numberAt(top);
+        if (a == ByteStack.NOT_A_NUMBER || b == ByteStack.NOT_A_NUMBER) {
+            ctx.fail(ScriptError.INVALID_NUMBER);
+            return;
+        }
+        if (a != b) {
+            ctx.fail(ScriptError.NUMEQUALVERIFY);
+            return;
+        }
+        stack.drop(2);
+    }
+}
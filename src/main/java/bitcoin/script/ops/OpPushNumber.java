@@ -2,15 +2,22 @@ package bitcoin.script.ops;
 
 import bitcoin.script.core.InterpreterContext;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Pushes a fixed numeric string onto the stack.
  *
  * <p>Used by {@code OP_0} / {@code OP_FALSE} (pushes {@code "0"}) and
  * {@code OP_1} through {@code OP_16} (push {@code "1"} … {@code "16"}).
+ * A decimal value is pushed as a tagged number (see
+ * {@link bitcoin.script.core.ByteStack#pushNumber(long)}), so arithmetic on
+ * it needs no parsing; any other string is pushed as its bytes.
  */
 public class OpPushNumber implements Operation {
 
-    private final String numericValue;
+    private final byte[]  encoded;
+    private final long    number;
+    private final boolean numeric;   // encoded is exactly Long.toString(number)
 
     /**
      * Creates an operation that pushes the given numeric string.
@@ -18,11 +25,30 @@ public class OpPushNumber implements Operation {
      * @param numericValue the value to push (e.g. {@code "0"}, {@code "1"})
      */
     public OpPushNumber(String numericValue) {
-        this.numericValue = numericValue;
+        this.encoded = numericValue.getBytes(StandardCharsets.UTF_8);
+        long parsed  = 0;
+        boolean ok;
+        try {
+            parsed = Long.parseLong(numericValue);
+            ok     = Long.toString(parsed).equals(numericValue);
+        } catch (NumberFormatException e) {
+            ok     = false;
+        }
+        this.number  = parsed;
+        this.numeric = ok;
+    }
+
+    /** Returns a copy of the bytes this operation pushes. */
+    public byte[] value() {
+        return encoded.clone();
     }
 
     @Override
     public void apply(InterpreterContext ctx) {
-        ctx.getStack().push(numericValue);
+        if (numeric) {
+            ctx.getStack().pushNumber(number);
+        } else {
+            ctx.getStack().push(encoded);
+        }
     }
 }
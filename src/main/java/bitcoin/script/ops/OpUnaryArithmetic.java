@@ -0,0 +1,48 @@
+package bitcoin.script.ops;
+
+import java.util.function.LongUnaryOperator;
+
+import bitcoin.script.core.ByteStack;
+import bitcoin.script.core.InterpreterContext;
+import bitcoin.script.core.ScriptError;
+
+/**
+ * One-operand arithmetic: pops a number {@code a} and pushes {@code f(a)}.
+ *
+ * <p>Registered as {@code OP_1ADD}, {@code OP_1SUB}, {@code OP_NEGATE},
+ * {@code OP_ABS}, {@code OP_NOT} and {@code OP_0NOTEQUAL}.  The operand is
+ * read with {@link ByteStack#numberAt(int)} and the result pushed as a tagged
+ * number, so chained arithmetic neither parses nor allocates.
+ *
+ * <p>Fails with {@link ScriptError#INVALID_STACK_OPERATION} on an empty stack
+ * and {@link ScriptError#INVALID_NUMBER} if the operand is not a number.
+ */
+public class OpUnaryArithmetic implements Operation {
+
+    private final LongUnaryOperator function;
+
+    /**
+     * Creates the operation.
+     *
+     * @param function maps the operand to the result
+     */
+    public OpUnaryArithmetic(LongUnaryOperator function) {
+        this.function = function;
+    }
+
+    @Override
+    public void apply(InterpreterContext ctx) {
+        ByteStack stack = ctx.getStack().bytes();
+        if (stack.isEmpty()) {
+            ctx.fail(ScriptError.INVALID_STACK_OPERATION);
+            return;
+        }
+        long a = stack.numberAt(stack.size() - 1);
+        if (a == ByteStack.NOT_A_NUMBER) {
+            ctx.fail(ScriptError.INVALID_NUMBER);
+            return;
+        }
+        stack.drop(1);
+        stack.pushNumber(function.applyAsLong(a));
+    }
+}
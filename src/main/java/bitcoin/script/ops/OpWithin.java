@@ -0,0 +1,35 @@
+package bitcoin.script.ops;
+
+import bitcoin.script.core.ByteStack;
+import bitcoin.script.core.InterpreterContext;
+import bitcoin.script.core.ScriptError;
+
+/**
+ * {@code OP_WITHIN} – pops {@code max} (top), {@code min} and {@code x} and
+ * pushes {@code 1} if {@code min <= x < max}, otherwise {@code 0}.
+ *
+ * <p>Fails with {@link ScriptError#INVALID_STACK_OPERATION} on stack
+ * underflow and {@link ScriptError#INVALID_NUMBER} if an operand is not a
+ * number.
+ */
+public class OpWithin implements Operation {
+
+    @Override
+    public void apply(InterpreterContext ctx) {
+        ByteStack stack = ctx.getStack().bytes();
+        int top = stack.size() - 1;
+        if (top < 2) {
+            ctx.fail(ScriptError.INVALID_STACK_OPERATION);
+            return;
+        }
+        long x   = stack.numberAt(top - 2);
+        long min = stack.numberAt(top - 1);
+        long max = stack.numberAt(top);
+        if (x == ByteStack.NOT_A_NUMBER || min == ByteStack.NOT_A_NUMBER || max == ByteStack.NOT_A_NUMBER) {
+            ctx.fail(ScriptError.INVALID_NUMBER);
+            return;
+        }
+        stack.drop(3);
+        stack.pushBoolean(min <= x && x < max);
+    }
+}
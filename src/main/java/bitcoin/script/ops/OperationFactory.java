@@ -1,9 +1,13 @@
 package bitcoin.script.ops;
 
 import bitcoin.script.crypto.CryptoMock;
+import bitcoin.script.crypto.CryptoProvider;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Registry of all Bitcoin Script operations supported in Phase 1.
@@ -11,6 +15,14 @@ import java.util.Map;
  * <p>Operations are stored in a {@code Map<String, Operation>} keyed by opcode
  * name (e.g. {@code "OP_DUP"}).  No enums are used for opcodes.
  *
+ * <p>Every registered opcode also gets a dense numeric id (its registration
+ * index), which compiled scripts and execution listeners use to refer to
+ * opcodes without strings.
+ *
+ * <p>A factory is immutable once built and safe to share between threads.
+ * The standard opcode set is built once and shared through {@link #standard()};
+ * factories with custom opcodes are assembled with a {@link Builder}.
+ *
  * <p>Registered opcodes:
  * <ul>
  *   <li>{@code OP_0} / {@code OP_FALSE} – push {@code "0"}</li>
@@ -19,57 +31,72 @@ import java.util.Map;
  *   <li>{@code OP_DROP}        – discard top element</li>
  *   <li>{@code OP_EQUAL}       – equality check, push result</li>
  *   <li>{@code OP_EQUALVERIFY} – equality check, abort on failure</li>
- *   <li>{@code OP_HASH160}          – mock hash of top element</li>
- *   <li>{@code OP_CHECKSIG}         – mock signature verification</li>
- *   <li>{@code OP_CHECKMULTISIG}    – mock M-of-N multisig verification</li>
+ *   <li>{@code OP_1ADD} {@code OP_1SUB} {@code OP_NEGATE} {@code OP_ABS}
+ *       {@code OP_NOT} {@code OP_0NOTEQUAL} – one-operand arithmetic</li>
+ *   <li>{@code OP_ADD} {@code OP_SUB} {@code OP_BOOLAND} {@code OP_BOOLOR}
+ *       {@code OP_NUMEQUAL} {@code OP_NUMEQUALVERIFY} {@code OP_NUMNOTEQUAL}
+ *       {@code OP_LESSTHAN} {@code OP_GREATERTHAN} {@code OP_LESSTHANOREQUAL}
+ *       {@code OP_GREATERTHANOREQUAL} {@code OP_MIN} {@code OP_MAX}
+ *       {@code OP_WITHIN} – arithmetic and numeric comparison</li>
+ *   <li>{@code OP_HASH160}          – HASH160 of top element</li>
+ *   <li>{@code OP_CHECKSIG}         – signature verification</li>
+ *   <li>{@code OP_CHECKMULTISIG}    – M-of-N multisig verification</li>
  *   <li>{@code OP_IF} / {@code OP_NOTIF} / {@code OP_ELSE} / {@code OP_ENDIF} – conditional flow</li>
  * </ul>
+ *
+ * <p>The hash and signature opcodes delegate to the {@link CryptoProvider}
+ * passed to {@link Builder#registerStandard(CryptoProvider)}.
  */
-public class OperationFactory {
+public final class OperationFactory {
+
+    private static final AtomicLong SERIALS = new AtomicLong();
 
-    private final Map<String, Operation> registry = new HashMap<>();
+    private static final OperationFactory STANDARD =
+            builder().registerStandard(new CryptoMock()).build();
+
+    private final Map<String, Operation> registry;
+    private final Map<String, Integer>   ids;
+    private final String[]               names;   // indexed by opcode id
+    private final CryptoProvider         crypto;
+    private final long                   serial;
 
     /**
      * Creates a factory pre-loaded with all Phase 1 operations.
+     *
+     * <p>The returned factory shares its (immutable) registry with
+     * {@link #standard()}; prefer calling that method directly.
      */
     public OperationFactory() {
-        CryptoMock crypto = new CryptoMock();
-
-        // Numeric push opcodes
-        register("OP_0",     new OpPushNumber("0"));
-        register("OP_FALSE", new OpPushNumber("0"));
-        for (int i = 1; i <= 16; i++) {
-            register("OP_" + i, new OpPushNumber(String.valueOf(i)));
-        }
-
-        // Stack operations
-        register("OP_DUP",          new OpDup());
-        register("OP_DROP",         new OpDrop());
-
-        // Comparison operations
-        register("OP_EQUAL",        new OpEqual());
-        register("OP_EQUALVERIFY",  new OpEqualVerify());
+        this(STANDARD.registry, STANDARD.ids, STANDARD.names, STANDARD.crypto, STANDARD.serial);
+    }
 
-        // Hash and signature operations (mock implementations)
-        register("OP_HASH160",        new OpHash160(crypto));
-        register("OP_CHECKSIG",       new OpCheckSig(crypto));
-        register("OP_CHECKMULTISIG",  new OpCheckMultiSig(crypto));
+    private OperationFactory(Map<String, Operation> registry, Map<String, Integer> ids,
+                             String[] names, CryptoProvider crypto, long serial) {
+        this.registry = registry;
+        this.ids      = ids;
+        this.names    = names;
+        this.crypto   = crypto;
+        this.serial   = serial;
+    }
 
-        // Control flow operations
-        register("OP_IF",           new OpIf());
-        register("OP_NOTIF",        new OpNotIf());
-        register("OP_ELSE",         new OpElse());
-        register("OP_ENDIF",        new OpEndIf());
+    /**
+     * Returns the shared factory holding the standard opcode set, backed by
+     * the {@link CryptoMock} provider.
+     *
+     * @return the shared standard factory
+     */
+    public static OperationFactory standard() {
+        return STANDARD;
     }
 
     /**
-     * Registers an operation under the given opcode name.
+     * Returns an empty builder; call {@link Builder#registerStandard(CryptoProvider)}
+     * to start from the standard opcode set.
      *
-     * @param opcodeName the opcode string key (e.g. {@code "OP_DUP"})
-     * @param op         the operation implementation
+     * @return a new builder
      */
-    public void register(String opcodeName, Operation op) {
-        registry.put(opcodeName, op);
+    public static Builder builder() {
+        return new Builder();
     }
 
     /**
@@ -81,4 +108,155 @@ public class OperationFactory {
     public Operation get(String opcodeName) {
         return registry.get(opcodeName);
     }
+
+    /**
+     * Returns the dense id of a registered opcode.
+     *
+     * @param opcodeName the opcode name
+     * @return the id in {@code [0, opcodeCount())}, or {@code -1} if not registered
+     */
+    public int opcodeId(String opcodeName) {
+        Integer id = ids.get(opcodeName);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the opcode name for an id returned by {@link #opcodeId(String)}.
+     *
+     * @param id the opcode id
+     * @return the opcode name
+     */
+    public String opcodeName(int id) {
+        return names[id];
+    }
+
+    /** Returns the number of registered opcodes; ids are below this value. */
+    public int opcodeCount() {
+        return names.length;
+    }
+
+    /**
+     * Returns the crypto provider the standard opcodes were registered with.
+     *
+     * @return the provider, or {@code null} if the standard set was never registered
+     */
+    public CryptoProvider crypto() {
+        return crypto;
+    }
+
+    /**
+     * Returns a number that identifies this factory's opcode set within the
+     * JVM.  Every {@link Builder#build()} yields a new serial; the instances
+     * created by {@link #OperationFactory()} share the standard factory's.
+     *
+     * @return the serial
+     */
+    public long serial() {
+        return serial;
+    }
+
+    /** Returns the names of all registered opcodes (unmodifiable). */
+    public Set<String> opcodeNames() {
+        return registry.keySet();
+    }
+
+    /**
+     * Mutable, single-use assembler for an {@link OperationFactory}.
+     */
+    public static final class Builder {
+
+        private final Map<String, Operation> ops = new LinkedHashMap<>();
+        private CryptoProvider crypto;
+
+        private Builder() {
+        }
+
+        /**
+         * Registers all standard operations, wiring the crypto-dependent ones
+         * to {@code crypto}.
+         *
+         * @param crypto the crypto provider used by OP_HASH160 and the signature opcodes
+         * @return this builder
+         */
+        public Builder registerStandard(CryptoProvider crypto) {
+            this.crypto = crypto;
+
+            // Numeric push opcodes
+            register("OP_0",     new OpPushNumber("0"));
+            register("OP_FALSE", new OpPushNumber("0"));
+            for (int i = 1; i <= 16; i++) {
+                register("OP_" + i, new OpPushNumber(String.valueOf(i)));
+            }
+
+            // Stack operations
+            register("OP_DUP",          new OpDup());
+            register("OP_DROP",         new OpDrop());
+
+            // Comparison operations
+            register("OP_EQUAL",        new OpEqual());
+            register("OP_EQUALVERIFY",  new OpEqualVerify());
+
+            // Arithmetic operations (operands and results are tagged numbers)
+            register("OP_1ADD",               new OpUnaryArithmetic(a -> a + 1));
+            register("OP_1SUB",               new OpUnaryArithmetic(a -> a - 1));
+            register("OP_NEGATE",             new OpUnaryArithmetic(a -> -a));
+            register("OP_ABS",                new OpUnaryArithmetic(Math::abs));
+            register("OP_NOT",                new OpUnaryArithmetic(a -> a == 0 ? 1 : 0));
+            register("OP_0NOTEQUAL",          new OpUnaryArithmetic(a -> a != 0 ? 1 : 0));
+            register("OP_ADD",                new OpBinaryArithmetic((a, b) -> a + b));
+            register("OP_SUB",                new OpBinaryArithmetic((a, b) -> a - b));
+            register("OP_BOOLAND",            new OpBinaryArithmetic((a, b) -> a != 0 && b != 0 ? 1 : 0));
+            register("OP_BOOLOR",             new OpBinaryArithmetic((a, b) -> a != 0 || b != 0 ? 1 : 0));
+            register("OP_NUMEQUAL",           new OpBinaryArithmetic((a, b) -> a == b ? 1 : 0));
+            register("OP_NUMEQUALVERIFY",     new OpNumEqualVerify());
+            register("OP_NUMNOTEQUAL",        new OpBinaryArithmetic((a, b) -> a != b ? 1 : 0));
+            register("OP_LESSTHAN",           new OpBinaryArithmetic((a, b) -> a < b ? 1 : 0));
+            register("OP_GREATERTHAN",        new OpBinaryArithmetic((a, b) -> a > b ? 1 : 0));
+            register("OP_LESSTHANOREQUAL",    new OpBinaryArithmetic((a, b) -> a <= b ? 1 : 0));
+            register("OP_GREATERTHANOREQUAL", new OpBinaryArithmetic((a, b) -> a >= b ? 1 : 0));
+            register("OP_MIN",                new OpBinaryArithmetic(Math::min));
+            register("OP_MAX",                new OpBinaryArithmetic(Math::max));
+            register("OP_WITHIN",             new OpWithin());
+
+            // Hash and signature operations
+            register("OP_HASH160",        new OpHash160(crypto));
+            register("OP_CHECKSIG",       new OpCheckSig(crypto));
+            register("OP_CHECKMULTISIG",  new OpCheckMultiSig(crypto));
+
+            // Control flow operations
+            register("OP_IF",           new OpIf());
+            register("OP_NOTIF",        new OpNotIf());
+            register("OP_ELSE",         new OpElse());
+            register("OP_ENDIF",        new OpEndIf());
+            return this;
+        }
+
+        /**
+         * Registers an operation under the given opcode name, replacing any
+         * operation previously registered under that name.
+         *
+         * @param opcodeName the opcode string key (e.g. {@code "OP_DUP"})
+         * @param op         the operation implementation
+         * @return this builder
+         */
+        public Builder register(String opcodeName, Operation op) {
+            ops.put(opcodeName, op);
+            return this;
+        }
+
+        /**
+         * Freezes the registered operations into an immutable factory.
+         *
+         * @return the new factory
+         */
+        public OperationFactory build() {
+            String[] names = ops.keySet().toArray(new String[0]);
+            Map<String, Integer> ids = new HashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                ids.put(names[i], i);
+            }
+            return new OperationFactory(Map.copyOf(ops), Map.copyOf(ids), names, crypto,
+                                        SERIALS.incrementAndGet());
+        }
+    }
 }
@@ -0,0 +1,111 @@
+package bitcoin.script.app;
+
+import bitcoin.script.core.ScriptValidator;
+import bitcoin.script.model.BinaryScriptCodec;
+import bitcoin.script.model.Script;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** File-based tests for {@link BulkValidation}. */
+class BulkValidationTest {
+
+    private static final String P2PKH = "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG";
+
+    @TempDir
+    Path dir;
+
+    // Test 1 – text records, including malformed lines, across several mapping windows
+
+    @Test
+    @DisplayName("Text records are validated in order across mapping windows; malformed lines are invalid")
+    void testTextFormat() throws IOException {
+        String text = "SIG_OK PUBKEY_ABC\t" + P2PKH + "\n"
+                + "BAD_SIG PUBKEY_ABC\t" + P2PKH + "\r\n"
+                + "no tab on this line\n"
+                + "\n"
+                + "OP_1\tOP_1 OP_EQUAL";                // last line without '\n'
+        Path input = write(text.getBytes(StandardCharsets.UTF_8));
+
+        for (long window : new long[] {BulkValidation.DEFAULT_WINDOW, 80}) {
+            BulkValidation.Summary summary = bulk(false, window).run(input, dir.resolve("out"));
+            assertEquals(5, summary.getRecords());
+            assertEquals(2, summary.getValid());
+            assertEquals(List.of("0 VALID", "1 INVALID", "2 INVALID", "3 INVALID", "4 VALID"),
+                    Files.readAllLines(dir.resolve("out")));
+        }
+
+        // A line longer than the window cannot be processed.
+        IOException oversized = assertThrows(IOException.class,
+                () -> bulk(false, 16).run(input, dir.resolve("out")));
+        assertTrue(oversized.getMessage().contains("does not fit"), oversized.getMessage());
+    }
+
+    // Test 2 – binary records, undecodable, truncated and oversized records
+
+    @Test
+    @DisplayName("Binary records are validated; truncated or oversized records fail the run")
+    void testBinaryFormat() throws IOException {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        record(file, encode("SIG_OK PUBKEY_ABC"), encode(P2PKH));
+        record(file, encode("BAD_SIG PUBKEY_ABC"), encode(P2PKH));
+        record(file, new byte[] {0x4c}, encode("OP_1"));               // PUSHDATA1 without its length
+        record(file, new byte[0], encode("OP_1"));
+        byte[] records = file.toByteArray();
+
+        for (long window : new long[] {BulkValidation.DEFAULT_WINDOW, 64}) {
+            BulkValidation.Summary summary = bulk(true, window).run(write(records), dir.resolve("out"));
+            assertEquals(4, summary.getRecords());
+            assertEquals(2, summary.getValid());
+            assertEquals(List.of("0 VALID", "1 INVALID", "2 INVALID", "3 VALID"),
+                    Files.readAllLines(dir.resolve("out")));
+        }
+
+        byte[] truncated = Arrays.copyOf(records, records.length - 1);
+        IOException cut = assertThrows(IOException.class,
+                () -> bulk(true, BulkValidation.DEFAULT_WINDOW).run(write(truncated), dir.resolve("out")));
+        assertTrue(cut.getMessage().startsWith("Truncated record"), cut.getMessage());
+
+        // A length prefix above 2^31 is read unsigned: a truncated record, not a negative length.
+        byte[] huge = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putInt(0xFFFF_FFF0).array();
+        assertThrows(IOException.class,
+                () -> bulk(true, BulkValidation.DEFAULT_WINDOW).run(write(huge), dir.resolve("out")));
+
+        IOException oversized = assertThrows(IOException.class,
+                () -> bulk(true, 16).run(write(records), dir.resolve("out")));
+        assertTrue(oversized.getMessage().contains("does not fit"), oversized.getMessage());
+    }
+
+    private static BulkValidation bulk(boolean binary, long window) {
+        return new BulkValidation(new ScriptValidator(false), binary, window);
+    }
+
+    private Path write(byte[] content) throws IOException {
+        Path input = dir.resolve("input");
+        Files.write(input, content);
+        return input;
+    }
+
+    private static byte[] encode(String script) {
+        return BinaryScriptCodec.encode(Script.parse(script));
+    }
+
+    private static void record(ByteArrayOutputStream file, byte[] scriptSig, byte[] scriptPubKey) {
+        for (byte[] part : List.of(scriptSig, scriptPubKey)) {
+            file.writeBytes(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(part.length).array());
+            file.writeBytes(part);
+        }
+    }
+}
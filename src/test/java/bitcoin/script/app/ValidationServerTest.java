@@ -0,0 +1,173 @@
+package bitcoin.script.app;
+
+import bitcoin.script.core.ScriptPair;
+import bitcoin.script.core.ScriptValidator;
+import bitcoin.script.model.BinaryScriptCodec;
+import bitcoin.script.model.Script;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Localhost tests for {@link ValidationServer} and its {@link MicroBatcher}. */
+class ValidationServerTest {
+
+    // Test 1 – concurrent text clients over TCP are answered in order and batched
+
+    @Test
+    @DisplayName("Concurrent pipelined TCP clients get in-order results from shared batches")
+    void testConcurrentTcpClients() throws Exception {
+        try (ValidationServer server = ValidationServer.builder()
+                .maxBatchSize(64).linger(1, TimeUnit.MILLISECONDS).build()) {
+            SocketAddress address = server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+            List<String> records = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                records.add((i % 5 == 0 ? "BAD_SIG" : "SIG_OK") + " PUBKEY_" + i
+                        + "\tOP_DUP OP_HASH160 PUBKEYHASH_" + i + " OP_EQUALVERIFY OP_CHECKSIG");
+            }
+            List<CompletableFuture<boolean[]>> clients = new ArrayList<>();
+            for (int c = 0; c < 8; c++) {
+                clients.add(CompletableFuture.supplyAsync(() -> {
+                    try (ValidationClient client = new ValidationClient(address)) {
+                        return client.validateAll(records);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }));
+            }
+            for (CompletableFuture<boolean[]> client : clients) {
+                boolean[] results = client.get(30, TimeUnit.SECONDS);
+                for (int i = 0; i < results.length; i++) {
+                    assertEquals(i % 5 != 0, results[i], "record " + i);
+                }
+            }
+
+            try (ValidationClient client = new ValidationClient(address)) {
+                assertTrue(client.validate("SIG_OK", "OP_1"));
+                assertFalse(client.validate("OP_1", "OP_ENDIF"));
+            }
+            assertEquals(8 * 500 + 2, server.getRequests());
+            assertTrue(server.getBatches() < server.getRequests() / 4,
+                    "expected coalescing, got " + server.getBatches() + " batches");
+        }
+    }
+
+    // Test 2 – the binary protocol over a Unix-domain socket
+
+    @Test
+    @DisplayName("Binary requests over a Unix-domain socket are answered with one byte each")
+    void testBinaryUnixSocket(@TempDir Path dir) throws Exception {
+        try (ValidationServer server = ValidationServer.builder().binary(true).build()) {
+            SocketAddress address = server.start(UnixDomainSocketAddress.of(dir.resolve("validate.sock")));
+
+            ByteArrayOutputStream requests = new ByteArrayOutputStream();
+            writeRecord(requests, "SIG_OK PUBKEY_A", "OP_DUP OP_HASH160 PUBKEYHASH_A OP_EQUALVERIFY OP_CHECKSIG");
+            writeRecord(requests, "BAD_SIG PUBKEY_A", "OP_DUP OP_HASH160 PUBKEYHASH_A OP_EQUALVERIFY OP_CHECKSIG");
+            writeRecord(requests, "OP_0 SIG_OK SIG_OK", "OP_2 PUBKEY_A PUBKEY_B PUBKEY_C OP_3 OP_CHECKMULTISIG");
+
+            try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+                channel.connect(address);
+                channel.write(ByteBuffer.wrap(requests.toByteArray()));
+                ByteBuffer responses = ByteBuffer.allocate(3);
+                while (responses.hasRemaining() && channel.read(responses) >= 0) {
+                    // keep reading until all three answers arrived
+                }
+                assertArrayEquals(new byte[] {1, 0, 1}, responses.array());
+            }
+        }
+    }
+
+    // Test 3 – requests racing close() are all answered
+
+    @Test
+    @DisplayName("Every request submitted around close() is either validated or rejected, never lost")
+    void testSubmitRacingClose() throws Exception {
+        ScriptPair pair = new ScriptPair(Script.parse("OP_1"), Script.parse("OP_1"));
+        for (int round = 0; round < 20; round++) {
+            MicroBatcher batcher = new MicroBatcher(new ScriptValidator(false), 2, 16, 0);
+            List<CompletableFuture<Boolean>> results = Collections.synchronizedList(new ArrayList<>());
+            List<Thread> submitters = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread submitter = new Thread(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        results.add(batcher.submit(pair));
+                    }
+                });
+                submitter.start();
+                submitters.add(submitter);
+            }
+            batcher.close();
+            for (Thread submitter : submitters) {
+                submitter.join();
+            }
+            for (CompletableFuture<Boolean> result : results) {
+                try {
+                    assertTrue(result.get(10, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    assertInstanceOf(IllegalStateException.class, e.getCause());
+                }
+            }
+        }
+    }
+
+    // Test 4 – the size limit covers both binary scripts together
+
+    @Test
+    @DisplayName("A binary request is limited to MAX_REQUEST_BYTES in total, not per script")
+    void testBinaryRequestLimit(@TempDir Path dir) throws Exception {
+        try (ValidationServer server = ValidationServer.builder().binary(true).build()) {
+            SocketAddress address = server.start(UnixDomainSocketAddress.of(dir.resolve("validate.sock")));
+            int half = ValidationServer.MAX_REQUEST_BYTES / 2;
+
+            try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+                channel.connect(address);
+                // Exactly at the limit: read and answered (invalid, far over the script size limit).
+                channel.write(prefixed(half));
+                channel.write(prefixed(ValidationServer.MAX_REQUEST_BYTES - 8 - half));
+                ByteBuffer response = ByteBuffer.allocate(1);
+                while (response.hasRemaining() && channel.read(response) >= 0) {
+                    // wait for the answer
+                }
+                assertArrayEquals(new byte[] {0}, response.array());
+
+                // Each script under the limit, both together over it: the connection is closed.
+                channel.write(prefixed(half));
+                channel.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(half).flip());
+                assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+            }
+        }
+    }
+
+    // A length prefix followed by that many OP_0 bytes.
+    private static ByteBuffer prefixed(int length) {
+        return ByteBuffer.allocate(4 + length).order(ByteOrder.LITTLE_ENDIAN).putInt(length).rewind();
+    }
+
+    private static void writeRecord(ByteArrayOutputStream out, String scriptSig, String scriptPubKey) {
+        for (String text : new String[] {scriptSig, scriptPubKey}) {
+            byte[] script = BinaryScriptCodec.encode(Script.parse(text));
+            out.writeBytes(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(script.length).array());
+            out.writeBytes(script);
+        }
+    }
+}
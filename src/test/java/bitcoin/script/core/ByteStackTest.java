@@ -0,0 +1,177 @@
+package bitcoin.script.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link ByteStack}. */
+class ByteStackTest {
+
+    // Test 1 – growth past the initial arena and index capacity
+
+    @Test
+    @DisplayName("Pushing past the initial 16 elements and 256 arena bytes keeps every element intact")
+    void testGrowth() {
+        ByteStack stack = new ByteStack();
+        for (int i = 0; i < 100; i++) {
+            stack.push(element(i));
+            if (i % 7 == 0) {
+                stack.pushNumber(i);
+            }
+        }
+        stack.push(new byte[1_000]);   // larger than twice the arena so far
+
+        int index = 0;
+        for (int i = 0; i < 100; i++) {
+            assertArrayEquals(element(i), stack.bytesAt(index++), "element " + i);
+            if (i % 7 == 0) {
+                assertEquals(i, stack.numberAt(index++));
+            }
+        }
+        assertEquals(1_000, stack.bytesAt(index).length);
+        assertEquals(index + 1, stack.size());
+    }
+
+    // Test 2 – reset() reuses the buffers
+
+    @Test
+    @DisplayName("reset() empties the stack; later pushes read back correctly")
+    void testReset() {
+        ByteStack stack = new ByteStack();
+        for (int i = 0; i < 50; i++) {
+            stack.push(element(i));
+        }
+        stack.reset();
+        assertTrue(stack.isEmpty());
+        assertEquals(0, stack.size());
+
+        stack.push(bytes("abc"));
+        stack.pushNumber(-5);
+        assertEquals(2, stack.size());
+        assertEquals("abc", stack.stringAt(0));
+        assertEquals("-5", stack.stringAt(1));
+        assertEquals("abc", stack.tokenAt(0));
+    }
+
+    // Test 3 – drop(n) moves the watermark back to the dropped elements
+
+    @Test
+    @DisplayName("drop(n) frees exactly the top n elements; the next push does not overwrite the rest")
+    void testDrop() {
+        ByteStack stack = new ByteStack();
+        stack.push(bytes("a"));
+        stack.push(bytes("bb"));
+        stack.pushNumber(42);
+        stack.push(bytes("ccc"));
+        stack.drop(3);
+        assertEquals(1, stack.size());
+
+        stack.push(bytes("dddd"));
+        assertEquals("a", stack.stringAt(0));
+        assertEquals("dddd", stack.stringAt(1));
+
+        stack.drop(2);
+        assertTrue(stack.isEmpty());
+        stack.push(bytes("e"));
+        assertEquals("e", stack.stringAt(0));
+
+        assertArrayEquals(bytes("e"), stack.pop());
+        assertTrue(stack.isEmpty());
+    }
+
+    // Test 4 – dup of data and of a tagged number
+
+    @Test
+    @DisplayName("dup copies data and tagged numbers; a duplicated number stays numeric")
+    void testDup() {
+        ByteStack stack = new ByteStack();
+        stack.push(bytes("xyz"));
+        stack.dup();
+        assertEquals("xyz", stack.stringAt(1));
+        assertTrue(stack.topEquals());
+
+        stack.pushNumber(7);
+        stack.dup();
+        assertEquals(4, stack.size());
+        assertEquals(7, stack.numberAt(3));
+        assertEquals("7", stack.stringAt(3));
+        assertTrue(stack.topEquals());
+        assertTrue(stack.popTruthy());
+        assertArrayEquals(bytes("7"), stack.pop());
+        assertEquals("xyz", stack.stringAt(1));
+    }
+
+    // Test 5 – topEquals compares a tagged number with data by its digits
+
+    @Test
+    @DisplayName("topEquals: tagged 7 equals data \"7\" but not \"007\"; -12 equals \"-12\"")
+    void testTopEqualsMixed() {
+        assertTrue(numberAndData(7, "7", true));
+        assertTrue(numberAndData(7, "7", false));
+        assertFalse(numberAndData(7, "007", true));
+        assertFalse(numberAndData(7, "007", false));
+        assertTrue(numberAndData(-12, "-12", true));
+        assertFalse(numberAndData(0, "", true));
+
+        ByteStack stack = new ByteStack();
+        stack.pushNumber(3);
+        stack.pushNumber(3);
+        assertTrue(stack.topEquals());
+        stack.pushNumber(4);
+        assertFalse(stack.topEquals());
+    }
+
+    // Test 6 – numberAt accepts four-byte magnitudes only
+
+    @Test
+    @DisplayName("numberAt reads signed decimals up to 2^31-1 in magnitude; anything else is NOT_A_NUMBER")
+    void testNumberAt() {
+        assertEquals(ByteStack.MAX_NUMBER, numberOf("2147483647"));
+        assertEquals(-ByteStack.MAX_NUMBER, numberOf("-2147483647"));
+        assertEquals(ByteStack.NOT_A_NUMBER, numberOf("2147483648"));
+        assertEquals(ByteStack.NOT_A_NUMBER, numberOf("-2147483648"));
+        assertEquals(ByteStack.NOT_A_NUMBER, numberOf("99999999999"));
+        assertEquals(1, numberOf("0000000001"));
+        assertEquals(ByteStack.NOT_A_NUMBER, numberOf("00000000001"));
+        assertEquals(0, numberOf(""));
+        assertEquals(ByteStack.NOT_A_NUMBER, numberOf("-"));
+        assertEquals(ByteStack.NOT_A_NUMBER, numberOf("12a"));
+        assertEquals(ByteStack.NOT_A_NUMBER, numberOf("+1"));
+
+        ByteStack stack = new ByteStack();
+        stack.pushNumber(ByteStack.MAX_NUMBER);
+        stack.pushNumber(ByteStack.MAX_NUMBER + 1);
+        assertEquals(ByteStack.MAX_NUMBER, stack.numberAt(0));
+        assertEquals(ByteStack.NOT_A_NUMBER, stack.numberAt(1));
+        assertEquals("2147483648", stack.stringAt(1));
+    }
+
+    private static boolean numberAndData(long number, String data, boolean numberOnTop) {
+        ByteStack stack = new ByteStack();
+        if (numberOnTop) {
+            stack.push(bytes(data));
+            stack.pushNumber(number);
+        } else {
+            stack.pushNumber(number);
+            stack.push(bytes(data));
+        }
+        return stack.topEquals();
+    }
+
+    private static long numberOf(String data) {
+        ByteStack stack = new ByteStack();
+        stack.push(bytes(data));
+        return stack.numberAt(0);
+    }
+
+    private static byte[] element(int i) {
+        return bytes("element-" + i);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,84 @@
+package bitcoin.script.core;
+
+import bitcoin.script.model.Script;
+import bitcoin.script.ops.OperationFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link ExecutionListener}, {@link RingBufferRecorder} and {@link PrintingTraceListener}. */
+class ExecutionListenerTest {
+
+    private static final OperationFactory FACTORY = OperationFactory.standard();
+
+    // Test 1 – recorder captures opcode ids and stack depths
+
+    @Test
+    @DisplayName("Ring buffer records every P2PKH instruction with its opcode id and stack depth")
+    void testRecorderCapturesP2pkh() {
+        RingBufferRecorder recorder = new RingBufferRecorder(64);
+        ScriptValidator validator = ScriptValidator.builder().listener(() -> recorder).build();
+
+        assertTrue(validator.validate(Script.parse("SIG_OK PUBKEY_ABC"),
+                Script.parse("OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG")));
+
+        List<RingBufferRecorder.Event> events = recorder.events();
+        assertEquals(7, events.size());
+        int[] depths = {1, 2, 3, 3, 4, 2, 1};
+        for (int i = 0; i < depths.length; i++) {
+            assertEquals(RingBufferRecorder.Kind.OP, events.get(i).getKind());
+            assertEquals(depths[i], events.get(i).getStackDepth(), "event " + i);
+        }
+        assertEquals(-1, events.get(0).getOpcodeId(), "data push");
+        assertEquals("OP_DUP", FACTORY.opcodeName(events.get(2).getOpcodeId()));
+        assertEquals("OP_CHECKSIG", FACTORY.opcodeName(events.get(6).getOpcodeId()));
+    }
+
+    // Test 2 – branch skips, failures and wrap-around
+
+    @Test
+    @DisplayName("Ring buffer records branch skips and failures, and keeps only the newest events")
+    void testRecorderSkipFailureAndWrap() {
+        RingBufferRecorder recorder = new RingBufferRecorder(4);
+        ScriptValidator validator = ScriptValidator.builder().listener(() -> recorder).build();
+
+        validator.validate(Script.parse("OP_1 OP_0"), Script.parse("OP_IF OP_1 OP_1 OP_ENDIF OP_DROP OP_DROP"));
+
+        List<RingBufferRecorder.Event> events = recorder.events();
+        assertEquals(4, events.size());
+        assertEquals(7, recorder.getRecorded());
+        RingBufferRecorder.Event skip = events.get(0);
+        assertEquals(RingBufferRecorder.Kind.BRANCH_SKIP, skip.getKind());
+        assertEquals(0, skip.getPosition());
+        assertEquals(3, skip.getTarget());
+        RingBufferRecorder.Event failure = events.get(3);
+        assertEquals(RingBufferRecorder.Kind.FAILURE, failure.getKind());
+        assertEquals(5, failure.getPosition());
+        assertEquals("OP_DROP", FACTORY.opcodeName(failure.getOpcodeId()));
+    }
+
+    // Test 3 – printing listener keeps the classic trace format
+
+    @Test
+    @DisplayName("PrintingTraceListener prints token and stack after each instruction")
+    void testPrintingTraceFormat() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(buffer, true, StandardCharsets.UTF_8);
+        ScriptValidator validator = ScriptValidator.builder()
+                .listener(() -> new PrintingTraceListener(out))
+                .build();
+
+        assertTrue(validator.validate(Script.parse("PUBKEY_ABC"), Script.parse("OP_DUP OP_EQUAL")));
+
+        assertEquals("[TRACE] token=PUBKEY_ABC  stack=[PUBKEY_ABC]\n"
+                   + "[TRACE] token=OP_DUP  stack=[PUBKEY_ABC, PUBKEY_ABC]\n"
+                   + "[TRACE] token=OP_EQUAL  stack=[1]\n",
+                buffer.toString(StandardCharsets.UTF_8).replace(System.lineSeparator(), "\n"));
+    }
+}
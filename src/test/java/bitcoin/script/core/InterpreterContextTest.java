@@ -0,0 +1,105 @@
+package bitcoin.script.core;
+
+import bitcoin.script.ops.OperationFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the conditional-scope state of {@link InterpreterContext}. */
+class InterpreterContextTest {
+
+    // Test 1 – nested false scopes
+
+    @Test
+    @DisplayName("Execution resumes only when the outermost false scope is closed")
+    void testNestedFalseScopes() {
+        InterpreterContext ctx = context();
+        ctx.pushExecution(true);
+        ctx.pushExecution(false);
+        assertFalse(ctx.shouldExecute());
+        ctx.pushExecution(false);
+        ctx.pushExecution(true);                 // active, but inside skipped scopes
+        assertFalse(ctx.shouldExecute());
+
+        assertFalse(ctx.popExecution());
+        assertFalse(ctx.popExecution());
+        assertFalse(ctx.shouldExecute());
+        assertFalse(ctx.popExecution());         // closes the outermost false scope
+        assertTrue(ctx.shouldExecute());
+        assertTrue(ctx.popExecution());
+        assertFalse(ctx.hasFailed());
+    }
+
+    // Test 2 – OP_ELSE inside an inactive outer scope
+
+    @Test
+    @DisplayName("Toggling a scope inside an inactive outer scope keeps execution off")
+    void testToggleInsideInactiveScope() {
+        InterpreterContext ctx = context();
+        ctx.pushExecution(false);
+        ctx.pushExecution(false);
+        ctx.toggleExecution();
+        assertFalse(ctx.shouldExecute());
+        ctx.toggleExecution();
+        assertFalse(ctx.shouldExecute());
+        assertFalse(ctx.popExecution());
+
+        ctx.toggleExecution();                   // the outer scope's OP_ELSE
+        assertTrue(ctx.shouldExecute());
+        ctx.pushExecution(true);
+        ctx.toggleExecution();
+        assertFalse(ctx.shouldExecute());
+        ctx.toggleExecution();
+        assertTrue(ctx.shouldExecute());
+        assertTrue(ctx.popExecution());
+        assertTrue(ctx.popExecution());
+        assertFalse(ctx.hasFailed());
+    }
+
+    // Test 3 – popExecution reports whether execution was active in the closed scope
+
+    @Test
+    @DisplayName("popExecution is true only if the closed scope and all enclosing scopes were active")
+    void testPopReturnValue() {
+        InterpreterContext ctx = context();
+        ctx.pushExecution(true);
+        ctx.pushExecution(false);
+        ctx.toggleExecution();
+        assertTrue(ctx.popExecution());          // ELSE branch of an active scope
+        ctx.toggleExecution();
+        assertFalse(ctx.popExecution());         // ELSE branch of a scope that was true
+
+        ctx.pushExecution(false);
+        ctx.pushExecution(true);
+        assertFalse(ctx.popExecution());         // its own branch was active, the outer was not
+        assertFalse(ctx.popExecution());
+        assertTrue(ctx.shouldExecute());
+    }
+
+    // Test 4 – unbalanced use and reset
+
+    @Test
+    @DisplayName("Closing or toggling with no open scope fails; reset clears open scopes")
+    void testUnbalancedAndReset() {
+        InterpreterContext ctx = context();
+        assertFalse(ctx.popExecution());
+        assertEquals(ScriptError.UNBALANCED_CONDITIONAL, ctx.getError());
+
+        ctx.reset();
+        ctx.toggleExecution();
+        assertEquals(ScriptError.UNBALANCED_CONDITIONAL, ctx.getError());
+
+        ctx.reset();
+        ctx.pushExecution(false);
+        assertFalse(ctx.shouldExecute());
+        ctx.reset();
+        assertTrue(ctx.shouldExecute());
+        assertFalse(ctx.popExecution());         // the scope opened before reset is gone
+        assertTrue(ctx.hasFailed());
+    }
+
+    private static InterpreterContext context() {
+        return new InterpreterContext(new Stack(), OperationFactory.standard(), (ExecutionListener) null);
+    }
+}
@@ -0,0 +1,122 @@
+package bitcoin.script.core;
+
+import bitcoin.script.crypto.CryptoMock;
+import bitcoin.script.model.Script;
+import bitcoin.script.ops.OperationFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link InterpreterMetrics}. */
+class InterpreterMetricsTest {
+
+    // Test 1 – counts, failures and depth
+
+    @Test
+    @DisplayName("Metrics count opcodes, validations, failure reasons and the stack high-water mark")
+    void testCountsAndFailures() {
+        InterpreterMetrics metrics = new InterpreterMetrics(OperationFactory.standard());
+        ScriptValidator validator = ScriptValidator.builder().metrics(metrics).build();
+        Script scriptPubKey = Script.parse(
+                "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG");
+
+        assertTrue(validator.validate(Script.parse("SIG_OK PUBKEY_ABC"), scriptPubKey));
+        assertTrue(validator.validate(Script.parse("SIG_OK PUBKEY_ABC"), scriptPubKey));
+        assertFalse(validator.validate(Script.parse("SIG_OK PUBKEY_XYZ"), scriptPubKey));
+
+        InterpreterMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(3, snapshot.getValidations());
+        assertEquals(1, snapshot.getInvalidValidations());
+        assertEquals(3, snapshot.getOpcodes().get("OP_DUP").getCount());
+        assertEquals(2, snapshot.getOpcodes().get("OP_CHECKSIG").getCount());
+        assertEquals(9, snapshot.getOpcodes().get(InterpreterMetrics.PUSH).getCount());
+        assertEquals(1L, snapshot.getFailureReasons().get("OP_EQUALVERIFY failed"));
+        assertEquals(4, snapshot.getMaxStackDepth());
+
+        InterpreterMetrics.OpcodeStats dup = snapshot.getOpcodes().get("OP_DUP");
+        long inBuckets = 0;
+        for (int b = 0; b < InterpreterMetrics.BUCKETS; b++) {
+            inBuckets += dup.getBucket(b);
+        }
+        assertEquals(3, inBuckets);
+        assertTrue(dup.percentileNanos(50) <= dup.percentileNanos(100));
+    }
+
+    // Test 2 – JMX export
+
+    @Test
+    @DisplayName("Metrics are readable through the platform MBean server")
+    void testMBeanExport() throws Exception {
+        InterpreterMetrics metrics = new InterpreterMetrics(OperationFactory.standard());
+        ScriptValidator validator = ScriptValidator.builder().metrics(metrics).build();
+        validator.validate(Script.parse("OP_1"), Script.parse("OP_DUP OP_EQUAL"));
+
+        ObjectName name = metrics.registerMBean("test-" + System.nanoTime());
+        try {
+            assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Validations"));
+        } finally {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+    }
+
+    // Test 3 – deferred signatures are counted once; metrics must match the factory
+
+    @Test
+    @DisplayName("DEFERRED re-executions are counted once; metrics of another factory are rejected")
+    void testDeferredAndFactory() {
+        InterpreterMetrics metrics = new InterpreterMetrics(OperationFactory.standard());
+        ScriptValidator validator = ScriptValidator.builder()
+                .signatureMode(SignatureMode.DEFERRED).metrics(metrics).build();
+        Script scriptPubKey = Script.parse(
+                "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG");
+        Script good = Script.parse("SIG_OK PUBKEY_ABC");
+        Script bad  = Script.parse("BAD_SIG PUBKEY_ABC");
+
+        assertTrue(validator.validate(good, scriptPubKey));
+        assertFalse(validator.validate(bad, scriptPubKey));         // optimistic pass, then re-executed
+        assertFalse(validator.validate(Script.parse("OP_1"), scriptPubKey));   // fails without assuming
+        BatchResult batch = validator.validateBatch(List.of(
+                new ScriptPair(good, scriptPubKey), new ScriptPair(bad, scriptPubKey),
+                new ScriptPair(good, scriptPubKey)), BatchMode.COLLECT_ALL, Runnable::run);
+        assertEquals(2, batch.validCount());
+
+        InterpreterMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(6, snapshot.getValidations());
+        assertEquals(3, snapshot.getInvalidValidations());
+        assertEquals(6, snapshot.getOpcodes().get("OP_DUP").getCount());
+        assertEquals(5, snapshot.getOpcodes().get("OP_CHECKSIG").getCount());
+        assertEquals(1L, snapshot.getFailureReasons().get("OP_EQUALVERIFY failed"));
+
+        OperationFactory other = OperationFactory.builder().registerStandard(new CryptoMock()).build();
+        assertThrows(IllegalArgumentException.class,
+                () -> ScriptValidator.builder().factory(other).metrics(metrics).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> ScriptValidator.builder().crypto(new CryptoMock()).metrics(metrics).build());
+    }
+
+    // Test 4 – reset clears the high-water mark of threads that already recorded
+
+    @Test
+    @DisplayName("After reset, the stack high-water mark starts again from the next validation")
+    void testResetThenRecord() {
+        InterpreterMetrics metrics = new InterpreterMetrics(OperationFactory.standard());
+        ScriptValidator validator = ScriptValidator.builder().metrics(metrics).build();
+        assertTrue(validator.validate(Script.parse("SIG_OK PUBKEY_ABC"),
+                Script.parse("OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG")));
+        assertEquals(4, metrics.getMaxStackDepth());
+
+        metrics.reset();
+        assertEquals(0, metrics.getMaxStackDepth());
+        assertTrue(validator.validate(Script.parse("OP_1 OP_1"), Script.parse("OP_EQUAL")));
+        InterpreterMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(2, snapshot.getMaxStackDepth());
+        assertEquals(1, snapshot.getValidations());
+        assertNull(snapshot.getOpcodes().get("OP_DUP"));
+        assertEquals(1, snapshot.getOpcodes().get("OP_EQUAL").getCount());
+    }
+}
@@ -0,0 +1,103 @@
+package bitcoin.script.core;
+
+import bitcoin.script.model.Script;
+import bitcoin.script.ops.OperationFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Differential tests for {@link PeepholeOptimizer}: fused and unfused runs must agree. */
+class PeepholeOptimizerTest {
+
+    private static final String[] SIG_TOKENS = {"SIG_OK", "BAD_SIG", "PUBKEY_ABC", "OP_0", "OP_1", "X"};
+    private static final String[] PUB_TOKENS = {
+        "OP_DUP", "OP_DROP", "OP_HASH160", "OP_EQUALVERIFY", "OP_CHECKSIG", "OP_EQUAL",
+        "PUBKEYHASH_ABC", "PUBKEY_ABC", "OP_1", "X",
+    };
+
+    // Test 1 – random scripts give identical results with and without fusion
+
+    @Test
+    @DisplayName("Fused execution matches unfused execution in result, code, stage and position")
+    void testDifferential() {
+        ScriptLimits tight = ScriptLimits.builder().maxStackSize(5).maxSteps(9).maxOps(6).build();
+        List<ScriptValidator.Builder> configs = List.of(
+                ScriptValidator.builder(),
+                ScriptValidator.builder().signatureMode(SignatureMode.DEFERRED),
+                ScriptValidator.builder().limits(tight),
+                ScriptValidator.builder().staticAnalysis(true));
+
+        Random random = new Random(25);
+        for (ScriptValidator.Builder config : configs) {
+            ScriptValidator fused   = config.templateFastPaths(false).peephole(true).build();
+            ScriptValidator unfused = config.templateFastPaths(false).peephole(false).build();
+            for (int i = 0; i < 2_000; i++) {
+                String sig = String.join(" ", randomTokens(random, SIG_TOKENS, 4, 0));
+                String pub = String.join(" ", randomTokens(random, PUB_TOKENS, 8, 2));
+                ValidationResult expected = unfused.verify(Script.parse(sig), Script.parse(pub));
+                ValidationResult actual   = fused.verify(Script.parse(sig), Script.parse(pub));
+                String name = sig + " | " + pub;
+                assertEquals(expected.isValid(), actual.isValid(), name);
+                assertEquals(expected.getError(), actual.getError(), name);
+                assertEquals(expected.getStage(), actual.getStage(), name);
+                assertEquals(expected.getPosition(), actual.getPosition(), name);
+            }
+        }
+        assertTrue(new ScriptValidator(false).validate(
+                Script.parse("SIG_OK PUBKEY_ABC"),
+                Script.parse("OP_DUP OP_DROP OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG")));
+    }
+
+    // Test 2 – pairs are fused, but listeners and traces see every original instruction
+
+    @Test
+    @DisplayName("P2PKH pairs are fused; listened-to executions report the original tokens")
+    void testFusionAndTrace() {
+        CompiledScript p2pkh = CompiledScript.compile(
+                Script.parse("OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG"),
+                OperationFactory.standard());
+        PeepholeOptimizer.Fused[] table = p2pkh.fused();
+        assertNotNull(table[0]);
+        assertNull(table[2]);
+        assertNotNull(table[3]);
+        assertNull(CompiledScript.compile(Script.parse("OP_DUP OP_EQUAL"), OperationFactory.standard()).fused());
+
+        List<String> seen = new ArrayList<>();
+        ScriptValidator traced = ScriptValidator.builder().templateFastPaths(false)
+                .listener(() -> new ExecutionListener() {
+                    @Override
+                    public void afterOp(InterpreterContext ctx, CompiledScript program, int pc) {
+                        seen.add(program.tokenAt(pc));
+                    }
+                }).build();
+        assertTrue(traced.validate(CompiledScript.compile(Script.parse("SIG_OK PUBKEY_ABC"),
+                OperationFactory.standard()), p2pkh));
+        assertEquals(List.of("SIG_OK", "PUBKEY_ABC", "OP_DUP", "OP_HASH160", "PUBKEYHASH_ABC",
+                "OP_EQUALVERIFY", "OP_CHECKSIG"), seen);
+    }
+
+    // Random tokens, with balanced OP_IF/OP_ELSE/OP_ENDIF blocks up to `nesting` deep.
+    private static List<String> randomTokens(Random random, String[] vocabulary, int max, int nesting) {
+        List<String> tokens = new ArrayList<>();
+        int count = random.nextInt(max + 1);
+        for (int i = 0; i < count; i++) {
+            if (nesting > 0 && random.nextInt(6) == 0) {
+                tokens.add(random.nextBoolean() ? "OP_IF" : "OP_NOTIF");
+                tokens.addAll(randomTokens(random, vocabulary, max / 2, nesting - 1));
+                if (random.nextBoolean()) {
+                    tokens.add("OP_ELSE");
+                    tokens.addAll(randomTokens(random, vocabulary, max / 2, nesting - 1));
+                }
+                tokens.add("OP_ENDIF");
+            } else {
+                tokens.add(vocabulary[random.nextInt(vocabulary.length)]);
+            }
+        }
+        return tokens;
+    }
+}
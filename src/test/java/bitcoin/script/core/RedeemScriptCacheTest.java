@@ -0,0 +1,170 @@
+package bitcoin.script.core;
+
+import bitcoin.script.crypto.CryptoMock;
+import bitcoin.script.model.BinaryScriptCodec;
+import bitcoin.script.model.Script;
+import bitcoin.script.ops.OperationFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** P2SH evaluation and the {@link RedeemScriptCache}. */
+class RedeemScriptCacheTest {
+
+    private static final String MULTISIG = "OP_2 PUBKEY_A PUBKEY_B PUBKEY_C OP_3 OP_CHECKMULTISIG";
+
+    // Test 1 – redeem scripts are checked against the hash and executed
+
+    @Test
+    @DisplayName("P2SH spends execute the redeem script and report failures in it")
+    void testP2shEvaluation() {
+        ScriptValidator validator = new ScriptValidator(false);
+        Script pub = p2sh(MULTISIG);
+        assertTrue(validator.compile(pub).isPayToScriptHash());
+
+        assertTrue(validator.verify(spend("OP_0 SIG_OK SIG_OK", MULTISIG), pub).isValid());
+
+        ValidationResult badSig = validator.verify(spend("OP_0 SIG_OK BAD_SIG", MULTISIG), pub);
+        assertEquals(ScriptError.EVAL_FALSE, badSig.getError());
+
+        ValidationResult wrongScript = validator.verify(spend("OP_0 SIG_OK SIG_OK", "OP_1"), pub);
+        assertEquals(ScriptError.EVAL_FALSE, wrongScript.getError());
+        assertEquals(ValidationResult.Stage.NONE, wrongScript.getStage());
+
+        ValidationResult underflow = validator.verify(spend("", "OP_DROP OP_1"), p2sh("OP_DROP OP_1"));
+        assertEquals(ScriptError.INVALID_STACK_OPERATION, underflow.getError());
+        assertEquals(ValidationResult.Stage.REDEEM_SCRIPT, underflow.getStage());
+        assertEquals(0, underflow.getPosition());
+
+        Script notPushOnly = Script.parse("OP_0 SIG_OK SIG_OK OP_DUP OP_DROP " + hex(MULTISIG));
+        assertEquals(ScriptError.SIG_PUSHONLY, validator.verify(notPushOnly, pub).getError());
+
+        // Without P2SH only the hash is compared.
+        ScriptValidator legacy = ScriptValidator.builder().p2sh(false).build();
+        assertTrue(legacy.validate(spend("OP_0 SIG_OK BAD_SIG", MULTISIG), pub));
+        assertTrue(legacy.validate(notPushOnly, pub));
+    }
+
+    // Test 2 – every spend of one redeem script after the first is a cache hit
+
+    @Test
+    @DisplayName("Repeated redeem scripts are compiled once, also in deferred batches")
+    void testCompiledOnce() {
+        RedeemScriptCache cache = new RedeemScriptCache(4);
+        ScriptValidator validator = ScriptValidator.builder()
+                .signatureMode(SignatureMode.DEFERRED).redeemScriptCache(cache).build();
+
+        List<ScriptPair> pairs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            pairs.add(new ScriptPair(spend(i % 10 == 0 ? "OP_0 BAD_SIG SIG_OK" : "OP_0 SIG_OK SIG_OK", MULTISIG),
+                                     p2sh(MULTISIG)));
+        }
+        BatchResult result = validator.validateBatch(pairs, BatchMode.COLLECT_ALL);
+        for (int i = 0; i < pairs.size(); i++) {
+            assertEquals(i % 10 != 0, result.isValid(i), "input " + i);
+        }
+        assertEquals(1, cache.size());
+        assertTrue(cache.getMisses() <= Runtime.getRuntime().availableProcessors() * 4,
+                "each batch chunk compiles at most once, got " + cache.getMisses());
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(validator.validate(spend("OP_0 SIG_OK", "OP_1 PUBKEY_" + i + " OP_1 OP_CHECKMULTISIG"),
+                                          p2sh("OP_1 PUBKEY_" + i + " OP_1 OP_CHECKMULTISIG")));
+        }
+        assertEquals(cache.capacity(), cache.size());
+    }
+
+    // Test 3 – undecodable and uncompilable redeem scripts fail with a code
+
+    @Test
+    @DisplayName("Malformed or unbalanced redeem scripts fail with their code and are not cached")
+    void testRejectedRedeemScripts() {
+        RedeemScriptCache cache = new RedeemScriptCache(4);
+        ScriptValidator validator = ScriptValidator.builder().redeemScriptCache(cache).build();
+
+        byte[] truncated = {0x05, 0x01, 0x02};   // push of 5 bytes, 2 present
+        Script pub = Script.parse("OP_HASH160 0x"
+                + HexFormat.of().formatHex(new CryptoMock().hash160(truncated)) + " OP_EQUAL");
+        ValidationResult malformed = validator.verify(
+                Script.parse("0x" + HexFormat.of().formatHex(truncated)), pub);
+        assertEquals(ScriptError.BAD_OPCODE, malformed.getError());
+        assertEquals(ValidationResult.Stage.REDEEM_SCRIPT, malformed.getStage());
+        assertEquals(-1, malformed.getPosition());
+
+        ValidationResult unbalanced = validator.verify(spend("", "OP_1 OP_IF"), p2sh("OP_1 OP_IF"));
+        assertEquals(ScriptError.UNBALANCED_CONDITIONAL, unbalanced.getError());
+        assertEquals(ValidationResult.Stage.REDEEM_SCRIPT, unbalanced.getStage());
+        assertEquals(0, cache.size());
+
+        CompiledScript rejected = cache.compile(new byte[] {1}, truncated, OperationFactory.standard());
+        assertTrue(rejected.isRejected());
+        assertEquals(ScriptError.BAD_OPCODE, rejected.getRejection());
+        assertFalse(rejected.isPushOnly());
+
+        // A rejected script handed to the interpreter fails at once, it is not an empty script.
+        ValidationResult direct = validator.verify(validator.compile(Script.parse("OP_1")), rejected);
+        assertEquals(ScriptError.BAD_OPCODE, direct.getError());
+        assertEquals(ValidationResult.Stage.SCRIPT_PUBKEY, direct.getStage());
+        assertThrows(ScriptException.class, () -> validator.compile(Script.parse("OP_ENDIF")));
+    }
+
+    // Test 4 – a hit needs the same script bytes, not only the same hash
+
+    @Test
+    @DisplayName("Redeem scripts sharing a hash get their own programs; clear() empties the eviction slots")
+    void testSameHashOtherScript() {
+        // CryptoMock's hash160 drops a leading "PUBKEY_", so both scripts hash alike.
+        byte[] plain    = BinaryScriptCodec.encode(Script.parse("OP_1"));
+        byte[] prefixed = ("PUBKEY_" + new String(plain, StandardCharsets.ISO_8859_1))
+                .getBytes(StandardCharsets.ISO_8859_1);
+        CryptoMock crypto = new CryptoMock();
+        assertArrayEquals(crypto.hash160(plain), crypto.hash160(prefixed));
+        Script pub = Script.parse("OP_HASH160 0x" + HexFormat.of().formatHex(crypto.hash160(plain)) + " OP_EQUAL");
+        Script spendPlain    = Script.parse("0x" + HexFormat.of().formatHex(plain));
+        Script spendPrefixed = Script.parse("0x" + HexFormat.of().formatHex(prefixed));
+
+        for (boolean plainFirst : new boolean[] {true, false}) {
+            ScriptValidator validator = ScriptValidator.builder()
+                    .redeemScriptCache(new RedeemScriptCache(4)).build();
+            for (int round = 0; round < 2; round++) {
+                if (plainFirst) {
+                    assertTrue(validator.validate(spendPlain, pub));
+                    assertFalse(validator.validate(spendPrefixed, pub));   // OP_RESERVED etc. fail
+                } else {
+                    assertFalse(validator.validate(spendPrefixed, pub));
+                    assertTrue(validator.validate(spendPlain, pub));
+                }
+            }
+        }
+
+        // Entries inserted after clear() are not evicted through stale slots.
+        RedeemScriptCache cache = new RedeemScriptCache(2);
+        OperationFactory factory = OperationFactory.standard();
+        for (int pass = 0; pass < 2; pass++) {
+            cache.compile(new byte[] {1}, plain, factory);
+            cache.compile(new byte[] {2}, plain, factory);
+            assertEquals(2, cache.size());
+            cache.clear();
+            assertEquals(0, cache.size());
+        }
+    }
+
+    private static Script spend(String pushes, String redeemScript) {
+        return Script.parse((pushes + " " + hex(redeemScript)).trim());
+    }
+
+    private static Script p2sh(String redeemScript) {
+        byte[] hash = new CryptoMock().hash160(BinaryScriptCodec.encode(Script.parse(redeemScript)));
+        return Script.parse("OP_HASH160 0x" + HexFormat.of().formatHex(hash) + " OP_EQUAL");
+    }
+
+    private static String hex(String script) {
+        return "0x" + HexFormat.of().formatHex(BinaryScriptCodec.encode(Script.parse(script)));
+    }
+}
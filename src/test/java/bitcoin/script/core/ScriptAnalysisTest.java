@@ -0,0 +1,114 @@
+package bitcoin.script.core;
+
+import bitcoin.script.crypto.CryptoMock;
+import bitcoin.script.model.Script;
+import bitcoin.script.ops.OperationFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link ScriptAnalysis} and its use by the interpreter. */
+class ScriptAnalysisTest {
+
+    // Test 1 – depths, sigops and static failures of representative scripts
+
+    @Test
+    @DisplayName("Analysis infers stack depths on every path, counts sigops and finds disabled opcodes")
+    void testAnalysis() {
+        ScriptAnalysis p2pkh = analyze("OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG");
+        assertTrue(p2pkh.isExact());
+        assertEquals(2, p2pkh.getRequiredDepth());
+        assertEquals(2, p2pkh.getMinimumDepth());
+        assertEquals(2, p2pkh.getMaxGrowth());
+        assertEquals(1, p2pkh.getSigOps());
+        assertEquals(4, p2pkh.firstUnderflow(1));
+        assertEquals(0, p2pkh.firstUnderflow(0));
+        assertEquals(-1, p2pkh.certainUnderflow(1));   // OP_EQUALVERIFY may fail first
+        assertEquals(0, p2pkh.certainUnderflow(0));
+        assertEquals(1, analyze("OP_2 OP_EQUALVERIFY OP_1").certainUnderflow(0));
+
+        ScriptAnalysis multisig = analyze("OP_2 PUBKEY_A PUBKEY_B PUBKEY_C OP_3 OP_CHECKMULTISIG");
+        assertEquals(3, multisig.getRequiredDepth());
+        assertEquals(3, multisig.getSigOps());
+
+        // The true branch needs the condition and two elements, the false one only one.
+        ScriptAnalysis branches = analyze("OP_IF OP_DROP OP_DROP OP_ELSE OP_DROP OP_ENDIF OP_1");
+        assertEquals(3, branches.getRequiredDepth());
+        assertEquals(2, branches.getMinimumDepth());
+        assertTrue(branches.isSafe(3, 1_000));
+        assertFalse(branches.isSafe(2, 1_000));
+
+        ScriptAnalysis disabled = analyze("OP_0 OP_IF OP_CAT OP_ENDIF OP_1");
+        assertEquals(ScriptError.DISABLED_OPCODE, disabled.getError());
+        assertEquals(2, disabled.getErrorPosition());
+        assertEquals(ScriptError.BAD_OPCODE, analyze("OP_1 OP_IF OP_FOO OP_ELSE OP_BAR OP_ENDIF").getError());
+        assertEquals(ScriptError.OK, analyze("OP_IF OP_FOO OP_ENDIF OP_1").getError());
+
+        ScriptAnalysis custom = CompiledScript.compile(Script.parse("OP_CHECKMULTISIG OP_CUSTOM"),
+                OperationFactory.builder().registerStandard(new CryptoMock())
+                        .register("OP_CUSTOM", ctx -> { }).build()).analysis();
+        assertFalse(custom.isExact());
+        assertEquals(ScriptAnalysis.UNKNOWN, custom.getRequiredDepth());
+        assertEquals(20, custom.getSigOps());
+    }
+
+    // Test 2 – validating with and without analysis gives the same results
+
+    @Test
+    @DisplayName("Static analysis keeps codes and positions; only disabled opcodes change a verdict")
+    void testSameResults() {
+        ScriptValidator plain    = ScriptValidator.builder().build();
+        ScriptValidator analysed = ScriptValidator.builder().staticAnalysis(true).build();
+        String[][] inputs = {
+            {"SIG_OK PUBKEY_ABC", "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG"},
+            {"PUBKEY_ABC", "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG"},
+            {"", "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG"},
+            {"OP_0 SIG_OK SIG_OK", "OP_2 PUBKEY_A PUBKEY_B PUBKEY_C OP_3 OP_CHECKMULTISIG"},
+            {"SIG_OK SIG_OK", "OP_2 PUBKEY_A PUBKEY_B PUBKEY_C OP_3 OP_CHECKMULTISIG"},
+            {"", "OP_IF OP_1 OP_ENDIF"},
+            {"OP_1 OP_1", "OP_IF OP_DROP OP_DROP OP_ELSE OP_DROP OP_ENDIF OP_1"},
+            {"OP_0 OP_1", "OP_IF OP_DROP OP_DROP OP_ELSE OP_DROP OP_ENDIF OP_1"},
+            {"OP_1", "OP_IF OP_DROP OP_DROP OP_ELSE OP_DROP OP_ENDIF OP_1"},
+            {"OP_1", "OP_IF OP_FOO OP_ENDIF OP_1"},
+            {"OP_0", "OP_IF OP_FOO OP_ENDIF OP_1"},
+            {"OP_DROP", "OP_1"},
+            {"OP_1 OP_2", "OP_ADD OP_3 OP_NUMEQUAL"},
+            {"OP_1", "OP_ADD OP_3 OP_NUMEQUAL"},
+            // An instruction that can fail precedes the underflow, or the failing path is not known.
+            {"OP_1", "OP_2 OP_EQUALVERIFY OP_DROP OP_DROP OP_1"},
+            {"", "OP_2 OP_EQUALVERIFY OP_1"},
+            {"PUBKEY_ABC", "OP_DUP OP_HASH160 PUBKEYHASH_XYZ OP_EQUALVERIFY OP_CHECKSIG"},
+            {"OP_0", "OP_IF OP_DROP OP_ELSE OP_1 OP_DROP OP_DROP OP_ENDIF"},
+        };
+        for (String[] input : inputs) {
+            Script sig = Script.parse(input[0]);
+            Script pub = Script.parse(input[1]);
+            ValidationResult expected = plain.verify(sig, pub);
+            ValidationResult actual   = analysed.verify(sig, pub);
+            String name = input[0] + " | " + input[1];
+            assertEquals(expected.isValid(), actual.isValid(), name);
+            assertEquals(expected.getError(), actual.getError(), name);
+            assertEquals(expected.getStage(), actual.getStage(), name);
+            assertEquals(expected.getPosition(), actual.getPosition(), name);
+        }
+
+        // Disabled opcodes fail even where they are never executed, as in Bitcoin.
+        Script skipped = Script.parse("OP_0 OP_IF OP_CAT OP_ENDIF OP_1");
+        assertTrue(plain.validate(Script.parse(""), skipped));
+        ValidationResult rejected = analysed.verify(Script.parse(""), skipped);
+        assertEquals(ScriptError.DISABLED_OPCODE, rejected.getError());
+        assertEquals(2, rejected.getPosition());
+
+        // A script that is not proven safe keeps its stack-size check.
+        ScriptValidator small = ScriptValidator.builder().staticAnalysis(true)
+                .limits(ScriptLimits.builder().maxStackSize(3).build()).build();
+        assertEquals(ScriptError.STACK_SIZE,
+                small.verify(Script.parse("OP_1 OP_1"), Script.parse("OP_DUP OP_DUP OP_DROP")).getError());
+        assertTrue(small.validate(Script.parse("OP_1 OP_1"), Script.parse("OP_DUP OP_DROP")));
+    }
+
+    private static ScriptAnalysis analyze(String script) {
+        return CompiledScript.compile(Script.parse(script), OperationFactory.standard()).analysis();
+    }
+}
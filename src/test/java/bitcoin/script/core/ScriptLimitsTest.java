@@ -0,0 +1,113 @@
+package bitcoin.script.core;
+
+import bitcoin.script.model.Script;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link ScriptLimits} enforcement. */
+class ScriptLimitsTest {
+
+    private static final String P2PKH = "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG";
+
+    // Test 1 – consensus limits reject oversized scripts with the matching code
+
+    @Test
+    @DisplayName("Op count, stack size, element size and script size limits fail with their codes")
+    void testConsensusLimits() {
+        ScriptValidator validator = new ScriptValidator(false);
+
+        // OP_IF + OP_ENDIF + skipped ops + OP_CHECKMULTISIG + one key: 201 passes, 202 fails.
+        Script sig = Script.parse("OP_0 SIG_OK");
+        assertTrue(validator.verify(sig, multisigAfterSkippedOps(197)).isValid());
+        ValidationResult ops = validator.verify(sig, multisigAfterSkippedOps(198));
+        assertEquals(ScriptError.OP_COUNT, ops.getError());
+        assertEquals(ValidationResult.Stage.SCRIPT_PUBKEY, ops.getStage());
+        assertEquals(204, ops.getPosition());
+
+        assertTrue(validator.verify(Script.parse(repeat("1", 999)), Script.parse("OP_1")).isValid());
+        assertEquals(ScriptError.STACK_SIZE,
+                validator.verify(Script.parse(repeat("1", 1_000)), Script.parse("OP_1")).getError());
+
+        String element = "x".repeat(ScriptLimits.MAX_ELEMENT_SIZE);
+        assertTrue(validator.verify(Script.parse(element), Script.parse("OP_1")).isValid());
+        ValidationResult push = validator.verify(Script.parse("1 " + element + "x"), Script.parse("OP_1"));
+        assertEquals(ScriptError.PUSH_SIZE, push.getError());
+        assertEquals(1, push.getPosition());
+
+        ValidationResult size = validator.verify(Script.parse(repeat(element, 20)), Script.parse("OP_1"));
+        assertEquals(ScriptError.SCRIPT_SIZE, size.getError());
+        assertEquals(ValidationResult.Stage.SCRIPT_SIG, size.getStage());
+
+        ScriptValidator unlimited = ScriptValidator.builder().limits(ScriptLimits.unlimited()).build();
+        assertTrue(unlimited.validate(Script.parse(repeat(element, 20)), Script.parse("OP_1")));
+    }
+
+    // Test 2 – step and time budgets, and the template fast path
+
+    @Test
+    @DisplayName("Step and time budgets abort execution; timed-out results are not cached")
+    void testBudgetsAndFastPath() {
+        Script sig = Script.parse(repeat("1", 300));
+        Script pub = Script.parse("OP_1");
+
+        ScriptValidator stepped = ScriptValidator.builder()
+                .limits(ScriptLimits.builder().maxSteps(301).build()).build();
+        assertTrue(stepped.validate(sig, pub));
+        ScriptValidator tight = ScriptValidator.builder()
+                .limits(ScriptLimits.builder().maxSteps(300).build()).build();
+        ValidationResult steps = tight.verify(sig, pub);
+        assertEquals(ScriptError.STEP_LIMIT, steps.getError());
+        assertEquals(ValidationResult.Stage.SCRIPT_PUBKEY, steps.getStage());
+
+        ValidationCache cache = new ValidationCache(16);
+        ScriptValidator timed = ScriptValidator.builder()
+                .limits(ScriptLimits.builder().timeBudget(1, TimeUnit.NANOSECONDS).build())
+                .cache(cache).build();
+        assertEquals(ScriptError.TIME_LIMIT, timed.verify(sig, pub).getError());
+        assertFalse(timed.validate(sig, pub));
+        assertEquals(0, cache.size());
+
+        // A standard locking script still enforces the limits on its scriptSig.
+        ScriptValidator fast = new ScriptValidator(false);
+        String bigSig = "x".repeat(ScriptLimits.MAX_ELEMENT_SIZE + 1);
+        assertEquals(ScriptError.PUSH_SIZE,
+                fast.verify(Script.parse(bigSig + " PUBKEY_ABC"), Script.parse(P2PKH)).getError());
+        assertFalse(fast.validate(Script.parse(bigSig + " PUBKEY_ABC"), Script.parse(P2PKH)));
+        assertTrue(fast.validate(Script.parse("SIG_OK PUBKEY_ABC"), Script.parse(P2PKH)));
+    }
+
+    // Test 3 – different limits never share cache entries
+
+    @Test
+    @DisplayName("Validators with different non-standard limits keep separate cache entries")
+    void testCacheSeparation() {
+        // These two sets collided under a linear field hash.
+        ScriptLimits loose = ScriptLimits.builder().maxStackSize(1_001).maxElementSize(489).build();
+        ScriptLimits tight = ScriptLimits.builder().maxStackSize(1_002).maxElementSize(458).build();
+        assertNotEquals(0, loose.fingerprint());
+        assertNotEquals(loose.fingerprint(), tight.fingerprint());
+
+        ValidationCache cache = new ValidationCache(16);
+        Script sig = Script.parse("x".repeat(470));
+        Script pub = Script.parse("OP_DROP OP_1");
+        assertTrue(ScriptValidator.builder().limits(loose).cache(cache).build().validate(sig, pub));
+        ScriptValidator strict = ScriptValidator.builder().limits(tight).cache(cache).build();
+        assertFalse(strict.validate(sig, pub));
+        assertEquals(ScriptError.PUSH_SIZE, strict.verify(sig, pub).getError());
+        assertEquals(2, cache.size());
+    }
+
+    private static Script multisigAfterSkippedOps(int skipped) {
+        return Script.parse("OP_0 OP_IF " + repeat("OP_DUP", skipped)
+                + " OP_ENDIF OP_1 PUBKEY_ABC OP_1 OP_CHECKMULTISIG");
+    }
+
+    private static String repeat(String token, int count) {
+        return String.join(" ", Collections.nCopies(count, token));
+    }
+}
@@ -1,10 +1,15 @@
 package bitcoin.script.core;
 
+import bitcoin.script.crypto.KeyedCryptoMock;
 import bitcoin.script.model.Script;
+import bitcoin.script.ops.OpDrop;
 import bitcoin.script.ops.OperationFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 /** Unit tests for {@link ScriptValidator}. */
 class ScriptValidatorTest {
@@ -170,4 +175,271 @@ class ScriptValidatorTest {
         assertFalse(new ScriptValidator(false).validate(scriptSig, scriptPubKey),
                 "2-of-3 multisig with only one valid signature should return INVALID");
     }
+
+    // ── Compiled scripts ────────────────────────────────────────────────────
+
+    // Test 12 – compiled scripts are reusable across validations
+
+    @Test
+    @DisplayName("Compiled P2PKH scriptPubKey can be reused across validate calls")
+    void testCompiledScriptReuse() {
+        ScriptValidator validator   = new ScriptValidator(false);
+        CompiledScript scriptPubKey = validator.compile(Script.parse(
+                "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG"));
+
+        assertTrue(validator.validate(validator.compile(Script.parse("SIG_OK PUBKEY_ABC")), scriptPubKey));
+        assertFalse(validator.validate(validator.compile(Script.parse("BAD_SIG PUBKEY_ABC")), scriptPubKey));
+        assertTrue(validator.validate(validator.compile(Script.parse("SIG_OK PUBKEY_ABC")), scriptPubKey),
+                "A compiled script must not carry state between validations");
+    }
+
+    // Test 13 – skipped branches with nested conditionals
+
+    @Test
+    @DisplayName("Nested IF inside a skipped branch is jumped over; ELSE chain still taken")
+    void testJumpOverNestedSkippedBranch() {
+        Script scriptSig    = Script.parse("OP_0");
+        Script scriptPubKey = Script.parse(
+                "OP_IF OP_1 OP_IF OP_DUP OP_ELSE OP_DROP OP_ENDIF OP_ELSE OP_1 OP_ENDIF");
+
+        assertTrue(new ScriptValidator(false).validate(scriptSig, scriptPubKey),
+                "Falsy outer condition must skip the nested IF and run the outer ELSE body");
+    }
+
+    // Test 14 – unbalanced conditionals are rejected before execution
+
+    @Test
+    @DisplayName("Unbalanced OP_IF/OP_ENDIF is rejected at compile time")
+    void testUnbalancedConditionalRejected() {
+        OperationFactory factory = new OperationFactory();
+
+        assertThrows(ScriptException.class,
+                () -> CompiledScript.compile(Script.parse("OP_1 OP_IF OP_1"), factory));
+        assertThrows(ScriptException.class,
+                () -> CompiledScript.compile(Script.parse("OP_1 OP_ENDIF"), factory));
+        assertFalse(new ScriptValidator(false).validate(
+                Script.parse("OP_1"), Script.parse("OP_ELSE OP_1 OP_ENDIF")));
+    }
+
+    // ── Batch validation ────────────────────────────────────────────────────
+
+    // Test 15 – batch results keep input order
+
+    @Test
+    @DisplayName("validateBatch COLLECT_ALL: every input evaluated, results in input order")
+    void testValidateBatchCollectAll() {
+        ScriptValidator validator = new ScriptValidator(false);
+        Script scriptPubKey = Script.parse(
+                "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG");
+
+        List<ScriptPair> pairs = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String sig = i % 7 == 0 ? "BAD_SIG" : "SIG_OK";
+            pairs.add(new ScriptPair(Script.parse(sig + " PUBKEY_ABC"), scriptPubKey));
+        }
+
+        BatchResult result = validator.validateBatch(pairs, BatchMode.COLLECT_ALL);
+
+        assertEquals(500, result.size());
+        for (int i = 0; i < 500; i++) {
+            assertTrue(result.isEvaluated(i));
+            assertEquals(i % 7 != 0, result.isValid(i), "input " + i);
+        }
+        assertEquals(0, result.firstInvalidIndex());
+        assertFalse(result.allValid());
+    }
+
+    // ── Multisig matching ───────────────────────────────────────────────────
+
+    // Test 16 – signatures must follow key order
+
+    @Test
+    @DisplayName("OP_CHECKMULTISIG matches signatures to keys in order, each key used once")
+    void testCheckMultiSigOrderedMatching() {
+        ScriptValidator validator = new ScriptValidator(false, new KeyedCryptoMock());
+        Script scriptPubKey = Script.parse(
+                "OP_2 PUBKEY_A PUBKEY_B PUBKEY_C OP_3 OP_CHECKMULTISIG");
+
+        assertTrue(validator.validate(Script.parse("OP_0 SIG_A SIG_C"), scriptPubKey));
+        assertTrue(validator.validate(Script.parse("OP_0 SIG_B SIG_C"), scriptPubKey));
+        assertFalse(validator.validate(Script.parse("OP_0 SIG_C SIG_A"), scriptPubKey),
+                "signatures out of key order must fail");
+        assertFalse(validator.validate(Script.parse("OP_0 SIG_A SIG_A"), scriptPubKey),
+                "one key cannot satisfy two signatures");
+    }
+
+    // Test 17 – early exit bounds the number of checks
+
+    @Test
+    @DisplayName("OP_CHECKMULTISIG 15-of-15 makes at most 15 checks and stops at a hopeless mismatch")
+    void testCheckMultiSigEarlyExit() {
+        KeyedCryptoMock crypto = new KeyedCryptoMock();
+        ScriptValidator validator = new ScriptValidator(false, crypto);
+        StringBuilder sigs = new StringBuilder("OP_0");
+        StringBuilder keys = new StringBuilder("OP_15");
+        for (int i = 1; i <= 15; i++) {
+            sigs.append(" SIG_").append(i);
+            keys.append(" PUBKEY_").append(i);
+        }
+        Script scriptPubKey = Script.parse(keys + " OP_15 OP_CHECKMULTISIG");
+
+        assertTrue(validator.validate(Script.parse(sigs.toString()), scriptPubKey));
+        assertEquals(15, crypto.getChecks());
+
+        crypto.resetChecks();
+        assertFalse(validator.validate(
+                Script.parse(sigs.toString().replace("SIG_15", "SIG_X")), scriptPubKey));
+        assertEquals(1, crypto.getChecks(), "the topmost signature fails with no key to spare");
+    }
+
+    // ── Deferred signatures ─────────────────────────────────────────────────
+
+    // Test 18 – deferred mode never changes a result
+
+    @Test
+    @DisplayName("DEFERRED signature mode agrees with IMMEDIATE, single and batched")
+    void testDeferredSignaturesMatchImmediate() {
+        OperationFactory factory = OperationFactory.builder().registerStandard(new KeyedCryptoMock()).build();
+        ScriptValidator immediate = new ScriptValidator(false, factory);
+        ScriptValidator deferred  = new ScriptValidator(false, factory, SignatureMode.DEFERRED);
+
+        String multisig = "OP_2 PUBKEY_A PUBKEY_B PUBKEY_C OP_3 OP_CHECKMULTISIG";
+        String[][] cases = {
+            {"SIG_A PUBKEY_A",    "OP_CHECKSIG"},
+            {"SIG_B PUBKEY_A",    "OP_CHECKSIG"},
+            {"SIG_B PUBKEY_A",    "OP_CHECKSIG OP_NOTIF OP_1 OP_ELSE OP_0 OP_ENDIF"},
+            {"SIG_A PUBKEY_A",    "OP_CHECKSIG OP_NOTIF OP_1 OP_ELSE OP_0 OP_ENDIF"},
+            {"OP_0 SIG_A SIG_B",  multisig},
+            {"OP_0 SIG_A SIG_C",  multisig},   // optimistic pairing guesses wrong
+            {"OP_0 SIG_C SIG_A",  multisig},
+            {"OP_1",              "OP_0"},
+        };
+
+        List<ScriptPair> pairs = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String[] c = cases[i % cases.length];
+            Script sig = Script.parse(c[0]);
+            Script pub = Script.parse(c[1]);
+            assertEquals(immediate.validate(sig, pub), deferred.validate(sig, pub), c[0] + " | " + c[1]);
+            pairs.add(new ScriptPair(sig, pub));
+        }
+
+        BatchResult expected = immediate.validateBatch(pairs, BatchMode.COLLECT_ALL);
+        BatchResult actual   = deferred.validateBatch(pairs, BatchMode.COLLECT_ALL);
+        for (int i = 0; i < pairs.size(); i++) {
+            assertEquals(expected.isValid(i), actual.isValid(i), "input " + i);
+        }
+    }
+
+    // ── Result codes ────────────────────────────────────────────────────────
+
+    // Test 19 – verify reports the failure code and the failing instruction
+
+    @Test
+    @DisplayName("verify returns the error code and position without throwing")
+    void testVerifyReportsErrorAndPosition() {
+        ScriptValidator validator = new ScriptValidator(false);
+        String p2pkh = "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG";
+
+        ValidationResult ok = validator.verify(Script.parse("SIG_OK PUBKEY_ABC"), Script.parse(p2pkh));
+        assertTrue(ok.isValid());
+        assertEquals(ScriptError.OK, ok.getError());
+
+        ValidationResult mismatch = validator.verify(Script.parse("SIG_OK PUBKEY_XYZ"), Script.parse(p2pkh));
+        assertEquals(ScriptError.EQUALVERIFY, mismatch.getError());
+        assertEquals(ValidationResult.Stage.SCRIPT_PUBKEY, mismatch.getStage());
+        assertEquals(3, mismatch.getPosition());
+
+        ValidationResult underflow = validator.verify(Script.parse("SIG_OK OP_DROP OP_DROP"), Script.parse("OP_1"));
+        assertEquals(ScriptError.INVALID_STACK_OPERATION, underflow.getError());
+        assertEquals(ValidationResult.Stage.SCRIPT_SIG, underflow.getStage());
+        assertEquals(2, underflow.getPosition());
+
+        assertEquals(ScriptError.EVAL_FALSE,
+                validator.verify(Script.parse("BAD_SIG PUBKEY_ABC"), Script.parse(p2pkh)).getError());
+        assertEquals(ScriptError.UNBALANCED_CONDITIONAL,
+                validator.verify(Script.parse(""), Script.parse("OP_IF OP_1 OP_ENDIF")).getError());
+        assertEquals(ScriptError.UNBALANCED_CONDITIONAL,
+                validator.verify(Script.parse("OP_1"), Script.parse("OP_ENDIF")).getError());
+        assertEquals(ScriptError.SIG_COUNT, validator.verify(Script.parse("OP_0 SIG_A"),
+                Script.parse("OP_2 PUBKEY_A OP_1 OP_CHECKMULTISIG")).getError());
+
+        ScriptException e = mismatch.toException();
+        assertEquals(ScriptError.EQUALVERIFY, e.getError());
+    }
+
+    // Test 20 – FAIL_FAST reports the invalid input and stops the other chunks
+
+    @Test
+    @DisplayName("validateBatch FAIL_FAST: an early invalid input is reported and later chunks stop")
+    void testValidateBatchFailFast() {
+        Script scriptPubKey = Script.parse("OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG");
+        List<ScriptPair> pairs = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String sig = i == 1 ? "BAD_SIG" : "SIG_OK";
+            pairs.add(new ScriptPair(Script.parse(sig + " PUBKEY_ABC"), scriptPubKey));
+        }
+
+        // Chunks run one after another on the calling thread, so the first one always finishes first.
+        for (SignatureMode mode : SignatureMode.values()) {
+            ScriptValidator validator = ScriptValidator.builder().signatureMode(mode).build();
+            BatchResult result = validator.validateBatch(pairs, BatchMode.FAIL_FAST, Runnable::run);
+
+            assertEquals(10_000, result.size());
+            assertTrue(result.isEvaluated(1), mode.name());
+            assertFalse(result.isValid(1), mode.name());
+            assertEquals(1, result.firstInvalidIndex(), mode.name());
+            assertFalse(result.isEvaluated(pairs.size() - 1), mode.name());
+            int evaluated = 0;
+            for (int i = 0; i < result.size(); i++) {
+                if (result.isEvaluated(i)) evaluated++;
+            }
+            assertTrue(evaluated < pairs.size() / 2, mode + ": " + evaluated + " inputs evaluated");
+        }
+    }
+
+    // ── Builder ─────────────────────────────────────────────────────────────
+
+    // Test 21 – every non-default builder option takes effect
+
+    @Test
+    @DisplayName("Builder options: custom factory, signature mode, limits and cache all take effect")
+    void testBuilderOptions() {
+        KeyedCryptoMock crypto = new KeyedCryptoMock();
+        OperationFactory factory = OperationFactory.builder()
+                .registerStandard(crypto)
+                .register("OP_DISCARD", new OpDrop())
+                .build();
+        ValidationCache cache = new ValidationCache(16);
+        ScriptValidator validator = ScriptValidator.builder()
+                .factory(factory)
+                .signatureMode(SignatureMode.DEFERRED)
+                .templateFastPaths(false)
+                .limits(ScriptLimits.builder().maxStackSize(3).build())
+                .cache(cache)
+                .build();
+
+        // The extra opcode exists only in the custom factory.
+        Script discard = Script.parse("OP_1 OP_DISCARD");
+        assertTrue(validator.validate(Script.parse("OP_1"), discard));
+        assertFalse(new ScriptValidator(false).validate(Script.parse("OP_1"), discard));
+
+        // Signatures are checked by the factory's crypto provider.
+        Script checkSig = Script.parse("OP_CHECKSIG");
+        assertTrue(validator.validate(Script.parse("SIG_A PUBKEY_A"), checkSig));
+        assertFalse(validator.validate(Script.parse("SIG_A PUBKEY_B"), checkSig));
+        assertTrue(crypto.getChecks() > 0);
+
+        // A repeated input is answered by the cache without checking signatures again.
+        crypto.resetChecks();
+        long hits = cache.getHits();
+        assertTrue(validator.validate(Script.parse("SIG_A PUBKEY_A"), checkSig));
+        assertEquals(hits + 1, cache.getHits());
+        assertEquals(0, crypto.getChecks());
+
+        // The limits are those given, not the standard ones.
+        Script four = Script.parse("OP_1 OP_1 OP_1 OP_1");
+        assertEquals(ScriptError.STACK_SIZE, validator.verify(four, Script.parse("OP_1")).getError());
+        assertTrue(new ScriptValidator(false, factory).validate(four, Script.parse("OP_1")));
+    }
 }
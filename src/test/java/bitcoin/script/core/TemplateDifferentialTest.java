@@ -0,0 +1,85 @@
+package bitcoin.script.core;
+
+import bitcoin.script.crypto.KeyedCryptoMock;
+import bitcoin.script.model.Script;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Differential tests of the template fast paths against the generic interpreter. */
+class TemplateDifferentialTest {
+
+    private static final String[] PUB_KEYS = {
+        "OP_DUP OP_HASH160 PUBKEYHASH_A OP_EQUALVERIFY OP_CHECKSIG",
+        "OP_1 PUBKEY_A OP_1 OP_CHECKMULTISIG",
+        "OP_1 PUBKEY_A PUBKEY_B PUBKEY_C OP_3 OP_CHECKMULTISIG",
+        "OP_2 PUBKEY_A PUBKEY_B PUBKEY_C OP_3 OP_CHECKMULTISIG",
+        "OP_3 PUBKEY_A PUBKEY_B PUBKEY_C OP_3 OP_CHECKMULTISIG",
+    };
+
+    private static final String[] SIG_TOKENS = {
+        "SIG_A", "SIG_B", "SIG_C", "SIG_X", "PUBKEY_A", "PUBKEY_B", "OP_0", "OP_1", "OP_2", "OP_3", "0", "1",
+    };
+
+    // Test 1 – standard shapes are recognised, near misses are not
+
+    @Test
+    @DisplayName("Compilation recognises P2PKH and bare multisig and rejects near misses")
+    void testTemplateRecognition() {
+        ScriptValidator v = new ScriptValidator(false);
+        assertEquals(TemplateType.P2PKH, v.compile(Script.parse(PUB_KEYS[0])).getTemplateType());
+        assertEquals(TemplateType.MULTISIG, v.compile(Script.parse(PUB_KEYS[3])).getTemplateType());
+
+        String[] nonStandard = {
+            "OP_DUP OP_HASH160 PUBKEYHASH_A OP_EQUAL OP_CHECKSIG",
+            "OP_DUP OP_HASH160 OP_1 OP_EQUALVERIFY OP_CHECKSIG",
+            "OP_3 PUBKEY_A PUBKEY_B OP_2 OP_CHECKMULTISIG",     // m > n
+            "OP_1 PUBKEY_A PUBKEY_B OP_3 OP_CHECKMULTISIG",     // n ≠ key count
+            "OP_0 OP_0 OP_CHECKMULTISIG",
+            "OP_1 OP_1 OP_1 OP_CHECKMULTISIG",                  // key pushed by an opcode
+        };
+        for (String text : nonStandard) {
+            assertEquals(TemplateType.NONSTANDARD, v.compile(Script.parse(text)).getTemplateType(), text);
+        }
+        assertTrue(v.compile(Script.parse("OP_0 SIG_A 1")).isPushOnly());
+        assertFalse(v.compile(Script.parse("SIG_A OP_DUP")).isPushOnly());
+    }
+
+    // Test 2 – random push-only scriptSigs agree with the interpreter
+
+    @Test
+    @DisplayName("Fast paths return the generic interpreter's result for random scriptSigs")
+    void testFastPathsMatchInterpreter() {
+        KeyedCryptoMock crypto = new KeyedCryptoMock();
+        ScriptValidator fast    = ScriptValidator.builder().crypto(crypto).build();
+        ScriptValidator generic = ScriptValidator.builder().crypto(crypto).templateFastPaths(false).build();
+
+        Random random = new Random(17);
+        int valid = 0;
+        for (int i = 0; i < 5_000; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int j = random.nextInt(6); j > 0; j--) {
+                text.append(SIG_TOKENS[random.nextInt(SIG_TOKENS.length)]).append(' ');
+            }
+            if (random.nextBoolean()) {
+                text.append("SIG_A PUBKEY_A");   // bias towards passing P2PKH spends
+            }
+            Script sig = Script.parse(text.toString().trim());
+            for (String pubKeyText : PUB_KEYS) {
+                Script pub = Script.parse(pubKeyText);
+                crypto.resetChecks();
+                boolean expected = generic.validate(sig, pub);
+                long genericChecks = crypto.getChecks();
+
+                crypto.resetChecks();
+                assertEquals(expected, fast.validate(sig, pub), sig + " | " + pubKeyText);
+                assertEquals(genericChecks, crypto.getChecks(), "signature checks for " + sig + " | " + pubKeyText);
+                if (expected) valid++;
+            }
+        }
+        assertTrue(valid > 500, "the corpus must exercise passing spends, got " + valid);
+    }
+}
@@ -0,0 +1,116 @@
+package bitcoin.script.core;
+
+import bitcoin.script.crypto.CryptoMock;
+import bitcoin.script.model.Script;
+import bitcoin.script.ops.OperationFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link ValidationCache}. */
+class ValidationCacheTest {
+
+    private static final String P2PKH = "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG";
+
+    // Test 1 – repeated inputs are answered from the cache, per rule set
+
+    @Test
+    @DisplayName("Repeated validations hit the cache; other factories and invalidated inputs miss")
+    void testHitsAndInvalidation() {
+        ValidationCache cache = new ValidationCache(16);
+        ScriptValidator validator = ScriptValidator.builder().cache(cache).build();
+        CompiledScript good = validator.compile(Script.parse("SIG_OK PUBKEY_ABC"));
+        CompiledScript bad  = validator.compile(Script.parse("BAD_SIG PUBKEY_ABC"));
+        CompiledScript pub  = validator.compile(Script.parse(P2PKH));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(validator.validate(good, pub));
+            assertFalse(validator.validate(bad, pub));
+        }
+        assertEquals(2, cache.getMisses());
+        assertEquals(4, cache.getHits());
+        assertEquals(2, cache.size());
+
+        // Same text, freshly compiled: still a hit.
+        assertTrue(validator.validate(Script.parse("SIG_OK PUBKEY_ABC"), Script.parse(P2PKH)));
+        assertEquals(5, cache.getHits());
+
+        // A validator with a different opcode set must not see these entries.
+        ScriptValidator other = ScriptValidator.builder().crypto(new CryptoMock()).cache(cache).build();
+        assertTrue(other.validate(good, pub));
+        assertEquals(3, cache.getMisses());
+
+        long flags = OperationFactory.standard().serial();
+        assertTrue(cache.invalidate(good, pub, flags));
+        assertFalse(cache.invalidate(good, pub, flags));
+        assertNull(cache.get(good, pub, flags));
+        assertEquals(Boolean.FALSE, cache.get(bad, pub, flags));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    // Test 2 – bounded size, batch path fills the cache
+
+    @Test
+    @DisplayName("The cache never exceeds its capacity and is filled by deferred batch validation")
+    void testBoundedAndBatchFill() {
+        ValidationCache cache = new ValidationCache(32);
+        ScriptValidator validator = ScriptValidator.builder()
+                .signatureMode(SignatureMode.DEFERRED).cache(cache).build();
+
+        List<ScriptPair> pairs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            pairs.add(new ScriptPair(Script.parse((i % 3 == 0 ? "BAD_SIG" : "SIG_OK") + " PUBKEY_" + i),
+                                     Script.parse("OP_DUP OP_HASH160 PUBKEYHASH_" + i + " OP_EQUALVERIFY OP_CHECKSIG")));
+        }
+        BatchResult first = validator.validateBatch(pairs, BatchMode.COLLECT_ALL);
+        assertEquals(32, cache.size());
+
+        BatchResult second = validator.validateBatch(pairs, BatchMode.COLLECT_ALL);
+        for (int i = 0; i < pairs.size(); i++) {
+            assertEquals(i % 3 != 0, first.isValid(i), "input " + i);
+            assertEquals(first.isValid(i), second.isValid(i), "input " + i);
+        }
+        assertTrue(cache.getHits() >= 1, "a second pass must reuse some results");
+        assertTrue(cache.getHitRate() > 0 && cache.getHitRate() < 1);
+    }
+
+    // Test 3 – clear() also resets the eviction slots
+
+    @Test
+    @DisplayName("After clear() the cache refills to capacity without evicting re-inserted entries")
+    void testClearResetsEviction() {
+        ValidationCache cache = new ValidationCache(8);
+        ScriptValidator validator = ScriptValidator.builder().cache(cache).build();
+        CompiledScript pub = validator.compile(Script.parse(P2PKH));
+        List<CompiledScript> sigs = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            sigs.add(validator.compile(Script.parse("SIG_OK PUBKEY_" + i)));
+        }
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 8; i++) {
+                cache.put(sigs.get(i), pub, 1, true);
+            }
+            assertEquals(8, cache.size());
+            cache.clear();
+            assertEquals(0, cache.size());
+
+            // Old keys left in their slots would be evicted again, or new keys
+            // would land on random slots and push each other out.
+            for (int i = 0; i < 8; i++) {
+                cache.put(sigs.get(i + 8 * (round & 1)), pub, 1, true);
+            }
+            assertEquals(8, cache.size(), "round " + round);
+            for (int i = 0; i < 8; i++) {
+                assertEquals(Boolean.TRUE, cache.get(sigs.get(i + 8 * (round & 1)), pub, 1));
+            }
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package bitcoin.script.crypto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import bitcoin.script.core.ScriptValidator;
+import bitcoin.script.model.Script;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link Hash160Crypto}, {@link Ripemd160} and {@link MemoizingCryptoProvider}. */
+class Hash160CryptoTest {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    // Test 1 – RIPEMD-160 reference vectors
+
+    @Test
+    @DisplayName("RIPEMD-160 matches the published test vectors")
+    void testRipemd160Vectors() {
+        assertEquals("9c1185a5c5e9fc54612808977ee8f548b2258d31", ripemd(""));
+        assertEquals("8eb208f7e05d987a9b044a8e98c6b087f15a0bfc", ripemd("abc"));
+        assertEquals("5d0689ef49d2fae572b881b123a85ffa21595f36", ripemd("message digest"));
+        assertEquals("12a053384a9c0c88e405a06c27dcf49ada62eb2b",
+                ripemd("abcdbcdecdefdefgefghfghighijhijkijkljklmklmnlmnomnopnopq"));
+        assertEquals("b0e20b6e3116640286ed3a87a5713079b21f5189",
+                ripemd("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789"));
+    }
+
+    // Test 2 – HASH160 of the secp256k1 generator point
+
+    @Test
+    @DisplayName("HASH160 of a compressed public key matches its Bitcoin address hash")
+    void testHash160() {
+        byte[] pubKey = HEX.parseHex("0279be667ef9dcbbac55a06295ce870b07029bfcdb2dce28d959f2815b16f81798");
+        assertEquals("751e76e8199196d454941c45d1b3a323f1433bd6",
+                HEX.formatHex(new Hash160Crypto().hash160(pubKey)));
+    }
+
+    // Test 3 – P2PKH with real hashes
+
+    @Test
+    @DisplayName("P2PKH validates with a real key hash and fails with a wrong one")
+    void testP2pkhWithRealHash() {
+        ScriptValidator validator = new ScriptValidator(false, new Hash160Crypto());
+        String pubKey = "0x0279be667ef9dcbbac55a06295ce870b07029bfcdb2dce28d959f2815b16f81798";
+        Script scriptSig = Script.parse("SIG_OK " + pubKey);
+
+        assertTrue(validator.validate(scriptSig, Script.parse(
+                "OP_DUP OP_HASH160 0x751e76e8199196d454941c45d1b3a323f1433bd6 OP_EQUALVERIFY OP_CHECKSIG")));
+        assertFalse(validator.validate(scriptSig, Script.parse(
+                "OP_DUP OP_HASH160 0x0000000000000000000000000000000000000000 OP_EQUALVERIFY OP_CHECKSIG")));
+    }
+
+    // Test 4 – memoized hashes
+
+    @Test
+    @DisplayName("Memoizing provider hashes a repeated input once and stays bounded")
+    void testMemoization() {
+        MemoizingCryptoProvider crypto = new MemoizingCryptoProvider(new Hash160Crypto(), 8);
+        byte[] first  = crypto.hash160("PUBKEY_A".getBytes(StandardCharsets.UTF_8));
+        byte[] second = crypto.hash160("PUBKEY_A".getBytes(StandardCharsets.UTF_8));
+
+        assertArrayEquals(first, second);
+        assertEquals(1, crypto.getMisses());
+        assertEquals(1, crypto.getHits());
+
+        for (int i = 0; i < 100; i++) {
+            crypto.hash160(new byte[] {(byte) i});
+        }
+        assertTrue(crypto.size() <= 8, "size " + crypto.size());
+    }
+
+    private static String ripemd(String input) {
+        byte[] data = input.getBytes(StandardCharsets.US_ASCII);
+        return HEX.formatHex(new Ripemd160().digest(data, 0, data.length));
+    }
+}
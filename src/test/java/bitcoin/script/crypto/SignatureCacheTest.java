@@ -0,0 +1,68 @@
+package bitcoin.script.crypto;
+
+import java.nio.charset.StandardCharsets;
+
+import bitcoin.script.core.ScriptValidator;
+import bitcoin.script.model.Script;
+import bitcoin.script.ops.OperationFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+/** Unit tests for {@link SignatureCache} and {@link CachingCryptoProvider}. */
+class SignatureCacheTest {
+
+    // Test 1 – repeated validation hits the cache
+
+    @Test
+    @DisplayName("Second validation of the same P2PKH input is served from the cache")
+    void testRepeatedCheckHitsCache() {
+        SignatureCache cache = new SignatureCache(1_000, SignatureCache.EvictionPolicy.RANDOM);
+        OperationFactory factory = OperationFactory.builder()
+                .registerStandard(new CachingCryptoProvider(new CryptoMock(), cache))
+                .build();
+        ScriptValidator validator = new ScriptValidator(false, factory);
+        Script scriptSig    = Script.parse("SIG_OK PUBKEY_ABC");
+        Script scriptPubKey = Script.parse(
+                "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG");
+
+        assertTrue(validator.validate(scriptSig, scriptPubKey));
+        assertTrue(validator.validate(scriptSig, scriptPubKey));
+
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    // Test 2 – invalid signatures are never cached
+
+    @Test
+    @DisplayName("Failed checks are not cached and keep failing")
+    void testInvalidSignatureNotCached() {
+        SignatureCache cache = new SignatureCache(10, SignatureCache.EvictionPolicy.LRU);
+        CryptoProvider crypto = new CachingCryptoProvider(new CryptoMock(), cache);
+
+        assertFalse(crypto.checkSig(bytes("BAD_SIG"), bytes("PUBKEY_ABC")));
+        assertFalse(crypto.checkSig(bytes("BAD_SIG"), bytes("PUBKEY_ABC")));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+    }
+
+    // Test 3 – both policies stay within capacity
+
+    @Test
+    @DisplayName("RANDOM and LRU caches never exceed their capacity")
+    void testCapacityBound() {
+        for (SignatureCache.EvictionPolicy policy : SignatureCache.EvictionPolicy.values()) {
+            SignatureCache cache = new SignatureCache(64, policy);
+            for (int i = 0; i < 1_000; i++) {
+                cache.add(bytes("SIG_OK"), bytes("PUBKEY_" + i));
+            }
+            assertTrue(cache.size() <= 64, policy + " size " + cache.size());
+            assertTrue(cache.contains(bytes("SIG_OK"), bytes("PUBKEY_999")), policy + " must keep the newest entry");
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,132 @@
+package bitcoin.script.model;
+
+import bitcoin.script.core.ScriptError;
+import bitcoin.script.core.ScriptException;
+import bitcoin.script.core.ScriptValidator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link BinaryScriptCodec}. */
+class BinaryScriptCodecTest {
+
+    // Test 1 – text → binary → text round trip
+
+    @Test
+    @DisplayName("Encode/decode round trip keeps opcodes, text pushes and hex pushes")
+    void testRoundTrip() {
+        Script script = Script.parse(
+                "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG 0x00ff 0x");
+
+        Script decoded = BinaryScriptCodec.decode(BinaryScriptCodec.encode(script));
+
+        assertEquals(tokens(script), tokens(decoded));
+    }
+
+    // Test 2 – PUSHDATA encodings
+
+    @Test
+    @DisplayName("Pushes use the shortest encoding: direct, PUSHDATA1, PUSHDATA2")
+    void testPushDataEncodings() {
+        byte[] bytes = new byte[300];
+        for (int len : new int[] {1, 75, 76, 255, 256, 300}) {
+            Script script = new Script(List.of(new DataElement(bytes, 0, len)));
+            byte[] encoded = BinaryScriptCodec.encode(script);
+
+            int prefix = len <= 75 ? 1 : len <= 255 ? 2 : 3;
+            assertEquals(len + prefix, encoded.length, "push of " + len + " bytes");
+            DataElement decoded = (DataElement) BinaryScriptCodec.decode(encoded).getElements().get(0);
+            assertEquals(len, decoded.length());
+        }
+    }
+
+    // Test 3 – a decoded P2PKH validates like the parsed one
+
+    @Test
+    @DisplayName("Decoded P2PKH scripts validate without a text round trip")
+    void testDecodedP2PKHValidates() {
+        byte[] sig    = BinaryScriptCodec.encode(Script.parse("SIG_OK PUBKEY_ABC"));
+        byte[] pubKey = BinaryScriptCodec.encode(Script.parse(
+                "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG"));
+
+        assertTrue(new ScriptValidator(false).validate(
+                BinaryScriptCodec.decode(ByteBuffer.wrap(sig)),
+                BinaryScriptCodec.decode(ByteBuffer.allocateDirect(pubKey.length).put(pubKey).flip())));
+    }
+
+    // Test 4 – truncated push
+
+    @Test
+    @DisplayName("A push running past the end of the script is rejected: decode throws, tryDecode returns null")
+    void testTruncatedPush() {
+        byte[][] malformed = {
+            {0x05, 0x01, 0x02},                                       // direct push cut short
+            {Opcodes.OP_PUSHDATA2, 0x01},                             // length prefix cut short
+            {Opcodes.OP_PUSHDATA4, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF},   // beyond int range
+        };
+        for (byte[] script : malformed) {
+            ScriptException e = assertThrows(ScriptException.class, () -> BinaryScriptCodec.decode(script));
+            assertEquals(ScriptError.BAD_OPCODE, e.getError());
+            assertTrue(e.getMessage().startsWith("Malformed script"), e.getMessage());
+            assertNull(BinaryScriptCodec.tryDecode(script, 0, script.length));
+            ByteBuffer direct = ByteBuffer.allocateDirect(script.length).put(script).flip();
+            assertNull(BinaryScriptCodec.tryDecode(direct));
+            assertFalse(direct.hasRemaining());
+            direct.rewind();
+            assertEquals(ScriptError.BAD_OPCODE,
+                         assertThrows(ScriptException.class, () -> BinaryScriptCodec.decode(direct)).getError());
+        }
+        assertEquals("1", tokens(BinaryScriptCodec.tryDecode(new byte[] {0x01, '1'}, 0, 2)));
+    }
+
+    // Test 5 – 0x hex literals in text scripts (behaviour change)
+
+    @Test
+    @DisplayName("Text 0x literals push decoded bytes: '0x41 A OP_EQUAL' is now valid; malformed ones stay text")
+    void testHexLiteralsInText() {
+        ScriptValidator validator = new ScriptValidator(false);
+        assertTrue(validator.validate(Script.parse("0x41"), Script.parse("A OP_EQUAL")));
+
+        // Odd digit counts and non-hex digits are not literals and push their text.
+        assertArrayEquals("0x4".getBytes(StandardCharsets.US_ASCII), new DataElement("0x4").toByteArray());
+        assertArrayEquals("0xZZ".getBytes(StandardCharsets.US_ASCII), new DataElement("0xZZ").toByteArray());
+        assertFalse(validator.validate(Script.parse("0x4A"), Script.parse("0x4A0 OP_EQUAL")));
+        assertEquals(0, new DataElement("0x").length());
+    }
+
+    // Test 6 – direct buffers decode in place like heap arrays
+
+    @Test
+    @DisplayName("A slice of a direct buffer decodes like the same bytes in an array, PUSHDATA included")
+    void testDirectBufferDecode() {
+        byte[] big = new byte[300];
+        big[0] = 'x';
+        Script script = new Script(List.of(
+                OpElement.of("OP_DUP"), new DataElement("0x00ff"), new DataElement(big, 0, 80),
+                new DataElement(big, 0, 300), OpElement.of("OP_CHECKSIG")));
+        byte[] encoded = BinaryScriptCodec.encode(script);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(encoded.length + 8);
+        direct.position(5).put(encoded);
+        ByteBuffer slice = direct.slice(5, encoded.length);
+        Script decoded = BinaryScriptCodec.decode(slice);
+
+        assertFalse(slice.hasRemaining());
+        assertEquals(tokens(BinaryScriptCodec.decode(encoded)), tokens(decoded));
+        assertArrayEquals(new DataElement(big, 0, 300).toByteArray(),
+                          ((DataElement) decoded.getElements().get(3)).toByteArray());
+    }
+
+    private static String tokens(Script script) {
+        StringBuilder text = new StringBuilder();
+        for (ScriptElement element : script.getElements()) {
+            text.append(element.getToken()).append(' ');
+        }
+        return text.toString().trim();
+    }
+}
@@ -0,0 +1,101 @@
+package bitcoin.script.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Differential tests for {@link ScriptTokenizer}: every input type parses like {@link Script#parse(String)}. */
+class ScriptTokenizerTest {
+
+    private static final String[] INPUTS = {
+        "",
+        "   ",
+        " \t\n\u000B\f\r ",
+        "OP_DUP OP_HASH160 PUBKEYHASH_ABC OP_EQUALVERIFY OP_CHECKSIG",
+        "\tOP_DUP\r\nOP_HASH160  PUBKEYHASH_ABC\fOP_EQUALVERIFY\u000BOP_CHECKSIG \n",
+        "OP_FOO OP_ OP OP_dup OP_CHECKSIGX OP_1 OP_16 OP_TRUE",
+        "0x00ff SIG_OK x " + "y".repeat(100),
+        "OP_1 " + "OP_DUP OP_DROP ".repeat(400) + "OP_1",   // longer than one read chunk
+    };
+
+    // Test 1 – all input types give the same tokens as Script.parse(String)
+
+    @Test
+    @DisplayName("CharSequence, byte[], heap and direct ByteBuffer and Reader input parse like Script.parse")
+    void testDifferential() throws IOException {
+        for (String input : INPUTS) {
+            Script expected = Script.parse(input);
+            assertEquals(reference(input), describe(expected), input);
+
+            byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+            byte[] padded = new byte[bytes.length + 6];
+            System.arraycopy(bytes, 0, padded, 3, bytes.length);
+            ByteBuffer heap = ByteBuffer.wrap(padded, 3, bytes.length).slice();
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+
+            List<Script> actual = List.of(
+                    ScriptTokenizer.parse(new StringBuilder(input)),
+                    ScriptTokenizer.parse(bytes),
+                    ScriptTokenizer.parse(padded, 3, bytes.length),
+                    ScriptTokenizer.parse(heap),
+                    ScriptTokenizer.parse(direct),
+                    ScriptTokenizer.parse(new StringReader(input)));
+            for (Script script : actual) {
+                assertEquals(describe(expected), describe(script), input);
+            }
+            assertFalse(heap.hasRemaining());
+            assertFalse(direct.hasRemaining());
+        }
+        assertTrue(Script.parse(null).getElements().isEmpty());
+    }
+
+    // Test 2 – Bitcoin opcodes are shared, anything else gets its own element
+
+    @Test
+    @DisplayName("Known opcodes resolve to shared elements on every input type; unknown ones do not")
+    void testInterning() throws IOException {
+        String input = "OP_DUP OP_FOO OP_TRUE OP_NOP10";
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        List<Script> scripts = List.of(
+                Script.parse(input),
+                ScriptTokenizer.parse(bytes),
+                ScriptTokenizer.parse(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip()),
+                ScriptTokenizer.parse(new StringReader(input)));
+        for (Script script : scripts) {
+            List<ScriptElement> elements = script.getElements();
+            assertSame(OpElement.of("OP_DUP"), elements.get(0));
+            assertNotSame(OpElement.of("OP_FOO"), elements.get(1));
+            assertEquals("OP_FOO", elements.get(1).getToken());
+            assertSame(OpElement.of("OP_TRUE"), elements.get(2));
+            assertSame(OpElement.of("OP_NOP10"), elements.get(3));
+        }
+    }
+
+    // The pre-tokenizer implementation of Script.parse.
+    private static List<String> reference(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text.isBlank()) {
+            return tokens;
+        }
+        for (String token : text.trim().split("\\s+")) {
+            tokens.add((token.startsWith("OP_") ? "op:" : "data:") + token);
+        }
+        return tokens;
+    }
+
+    private static List<String> describe(Script script) {
+        List<String> tokens = new ArrayList<>();
+        for (ScriptElement element : script.getElements()) {
+            tokens.add((element instanceof OpElement ? "op:" : "data:") + element.getToken());
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,82 @@
+package bitcoin.script.ops;
+
+import bitcoin.script.core.ByteStack;
+import bitcoin.script.core.ScriptError;
+import bitcoin.script.core.ScriptValidator;
+import bitcoin.script.model.Script;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the arithmetic opcodes and tagged stack numbers. */
+class ArithmeticOpsTest {
+
+    // Test 1 – arithmetic results, in both tagged and data operands
+
+    @Test
+    @DisplayName("Arithmetic opcodes compute Bitcoin's results and reject non-numbers")
+    void testArithmetic() {
+        ScriptValidator validator = new ScriptValidator(false);
+        String[] valid = {
+            "OP_2 OP_3 OP_ADD 5 OP_EQUAL",
+            "OP_5 OP_7 OP_SUB -2 OP_EQUAL",
+            "-3 OP_ABS OP_3 OP_NUMEQUAL",
+            "OP_0 " + "OP_1ADD ".repeat(50) + "50 OP_NUMEQUALVERIFY OP_1",
+            "OP_16 OP_1SUB OP_NEGATE -15 OP_EQUAL",
+            "OP_0 OP_NOT OP_5 OP_0NOTEQUAL OP_BOOLAND",
+            "OP_0 OP_3 OP_BOOLOR",
+            "OP_4 OP_9 OP_MIN OP_4 OP_9 OP_MAX OP_LESSTHAN",
+            "OP_9 OP_4 OP_GREATERTHAN OP_4 OP_4 OP_GREATERTHANOREQUAL OP_BOOLAND",
+            "OP_4 OP_4 OP_LESSTHANOREQUAL OP_3 OP_4 OP_NUMNOTEQUAL OP_BOOLAND",
+            "500000 400000 600000 OP_WITHIN",
+            "007 OP_7 OP_NUMEQUAL",
+            "2147483647 OP_1ADD 2147483648 OP_EQUAL",
+        };
+        for (String script : valid) {
+            assertTrue(validator.verify(Script.parse(""), Script.parse(script)).isValid(), script);
+        }
+
+        assertFalse(validator.validate(Script.parse(""), Script.parse("OP_6 OP_1 OP_6 OP_WITHIN")));
+        assertEquals(ScriptError.NUMEQUALVERIFY,
+                validator.verify(Script.parse(""), Script.parse("OP_1 OP_2 OP_NUMEQUALVERIFY OP_1")).getError());
+        assertEquals(ScriptError.INVALID_NUMBER,
+                validator.verify(Script.parse("SIG_OK"), Script.parse("OP_1ADD")).getError());
+        assertEquals(ScriptError.INVALID_NUMBER,   // results may exceed four bytes, operands may not
+                validator.verify(Script.parse(""), Script.parse("2147483647 OP_1ADD OP_1ADD")).getError());
+        assertEquals(ScriptError.INVALID_STACK_OPERATION,
+                validator.verify(Script.parse("OP_1"), Script.parse("OP_ADD")).getError());
+    }
+
+    // Test 2 – a tagged number reads exactly like its decimal digits
+
+    @Test
+    @DisplayName("Tagged numbers behave as their decimal bytes for every reader")
+    void testTaggedNumbersMatchBytes() {
+        ByteStack stack = new ByteStack();
+        stack.pushNumber(-42);
+        stack.push("-42".getBytes(StandardCharsets.UTF_8));
+        assertTrue(stack.topEquals());
+        assertEquals("-42", stack.stringAt(0));
+        assertEquals("-42", stack.tokenAt(0));
+        assertArrayEquals(stack.bytesAt(1), stack.bytesAt(0));
+        assertEquals(-42, stack.numberAt(0));
+        assertEquals(-42, stack.numberAt(1));
+        assertEquals(-1, stack.decimalAt(0));
+
+        stack.dup();
+        assertEquals(3, stack.size());
+        assertArrayEquals("-42".getBytes(StandardCharsets.UTF_8), stack.pop());
+        stack.pushNumber(0);
+        assertFalse(stack.isTopTruthy());
+        stack.pushNumber(16);
+        assertEquals(16, stack.decimalAt(stack.size() - 1));
+        assertEquals("16", stack.popString());
+        stack.drop(2);
+        stack.pushNumber(Long.MIN_VALUE);
+        assertEquals(Long.toString(Long.MIN_VALUE), stack.stringAt(stack.size() - 1));
+        assertEquals(ByteStack.NOT_A_NUMBER, stack.numberAt(stack.size() - 1));
+    }
+}